@@ -24,6 +24,7 @@ import net.momirealms.customcrops.api.core.RegistryAccess;
 import net.momirealms.customcrops.api.core.world.WorldManager;
 import net.momirealms.customcrops.api.data.HarvestDataManager;
 import net.momirealms.customcrops.api.integration.IntegrationManager;
+import net.momirealms.customcrops.api.misc.DelayedTaskWheel;
 import net.momirealms.customcrops.api.misc.cooldown.CoolDownManager;
 import net.momirealms.customcrops.api.misc.placeholder.PlaceholderManager;
 import net.momirealms.customcrops.api.requirement.RequirementManager;
@@ -31,6 +32,7 @@ import net.momirealms.customcrops.common.dependency.DependencyManager;
 import net.momirealms.customcrops.common.locale.TranslationManager;
 import net.momirealms.customcrops.common.plugin.CustomCropsPlugin;
 import net.momirealms.customcrops.common.plugin.scheduler.AbstractJavaScheduler;
+import net.momirealms.customcrops.common.plugin.scheduler.IOExecutor;
 import net.momirealms.customcrops.common.plugin.scheduler.SchedulerAdapter;
 import net.momirealms.customcrops.common.sender.SenderFactory;
 import org.bukkit.Location;
@@ -63,6 +65,8 @@ public abstract class BukkitCustomCropsPlugin implements CustomCropsPlugin {
     protected SenderFactory<BukkitCustomCropsPlugin, CommandSender> senderFactory;
     protected CustomCropsAPI api;
     protected HarvestDataManager harvestDataManager;
+    protected IOExecutor ioExecutor;
+    protected DelayedTaskWheel taskWheel;
 
     protected final Map<Class<?>, ActionManager<?>> actionManagers = new HashMap<>();
     protected final Map<Class<?>, RequirementManager<?>> requirementManagers = new HashMap<>();
@@ -223,6 +227,24 @@ public abstract class BukkitCustomCropsPlugin implements CustomCropsPlugin {
         return harvestDataManager;
     }
 
+    /**
+     * Retrieves the executor for blocking disk and database work.
+     *
+     * @return the {@link IOExecutor}
+     */
+    public IOExecutor getIOExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Retrieves the timing wheel for tasks delayed by ticks.
+     *
+     * @return the {@link DelayedTaskWheel}
+     */
+    public DelayedTaskWheel getTaskWheel() {
+        return taskWheel;
+    }
+
     /**
      * Retrieves an ActionManager for a specific type.
      *
@@ -20,6 +20,7 @@ package net.momirealms.customcrops.api.action;
 import dev.dejvokep.boostedyaml.block.implementation.Section;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.action.builtin.*;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.api.misc.value.MathValue;
 import net.momirealms.customcrops.common.util.ClassUtils;
 import org.jetbrains.annotations.NotNull;
@@ -30,6 +31,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +39,7 @@ public abstract class AbstractActionManager<T> implements ActionManager<T> {
 
     protected final BukkitCustomCropsPlugin plugin;
     private final HashMap<String, ActionFactory<T>> actionFactoryMap = new HashMap<>();
+    private final HashSet<String> mainThreadTypes = new HashSet<>();
     private static final String EXPANSION_FOLDER = "expansions/action";
 
     public AbstractActionManager(BukkitCustomCropsPlugin plugin) {
@@ -76,9 +79,15 @@ public abstract class AbstractActionManager<T> implements ActionManager<T> {
 
     @Override
     public boolean unregisterAction(String type) {
+        this.mainThreadTypes.remove(type);
         return this.actionFactoryMap.remove(type) != null;
     }
 
+    @Override
+    public boolean supportsParallelParsing() {
+        return mainThreadTypes.isEmpty();
+    }
+
     @Override
     public boolean hasAction(@NotNull String type) {
         return actionFactoryMap.containsKey(type);
@@ -93,12 +102,15 @@ public abstract class AbstractActionManager<T> implements ActionManager<T> {
     @Override
     public Action<T> parseAction(Section section) {
         if (section == null) return Action.empty();
-        ActionFactory<T> factory = getActionFactory(section.getString("type"));
+        String type = section.getString("type");
+        ActionFactory<T> factory = getActionFactory(type);
         if (factory == null) {
-            plugin.getPluginLogger().warn("Action type: " + section.getString("type") + " doesn't exist.");
+            plugin.getPluginLogger().warn("Action type: " + type + " doesn't exist.");
             return Action.empty();
         }
-        return factory.process(section.get("value"), section.contains("chance") ? MathValue.auto(section.get("chance")) : MathValue.plain(1d));
+        Action<T> action = factory.process(section.get("value"), section.contains("chance") ? MathValue.auto(section.get("chance")) : MathValue.plain(1d));
+        TickProfiler.label(action, type);
+        return action;
     }
 
     @NotNull
@@ -124,7 +136,9 @@ public abstract class AbstractActionManager<T> implements ActionManager<T> {
             plugin.getPluginLogger().warn("Action type: " + type + " doesn't exist.");
             return Action.empty();
         }
-        return factory.process(args, MathValue.plain(1));
+        Action<T> action = factory.process(args, MathValue.plain(1));
+        TickProfiler.label(action, type);
+        return action;
     }
 
     @SuppressWarnings({"ResultOfMethodCallIgnored", "unchecked"})
@@ -151,6 +165,9 @@ public abstract class AbstractActionManager<T> implements ActionManager<T> {
                 ActionExpansion<T> expansion = expansionClass.getDeclaredConstructor().newInstance();
                 unregisterAction(expansion.getActionType());
                 registerAction(expansion.getActionFactory(), expansion.getActionType());
+                if (!expansion.isThreadSafe()) {
+                    mainThreadTypes.add(expansion.getActionType());
+                }
                 plugin.getPluginLogger().info("Loaded action expansion: " + expansion.getActionType() + "[" + expansion.getVersion() + "]" + " by " + expansion.getAuthor() );
             }
         } catch (InvocationTargetException | InstantiationException | IllegalAccessException | NoSuchMethodException e) {
@@ -52,4 +52,14 @@ public abstract class ActionExpansion<T> {
      * @return an ActionFactory of type T that creates instances of the action
      */
     public abstract ActionFactory<T> getActionFactory();
+
+    /**
+     * Checks if the action factory may be called off the main thread, which lets configs be parsed in parallel.
+     * Expansions that use the Bukkit API while creating actions should keep the default.
+     *
+     * @return true if the action factory is thread-safe
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -19,6 +19,7 @@ package net.momirealms.customcrops.api.action;
 
 import dev.dejvokep.boostedyaml.block.implementation.Section;
 import net.momirealms.customcrops.api.context.Context;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.common.plugin.feature.Reloadable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -59,6 +60,16 @@ public interface ActionManager<T> extends Reloadable {
      */
     boolean hasAction(@NotNull String type);
 
+    /**
+     * Checks if all registered action factories may be called off the main thread.
+     * Configs are only parsed in parallel if this is true.
+     *
+     * @return True if actions can be parsed in parallel, otherwise false.
+     */
+    default boolean supportsParallelParsing() {
+        return true;
+    }
+
     /**
      * Retrieves the action factory for the specified action type.
      *
@@ -120,7 +131,7 @@ public interface ActionManager<T> extends Reloadable {
     static <T> void trigger(@NotNull Context<T> context, @Nullable List<Action<T>> actions) {
         if (actions != null)
             for (Action<T> action : actions)
-                action.trigger(context);
+                TickProfiler.trigger(action, context);
     }
 
     /**
@@ -133,6 +144,6 @@ public interface ActionManager<T> extends Reloadable {
     static <T> void trigger(@NotNull Context<T> context, @Nullable Action<T>[] actions) {
         if (actions != null)
             for (Action<T> action : actions)
-                action.trigger(context);
+                TickProfiler.trigger(action, context);
     }
 }
@@ -19,12 +19,13 @@ package net.momirealms.customcrops.api.action.builtin;
 
 import dev.dejvokep.boostedyaml.block.implementation.Section;
 import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
 import net.momirealms.customcrops.api.misc.value.MathValue;
 import net.momirealms.customcrops.api.util.LocationUtils;
-import net.momirealms.customcrops.common.helper.AdventureHelper;
+import net.momirealms.customcrops.common.helper.MiniMessageTemplate;
 import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
@@ -34,6 +35,7 @@ import static java.util.Objects.requireNonNull;
 public class ActionActionbarNearby<T> extends AbstractBuiltInAction<T> {
 
     private final String actionbar;
+    private final MiniMessageTemplate template;
     private final MathValue<T> range;
 
     public ActionActionbarNearby(
@@ -43,24 +45,23 @@ public class ActionActionbarNearby<T> extends AbstractBuiltInAction<T> {
     ) {
         super(plugin, chance);
         this.actionbar = section.getString("actionbar");
+        this.template = MiniMessageTemplate.compile(actionbar);
         this.range = MathValue.auto(section.get("range"));
     }
 
     @Override
     protected void triggerAction(Context<T> context) {
         if (context.argOrDefault(ContextKeys.OFFLINE, false)) return;
-        OfflinePlayer owner = null;
-        if (context.holder() instanceof Player player) {
-            owner = player;
-        }
+        OfflinePlayer owner = context.holder() instanceof Player player ? player : null;
         Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
         double realRange = range.evaluate(context);
         for (Player player : location.getWorld().getPlayers()) {
             if (LocationUtils.getDistance(player.getLocation(), location) <= realRange) {
                 context.arg(ContextKeys.TEMP_NEAR_PLAYER, player.getName());
-                String replaced = plugin.getPlaceholderManager().parse(owner, actionbar, context.placeholderMap());
+                // the template is parsed once, each player only fills in the values
+                Component component = template.render(placeholder -> plugin.getPlaceholderManager().parseSingle(owner, placeholder, context.placeholderMap()));
                 Audience audience = plugin.getSenderFactory().getAudience(player);
-                audience.sendActionBar(AdventureHelper.miniMessage(replaced));
+                audience.sendActionBar(component);
             }
         }
     }
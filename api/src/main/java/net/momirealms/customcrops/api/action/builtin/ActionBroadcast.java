@@ -18,6 +18,7 @@
 package net.momirealms.customcrops.api.action.builtin;
 
 import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
@@ -51,10 +52,12 @@ public class ActionBroadcast<T> extends AbstractBuiltInAction<T> {
             offlinePlayer = player;
         }
         List<String> replaced = plugin.getPlaceholderManager().parse(offlinePlayer, messages, context.placeholderMap());
+        // the text is the same for every player, so it's parsed only once
+        List<Component> components = replaced.stream().map(AdventureHelper::miniMessage).toList();
         for (Player player : Bukkit.getOnlinePlayers()) {
             Audience audience = plugin.getSenderFactory().getAudience(player);
-            for (String text : replaced) {
-                audience.sendMessage(AdventureHelper.miniMessage(text));
+            for (Component component : components) {
+                audience.sendMessage(component);
             }
         }
     }
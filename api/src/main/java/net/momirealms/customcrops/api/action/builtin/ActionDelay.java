@@ -29,7 +29,6 @@ import org.bukkit.Location;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 public class ActionDelay<T> extends AbstractBuiltInAction<T> {
 
@@ -62,16 +61,14 @@ public class ActionDelay<T> extends AbstractBuiltInAction<T> {
     @Override
     protected void triggerAction(Context<T> context) {
         Location location = context.arg(ContextKeys.LOCATION);
+        Runnable task = () -> {
+            for (Action<T> action : actions)
+                action.trigger(context);
+        };
         if (async) {
-            plugin.getScheduler().asyncLater(() -> {
-                for (Action<T> action : actions)
-                    action.trigger(context);
-            }, delay * 50L, TimeUnit.MILLISECONDS);
+            plugin.getTaskWheel().scheduleAsync(task, delay);
         } else {
-            plugin.getScheduler().sync().runLater(() -> {
-                for (Action<T> action : actions)
-                    action.trigger(context);
-            }, delay, location);
+            plugin.getTaskWheel().schedule(task, delay, location);
         }
     }
 
@@ -21,13 +21,7 @@ import dev.dejvokep.boostedyaml.block.implementation.Section;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
-import net.momirealms.customcrops.api.core.block.PotBlock;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.Fertilizer;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerConfig;
-import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
-import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
 import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
-import net.momirealms.customcrops.api.core.world.Pos3;
 import net.momirealms.customcrops.api.event.DropItemActionEvent;
 import net.momirealms.customcrops.api.misc.value.MathValue;
 import net.momirealms.customcrops.api.util.EventUtils;
@@ -41,7 +35,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
@@ -108,27 +101,7 @@ public class ActionDropItem<T> extends AbstractBuiltInAction<T> {
         ItemStack itemStack = plugin.getItemManager().build(player, item);
         if (itemStack != null) {
             if (!ignoreFertilizer) {
-                Pos3 pos3 = Pos3.from(location);
-                Fertilizer[] fertilizers = null;
-                Pos3 potLocation = pos3.add(0, -1, 0);
-                Optional<CustomCropsChunk> chunk = world.get().getChunk(potLocation.toChunkPos());
-                if (chunk.isPresent()) {
-                    Optional<CustomCropsBlockState> state = chunk.get().getBlockState(potLocation);
-                    if (state.isPresent()) {
-                        if (state.get().type() instanceof PotBlock potBlock) {
-                            fertilizers = potBlock.fertilizers(state.get());
-                        }
-                    }
-                }
-                ArrayList<FertilizerConfig> configs = new ArrayList<>();
-                if (fertilizers != null) {
-                    for (Fertilizer fertilizer : fertilizers) {
-                        Optional.ofNullable(fertilizer.config()).ifPresent(configs::add);
-                    }
-                }
-                for (FertilizerConfig config : configs) {
-                    amount = config.processDroppedItemAmount(amount);
-                }
+                amount = PotFertilizerLookup.effectBelow(world.get(), location).processDroppedItemAmount(amount);
             }
             itemStack.setAmount(amount);
         } else {
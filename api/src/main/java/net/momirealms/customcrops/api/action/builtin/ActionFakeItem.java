@@ -22,6 +22,7 @@ import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
 import net.momirealms.customcrops.api.core.ConfigManager;
+import net.momirealms.customcrops.api.misc.metrics.CustomCropsMetrics;
 import net.momirealms.customcrops.api.misc.value.MathValue;
 import net.momirealms.customcrops.api.util.LocationUtils;
 import net.momirealms.customcrops.common.helper.VersionHelper;
@@ -111,12 +112,14 @@ public class ActionFakeItem<T> extends AbstractBuiltInAction<T> {
         for (Player player : viewers) {
             fakeEntity.spawn(player);
         }
+        CustomCropsMetrics.ACTIVE_FAKE_ITEMS.increment();
         plugin.getScheduler().asyncLater(() -> {
             for (Player player : viewers) {
                 if (player.isOnline() && player.isValid()) {
                     fakeEntity.destroy(player);
                 }
             }
+            CustomCropsMetrics.ACTIVE_FAKE_ITEMS.decrement();
         }, (long) (duration.evaluate(context) * 50), TimeUnit.MILLISECONDS);
     }
 
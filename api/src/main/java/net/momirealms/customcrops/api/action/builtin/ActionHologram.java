@@ -78,7 +78,7 @@ public class ActionHologram<T> extends AbstractBuiltInAction<T> {
             }
         }
         if (viewers.isEmpty()) return;
-        String json = AdventureHelper.componentToJson(AdventureHelper.miniMessage(text.render(context)));
+        String json = AdventureHelper.componentToJson(text.renderComponent(context));
         int durationInMillis = (int) (duration.evaluate(context) * 50);
         for (Player viewer : viewers) {
             HologramManager.getInstance().showHologram(viewer, location, json, durationInMillis);
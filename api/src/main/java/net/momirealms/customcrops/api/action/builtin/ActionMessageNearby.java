@@ -25,7 +25,7 @@ import net.momirealms.customcrops.api.context.ContextKeys;
 import net.momirealms.customcrops.api.misc.placeholder.BukkitPlaceholderManager;
 import net.momirealms.customcrops.api.misc.value.MathValue;
 import net.momirealms.customcrops.api.util.LocationUtils;
-import net.momirealms.customcrops.common.helper.AdventureHelper;
+import net.momirealms.customcrops.common.helper.MiniMessageTemplate;
 import net.momirealms.customcrops.common.util.ListUtils;
 import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
@@ -38,6 +38,7 @@ import static java.util.Objects.requireNonNull;
 public class ActionMessageNearby<T> extends AbstractBuiltInAction<T> {
 
     private final List<String> messages;
+    private final List<MiniMessageTemplate> templates;
     private final MathValue<T> range;
 
     public ActionMessageNearby(
@@ -47,6 +48,7 @@ public class ActionMessageNearby<T> extends AbstractBuiltInAction<T> {
     ) {
         super(plugin, chance);
         this.messages = ListUtils.toList(section.get("message"));
+        this.templates = messages.stream().map(MiniMessageTemplate::compile).toList();
         this.range = MathValue.auto(section.get("range"));
     }
 
@@ -54,22 +56,14 @@ public class ActionMessageNearby<T> extends AbstractBuiltInAction<T> {
     protected void triggerAction(Context<T> context) {
         if (context.argOrDefault(ContextKeys.OFFLINE, false)) return;
         double realRange = range.evaluate(context);
-        OfflinePlayer owner = null;
-        if (context.holder() instanceof Player player) {
-            owner = player;
-        }
+        OfflinePlayer owner = context.holder() instanceof Player player ? player : null;
         Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
         for (Player player : location.getWorld().getPlayers()) {
             if (LocationUtils.getDistance(player.getLocation(), location) <= realRange) {
                 context.arg(ContextKeys.TEMP_NEAR_PLAYER, player.getName());
-                List<String> replaced = BukkitPlaceholderManager.getInstance().parse(
-                        owner,
-                        messages,
-                        context.placeholderMap()
-                );
                 Audience audience = plugin.getSenderFactory().getAudience(player);
-                for (String text : replaced) {
-                    audience.sendMessage(AdventureHelper.miniMessage(text));
+                for (MiniMessageTemplate template : templates) {
+                    audience.sendMessage(template.render(placeholder -> BukkitPlaceholderManager.getInstance().parseSingle(owner, placeholder, context.placeholderMap())));
                 }
             }
         }
@@ -22,13 +22,9 @@ import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
 import net.momirealms.customcrops.api.core.ConfigManager;
-import net.momirealms.customcrops.api.core.block.PotBlock;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.Fertilizer;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerConfig;
-import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
-import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
 import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
-import net.momirealms.customcrops.api.core.world.Pos3;
+import net.momirealms.customcrops.api.data.HarvestIds;
 import net.momirealms.customcrops.api.event.QualityCropActionEvent;
 import net.momirealms.customcrops.api.misc.value.MathValue;
 import net.momirealms.customcrops.api.util.EventUtils;
@@ -54,6 +50,7 @@ public class ActionQualityCrops<T> extends AbstractBuiltInAction<T> {
     private final MathValue<T> max;
     private final boolean toInv;
     private final String[] qualityLoots;
+    private final String harvestCropId;
 
     public ActionQualityCrops(
             BukkitCustomCropsPlugin plugin,
@@ -72,6 +69,7 @@ public class ActionQualityCrops<T> extends AbstractBuiltInAction<T> {
                 qualityLoots[i-1] = "";
             }
         }
+        this.harvestCropId = HarvestIds.cropId(qualityLoots[0]);
     }
 
     @Override
@@ -87,7 +85,7 @@ public class ActionQualityCrops<T> extends AbstractBuiltInAction<T> {
         }
         plugin.getScheduler().sync().run(() -> {
             List<ItemStack> itemToDrop = generateItem(location, player, random);
-            QualityCropActionEvent actionEvent = new QualityCropActionEvent(context, location, qualityLoots.clone(), itemToDrop);
+            QualityCropActionEvent actionEvent = new QualityCropActionEvent(context, location, qualityLoots.clone(), harvestCropId, itemToDrop);
             if (EventUtils.fireAndCheckCancel(actionEvent)) {
                 return;
             }
@@ -112,47 +110,47 @@ public class ActionQualityCrops<T> extends AbstractBuiltInAction<T> {
         if (world.isEmpty()) {
             return List.of();
         }
-        Pos3 pos3 = Pos3.from(location);
-        Fertilizer[] fertilizers = null;
-        Pos3 potLocation = pos3.add(0, -1, 0);
-        Optional<CustomCropsChunk> chunk = world.get().getChunk(potLocation.toChunkPos());
-        if (chunk.isPresent()) {
-            Optional<CustomCropsBlockState> state = chunk.get().getBlockState(potLocation);
-            if (state.isPresent()) {
-                if (state.get().type() instanceof PotBlock potBlock) {
-                    fertilizers = potBlock.fertilizers(state.get());
-                }
-            }
-        }
-        ArrayList<FertilizerConfig> configs = new ArrayList<>();
-        if (fertilizers != null) {
-            for (Fertilizer fertilizer : fertilizers) {
-                Optional.ofNullable(fertilizer.config()).ifPresent(configs::add);
-            }
-        }
-        for (FertilizerConfig config : configs) {
-            randomAmount = config.processDroppedItemAmount(randomAmount);
-            double[] newRatio = config.overrideQualityRatio();
-            if (newRatio != null) {
-                ratio = newRatio;
-            }
+        FertilizerEffect effect = PotFertilizerLookup.effectBelow(world.get(), location);
+        randomAmount = effect.processDroppedItemAmount(randomAmount);
+        double[] newRatio = effect.overrideQualityRatio();
+        if (newRatio != null) {
+            ratio = newRatio;
         }
         ArrayList<ItemStack> droppedItems = new ArrayList<>();
-        outer:
-        for (int i = 0; i < randomAmount; i++) {
-            double r1 = Math.random();
-            for (int j = 0; j < ratio.length; j++) {
-                if (r1 < ratio[j]) {
-                    ItemStack drop = plugin.getItemManager().build(player, qualityLoots[j]);
-                    if (drop == null || drop.getType() == Material.AIR) continue;
-                    droppedItems.add(drop);
-                    continue outer;
-                }
+        if (randomAmount <= 0) {
+            return droppedItems;
+        }
+        // roll all items at once instead of one random number per item
+        int[] counts = RandomUtils.multinomial(randomAmount, ratio);
+        int carried = 0;
+        for (int j = 0; j < counts.length; j++) {
+            int count = counts[j] + carried;
+            carried = 0;
+            if (count == 0) continue;
+            // build each quality item once and clone it with the rolled amount
+            ItemStack template = j < qualityLoots.length ? plugin.getItemManager().build(player, qualityLoots[j]) : null;
+            if (template == null || template.getType() == Material.AIR) {
+                // an item that doesn't exist falls through to the next quality
+                carried = count;
+                continue;
             }
+            addStacks(droppedItems, template, count);
         }
         return droppedItems;
     }
 
+    private static void addStacks(List<ItemStack> items, ItemStack template, int count) {
+        int total = count * Math.max(1, template.getAmount());
+        int maxStackSize = Math.max(1, template.getMaxStackSize());
+        while (total > 0) {
+            int amount = Math.min(maxStackSize, total);
+            ItemStack stack = template.clone();
+            stack.setAmount(amount);
+            items.add(stack);
+            total -= amount;
+        }
+    }
+
     public MathValue<T> min() {
         return min;
     }
@@ -168,4 +166,14 @@ public class ActionQualityCrops<T> extends AbstractBuiltInAction<T> {
     public String[] qualityLoots() {
         return qualityLoots;
     }
+
+    /**
+     * Gets the crop key used by harvest statistics, derived from the first quality loot.
+     *
+     * @return the crop key, or null if the first loot is empty
+     */
+    @Nullable
+    public String harvestCropId() {
+        return harvestCropId;
+    }
 }
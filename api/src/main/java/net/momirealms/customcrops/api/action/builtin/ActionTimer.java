@@ -24,13 +24,11 @@ import net.momirealms.customcrops.api.action.Action;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
 import net.momirealms.customcrops.api.misc.value.MathValue;
-import net.momirealms.customcrops.common.plugin.scheduler.SchedulerTask;
 import org.bukkit.Location;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 public class ActionTimer<T> extends AbstractBuiltInAction<T> {
 
@@ -67,21 +65,26 @@ public class ActionTimer<T> extends AbstractBuiltInAction<T> {
     @Override
     protected void triggerAction(Context<T> context) {
         Location location = context.arg(ContextKeys.LOCATION);
-        SchedulerTask task;
+        scheduleRun(context, location, delay, delay);
+    }
+
+    // each run schedules the next one, until the duration has passed
+    private void scheduleRun(Context<T> context, Location location, long delayTicks, long elapsedTicks) {
+        if (elapsedTicks >= duration) {
+            return;
+        }
+        Runnable task = () -> {
+            for (Action<T> action : actions) {
+                action.trigger(context);
+            }
+            long nextDelay = Math.max(1, period);
+            scheduleRun(context, location, nextDelay, elapsedTicks + nextDelay);
+        };
         if (async) {
-            task = plugin.getScheduler().asyncRepeating(() -> {
-                for (Action<T> action : actions) {
-                    action.trigger(context);
-                }
-            }, delay * 50L, period * 50L, TimeUnit.MILLISECONDS);
+            plugin.getTaskWheel().scheduleAsync(task, delayTicks);
         } else {
-            task = plugin.getScheduler().sync().runRepeating(() -> {
-                for (Action<T> action : actions) {
-                    action.trigger(context);
-                }
-            }, delay, period, location);
+            plugin.getTaskWheel().schedule(task, delayTicks, location);
         }
-        plugin.getScheduler().asyncLater(task::cancel, duration * 50L, TimeUnit.MILLISECONDS);
     }
 
     public List<Action<T>> actions() {
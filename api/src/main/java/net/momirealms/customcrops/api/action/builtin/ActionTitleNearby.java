@@ -62,8 +62,8 @@ public class ActionTitleNearby<T> extends AbstractBuiltInAction<T> {
             if (LocationUtils.getDistance(player.getLocation(), location) <= range) {
                 context.arg(ContextKeys.TEMP_NEAR_PLAYER, player.getName());
                 SparrowHeart.getInstance().sendTitle(player,
-                        AdventureHelper.componentToJson(AdventureHelper.miniMessage(title.render(context))),
-                        AdventureHelper.componentToJson(AdventureHelper.miniMessage(subtitle.render(context))),
+                        AdventureHelper.componentToJson(title.renderComponent(context)),
+                        AdventureHelper.componentToJson(subtitle.renderComponent(context)),
                         fadeIn, stay, fadeOut
                 );
             }
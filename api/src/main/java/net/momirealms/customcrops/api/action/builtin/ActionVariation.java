@@ -28,8 +28,7 @@ import net.momirealms.customcrops.api.core.FurnitureRotation;
 import net.momirealms.customcrops.api.core.block.CropBlock;
 import net.momirealms.customcrops.api.core.block.PotBlock;
 import net.momirealms.customcrops.api.core.mechanic.crop.VariationData;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.Fertilizer;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerConfig;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
 import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
 import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
 import net.momirealms.customcrops.api.core.world.Pos3;
@@ -68,7 +67,7 @@ public class ActionVariation<T> extends AbstractBuiltInAction<T> {
 
     @Override
     protected void triggerAction(Context<T> context) {
-        Fertilizer[] fertilizers = null;
+        FertilizerEffect effect = FertilizerEffect.EMPTY;
         Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
         Optional<CustomCropsWorld<?>> world = plugin.getWorldManager().getWorld(location.getWorld());
         if (world.isEmpty()) {
@@ -90,21 +89,12 @@ public class ActionVariation<T> extends AbstractBuiltInAction<T> {
             Optional<CustomCropsBlockState> optionalState = world.get().getBlockState(potLocation);
             if (optionalState.isPresent()) {
                 if (optionalState.get().type() instanceof PotBlock potBlock) {
-                    fertilizers = potBlock.fertilizers(optionalState.get());
+                    effect = potBlock.fertilizerEffect(optionalState.get());
                 }
             }
         }
-        ArrayList<FertilizerConfig> configs = new ArrayList<>();
-        if (fertilizers != null) {
-            for (Fertilizer fertilizer : fertilizers) {
-                Optional.ofNullable(fertilizer.config()).ifPresent(configs::add);
-            }
-        }
         for (VariationData variationData : variations()) {
-            double variationChance = variationData.chance();
-            for (FertilizerConfig fertilizer : configs) {
-                variationChance = fertilizer.processVariationChance(variationChance);
-            }
+            double variationChance = effect.processVariationChance(variationData.chance());
             if (Math.random() < variationChance) {
                 plugin.getItemManager().remove(location, ExistenceForm.ANY);
                 world.get().removeBlockState(pos3);
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.action.builtin;
+
+import net.momirealms.customcrops.api.core.block.PotBlock;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
+import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
+import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.Pos3;
+import org.bukkit.Location;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the fertilizers of the pot below a crop for the drop actions.
+ * <p>
+ * Harvesting a crop usually triggers several drop actions at the same location at once,
+ * so the result is kept for a single tick and shared between them.
+ */
+final class PotFertilizerLookup {
+
+    private static final long VALID_NANOS = 50_000_000L;
+    private static final int CLEANUP_THRESHOLD = 256;
+    private static final Map<Key, Entry> CACHE = new ConcurrentHashMap<>();
+
+    private PotFertilizerLookup() {
+    }
+
+    /**
+     * Gets the fertilizer profile of the pot right below the location.
+     *
+     * @param world the world
+     * @param location the crop's location
+     * @return the fertilizer profile, empty if there's no pot
+     */
+    static FertilizerEffect effectBelow(CustomCropsWorld<?> world, Location location) {
+        Pos3 potLocation = Pos3.from(location).add(0, -1, 0);
+        Key key = new Key(world, potLocation);
+        long now = System.nanoTime();
+        Entry entry = CACHE.get(key);
+        if (entry != null && now - entry.time < VALID_NANOS) {
+            return entry.effect;
+        }
+        if (CACHE.size() > CLEANUP_THRESHOLD) {
+            CACHE.values().removeIf(it -> now - it.time >= VALID_NANOS);
+        }
+        FertilizerEffect effect = resolve(world, potLocation);
+        CACHE.put(key, new Entry(now, effect));
+        return effect;
+    }
+
+    private static FertilizerEffect resolve(CustomCropsWorld<?> world, Pos3 potLocation) {
+        Optional<CustomCropsChunk> chunk = world.getChunk(potLocation.toChunkPos());
+        if (chunk.isEmpty()) {
+            return FertilizerEffect.EMPTY;
+        }
+        Optional<CustomCropsBlockState> state = chunk.get().getBlockState(potLocation);
+        if (state.isEmpty() || !(state.get().type() instanceof PotBlock potBlock)) {
+            return FertilizerEffect.EMPTY;
+        }
+        return potBlock.fertilizerEffect(state.get());
+    }
+
+    private record Key(CustomCropsWorld<?> world, Pos3 pos) {
+    }
+
+    private record Entry(long time, FertilizerEffect effect) {
+    }
+}
@@ -44,8 +44,22 @@ public class ClearableMappedRegistry<K, T> extends MappedRegistry<K, T> implemen
      */
     @Override
     public void clear() {
-        super.byID.clear();  // Clears the list of values indexed by ID
-        super.byKey.clear(); // Clears the map of keys to values
-        super.byValue.clear(); // Clears the map of values to keys
+        super.entries = new Entries<>();
+    }
+
+    /**
+     * Replaces all entries with the ones of another registry in a single step.
+     * Readers on other threads see either the old or the new entries, never a partly filled registry.
+     * Other registry types are copied entry by entry.
+     *
+     * @param other the registry to take the entries from, which must not be modified afterwards
+     */
+    @Override
+    public void replaceWith(ClearableRegistry<K, T> other) {
+        if (other instanceof MappedRegistry<K, T> mapped) {
+            super.entries = mapped.entries;
+        } else {
+            ClearableRegistry.super.replaceWith(other);
+        }
     }
 }
\ No newline at end of file
@@ -32,4 +32,23 @@ public interface ClearableRegistry<K, T> extends WriteableRegistry<K, T> {
      * leaving it empty.
      */
     void clear();
-}
\ No newline at end of file
+
+    /**
+     * Replaces all entries with the ones of another registry, keeping their ids.
+     * This clears the registry and registers the entries again, so readers on other
+     * threads may see a partly filled registry unless the implementation swaps them in a single step.
+     *
+     * @param other the registry to take the entries from
+     */
+    default void replaceWith(ClearableRegistry<K, T> other) {
+        clear();
+        for (int i = 0; i < other.size(); i++) {
+            T value = other.byId(i);
+            if (value == null) continue;
+            K key = other.getKey(value);
+            if (key != null) {
+                register(key, value);
+            }
+        }
+    }
+}
@@ -94,6 +94,8 @@ public abstract class ConfigManager implements ConfigLoader, Reloadable {
     protected boolean interveneAntiGrief = false;
 
     protected boolean asyncWorldSaving = true;
+    protected long regionCacheMaxMemory = 0;
+    protected boolean worldSnapshot = true;
 
     protected boolean preventDroppingStageItems = true;
 
@@ -174,6 +176,15 @@ public abstract class ConfigManager implements ConfigLoader, Reloadable {
         return instance.asyncWorldSaving;
     }
 
+    public static long regionCacheMaxMemory() {
+        return instance.regionCacheMaxMemory;
+    }
+
+    public static boolean worldSnapshot() {
+        // worlds can tick without a config manager in simulations
+        return instance != null && instance.worldSnapshot;
+    }
+
     public static Set<String> scarecrow() {
         return instance.scarecrow;
     }
@@ -32,9 +32,7 @@ import java.util.*;
  */
 public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
 
-    protected final Map<K, T> byKey = new HashMap<>(1024);
-    protected final Map<T, K> byValue = new IdentityHashMap<>(1024);
-    protected final ArrayList<T> byID = new ArrayList<>(1024);
+    protected volatile Entries<K, T> entries = new Entries<>();
     private final Key key;
 
     /**
@@ -54,10 +52,11 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
      */
     @Override
     public void register(K key, T value) {
-        if (byKey.containsKey(key)) return;
-        byKey.put(key, value);
-        byValue.put(value, key);
-        byID.add(value);
+        Entries<K, T> entries = this.entries;
+        if (entries.byKey.containsKey(key)) return;
+        entries.byKey.put(key, value);
+        entries.byValue.put(value, key);
+        entries.byID.add(value);
     }
 
     /**
@@ -78,7 +77,7 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
      */
     @Override
     public int getId(@Nullable T value) {
-        return byID.indexOf(value);
+        return entries.byID.indexOf(value);
     }
 
     /**
@@ -90,7 +89,7 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
     @Nullable
     @Override
     public T byId(int index) {
-        return byID.get(index);
+        return entries.byID.get(index);
     }
 
     /**
@@ -100,7 +99,7 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
      */
     @Override
     public int size() {
-        return byKey.size();
+        return entries.byKey.size();
     }
 
     /**
@@ -112,7 +111,7 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
     @Nullable
     @Override
     public T get(@Nullable K key) {
-        return byKey.get(key);
+        return entries.byKey.get(key);
     }
 
     /**
@@ -123,7 +122,7 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
      */
     @Override
     public boolean containsKey(@Nullable K key) {
-        return byKey.containsKey(key);
+        return entries.byKey.containsKey(key);
     }
 
     /**
@@ -134,7 +133,19 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
      */
     @Override
     public boolean containsValue(@Nullable T value) {
-        return byValue.containsKey(value);
+        return entries.byValue.containsKey(value);
+    }
+
+    /**
+     * Retrieves the key of a given value in the registry.
+     *
+     * @param value the value to look up
+     * @return the key of the value, or null if not found
+     */
+    @Nullable
+    @Override
+    public K getKey(@Nullable T value) {
+        return entries.byValue.get(value);
     }
 
     /**
@@ -145,6 +156,15 @@ public class MappedRegistry<K, T> implements WriteableRegistry<K, T> {
     @NotNull
     @Override
     public Iterator<T> iterator() {
-        return this.byKey.values().iterator();
+        return this.entries.byKey.values().iterator();
+    }
+
+    /**
+     * The entries of a registry, published together so that they can be swapped in one step
+     */
+    protected static final class Entries<K, T> {
+        final Map<K, T> byKey = new HashMap<>(1024);
+        final Map<T, K> byValue = new IdentityHashMap<>(1024);
+        final ArrayList<T> byID = new ArrayList<>(1024);
     }
 }
@@ -70,4 +70,15 @@ public interface Registry<K, T> extends IdMap<T> {
      * @return true if the registry contains the specified value, false otherwise
      */
     boolean containsValue(@NotNull T value);
+
+    /**
+     * Retrieves the key that a value is mapped to.
+     *
+     * @param value the value whose key is to be retrieved
+     * @return the key of the value, or null if no mapping exists
+     */
+    @Nullable
+    default K getKey(@NotNull T value) {
+        return null;
+    }
 }
\ No newline at end of file
@@ -24,11 +24,10 @@ import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
 import net.momirealms.customcrops.api.core.*;
 import net.momirealms.customcrops.api.core.mechanic.crop.*;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.Fertilizer;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerConfig;
 import net.momirealms.customcrops.api.core.mechanic.pot.PotConfig;
 import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
 import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.EnvironmentSnapshot;
 import net.momirealms.customcrops.api.core.world.Pos3;
 import net.momirealms.customcrops.api.core.wrapper.WrappedBreakEvent;
 import net.momirealms.customcrops.api.core.wrapper.WrappedInteractEvent;
@@ -37,6 +36,7 @@ import net.momirealms.customcrops.api.event.BoneMealUseEvent;
 import net.momirealms.customcrops.api.event.CropBreakEvent;
 import net.momirealms.customcrops.api.event.CropInteractEvent;
 import net.momirealms.customcrops.api.misc.NamedTextColor;
+import net.momirealms.customcrops.api.requirement.BlockBatch;
 import net.momirealms.customcrops.api.requirement.RequirementManager;
 import net.momirealms.customcrops.api.util.EventUtils;
 import net.momirealms.customcrops.api.util.LocationUtils;
@@ -47,10 +47,9 @@ import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.metadata.FixedMetadataValue;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 public class CropBlock extends AbstractCustomCropsBlock {
 
@@ -67,6 +66,40 @@ public class CropBlock extends AbstractCustomCropsBlock {
         }
     }
 
+    @Override
+    public void scheduledTick(List<CustomCropsBlockState> states, List<Pos3> locations, CustomCropsWorld<?> world, boolean offlineTick) {
+        // ignore random tick
+        if (world.setting().tickCropMode() == 1) return;
+        int interval = world.setting().tickCropInterval();
+        boolean doubleCheck = ConfigManager.doubleCheck();
+        EnvironmentSnapshot snapshot = EnvironmentSnapshot.of(world, locations.get(0));
+        Map<CropConfig, List<Integer>> byConfig = new LinkedHashMap<>(4);
+        for (int i = 0, size = states.size(); i < size; i++) {
+            CustomCropsBlockState state = states.get(i);
+            if (!canTick(state, interval)) continue;
+            CropConfig config = config(state);
+            if (config == null) {
+                tickCrop(state, world, locations.get(i), offlineTick, false);
+                continue;
+            }
+            if (config.ignoreScheduledTick()) continue;
+            if (doubleCheck) {
+                int index = snapshot == null ? -1 : snapshot.indexOf(locations.get(i));
+                int point = point(state);
+                // crops missing from the snapshot, or changed since it was taken, have to visit the main thread for the check
+                if (index < 0 || !snapshot.hasBlockID(index, config.id(), point)) {
+                    tickCrop(state, world, locations.get(i), offlineTick, false);
+                    continue;
+                }
+                if (!checkModel(config, world, locations.get(i), point, snapshot.blockID(index))) continue;
+            }
+            byConfig.computeIfAbsent(config, k -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<CropConfig, List<Integer>> entry : byConfig.entrySet()) {
+            tickCrops(entry.getKey(), entry.getValue(), states, locations, world, offlineTick, snapshot);
+        }
+    }
+
     @Override
     public void randomTick(CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location, boolean offlineTick) {
         // ignore scheduled tick
@@ -363,14 +396,7 @@ public class CropBlock extends AbstractCustomCropsBlock {
             Context<CustomCropsBlockState> context = Context.block(state, bukkitLocation).arg(ContextKeys.OFFLINE, offline);
             for (DeathCondition deathCondition : config.deathConditions()) {
                 if (deathCondition.isMet(context)) {
-                    plugin.getScheduler().sync().runLater(() -> {
-                        FurnitureRotation rotation = plugin.getItemManager().remove(bukkitLocation, ExistenceForm.ANY);
-                        world.removeBlockState(location);
-                        Optional.ofNullable(deathCondition.deathStage()).ifPresent(it -> {
-                            plugin.getItemManager().place(bukkitLocation, deathCondition.existenceForm(), it, rotation);
-                        });
-                        ActionManager.trigger(context, config.deathActions());
-                    }, deathCondition.deathDelay(), bukkitLocation);
+                    die(config, deathCondition, world, location, bukkitLocation, context);
                     return;
                 }
             }
@@ -392,70 +418,159 @@ public class CropBlock extends AbstractCustomCropsBlock {
                 }
             }
             if (pointToAdd == 0) return;
+            grow(config, state, world, location, bukkitLocation, context, previousPoint, pointToAdd);
+        };
 
-            Optional<CustomCropsBlockState> optionalState = world.getBlockState(location.add(0,-1,0));
-            if (optionalState.isPresent()) {
-                CustomCropsBlockState belowState = optionalState.get();
-                if (belowState.type() instanceof PotBlock potBlock) {
-                    for (Fertilizer fertilizer : potBlock.fertilizers(belowState)) {
-                        FertilizerConfig fertilizerConfig = fertilizer.config();
-                        if (fertilizerConfig != null) {
-                            pointToAdd = fertilizerConfig.processGainPoints(pointToAdd);
-                        }
-                    }
+        if (ConfigManager.doubleCheck()) {
+            EnvironmentSnapshot snapshot = EnvironmentSnapshot.of(world, location);
+            int index = snapshot == null ? -1 : snapshot.indexOf(location);
+            if (index >= 0 && snapshot.hasBlockID(index, config.id(), previousPoint)) {
+                if (checkModel(config, world, location, previousPoint, snapshot.blockID(index))) {
+                    task.run();
                 }
+                return;
             }
+            plugin.getScheduler().sync().run(() -> {
+                CropStageConfig nearest = config.stageWithModelByPoint(previousPoint);
+                String blockID = nearest == null ? null : plugin.getItemManager().id(location.toLocation(bukkitWorld), nearest.existenceForm());
+                if (checkModel(config, world, location, previousPoint, blockID)) {
+                    world.scheduler().async().execute(task);
+                }
+            }, bukkitLocation);
+        } else {
+            task.run();
+        }
+    }
 
-            int afterPoints = Math.min(previousPoint + pointToAdd, config.maxPoints());
-            point(state, afterPoints);
+    /**
+     * Ticks the crops of one config together. The conditions are evaluated for all the crops at once,
+     * and each crop meets the same outcome as it would in {@link #tickCrop}.
+     */
+    private void tickCrops(CropConfig config, List<Integer> indexes, List<CustomCropsBlockState> states, List<Pos3> locations, CustomCropsWorld<?> world, boolean offline, @Nullable EnvironmentSnapshot snapshot) {
+        int size = indexes.size();
+        World bukkitWorld = world.bukkitWorld();
+        List<Context<CustomCropsBlockState>> contexts = new ArrayList<>(size);
+        for (int index : indexes) {
+            contexts.add(Context.block(states.get(index), locations.get(index).toLocation(bukkitWorld)).arg(ContextKeys.OFFLINE, offline));
+        }
+        BlockBatch<CustomCropsBlockState> batch = new BlockBatch<>(world, contexts, snapshot);
+        BitSet undecided = new BitSet(size);
+        undecided.set(0, size);
+
+        for (DeathCondition deathCondition : config.deathConditions()) {
+            if (undecided.isEmpty()) return;
+            batch.select(undecided);
+            deathCondition.evaluate(batch);
+            BitSet dead = batch.remaining();
+            for (int i = dead.nextSetBit(0); i >= 0; i = dead.nextSetBit(i + 1)) {
+                int index = indexes.get(i);
+                die(config, deathCondition, world, locations.get(index), batch.location(i), batch.context(i));
+            }
+            undecided.andNot(dead);
+        }
 
-            CropStageConfig currentStage = config.stageWithModelByPoint(previousPoint);
-            CropStageConfig nextStage = config.stageWithModelByPoint(afterPoints);
+        int[] previousPoints = new int[size];
+        for (int i = undecided.nextSetBit(0); i >= 0; i = undecided.nextSetBit(i + 1)) {
+            previousPoints[i] = point(states.get(indexes.get(i)));
+            if (previousPoints[i] >= config.maxPoints()) {
+                undecided.clear(i);
+            }
+        }
 
-            plugin.getScheduler().sync().run(() -> {
-                if (currentStage == nextStage) {
-                    for (int i = previousPoint + 1; i <= afterPoints; i++) {
-                        CropStageConfig stage = config.stageByPoint(i);
-                        if (stage != null) {
-                            ActionManager.trigger(context, stage.growActions());
-                        }
-                    }
-                    return;
-                }
-                FurnitureRotation rotation = plugin.getItemManager().remove(bukkitLocation, ExistenceForm.ANY);
-                if (rotation == FurnitureRotation.NONE && config.rotation()) {
-                    rotation = FurnitureRotation.random();
+        GrowCondition[] growConditions = config.growConditions();
+        if (growConditions.length == 0) {
+            for (int i = undecided.nextSetBit(0); i >= 0; i = undecided.nextSetBit(i + 1)) {
+                int index = indexes.get(i);
+                grow(config, states.get(index), world, locations.get(index), batch.location(i), batch.context(i), previousPoints[i], 1);
+            }
+            return;
+        }
+        for (GrowCondition growCondition : growConditions) {
+            if (undecided.isEmpty()) return;
+            batch.select(undecided);
+            growCondition.evaluate(batch);
+            BitSet met = batch.remaining();
+            int pointToAdd = growCondition.pointToAdd();
+            if (pointToAdd != 0) {
+                for (int i = met.nextSetBit(0); i >= 0; i = met.nextSetBit(i + 1)) {
+                    int index = indexes.get(i);
+                    grow(config, states.get(index), world, locations.get(index), batch.location(i), batch.context(i), previousPoints[i], pointToAdd);
                 }
-                plugin.getItemManager().place(bukkitLocation, nextStage.existenceForm(), Objects.requireNonNull(nextStage.stageID()), rotation);
+            }
+            undecided.andNot(met);
+        }
+    }
+
+    /**
+     * Checks if the block/furniture at the location is a stage of the crop, and removes the crop data if it's not
+     *
+     * @return true if the crop is valid
+     */
+    private boolean checkModel(CropConfig config, CustomCropsWorld<?> world, Pos3 location, int point, @Nullable String blockID) {
+        BukkitCustomCropsPlugin plugin = BukkitCustomCropsPlugin.getInstance();
+        if (config.stageWithModelByPoint(point) == null) {
+            plugin.getPluginLogger().warn("Crop[" + config.id() + "] is removed at location[" + world.worldName() + "," + location + "] because no model found for point[" + point + "]");
+            world.removeBlockState(location);
+            return false;
+        }
+        if (!config.stageIDs().contains(blockID)) {
+            plugin.getPluginLogger().warn("Crop[" + config.id() + "] is removed at location[" + world.worldName() + "," + location + "] because the id of the block is [" + blockID + "]");
+            world.removeBlockState(location);
+            return false;
+        }
+        return true;
+    }
+
+    private void die(CropConfig config, DeathCondition deathCondition, CustomCropsWorld<?> world, Pos3 location, Location bukkitLocation, Context<CustomCropsBlockState> context) {
+        BukkitCustomCropsPlugin plugin = BukkitCustomCropsPlugin.getInstance();
+        plugin.getTaskWheel().schedule(() -> {
+            FurnitureRotation rotation = plugin.getItemManager().remove(bukkitLocation, ExistenceForm.ANY);
+            world.removeBlockState(location);
+            Optional.ofNullable(deathCondition.deathStage()).ifPresent(it -> {
+                plugin.getItemManager().place(bukkitLocation, deathCondition.existenceForm(), it, rotation);
+            });
+            ActionManager.trigger(context, config.deathActions());
+        }, deathCondition.deathDelay(), bukkitLocation);
+    }
+
+    private void grow(CropConfig config, CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location, Location bukkitLocation, Context<CustomCropsBlockState> context, int previousPoint, int pointToAdd) {
+        BukkitCustomCropsPlugin plugin = BukkitCustomCropsPlugin.getInstance();
+        Optional<CustomCropsBlockState> optionalState = world.getBlockState(location.add(0,-1,0));
+        if (optionalState.isPresent()) {
+            CustomCropsBlockState belowState = optionalState.get();
+            if (belowState.type() instanceof PotBlock potBlock) {
+                pointToAdd = potBlock.fertilizerEffect(belowState).processGainPoints(pointToAdd);
+            }
+        }
+
+        int afterPoints = Math.min(previousPoint + pointToAdd, config.maxPoints());
+        point(state, afterPoints);
+
+        CropStageConfig currentStage = config.stageWithModelByPoint(previousPoint);
+        CropStageConfig nextStage = config.stageWithModelByPoint(afterPoints);
+
+        plugin.getScheduler().sync().run(() -> {
+            if (currentStage == nextStage) {
                 for (int i = previousPoint + 1; i <= afterPoints; i++) {
                     CropStageConfig stage = config.stageByPoint(i);
                     if (stage != null) {
                         ActionManager.trigger(context, stage.growActions());
                     }
                 }
-            }, bukkitLocation);
-        };
-
-        if (ConfigManager.doubleCheck()) {
-            plugin.getScheduler().sync().run(() -> {
-                CropStageConfig nearest = config.stageWithModelByPoint(previousPoint);
-                if (nearest != null) {
-                    String blockID = plugin.getItemManager().id(location.toLocation(bukkitWorld), nearest.existenceForm());
-                    if (!config.stageIDs().contains(blockID)) {
-                        plugin.getPluginLogger().warn("Crop[" + config.id() + "] is removed at location[" + world.worldName() + "," + location + "] because the id of the block is [" + blockID + "]");
-                        world.removeBlockState(location);
-                        return;
-                    }
-                } else {
-                    plugin.getPluginLogger().warn("Crop[" + config.id() + "] is removed at location[" + world.worldName() + "," + location + "] because no model found for point[" + previousPoint + "]");
-                    world.removeBlockState(location);
-                    return;
+                return;
+            }
+            FurnitureRotation rotation = plugin.getItemManager().remove(bukkitLocation, ExistenceForm.ANY);
+            if (rotation == FurnitureRotation.NONE && config.rotation()) {
+                rotation = FurnitureRotation.random();
+            }
+            plugin.getItemManager().place(bukkitLocation, nextStage.existenceForm(), Objects.requireNonNull(nextStage.stageID()), rotation);
+            for (int i = previousPoint + 1; i <= afterPoints; i++) {
+                CropStageConfig stage = config.stageByPoint(i);
+                if (stage != null) {
+                    ActionManager.trigger(context, stage.growActions());
                 }
-                world.scheduler().async().execute(task);
-            }, bukkitLocation);
-        } else {
-            task.run();
-        }
+            }
+        }, bukkitLocation);
     }
 
     public int point(CustomCropsBlockState state) {
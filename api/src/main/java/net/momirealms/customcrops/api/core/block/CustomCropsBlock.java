@@ -29,6 +29,8 @@ import net.momirealms.customcrops.common.util.Key;
 import org.bukkit.Location;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 public interface CustomCropsBlock {
 
     /**
@@ -65,6 +67,15 @@ public interface CustomCropsBlock {
      */
     void scheduledTick(CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location, boolean offlineTick);
 
+    /**
+     * Runs scheduled tick tasks for blocks of this type in the same chunk that are due at the same time
+     */
+    default void scheduledTick(List<CustomCropsBlockState> states, List<Pos3> locations, CustomCropsWorld<?> world, boolean offlineTick) {
+        for (int i = 0, size = states.size(); i < size; i++) {
+            scheduledTick(states.get(i), world, locations.get(i), offlineTick);
+        }
+    }
+
     /**
      * Runs random tick tasks
      */
@@ -30,9 +30,11 @@ import net.momirealms.customcrops.api.core.mechanic.crop.CropConfig;
 import net.momirealms.customcrops.api.core.mechanic.crop.CropStageConfig;
 import net.momirealms.customcrops.api.core.mechanic.fertilizer.Fertilizer;
 import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerConfig;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
 import net.momirealms.customcrops.api.core.mechanic.pot.PotConfig;
 import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
 import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.EnvironmentSnapshot;
 import net.momirealms.customcrops.api.core.world.Pos3;
 import net.momirealms.customcrops.api.core.wrapper.WrappedBreakEvent;
 import net.momirealms.customcrops.api.core.wrapper.WrappedInteractEvent;
@@ -368,8 +370,10 @@ public class PotBlock extends AbstractCustomCropsBlock {
         if (!tickMode && config.ignoreScheduledTick()) return;
 
         World bukkitWorld = world.bukkitWorld();
+        EnvironmentSnapshot snapshot = EnvironmentSnapshot.of(world, location);
+        int snapshotIndex = snapshot == null ? -1 : snapshot.indexOf(location);
         if (ConfigManager.doubleCheck()) {
-            String blockID = plugin.getItemManager().blockID(location.toLocation(bukkitWorld));
+            String blockID = snapshotIndex >= 0 && snapshot.hasBlockID(snapshotIndex, config.id()) ? snapshot.blockID(snapshotIndex) : plugin.getItemManager().blockID(location.toLocation(bukkitWorld));
             if (!config.blocks().contains(blockID)) {
                 plugin.getPluginLogger().warn("Pot[" + config.id() + "] is removed at location[" + world.worldName() + "," + location + "] because the id of the block is [" + blockID + "]");
                 world.removeBlockState(location);
@@ -386,7 +390,11 @@ public class PotBlock extends AbstractCustomCropsBlock {
         Location bukkitLocation = location.toLocation(bukkitWorld);
 
         if (config.isRainDropAccepted()) {
-            if (SparrowHeart.getInstance().isRainingAt(bukkitLocation.clone().add(0,1,0))) {
+            Boolean raining = snapshotIndex >= 0 ? snapshot.isRainingAbove(snapshotIndex) : null;
+            if (raining == null) {
+                raining = SparrowHeart.getInstance().isRainingAt(bukkitLocation.clone().add(0,1,0));
+            }
+            if (raining) {
                 if (addWater(state, 1)) {
                     waterChanged = true;
                 }
@@ -395,33 +403,20 @@ public class PotBlock extends AbstractCustomCropsBlock {
         }
 
         if (!hasNaturalWater && config.isNearbyWaterAccepted()) {
-            outer: {
-                for (int i = -4; i <= 4; i++) {
-                    for (int j = -4; j <= 4; j++) {
-                        for (int k : new int[]{0, 1}) {
-                            BlockData block = bukkitWorld.getBlockData(location.x() + i, location.y() + k, location.z() + j);
-                            if (block.getMaterial() == Material.WATER || (block instanceof Waterlogged waterlogged && waterlogged.isWaterlogged())) {
-                                if (addWater(state, 1)) {
-                                    waterChanged = true;
-                                }
-                                hasNaturalWater = true;
-                                break outer;
-                            }
-                        }
-                    }
+            Boolean nearWater = snapshotIndex >= 0 ? snapshot.isNearWater(snapshotIndex) : null;
+            if (nearWater == null) {
+                nearWater = isNearWater(bukkitWorld, location);
+            }
+            if (nearWater) {
+                if (addWater(state, 1)) {
+                    waterChanged = true;
                 }
+                hasNaturalWater = true;
             }
         }
 
         if (!hasNaturalWater) {
-            int waterToLose = 1;
-            Fertilizer[] fertilizers = fertilizers(state);
-            for (Fertilizer fertilizer : fertilizers) {
-                FertilizerConfig fertilizerConfig = fertilizer.config();
-                if (fertilizerConfig != null) {
-                    waterToLose = fertilizerConfig.processWaterToLose(waterToLose);
-                }
-            }
+            int waterToLose = fertilizerEffect(state).processWaterToLose(1);
             if (waterToLose > 0) {
                 if (addWater(state, -waterToLose)) {
                     waterChanged = true;
@@ -438,6 +433,27 @@ public class PotBlock extends AbstractCustomCropsBlock {
         ActionManager.trigger(Context.block(state, bukkitLocation).arg(ContextKeys.OFFLINE, offline), config.tickActions());
     }
 
+    /**
+     * Checks if there's water or a waterlogged block within 4 blocks horizontally, at the level of the pot or above it
+     *
+     * @param bukkitWorld the world
+     * @param location the location of the pot
+     * @return true if water is found
+     */
+    public boolean isNearWater(World bukkitWorld, Pos3 location) {
+        for (int i = -4; i <= 4; i++) {
+            for (int j = -4; j <= 4; j++) {
+                for (int k : new int[]{0, 1}) {
+                    BlockData block = bukkitWorld.getBlockData(location.x() + i, location.y() + k, location.z() + j);
+                    if (block.getMaterial() == Material.WATER || (block instanceof Waterlogged waterlogged && waterlogged.isWaterlogged())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     public int water(CustomCropsBlockState state) {
         Tag<?> tag = state.get("water");
         if (tag == null) {
@@ -507,6 +523,28 @@ public class PotBlock extends AbstractCustomCropsBlock {
         return fertilizers;
     }
 
+    /**
+     * Get the combined effect of the fertilizers in the pot.
+     * The profile is cached on the block state until the fertilizers change.
+     *
+     * @param state the block state
+     * @return the fertilizer profile
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public FertilizerEffect fertilizerEffect(CustomCropsBlockState state) {
+        return state.fertilizerEffect(() -> {
+            Tag<?> fertilizerTag = state.get("fertilizers");
+            if (fertilizerTag == null) return FertilizerEffect.of(new String[0]);
+            List<CompoundTag> tags = ((List<CompoundTag>) fertilizerTag.getValue());
+            String[] ids = new String[tags.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ((StringTag) tags.get(i).getValue().get("id")).getValue();
+            }
+            return FertilizerEffect.of(ids);
+        });
+    }
+
     /**
      * Check if the fertilizer can be applied to this pot
      *
@@ -561,6 +599,7 @@ public class PotBlock extends AbstractCustomCropsBlock {
             return false;
         }
         tags.add(new CompoundTag("", fertilizerToTag(fertilizer)));
+        state.invalidateFertilizerEffect();
         return true;
     }
 
@@ -578,11 +617,12 @@ public class PotBlock extends AbstractCustomCropsBlock {
         List<Integer> fertilizerToRemove = new ArrayList<>();
         for (int i = 0; i < tags.size(); i++) {
             CompoundMap map = tags.get(i).getValue();
-            Fertilizer applied = tagToFertilizer(map);
-            if (applied.reduceTimes()) {
+            // only the times tag changes, the id tag is kept as it is
+            int times = ((IntTag) map.get("times")).getValue() - 1;
+            if (times <= 0) {
                 fertilizerToRemove.add(i);
             } else {
-                tags.get(i).setValue(fertilizerToTag(applied));
+                map.put(new IntTag("times", times));
             }
         }
         // no fertilizer is used up
@@ -594,6 +634,7 @@ public class PotBlock extends AbstractCustomCropsBlock {
         for (int i : fertilizerToRemove) {
             tags.remove(i);
         }
+        state.invalidateFertilizerEffect();
         // all the fertilizers are used up
         if (tags.isEmpty()) {
             return true;
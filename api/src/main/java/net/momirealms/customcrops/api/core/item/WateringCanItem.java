@@ -108,7 +108,7 @@ public class WateringCanItem extends AbstractCustomCropsItem {
             }
             for (TextValue<Player> newLore : config.lore()) {
                 ScoreComponent.Builder builder = Component.score().name("cc").objective("water");
-                builder.append(AdventureHelper.miniMessage(newLore.render(context)));
+                builder.append(newLore.renderComponent(context));
                 lore.add(AdventureHelper.componentToJson(builder.build()));
             }
             wrapped.lore(lore);
@@ -20,6 +20,7 @@ package net.momirealms.customcrops.api.core.mechanic.crop;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.core.ExistenceForm;
 import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
+import net.momirealms.customcrops.api.requirement.BlockBatch;
 import net.momirealms.customcrops.api.requirement.Requirement;
 import net.momirealms.customcrops.api.requirement.RequirementManager;
 import org.jetbrains.annotations.Nullable;
@@ -81,6 +82,16 @@ public class DeathCondition {
         return RequirementManager.isSatisfied(context, requirements);
     }
 
+    /**
+     * Checks the condition for the remaining crops of a batch.
+     * Crops that don't meet the condition are rejected from the batch.
+     *
+     * @param batch The {@link BlockBatch} of crops sharing the same config.
+     */
+    public void evaluate(BlockBatch<CustomCropsBlockState> batch) {
+        RequirementManager.evaluate(batch, requirements);
+    }
+
     /**
      * Retrieves the existence form that the crop should take after it dies.
      *
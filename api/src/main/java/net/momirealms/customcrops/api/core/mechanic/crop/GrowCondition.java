@@ -19,6 +19,7 @@ package net.momirealms.customcrops.api.core.mechanic.crop;
 
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
+import net.momirealms.customcrops.api.requirement.BlockBatch;
 import net.momirealms.customcrops.api.requirement.Requirement;
 import net.momirealms.customcrops.api.requirement.RequirementManager;
 
@@ -63,4 +64,14 @@ public class GrowCondition {
     public boolean isMet(Context<CustomCropsBlockState> context) {
         return RequirementManager.isSatisfied(context, requirements);
     }
+
+    /**
+     * Checks the condition for the remaining crops of a batch.
+     * Crops that don't meet the condition are rejected from the batch.
+     *
+     * @param batch The {@link BlockBatch} of crops sharing the same config.
+     */
+    public void evaluate(BlockBatch<CustomCropsBlockState> batch) {
+        RequirementManager.evaluate(batch, requirements);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.core.mechanic.fertilizer;
+
+import net.momirealms.customcrops.api.core.Registries;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The combined effect of the fertilizers applied to a pot.
+ * <p>
+ * The fertilizer configs are resolved once, and the deterministic effects of the built-in
+ * fertilizers are folded together, so that the ticking and harvesting code doesn't have to look
+ * up and iterate the configs every time. Fertilizers of other implementations are applied one
+ * by one in the order they were added, the same as before.
+ * <p>
+ * A profile only depends on the ids of the fertilizers, not on their remaining times.
+ * All the profiles become stale after the fertilizer configs are reloaded.
+ */
+public final class FertilizerEffect {
+
+    public static final FertilizerEffect EMPTY = new FertilizerEffect(new String[0]);
+
+    private static final FertilizerConfig[] NO_CONFIGS = new FertilizerConfig[0];
+    private static volatile int currentGeneration;
+
+    private final int generation;
+    private final String[] ids;
+    private final FertilizerConfig[] configs;
+    private final FertilizerConfig[] gainModifiers;
+    private final FertilizerConfig[] yieldModifiers;
+    // true if there are fertilizers that can't be folded
+    private final boolean generic;
+    private final boolean retainWater;
+    private final double variationMultiplier;
+    private final double variationAddend;
+    private final double[] qualityRatio;
+
+    private FertilizerEffect(String[] ids) {
+        this.generation = currentGeneration;
+        this.ids = ids;
+        ArrayList<FertilizerConfig> configs = new ArrayList<>(ids.length);
+        ArrayList<FertilizerConfig> gainModifiers = new ArrayList<>(1);
+        ArrayList<FertilizerConfig> yieldModifiers = new ArrayList<>(1);
+        boolean generic = false;
+        boolean retainWater = false;
+        double variationMultiplier = 1;
+        double variationAddend = 0;
+        double[] qualityRatio = null;
+        for (String id : ids) {
+            FertilizerConfig config = Registries.FERTILIZER.get(id);
+            if (config == null) continue;
+            configs.add(config);
+            if (config instanceof SpeedGrowImpl) {
+                gainModifiers.add(config);
+            } else if (config instanceof YieldIncreaseImpl) {
+                yieldModifiers.add(config);
+            } else if (config instanceof SoilRetainImpl) {
+                retainWater = true;
+            } else if (config instanceof VariationImpl variation) {
+                // x -> x * m + a
+                if (variation.addOrMultiply()) {
+                    variationAddend += variation.chanceBonus();
+                } else {
+                    variationMultiplier *= variation.chanceBonus();
+                    variationAddend *= variation.chanceBonus();
+                }
+            } else if (config instanceof QualityImpl quality) {
+                qualityRatio = quality.overrideQualityRatio();
+            } else {
+                generic = true;
+            }
+        }
+        this.configs = configs.toArray(NO_CONFIGS);
+        this.generic = generic;
+        this.gainModifiers = generic ? this.configs : gainModifiers.toArray(NO_CONFIGS);
+        this.yieldModifiers = generic ? this.configs : yieldModifiers.toArray(NO_CONFIGS);
+        this.retainWater = retainWater;
+        this.variationMultiplier = variationMultiplier;
+        this.variationAddend = variationAddend;
+        this.qualityRatio = qualityRatio;
+    }
+
+    /**
+     * Creates the profile of the fertilizers
+     *
+     * @param fertilizers the applied fertilizers, in the order they were added
+     * @return the profile
+     */
+    public static FertilizerEffect of(Fertilizer[] fertilizers) {
+        if (fertilizers.length == 0 && EMPTY.isCurrent()) return EMPTY;
+        String[] ids = new String[fertilizers.length];
+        for (int i = 0; i < fertilizers.length; i++) {
+            ids[i] = fertilizers[i].id();
+        }
+        return of(ids);
+    }
+
+    /**
+     * Creates the profile of the fertilizers
+     *
+     * @param ids the ids of the applied fertilizers, in the order they were added
+     * @return the profile
+     */
+    public static FertilizerEffect of(String[] ids) {
+        return new FertilizerEffect(ids);
+    }
+
+    /**
+     * Marks all the profiles as stale. Called after the fertilizer configs are changed.
+     */
+    public static synchronized void invalidateAll() {
+        currentGeneration++;
+    }
+
+    /**
+     * Checks if the profile was created from the current fertilizer configs
+     *
+     * @return current or not
+     */
+    public boolean isCurrent() {
+        return generation == currentGeneration;
+    }
+
+    /**
+     * Gets the number of applied fertilizers, including the ones whose configs don't exist
+     *
+     * @return the number of fertilizers
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Checks if the fertilizer is applied
+     *
+     * @param id the fertilizer id
+     * @return applied or not
+     */
+    public boolean contains(String id) {
+        for (String applied : ids) {
+            if (applied.equals(id)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the configs of the applied fertilizers that exist
+     *
+     * @return the configs
+     */
+    public List<FertilizerConfig> configs() {
+        return List.of(configs);
+    }
+
+    public int processGainPoints(int previousPoints) {
+        for (FertilizerConfig config : gainModifiers) {
+            previousPoints = config.processGainPoints(previousPoints);
+        }
+        return previousPoints;
+    }
+
+    public int processDroppedItemAmount(int amount) {
+        for (FertilizerConfig config : yieldModifiers) {
+            amount = config.processDroppedItemAmount(amount);
+        }
+        return amount;
+    }
+
+    public int processWaterToLose(int waterToLose) {
+        if (generic) {
+            for (FertilizerConfig config : configs) {
+                waterToLose = config.processWaterToLose(waterToLose);
+            }
+            return waterToLose;
+        }
+        return retainWater ? Math.min(waterToLose, 0) : waterToLose;
+    }
+
+    public double processVariationChance(double previousChance) {
+        if (generic) {
+            for (FertilizerConfig config : configs) {
+                previousChance = config.processVariationChance(previousChance);
+            }
+            return previousChance;
+        }
+        return previousChance * variationMultiplier + variationAddend;
+    }
+
+    /**
+     * Gets the quality ratio of the most recently applied quality fertilizer
+     *
+     * @return the ratio, or null if no fertilizer overrides it
+     */
+    @Nullable
+    public double[] overrideQualityRatio() {
+        if (generic) {
+            double[] ratio = null;
+            for (FertilizerConfig config : configs) {
+                double[] newRatio = config.overrideQualityRatio();
+                if (newRatio != null) {
+                    ratio = newRatio;
+                }
+            }
+            return ratio;
+        }
+        return qualityRatio;
+    }
+}
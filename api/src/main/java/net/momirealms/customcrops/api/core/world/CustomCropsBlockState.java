@@ -20,10 +20,13 @@ package net.momirealms.customcrops.api.core.world;
 import com.flowpowered.nbt.CompoundMap;
 import com.flowpowered.nbt.CompoundTag;
 import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
 import net.momirealms.customcrops.api.util.TagUtils;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Supplier;
+
 /**
  * Interface representing the state of a custom crops block in the CustomCrops plugin.
  */
@@ -57,4 +60,19 @@ public interface CustomCropsBlockState extends DataBlock {
     byte[] getNBTDataAsBytes();
 
     String asString();
+
+    /**
+     * Gets the cached fertilizer profile of this block, decoding it if there's no current one
+     *
+     * @param decoder decodes the profile from the block data
+     * @return the profile
+     */
+    @ApiStatus.Internal
+    FertilizerEffect fertilizerEffect(Supplier<FertilizerEffect> decoder);
+
+    /**
+     * Drops the cached fertilizer profile. Called after the fertilizers of this block are modified in place.
+     */
+    @ApiStatus.Internal
+    void invalidateFertilizerEffect();
 }
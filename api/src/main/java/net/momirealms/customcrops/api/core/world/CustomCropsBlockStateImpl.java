@@ -22,13 +22,18 @@ import com.flowpowered.nbt.CompoundTag;
 import com.flowpowered.nbt.Tag;
 import net.momirealms.customcrops.api.core.SynchronizedCompoundMap;
 import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
 import net.momirealms.customcrops.api.util.TagUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Supplier;
+
 public class CustomCropsBlockStateImpl implements CustomCropsBlockState {
 
     private final SynchronizedCompoundMap compoundMap;
     private final CustomCropsBlock owner;
+    private volatile FertilizerEffect fertilizerEffect;
+    private volatile int fertilizerRevision;
 
     protected CustomCropsBlockStateImpl(CustomCropsBlock owner, CompoundMap compoundMap) {
         this.compoundMap = new SynchronizedCompoundMap(compoundMap);
@@ -53,7 +58,10 @@ public class CustomCropsBlockStateImpl implements CustomCropsBlockState {
 
     @Override
     public Tag<?> set(String key, Tag<?> tag) {
-        return compoundMap.put(key, tag);
+        Tag<?> previous = compoundMap.put(key, tag);
+        // after the write, so that a profile decoded from the old tag is never cached with the new revision
+        if ("fertilizers".equals(key)) invalidateFertilizerEffect();
+        return previous;
     }
 
     @Override
@@ -63,7 +71,32 @@ public class CustomCropsBlockStateImpl implements CustomCropsBlockState {
 
     @Override
     public Tag<?> remove(String key) {
-        return compoundMap.remove(key);
+        Tag<?> previous = compoundMap.remove(key);
+        if ("fertilizers".equals(key)) invalidateFertilizerEffect();
+        return previous;
+    }
+
+    @Override
+    public FertilizerEffect fertilizerEffect(Supplier<FertilizerEffect> decoder) {
+        FertilizerEffect effect = this.fertilizerEffect;
+        if (effect != null && effect.isCurrent()) {
+            return effect;
+        }
+        int revision = this.fertilizerRevision;
+        effect = decoder.get();
+        synchronized (this) {
+            // don't cache a profile decoded while the fertilizers were being modified
+            if (revision == this.fertilizerRevision) {
+                this.fertilizerEffect = effect;
+            }
+        }
+        return effect;
+    }
+
+    @Override
+    public synchronized void invalidateFertilizerEffect() {
+        this.fertilizerRevision++;
+        this.fertilizerEffect = null;
     }
 
     @Override
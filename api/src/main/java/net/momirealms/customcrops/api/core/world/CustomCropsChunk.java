@@ -17,8 +17,11 @@
 
 package net.momirealms.customcrops.api.core.world;
 
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -206,6 +209,65 @@ public interface CustomCropsChunk {
      */
     Optional<CustomCropsSection> removeSection(int sectionID);
 
+    /**
+     * Gets the number of blocks of the given type in this chunk.
+     *
+     * @param type The block type.
+     * @return The number of blocks.
+     */
+    int blockCount(CustomCropsBlock type);
+
+    /**
+     * Gets the number of blocks whose type is an instance of the given class in this chunk.
+     *
+     * @param clazz The block class.
+     * @return The number of blocks.
+     */
+    int blockCount(Class<? extends CustomCropsBlock> clazz);
+
+    /**
+     * Gets the number of blocks of each type in this chunk.
+     *
+     * @return A {@link Map} of block types to their counts.
+     */
+    Map<CustomCropsBlock, Integer> blockCounts();
+
+    /**
+     * Gets the packed positions (see {@link BlockPos#position()}) of all blocks of the given type in this chunk.
+     * Sections without the type are skipped without visiting their blocks.
+     *
+     * @param type The block type.
+     * @return A snapshot of the packed positions.
+     */
+    int[] blockPositions(CustomCropsBlock type);
+
+    /**
+     * Gets the packed positions (see {@link BlockPos#position()}) of the blocks whose scheduled tick is due in the next second.
+     *
+     * @return The packed positions, empty if the tick tasks are going to be rearranged in the next second.
+     */
+    default int[] upcomingTickPositions() {
+        return new int[0];
+    }
+
+    /**
+     * Gets the snapshot of the world around the blocks that are about to tick.
+     *
+     * @return The snapshot, or null if none has been captured.
+     */
+    @Nullable
+    default EnvironmentSnapshot environment() {
+        return null;
+    }
+
+    /**
+     * Sets the snapshot of the world around the blocks that are about to tick.
+     *
+     * @param snapshot The snapshot, or null to clear it.
+     */
+    default void environment(@Nullable EnvironmentSnapshot snapshot) {
+    }
+
     /**
      * Checks if the chunk can be pruned (removed from memory or storage).
      *
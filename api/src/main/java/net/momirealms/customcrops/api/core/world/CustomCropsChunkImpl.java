@@ -17,6 +17,8 @@
 
 package net.momirealms.customcrops.api.core.world;
 
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.common.util.RandomUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -39,6 +41,7 @@ public class CustomCropsChunkImpl implements CustomCropsChunk {
     private boolean notified;
     private boolean isLoaded;
     private boolean forceLoad;
+    private volatile EnvironmentSnapshot environment;
 
     // new chunk
     protected CustomCropsChunkImpl(CustomCropsWorld<?> world, ChunkPos chunkPos) {
@@ -104,6 +107,7 @@ public class CustomCropsChunkImpl implements CustomCropsChunk {
                 this.isLoaded = false;
                 this.notified = false;
                 this.lazySeconds = 0;
+                this.environment = null;
             }
         }
     }
@@ -165,7 +169,29 @@ public class CustomCropsChunkImpl implements CustomCropsChunk {
         }
     }
 
+    @Override
+    public int[] upcomingTickPositions() {
+        int next = Math.max(loadedSeconds, 0) + 1;
+        if (next >= world.setting().minTickUnit()) return new int[0];
+        return queue.stream()
+                .filter(task -> task.getTime() <= next)
+                .mapToInt(task -> task.blockPos().position())
+                .toArray();
+    }
+
+    @Override
+    public EnvironmentSnapshot environment() {
+        return environment;
+    }
+
+    @Override
+    public void environment(EnvironmentSnapshot snapshot) {
+        this.environment = snapshot;
+    }
+
     private void scheduledTick(boolean offline) {
+        List<CustomCropsBlockState> states = null;
+        List<Pos3> locations = null;
         while (!queue.isEmpty() && queue.peek().getTime() <= loadedSeconds) {
             DelayedTickTask task = queue.poll();
             if (task != null) {
@@ -173,14 +199,49 @@ public class CustomCropsChunkImpl implements CustomCropsChunk {
                 CustomCropsSection section = loadedSections.get(pos.sectionID());
                 if (section != null) {
                     Optional<CustomCropsBlockState> block = section.getBlockState(pos);
-                    block.ifPresent(state -> state.type().scheduledTick(state, world, pos.toPos3(chunkPos), offline));
+                    if (block.isPresent()) {
+                        if (states == null) {
+                            states = new ArrayList<>();
+                            locations = new ArrayList<>();
+                        }
+                        states.add(block.get());
+                        locations.add(pos.toPos3(chunkPos));
+                    }
+                }
+            }
+        }
+        if (states == null) return;
+        int ticked = states.size();
+        if (ticked == 1) {
+            TickProfiler.scheduledTick(states.get(0), world, locations.get(0), offline);
+        } else {
+            // blocks of the same type are ticked together, so that they can share the work of evaluating their requirements
+            Map<CustomCropsBlock, List<Integer>> byType = new LinkedHashMap<>(4);
+            for (int i = 0; i < ticked; i++) {
+                byType.computeIfAbsent(states.get(i).type(), k -> new ArrayList<>()).add(i);
+            }
+            for (Map.Entry<CustomCropsBlock, List<Integer>> entry : byType.entrySet()) {
+                List<Integer> indexes = entry.getValue();
+                if (indexes.size() == 1) {
+                    int index = indexes.get(0);
+                    TickProfiler.scheduledTick(states.get(index), world, locations.get(index), offline);
+                    continue;
                 }
+                List<CustomCropsBlockState> typeStates = new ArrayList<>(indexes.size());
+                List<Pos3> typeLocations = new ArrayList<>(indexes.size());
+                for (int index : indexes) {
+                    typeStates.add(states.get(index));
+                    typeLocations.add(locations.get(index));
+                }
+                TickProfiler.scheduledTick(entry.getKey(), typeStates, typeLocations, world, offline);
             }
         }
+        ((CustomCropsWorldImpl<?>) world).scheduledTickMetric.add(ticked);
     }
 
     private void randomTick(int randomTickSpeed, boolean offline) {
         ThreadLocalRandom random = ThreadLocalRandom.current();
+        int ticked = 0;
         for (CustomCropsSection section : loadedSections.values()) {
             int sectionID = section.getSectionID();
             int baseY = sectionID * 16;
@@ -190,9 +251,13 @@ public class CustomCropsChunkImpl implements CustomCropsChunk {
                 int z = random.nextInt(16);
                 BlockPos pos = new BlockPos(x,y,z);
                 Optional<CustomCropsBlockState> block = section.getBlockState(pos);
-                block.ifPresent(state -> state.type().randomTick(state, world, pos.toPos3(chunkPos), offline));
+                if (block.isPresent()) {
+                    TickProfiler.randomTick(block.get(), world, pos.toPos3(chunkPos), offline);
+                    ticked++;
+                }
             }
         }
+        if (ticked != 0) ((CustomCropsWorldImpl<?>) world).randomTickMetric.add(ticked);
     }
 
     @Override
@@ -279,6 +344,56 @@ public class CustomCropsChunkImpl implements CustomCropsChunk {
         return Optional.ofNullable(loadedSections.remove(sectionID));
     }
 
+    @Override
+    public int blockCount(CustomCropsBlock type) {
+        int count = 0;
+        for (CustomCropsSection section : loadedSections.values()) {
+            count += section.blockCounts().getOrDefault(type, 0);
+        }
+        return count;
+    }
+
+    @Override
+    public int blockCount(Class<? extends CustomCropsBlock> clazz) {
+        int count = 0;
+        for (CustomCropsSection section : loadedSections.values()) {
+            for (Map.Entry<CustomCropsBlock, Integer> entry : section.blockCounts().entrySet()) {
+                if (clazz.isInstance(entry.getKey())) {
+                    count += entry.getValue();
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Map<CustomCropsBlock, Integer> blockCounts() {
+        HashMap<CustomCropsBlock, Integer> counts = new HashMap<>();
+        for (CustomCropsSection section : loadedSections.values()) {
+            for (Map.Entry<CustomCropsBlock, Integer> entry : section.blockCounts().entrySet()) {
+                counts.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public int[] blockPositions(CustomCropsBlock type) {
+        int[] result = null;
+        for (CustomCropsSection section : loadedSections.values()) {
+            if (!section.blockCounts().containsKey(type)) continue;
+            int[] positions = section.blockPositions(type);
+            if (result == null) {
+                result = positions;
+            } else {
+                int length = result.length;
+                result = Arrays.copyOf(result, length + positions.length);
+                System.arraycopy(positions, 0, result, length, positions.length);
+            }
+        }
+        return result == null ? new int[0] : result;
+    }
+
     @Override
     public boolean canPrune() {
         return loadedSections.isEmpty();
@@ -96,4 +96,18 @@ public interface CustomCropsRegion {
      * @return true if the region can be pruned, false otherwise.
      */
     boolean canPrune();
+
+    /**
+     * Gets the total size of the chunk data cached by this region.
+     *
+     * @return The size in bytes.
+     */
+    long cachedBytes();
+
+    /**
+     * Gets the last time the cached chunk data of this region was read or written.
+     *
+     * @return The time in milliseconds.
+     */
+    long lastAccessTime();
 }
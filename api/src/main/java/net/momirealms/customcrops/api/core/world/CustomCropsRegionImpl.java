@@ -22,12 +22,15 @@ import org.jetbrains.annotations.NotNull;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CustomCropsRegionImpl implements CustomCropsRegion {
 
     private final CustomCropsWorld<?> world;
     private final RegionPos regionPos;
     private final ConcurrentHashMap<ChunkPos, byte[]> cachedChunks;
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private volatile long lastAccessTime = System.currentTimeMillis();
     private boolean isLoaded = false;
 
     protected CustomCropsRegionImpl(CustomCropsWorld<?> world, RegionPos regionPos) {
@@ -40,6 +43,9 @@ public class CustomCropsRegionImpl implements CustomCropsRegion {
         this.world = world;
         this.regionPos = regionPos;
         this.cachedChunks = cachedChunks;
+        for (byte[] data : cachedChunks.values()) {
+            this.cachedBytes.addAndGet(data.length);
+        }
     }
 
     @Override
@@ -73,6 +79,7 @@ public class CustomCropsRegionImpl implements CustomCropsRegion {
 
     @Override
     public byte[] getCachedChunkBytes(ChunkPos pos) {
+        this.lastAccessTime = System.currentTimeMillis();
         return this.cachedChunks.get(pos);
     }
 
@@ -84,12 +91,19 @@ public class CustomCropsRegionImpl implements CustomCropsRegion {
 
     @Override
     public boolean removeCachedChunk(ChunkPos pos) {
-        return cachedChunks.remove(pos) != null;
+        byte[] previous = cachedChunks.remove(pos);
+        if (previous == null) {
+            return false;
+        }
+        this.cachedBytes.addAndGet(-previous.length);
+        return true;
     }
 
     @Override
     public void setCachedChunk(ChunkPos pos, byte[] data) {
-        this.cachedChunks.put(pos, data);
+        this.lastAccessTime = System.currentTimeMillis();
+        byte[] previous = this.cachedChunks.put(pos, data);
+        this.cachedBytes.addAndGet(previous == null ? data.length : data.length - previous.length);
     }
 
     @Override
@@ -101,4 +115,14 @@ public class CustomCropsRegionImpl implements CustomCropsRegion {
     public boolean canPrune() {
         return cachedChunks.isEmpty();
     }
+
+    @Override
+    public long cachedBytes() {
+        return this.cachedBytes.get();
+    }
+
+    @Override
+    public long lastAccessTime() {
+        return this.lastAccessTime;
+    }
 }
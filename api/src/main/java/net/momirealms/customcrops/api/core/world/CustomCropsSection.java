@@ -17,6 +17,7 @@
 
 package net.momirealms.customcrops.api.core.world;
 
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Map;
@@ -104,4 +105,22 @@ public interface CustomCropsSection {
      * @return A {@link Map} of {@link BlockPos} to {@link CustomCropsBlockState}.
      */
     Map<BlockPos, CustomCropsBlockState> blockMap();
+
+    /**
+     * Gets the number of blocks of each type in this section.
+     * The counts are kept up to date by {@link #addBlockState(BlockPos, CustomCropsBlockState)} and
+     * {@link #removeBlockState(BlockPos)}.
+     *
+     * @return the block counts by type
+     */
+    Map<CustomCropsBlock, Integer> blockCounts();
+
+    /**
+     * Gets the packed positions (see {@link BlockPos#position()}) of all blocks of the given type in this section.
+     * The returned array is a snapshot and can be used without holding any lock.
+     *
+     * @param type the block type
+     * @return the packed positions, empty if there are none
+     */
+    int[] blockPositions(CustomCropsBlock type);
 }
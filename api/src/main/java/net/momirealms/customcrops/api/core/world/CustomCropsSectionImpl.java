@@ -17,6 +17,7 @@
 
 package net.momirealms.customcrops.api.core.world;
 
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Map;
@@ -27,15 +28,24 @@ public class CustomCropsSectionImpl implements CustomCropsSection {
 
     private final int sectionID;
     private final ConcurrentHashMap<BlockPos, CustomCropsBlockState> blocks;
+    private final ConcurrentHashMap<CustomCropsBlock, Integer> counts;
+    private final ConcurrentHashMap<CustomCropsBlock, PackedPositions> index;
 
     protected CustomCropsSectionImpl(int sectionID) {
         this.sectionID = sectionID;
         this.blocks = new ConcurrentHashMap<>();
+        this.counts = new ConcurrentHashMap<>(4);
+        this.index = new ConcurrentHashMap<>(4);
     }
 
     protected CustomCropsSectionImpl(int sectionID, ConcurrentHashMap<BlockPos, CustomCropsBlockState> blocks) {
         this.sectionID = sectionID;
         this.blocks = blocks;
+        this.counts = new ConcurrentHashMap<>(4);
+        this.index = new ConcurrentHashMap<>(4);
+        for (Map.Entry<BlockPos, CustomCropsBlockState> entry : blocks.entrySet()) {
+            count(entry.getKey(), entry.getValue(), 1);
+        }
     }
 
     @Override
@@ -52,13 +62,18 @@ public class CustomCropsSectionImpl implements CustomCropsSection {
     @NotNull
     @Override
     public Optional<CustomCropsBlockState> removeBlockState(BlockPos pos) {
-        return Optional.ofNullable(blocks.remove(pos));
+        CustomCropsBlockState removed = blocks.remove(pos);
+        count(pos, removed, -1);
+        return Optional.ofNullable(removed);
     }
 
     @NotNull
     @Override
     public Optional<CustomCropsBlockState> addBlockState(BlockPos pos, CustomCropsBlockState block) {
-        return Optional.ofNullable(blocks.put(pos, block));
+        CustomCropsBlockState previous = blocks.put(pos, block);
+        count(pos, block, 1);
+        count(pos, previous, -1);
+        return Optional.ofNullable(previous);
     }
 
     @Override
@@ -75,4 +90,32 @@ public class CustomCropsSectionImpl implements CustomCropsSection {
     public Map<BlockPos, CustomCropsBlockState> blockMap() {
         return blocks;
     }
+
+    @Override
+    public Map<CustomCropsBlock, Integer> blockCounts() {
+        return counts;
+    }
+
+    @Override
+    public int[] blockPositions(CustomCropsBlock type) {
+        PackedPositions positions = index.get(type);
+        return positions == null ? new int[0] : positions.toArray();
+    }
+
+    // each change is counted against the state that the map actually returned, so the counts stay exact under races
+    private void count(BlockPos pos, CustomCropsBlockState state, int delta) {
+        if (state == null) return;
+        counts.merge(state.type(), delta, (a, b) -> a + b == 0 ? null : a + b);
+        // the list is only created and dropped inside compute, so a concurrent add never lands in a discarded list
+        index.compute(state.type(), (type, positions) -> {
+            if (delta > 0) {
+                if (positions == null) positions = new PackedPositions();
+                positions.add(pos.position());
+                return positions;
+            }
+            if (positions == null) return null;
+            positions.remove(pos.position());
+            return positions.isEmpty() ? null : positions;
+        });
+    }
 }
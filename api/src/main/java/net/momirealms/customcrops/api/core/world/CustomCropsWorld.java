@@ -20,12 +20,15 @@ package net.momirealms.customcrops.api.core.world;
 import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import net.momirealms.customcrops.api.core.world.adaptor.WorldAdaptor;
 import org.bukkit.World;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 /**
  * Interface representing a custom world in the CustomCrops plugin
@@ -113,6 +116,25 @@ public interface CustomCropsWorld<W> {
      */
     WorldExtraData extraData();
 
+    /**
+     * Gets the cached season and date of this world. The cache is refreshed every second and whenever
+     * the season or date is changed through CustomCrops, so it's cheap enough to read for every block.
+     *
+     * @return The {@link SeasonState} of this world.
+     */
+    @NotNull
+    SeasonState seasonState();
+
+    /**
+     * Replaces the cached season and date of this world.
+     * Use {@link WorldManager#refreshSeasonState(CustomCropsWorld)} instead so that listeners are notified.
+     *
+     * @param state The new state.
+     * @return The previous state.
+     */
+    @ApiStatus.Internal
+    SeasonState seasonState(@NotNull SeasonState state);
+
     /**
      * Tests if adding a specified amount of blocks of a certain type would exceed
      * the chunk limitation for that block type.
@@ -142,6 +164,18 @@ public interface CustomCropsWorld<W> {
      */
     int getChunkBlockAmount(Pos3 pos3, Class<? extends CustomCropsBlock> clazz);
 
+    /**
+     * Visits the block states inside a box, corners included.
+     * Only the tracked blocks of the chunks and sections that intersect the box are visited, and chunks that are
+     * not loaded are read without being loaded.
+     *
+     * @param min      One corner of the box.
+     * @param max      The opposite corner of the box.
+     * @param filter   The filter of the block states to visit.
+     * @param consumer The consumer of the positions and block states.
+     */
+    void forEachBlockInBox(Pos3 min, Pos3 max, Predicate<CustomCropsBlockState> filter, BiConsumer<Pos3, CustomCropsBlockState> consumer);
+
     /**
      * Gets all the loaded chunks in this world.
      *
@@ -321,6 +355,15 @@ public interface CustomCropsWorld<W> {
     @NotNull
     CustomCropsRegion getOrCreateRegion(RegionPos regionPos);
 
+    /**
+     * Saves and unloads the least recently used regions that have no loaded chunks, until at least
+     * the given amount of cached chunk data has been dropped. This should be called on the scheduler of this world.
+     *
+     * @param bytes The amount of cached chunk data to drop.
+     * @return The amount of cached chunk data dropped, in bytes.
+     */
+    long unloadIdleRegions(long bytes);
+
     /**
      * Get the scheduler for this world
      *
@@ -18,8 +18,12 @@
 package net.momirealms.customcrops.api.core.world;
 
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.ConfigManager;
 import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import net.momirealms.customcrops.api.core.world.adaptor.WorldAdaptor;
+import net.momirealms.customcrops.api.misc.metrics.CustomCropsMetrics;
+import net.momirealms.customcrops.api.misc.metrics.Histogram;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.common.helper.VersionHelper;
 import net.momirealms.customcrops.common.plugin.scheduler.SchedulerAdapter;
 import net.momirealms.customcrops.common.plugin.scheduler.SchedulerTask;
@@ -32,16 +36,28 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
 
+    private static final int LAZY_CHUNK_SECONDS = 30;
+    // spreads the saving out when many chunks are unloaded at once, e.g. after players teleport away
+    private static final int MAX_LAZY_SAVES_PER_SECOND = 256;
+
     private final ConcurrentHashMap<ChunkPos, CustomCropsChunk> loadedChunks = new ConcurrentHashMap<>(512);
     private final ConcurrentHashMap<ChunkPos, CustomCropsChunk> lazyChunks = new ConcurrentHashMap<>(128);
+    private final ConcurrentLinkedQueue<LazyChunkEntry> lazyExpiryQueue = new ConcurrentLinkedQueue<>();
+    private volatile long lazyClock;
     private final ConcurrentHashMap<RegionPos, CustomCropsRegion> loadedRegions = new ConcurrentHashMap<>(128);
     private final WeakReference<W> world;
     private final WeakReference<World> bukkitWorld;
@@ -52,7 +68,12 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
     private WorldSetting setting;
     private final WorldAdaptor<W> adaptor;
     private final WorldExtraData extraData;
+    private volatile SeasonState seasonState = SeasonState.DISABLED;
     private final WorldScheduler scheduler;
+    private final Histogram.Child tickTimeMetric;
+    private final Histogram.Child saveTimeMetric;
+    final LongAdder scheduledTickMetric;
+    final LongAdder randomTickMetric;
 
     public CustomCropsWorldImpl(W world, WorldAdaptor<W> adaptor) {
         this.world = new WeakReference<>(world);
@@ -63,6 +84,10 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         this.extraData = adaptor.loadExtraData(world);
         this.currentMinecraftDay = (int) (bukkitWorld().getFullTime() / 24_000);
         this.scheduler = new WorldScheduler(BukkitCustomCropsPlugin.getInstance());
+        this.tickTimeMetric = CustomCropsMetrics.WORLD_TICK_SECONDS.labels(worldName);
+        this.saveTimeMetric = CustomCropsMetrics.WORLD_SAVE_SECONDS.labels(worldName);
+        this.scheduledTickMetric = CustomCropsMetrics.BLOCK_TICKS.labels(worldName, "scheduled");
+        this.randomTickMetric = CustomCropsMetrics.BLOCK_TICKS.labels(worldName, "random");
     }
 
     @NotNull
@@ -77,58 +102,65 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         return extraData;
     }
 
+    @NotNull
+    @Override
+    public SeasonState seasonState() {
+        return seasonState;
+    }
+
+    @Override
+    public synchronized SeasonState seasonState(@NotNull SeasonState state) {
+        SeasonState previous = this.seasonState;
+        this.seasonState = state;
+        return previous;
+    }
+
     @Override
     public boolean testChunkLimitation(Pos3 pos3, Class<? extends CustomCropsBlock> clazz, int amount) {
-        Optional<CustomCropsChunk> optional = getChunk(pos3.toChunkPos());
-        if (optional.isPresent()) {
-            int i = 0;
-            CustomCropsChunk chunk = optional.get();
-            for (CustomCropsSection section : chunk.sections()) {
-                for (CustomCropsBlockState state : section.blockMap().values()) {
-                    if (clazz.isAssignableFrom(state.type().getClass())) {
-                        i++;
-                        if (i >= amount) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        int count = getChunkBlockAmount(pos3, clazz);
+        return count > 0 && count >= amount;
     }
 
     @Override
     public boolean doesChunkHaveBlock(Pos3 pos3, Class<? extends CustomCropsBlock> clazz) {
-        Optional<CustomCropsChunk> optional = getChunk(pos3.toChunkPos());
-        if (optional.isPresent()) {
-            CustomCropsChunk chunk = optional.get();
-            for (CustomCropsSection section : chunk.sections()) {
-                for (CustomCropsBlockState state : section.blockMap().values()) {
-                    if (clazz.isAssignableFrom(state.type().getClass())) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return getChunkBlockAmount(pos3, clazz) > 0;
     }
 
     @Override
     public int getChunkBlockAmount(Pos3 pos3, Class<? extends CustomCropsBlock> clazz) {
-        Optional<CustomCropsChunk> optional = getChunk(pos3.toChunkPos());
-        if (optional.isPresent()) {
-            int i = 0;
-            CustomCropsChunk chunk = optional.get();
-            for (CustomCropsSection section : chunk.sections()) {
-                for (CustomCropsBlockState state : section.blockMap().values()) {
-                    if (clazz.isAssignableFrom(state.type().getClass())) {
-                        i++;
+        return getChunk(pos3.toChunkPos()).map(chunk -> chunk.blockCount(clazz)).orElse(0);
+    }
+
+    @Override
+    public void forEachBlockInBox(Pos3 min, Pos3 max, Predicate<CustomCropsBlockState> filter, BiConsumer<Pos3, CustomCropsBlockState> consumer) {
+        int minX = Math.min(min.x(), max.x());
+        int minY = Math.min(min.y(), max.y());
+        int minZ = Math.min(min.z(), max.z());
+        int maxX = Math.max(min.x(), max.x());
+        int maxY = Math.max(min.y(), max.y());
+        int maxZ = Math.max(min.z(), max.z());
+        int minSection = Math.floorDiv(minY, 16);
+        int maxSection = Math.floorDiv(maxY, 16);
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                ChunkPos chunkPos = ChunkPos.of(chunkX, chunkZ);
+                // unlike getBlockState, this doesn't load the chunk
+                Optional<CustomCropsChunk> chunk = getChunk(chunkPos);
+                if (chunk.isEmpty()) continue;
+                for (CustomCropsSection section : chunk.get().sections()) {
+                    int sectionID = section.getSectionID();
+                    if (sectionID < minSection || sectionID > maxSection) continue;
+                    for (Map.Entry<BlockPos, CustomCropsBlockState> entry : section.blockMap().entrySet()) {
+                        Pos3 pos = entry.getKey().toPos3(chunkPos);
+                        if (pos.x() < minX || pos.x() > maxX || pos.y() < minY || pos.y() > maxY || pos.z() < minZ || pos.z() > maxZ) {
+                            continue;
+                        }
+                        if (filter.test(entry.getValue())) {
+                            consumer.accept(pos, entry.getValue());
+                        }
                     }
                 }
             }
-            return i;
-        } else {
-            return 0;
         }
     }
 
@@ -211,6 +243,7 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
     }
 
     private void save() {
+        long start = System.nanoTime();
         long time1 = System.currentTimeMillis();
         this.adaptor.saveExtraData(this);
         for (CustomCropsChunk chunk : loadedChunks.values()) {
@@ -222,6 +255,7 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         for (CustomCropsRegion region : loadedRegions.values()) {
             this.adaptor.saveRegion(this, region);
         }
+        this.saveTimeMetric.observeNanos(System.nanoTime() - start);
         long time2 = System.currentTimeMillis();
         BukkitCustomCropsPlugin.getInstance().debug(() -> "Took " + (time2-time1) + "ms to save world " + worldName + ". Saved " + (lazyChunks.size() + loadedChunks.size()) + " chunks.");
     }
@@ -230,14 +264,20 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
     public void setTicking(boolean tick) {
         if (tick) {
             if (this.tickTask == null || this.tickTask.isCancelled())
-                this.tickTask = this.scheduler.asyncRepeating(this::timer, 1, 1, TimeUnit.SECONDS);
+                this.tickTask = this.scheduler.asyncRepeating(() -> TickProfiler.worldTimer(worldName, this::timer), 1, 1, TimeUnit.SECONDS);
         } else {
             if (this.tickTask != null && !this.tickTask.isCancelled())
                 this.tickTask.cancel();
         }
     }
 
-    private void timer() {
+    /**
+     * Runs one second of the world timer on the calling thread. This is normally
+     * driven by {@link #setTicking(boolean)} and is only exposed for simulations.
+     */
+    @ApiStatus.Internal
+    public void timer() {
+        long start = System.nanoTime();
         saveLazyChunks();
         saveLazyRegions();
         if (isANewDay()) {
@@ -248,21 +288,56 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         if (setting().enableScheduler()) {
             tickChunks();
         }
+        this.tickTimeMetric.observeNanos(System.nanoTime() - start);
     }
 
     private void tickChunks() {
+        boolean snapshot = ConfigManager.worldSnapshot();
         if (VersionHelper.isFolia()) {
             SchedulerAdapter<Location, World> scheduler = BukkitCustomCropsPlugin.getInstance().getScheduler();
             for (CustomCropsChunk chunk : loadedChunks.values()) {
-                scheduler.sync().run(chunk::timer, bukkitWorld(), chunk.chunkPos().x(), chunk.chunkPos().z());
+                scheduler.sync().run(() -> {
+                    TickProfiler.chunkTimer(worldName, chunk);
+                    if (snapshot) captureEnvironment(chunk, chunk.upcomingTickPositions());
+                }, bukkitWorld(), chunk.chunkPos().x(), chunk.chunkPos().z());
             }
         } else {
+            List<UpcomingTicks> upcoming = new ArrayList<>();
             for (CustomCropsChunk chunk : loadedChunks.values()) {
-                chunk.timer();
+                TickProfiler.chunkTimer(worldName, chunk);
+                if (snapshot) {
+                    int[] positions = chunk.upcomingTickPositions();
+                    if (positions.length == 0) chunk.environment(null);
+                    else upcoming.add(new UpcomingTicks(chunk, positions));
+                }
+            }
+            // the world is read on the main thread in one pass, while the blocks tick on this thread in the next second
+            if (!upcoming.isEmpty()) {
+                BukkitCustomCropsPlugin.getInstance().getScheduler().sync().run(() -> {
+                    for (UpcomingTicks ticks : upcoming) {
+                        captureEnvironment(ticks.chunk(), ticks.positions());
+                    }
+                });
             }
         }
     }
 
+    private void captureEnvironment(CustomCropsChunk chunk, int[] positions) {
+        if (positions.length == 0 || !chunk.isLoaded()) {
+            chunk.environment(null);
+            return;
+        }
+        World bukkitWorld = bukkitWorld();
+        if (bukkitWorld == null || !bukkitWorld.isChunkLoaded(chunk.chunkPos().x(), chunk.chunkPos().z())) {
+            chunk.environment(null);
+            return;
+        }
+        chunk.environment(EnvironmentSnapshot.capture(chunk, positions));
+    }
+
+    private record UpcomingTicks(CustomCropsChunk chunk, int[] positions) {
+    }
+
     private void updateSeasonAndDate() {
         int date = extraData().getDate();
         date++;
@@ -273,6 +348,10 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         } else {
             extraData().setDate(date);
         }
+        WorldManager worldManager = BukkitCustomCropsPlugin.getInstance().getWorldManager();
+        if (worldManager != null) {
+            worldManager.refreshSeasonState(this);
+        }
     }
 
     private boolean isANewDay() {
@@ -301,22 +380,36 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         }
     }
 
+    /**
+     * Saves the lazy chunks whose grace period is over. Chunks become lazy in deadline order,
+     * so only the head of the queue has to be looked at.
+     */
     private void saveLazyChunks() {
-        ArrayList<CustomCropsChunk> chunksToSave = new ArrayList<>();
-        for (Map.Entry<ChunkPos, CustomCropsChunk> lazyEntry : this.lazyChunks.entrySet()) {
-            CustomCropsChunk chunk = lazyEntry.getValue();
-            int sec = chunk.lazySeconds() + 1;
-            if (sec >= 30) {
-                chunksToSave.add(chunk);
-            } else {
-                chunk.lazySeconds(sec);
+        long now = this.lazyClock + 1;
+        this.lazyClock = now;
+        int saved = 0;
+        LazyChunkEntry entry;
+        while (saved < MAX_LAZY_SAVES_PER_SECOND && (entry = this.lazyExpiryQueue.peek()) != null && entry.deadline() <= now) {
+            this.lazyExpiryQueue.poll();
+            CustomCropsChunk chunk = entry.chunk();
+            // the chunk has been loaded again or saved in the meantime
+            if (this.lazyChunks.get(chunk.chunkPos()) != chunk || chunk.lastLoadedTime() != entry.unloadTime()) {
+                continue;
             }
-        }
-        for (CustomCropsChunk chunk : chunksToSave) {
+            chunk.lazySeconds((int) (now - entry.deadline()) + LAZY_CHUNK_SECONDS);
             unloadLazyChunk(chunk.chunkPos());
+            saved++;
         }
     }
 
+    private void addLazyChunk(ChunkPos pos, CustomCropsChunk chunk) {
+        this.lazyChunks.put(pos, chunk);
+        this.lazyExpiryQueue.add(new LazyChunkEntry(chunk, chunk.lastLoadedTime(), this.lazyClock + LAZY_CHUNK_SECONDS));
+    }
+
+    private record LazyChunkEntry(CustomCropsChunk chunk, long unloadTime, long deadline) {
+    }
+
     @Override
     public W world() {
         return world.get();
@@ -393,7 +486,7 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         this.loadedChunks.remove(chunk.chunkPos());
         chunk.updateLastUnloadTime();
         if (lazy) {
-            this.lazyChunks.put(pos, chunk);
+            this.addLazyChunk(pos, chunk);
         } else {
             this.adaptor.saveChunk(this, chunk);
         }
@@ -406,7 +499,7 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         if (removed != null) {
             removed.updateLastUnloadTime();
             if (lazy) {
-                this.lazyChunks.put(pos, removed);
+                this.addLazyChunk(pos, removed);
             } else {
                 this.adaptor.saveChunk(this, removed);
             }
@@ -499,6 +592,28 @@ public class CustomCropsWorldImpl<W> implements CustomCropsWorld<W> {
         return Objects.requireNonNull(getLoadedRegion(regionPos).orElse(adaptor.loadRegion(this, regionPos, true)));
     }
 
+    @Override
+    public long unloadIdleRegions(long bytes) {
+        ArrayList<CustomCropsRegion> regions = new ArrayList<>(this.loadedRegions.values());
+        regions.sort(Comparator.comparingLong(CustomCropsRegion::lastAccessTime));
+        long dropped = 0;
+        for (CustomCropsRegion region : regions) {
+            if (dropped >= bytes) {
+                break;
+            }
+            if (!shouldUnloadRegion(region.regionPos())) {
+                continue;
+            }
+            long size = region.cachedBytes();
+            region.unload();
+            if (!region.isLoaded()) {
+                dropped += size;
+                CustomCropsMetrics.REGION_EVICTIONS.labels(worldName).increment();
+            }
+        }
+        return dropped;
+    }
+
     private boolean shouldUnloadRegion(RegionPos regionPos) {
         World bukkitWorld = bukkitWorld();
         for (int chunkX = regionPos.x() * 32; chunkX < regionPos.x() * 32 + 32; chunkX++) {
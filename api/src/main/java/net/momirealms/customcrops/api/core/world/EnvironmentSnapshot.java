@@ -0,0 +1,259 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.core.world;
+
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.ConfigManager;
+import net.momirealms.customcrops.api.core.block.CropBlock;
+import net.momirealms.customcrops.api.core.block.PotBlock;
+import net.momirealms.customcrops.api.core.mechanic.crop.CropConfig;
+import net.momirealms.customcrops.api.core.mechanic.crop.CropStageConfig;
+import net.momirealms.customcrops.api.core.mechanic.pot.PotConfig;
+import net.momirealms.customcrops.api.requirement.BlockBatch;
+import net.momirealms.customcrops.common.helper.VersionHelper;
+import net.momirealms.sparrow.heart.SparrowHeart;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of the world facts around the blocks of a chunk that are about to tick.
+ * <p>
+ * The snapshot is captured in one pass on the thread that owns the chunk, and is then read without locks by the
+ * ticking workers. Blocks that are not in the snapshot, and values that were not captured, should be read from the
+ * world as before.
+ */
+public final class EnvironmentSnapshot {
+
+    private static final byte RAIN = 1;
+    private static final byte RAIN_KNOWN = 1 << 1;
+    private static final byte WATER = 1 << 2;
+    private static final byte WATER_KNOWN = 1 << 3;
+    private static final byte BLOCK_ID_KNOWN = 1 << 4;
+
+    private final int[] positions;
+    private final byte[] lightLevels;
+    private final byte[] skyLights;
+    private final double[] temperatures;
+    private final String[] biomes;
+    private final byte[] flags;
+    private final String[] blockIDs;
+    // the config and point of the block when its id was captured
+    private final String[] configIDs;
+    private final int[] points;
+
+    private EnvironmentSnapshot(int[] positions) {
+        int size = positions.length;
+        this.positions = positions;
+        this.lightLevels = new byte[size];
+        this.skyLights = new byte[size];
+        this.temperatures = new double[size];
+        this.biomes = new String[size];
+        this.flags = new byte[size];
+        this.blockIDs = new String[size];
+        this.configIDs = new String[size];
+        this.points = new int[size];
+    }
+
+    /**
+     * Captures the world around the given blocks of a chunk. This must be called on the thread that owns the chunk.
+     *
+     * @param chunk     the chunk
+     * @param positions the packed positions (see {@link BlockPos#position()}) of the blocks
+     * @return the snapshot
+     */
+    public static EnvironmentSnapshot capture(CustomCropsChunk chunk, int[] positions) {
+        int[] sorted = Arrays.stream(positions).sorted().distinct().toArray();
+        EnvironmentSnapshot snapshot = new EnvironmentSnapshot(sorted);
+        World bukkitWorld = chunk.getWorld().bukkitWorld();
+        ChunkPos chunkPos = chunk.chunkPos();
+        boolean doubleCheck = ConfigManager.doubleCheck();
+        BukkitCustomCropsPlugin plugin = BukkitCustomCropsPlugin.getInstance();
+        // the nearby water of pots is searched in a 9x9 area, which may reach into the neighbouring chunks
+        // on other servers the main thread owns every chunk
+        boolean folia = VersionHelper.isFolia();
+        boolean neighboursReadable = true;
+        for (int dx = -1; dx <= 1 && neighboursReadable; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                int x = chunkPos.x() + dx;
+                int z = chunkPos.z() + dz;
+                if (!bukkitWorld.isChunkLoaded(x, z) || (folia && !Bukkit.isOwnedByCurrentRegion(bukkitWorld, x, z))) {
+                    neighboursReadable = false;
+                    break;
+                }
+            }
+        }
+        HashMap<Long, String> biomeCells = new HashMap<>();
+        for (int i = 0; i < sorted.length; i++) {
+            Pos3 pos3 = new BlockPos(sorted[i]).toPos3(chunkPos);
+            Location location = pos3.toLocation(bukkitWorld);
+            Block block = location.getBlock();
+            snapshot.lightLevels[i] = block.getLightLevel();
+            snapshot.skyLights[i] = block.getLightFromSky();
+            snapshot.temperatures[i] = bukkitWorld.getTemperature(pos3.x(), pos3.y(), pos3.z());
+            snapshot.biomes[i] = biomeCells.computeIfAbsent(BlockBatch.biomeCell(pos3.x(), pos3.y(), pos3.z()), k -> SparrowHeart.getInstance().getBiomeResourceLocation(location));
+
+            Optional<CustomCropsBlockState> optionalState = chunk.getBlockState(pos3);
+            if (optionalState.isEmpty()) continue;
+            CustomCropsBlockState state = optionalState.get();
+            byte flag = 0;
+            if (state.type() instanceof PotBlock potBlock) {
+                PotConfig config = potBlock.config(state);
+                if (config == null) continue;
+                if (config.isRainDropAccepted()) {
+                    flag |= RAIN_KNOWN;
+                    if (SparrowHeart.getInstance().isRainingAt(location.clone().add(0,1,0))) flag |= RAIN;
+                }
+                if (config.isNearbyWaterAccepted() && neighboursReadable) {
+                    flag |= WATER_KNOWN;
+                    if (potBlock.isNearWater(bukkitWorld, pos3)) flag |= WATER;
+                }
+                if (doubleCheck) {
+                    flag |= BLOCK_ID_KNOWN;
+                    snapshot.blockIDs[i] = plugin.getItemManager().blockID(location);
+                    snapshot.configIDs[i] = config.id();
+                }
+            } else if (state.type() instanceof CropBlock cropBlock && doubleCheck) {
+                CropConfig config = cropBlock.config(state);
+                if (config == null) continue;
+                int point = cropBlock.point(state);
+                CropStageConfig nearest = config.stageWithModelByPoint(point);
+                if (nearest != null) {
+                    flag |= BLOCK_ID_KNOWN;
+                    snapshot.blockIDs[i] = plugin.getItemManager().id(location, nearest.existenceForm());
+                    snapshot.configIDs[i] = config.id();
+                    snapshot.points[i] = point;
+                }
+            }
+            snapshot.flags[i] = flag;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the latest snapshot of the chunk containing the location
+     *
+     * @param world    the world
+     * @param location the location
+     * @return the snapshot, or null if there is none or snapshots are disabled
+     */
+    @Nullable
+    public static EnvironmentSnapshot of(CustomCropsWorld<?> world, Pos3 location) {
+        if (!ConfigManager.worldSnapshot()) return null;
+        return world.getLoadedChunk(location.toChunkPos()).map(CustomCropsChunk::environment).orElse(null);
+    }
+
+    /**
+     * Gets the index of a block in this snapshot
+     *
+     * @param location the location of the block
+     * @return the index, or -1 if the block was not captured
+     */
+    public int indexOf(Pos3 location) {
+        int index = Arrays.binarySearch(positions, BlockPos.fromPos3(location).position());
+        return index < 0 ? -1 : index;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public int lightLevel(int index) {
+        return lightLevels[index];
+    }
+
+    public int skyLight(int index) {
+        return skyLights[index];
+    }
+
+    public double temperature(int index) {
+        return temperatures[index];
+    }
+
+    public String biome(int index) {
+        return biomes[index];
+    }
+
+    /**
+     * Gets whether rain falls on the block above
+     *
+     * @param index the index of the block
+     * @return the result, or null if it was not captured
+     */
+    @Nullable
+    public Boolean isRainingAbove(int index) {
+        byte flag = flags[index];
+        if ((flag & RAIN_KNOWN) == 0) return null;
+        return (flag & RAIN) != 0;
+    }
+
+    /**
+     * Gets whether there's water near the pot
+     *
+     * @param index the index of the block
+     * @return the result, or null if it was not captured
+     */
+    @Nullable
+    public Boolean isNearWater(int index) {
+        byte flag = flags[index];
+        if ((flag & WATER_KNOWN) == 0) return null;
+        return (flag & WATER) != 0;
+    }
+
+    /**
+     * Gets whether the block/furniture id of a pot was captured for double check while the pot had the given config.
+     * An id captured for another config may belong to a block that has been replaced since, so it must not be trusted.
+     *
+     * @param index    the index of the block
+     * @param configID the current config id of the pot
+     * @return true if it was captured
+     */
+    public boolean hasBlockID(int index, String configID) {
+        return (flags[index] & BLOCK_ID_KNOWN) != 0 && configID.equals(configIDs[index]);
+    }
+
+    /**
+     * Gets whether the block/furniture id of a crop was captured for double check while the crop had the given
+     * config and point. The model of a crop changes with its point, so an id captured at another point is outdated.
+     *
+     * @param index    the index of the block
+     * @param configID the current config id of the crop
+     * @param point    the current point of the crop
+     * @return true if it was captured
+     */
+    public boolean hasBlockID(int index, String configID, int point) {
+        return hasBlockID(index, configID) && points[index] == point;
+    }
+
+    /**
+     * Gets the block/furniture id at the location
+     *
+     * @param index the index of the block
+     * @return the id, see {@link #hasBlockID(int, String)}
+     */
+    @Nullable
+    public String blockID(int index) {
+        return blockIDs[index];
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.core.world;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of packed {@link BlockPos} positions, used as the per-type secondary index of a section.
+ * Removal swaps the last element into the freed slot, so the order is not stable.
+ */
+final class PackedPositions {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] positions = new int[4];
+    private int size;
+
+    synchronized void add(int position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size << 1);
+        }
+        positions[size++] = position;
+    }
+
+    synchronized boolean remove(int position) {
+        for (int i = 0; i < size; i++) {
+            if (positions[i] == position) {
+                positions[i] = positions[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    synchronized int[] toArray() {
+        return size == 0 ? EMPTY : Arrays.copyOf(positions, size);
+    }
+}
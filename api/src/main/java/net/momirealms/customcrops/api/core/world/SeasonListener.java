@@ -0,0 +1,35 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.core.world;
+
+/**
+ * Listens for changes of the cached season or date of a world.
+ */
+@FunctionalInterface
+public interface SeasonListener {
+
+    /**
+     * Called after the cached season or date of a world has changed.
+     * This might be called off the main thread.
+     *
+     * @param world    The world whose state changed.
+     * @param previous The previous state.
+     * @param current  The new state.
+     */
+    void onSeasonChange(CustomCropsWorld<?> world, SeasonState previous, SeasonState current);
+}
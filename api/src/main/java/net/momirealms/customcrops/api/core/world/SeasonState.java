@@ -0,0 +1,32 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.core.world;
+
+/**
+ * An immutable view of the season and date of a world, as reported by the active season provider.
+ *
+ * @param season The season, {@link Season#DISABLE} if seasons are disabled in the world.
+ * @param date   The date, -1 if it's unknown.
+ */
+public record SeasonState(Season season, int date) {
+
+    /**
+     * The state of a world that has not been resolved yet or has no season.
+     */
+    public static final SeasonState DISABLED = new SeasonState(Season.DISABLE, -1);
+}
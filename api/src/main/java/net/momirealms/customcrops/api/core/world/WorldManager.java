@@ -22,6 +22,7 @@ import net.momirealms.customcrops.api.integration.SeasonProvider;
 import net.momirealms.customcrops.common.plugin.feature.Reloadable;
 import org.bukkit.World;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.TreeSet;
 
@@ -55,6 +56,30 @@ public interface WorldManager extends Reloadable {
      */
     int getDate(World world);
 
+    /**
+     * Reads the season and date of a world from the season provider again and updates its cached
+     * {@link SeasonState}. Listeners are notified if the state changed. Season providers can call this
+     * to report a change immediately, otherwise it's picked up within a second.
+     *
+     * @param world The CustomCrops world.
+     * @return The current state.
+     */
+    SeasonState refreshSeasonState(CustomCropsWorld<?> world);
+
+    /**
+     * Registers a listener that is called when the season or date of a world changes.
+     *
+     * @param listener The listener.
+     */
+    void addSeasonListener(SeasonListener listener);
+
+    /**
+     * Unregisters a season listener.
+     *
+     * @param listener The listener.
+     */
+    void removeSeasonListener(SeasonListener listener);
+
     void reloadWorlds();
 
     /**
@@ -106,6 +131,13 @@ public interface WorldManager extends Reloadable {
      */
     Optional<CustomCropsWorld<?>> getWorld(String world);
 
+    /**
+     * Retrieves all the loaded CustomCrops worlds.
+     *
+     * @return A snapshot of the loaded worlds.
+     */
+    Collection<CustomCropsWorld<?>> loadedWorlds();
+
     /**
      * Checks if a given Bukkit world is currently loaded as a CustomCrops world.
      *
@@ -17,34 +17,45 @@
 
 package net.momirealms.customcrops.api.core.world.adaptor;
 
-import com.flowpowered.nbt.CompoundMap;
-import com.flowpowered.nbt.CompoundTag;
-import com.flowpowered.nbt.IntArrayTag;
-import com.flowpowered.nbt.StringTag;
+import com.flowpowered.nbt.*;
+import com.flowpowered.nbt.stream.NBTInputStream;
+import com.flowpowered.nbt.stream.NBTOutputStream;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.InternalRegistries;
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import net.momirealms.customcrops.api.core.world.*;
+import net.momirealms.customcrops.api.misc.metrics.CustomCropsMetrics;
+import net.momirealms.customcrops.api.util.StringUtils;
+import net.momirealms.customcrops.api.util.TagUtils;
 import net.momirealms.customcrops.common.dependency.Dependency;
+import net.momirealms.customcrops.common.util.Key;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteOrder;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Function;
 
 public abstract class AbstractWorldAdaptor<W> implements WorldAdaptor<W> {
 
     public static final int CHUNK_VERSION = 2;
     public static final int REGION_VERSION = 1;
 
-    private final Method decompressMethod;
-    private final Method compressMethod;
+    private final MethodHandle decompressHandle;
+    private final MethodHandle compressHandle;
 
     public AbstractWorldAdaptor() {
         ClassLoader classLoader = BukkitCustomCropsPlugin.getInstance().getDependencyManager().obtainClassLoaderWith(EnumSet.of(Dependency.ZSTD));
         try {
             Class<?> zstd = classLoader.loadClass("com.github.luben.zstd.Zstd");
-            decompressMethod = zstd.getMethod("decompress", byte[].class, byte[].class);
-            compressMethod = zstd.getMethod("compress", byte[].class);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            decompressHandle = lookup.findStatic(zstd, "decompress", MethodType.methodType(long.class, byte[].class, byte[].class));
+            compressHandle = lookup.findStatic(zstd, "compress", MethodType.methodType(byte[].class, byte[].class));
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException(e);
         }
@@ -52,8 +63,8 @@ public abstract class AbstractWorldAdaptor<W> implements WorldAdaptor<W> {
 
     protected void zstdDecompress(byte[] decompressedData, byte[] compressedData) {
         try {
-            decompressMethod.invoke(null, decompressedData, compressedData);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            long ignored = (long) decompressHandle.invokeExact(decompressedData, compressedData);
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
         //Zstd.decompress(decompressedData, compressedData);
@@ -61,9 +72,8 @@ public abstract class AbstractWorldAdaptor<W> implements WorldAdaptor<W> {
 
     protected byte[] zstdCompress(byte[] data) {
         try {
-            Object result = compressMethod.invoke(null, (Object) data);
-            return (byte[]) result;
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (byte[]) compressHandle.invokeExact(data);
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
         //return Zstd.compress(data);
@@ -139,4 +149,301 @@ public abstract class AbstractWorldAdaptor<W> implements WorldAdaptor<W> {
         }
         return tasks;
     }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    protected CustomCropsRegion deserializeRegion(CustomCropsWorld<W> world, DataInputStream dataStream, RegionPos pos) throws IOException {
+        int regionVersion = dataStream.readByte();
+        int regionX = dataStream.readInt();
+        int regionZ = dataStream.readInt();
+        RegionPos regionPos = RegionPos.of(regionX, regionZ);
+        ConcurrentHashMap<ChunkPos, byte[]> map = new ConcurrentHashMap<>();
+        int chunkAmount = dataStream.readInt();
+        for (int i = 0; i < chunkAmount; i++) {
+            int chunkX = dataStream.readInt();
+            int chunkZ = dataStream.readInt();
+            ChunkPos chunkPos = ChunkPos.of(chunkX, chunkZ);
+            byte[] chunkData = new byte[dataStream.readInt()];
+            dataStream.read(chunkData);
+            map.put(chunkPos, chunkData);
+        }
+        return world.restoreRegion(pos, map);
+    }
+
+    protected byte[] serializeRegion(CustomCropsRegion region) {
+        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
+        DataOutputStream outStream = new DataOutputStream(outByteStream);
+        try {
+            outStream.writeByte(REGION_VERSION);
+            outStream.writeInt(region.regionPos().x());
+            outStream.writeInt(region.regionPos().z());
+            Map<ChunkPos, byte[]> map = region.dataToSave();
+            outStream.writeInt(map.size());
+            for (Map.Entry<ChunkPos, byte[]> entry : map.entrySet()) {
+                outStream.writeInt(entry.getKey().x());
+                outStream.writeInt(entry.getKey().z());
+                byte[] dataArray = entry.getValue();
+                outStream.writeInt(dataArray.length);
+                outStream.write(dataArray);
+            }
+        } catch (IOException e) {
+            BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("Failed to serialize CustomCrops region data." + region.regionPos(), e);
+        }
+        return outByteStream.toByteArray();
+    }
+
+    protected CustomCropsChunk deserializeChunk(CustomCropsWorld<W> world, DataInputStream dataStream) throws IOException {
+        int chunkVersion = dataStream.readByte();
+        byte[] blockData = readCompressedBytes(dataStream);
+        return deserializeChunk(world, blockData, chunkVersion);
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private byte[] readCompressedBytes(DataInputStream dataStream) throws IOException {
+        int compressedLength = dataStream.readInt();
+        int decompressedLength = dataStream.readInt();
+        byte[] compressedData = new byte[compressedLength];
+        byte[] decompressedData = new byte[decompressedLength];
+
+        dataStream.read(compressedData);
+        zstdDecompress(decompressedData, compressedData);
+        return decompressedData;
+    }
+
+    protected byte[] serializeChunk(SerializableChunk serializableChunk) {
+        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
+        DataOutputStream outStream = new DataOutputStream(outByteStream);
+        try {
+            outStream.writeByte(CHUNK_VERSION);
+            byte[] serializedSections = toBytes(serializableChunk);
+            byte[] compressed = zstdCompress(serializedSections);
+            outStream.writeInt(compressed.length);
+            outStream.writeInt(serializedSections.length);
+            outStream.write(compressed);
+            CustomCropsMetrics.SERIALIZED_CHUNKS.labels().increment();
+            CustomCropsMetrics.SERIALIZED_CHUNK_BYTES.labels().add(compressed.length);
+        } catch (IOException e) {
+            BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("Failed to serialize chunk " + ChunkPos.of(serializableChunk.x(), serializableChunk.z()));
+        }
+        return outByteStream.toByteArray();
+    }
+
+    private byte[] toBytes(SerializableChunk chunk) throws IOException {
+        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream(16384);
+        DataOutputStream outStream = new DataOutputStream(outByteStream);
+        outStream.writeInt(chunk.x());
+        outStream.writeInt(chunk.z());
+        outStream.writeInt(chunk.loadedSeconds());
+        outStream.writeLong(chunk.lastLoadedTime());
+        // write queue
+        int[] queue = chunk.queuedTasks();
+        outStream.writeInt(queue.length / 2);
+        for (int i : queue) {
+            outStream.writeInt(i);
+        }
+        // write ticked blocks
+        int[] tickedSet = chunk.ticked();
+        outStream.writeInt(tickedSet.length);
+        for (int i : tickedSet) {
+            outStream.writeInt(i);
+        }
+        // write block data
+        List<SerializableSection> sectionsToSave = chunk.sections();
+        outStream.writeInt(sectionsToSave.size());
+        for (SerializableSection section : sectionsToSave) {
+            outStream.writeInt(section.sectionID());
+            byte[] blockData = toBytes(section.blocks());
+            outStream.writeInt(blockData.length);
+            outStream.write(blockData);
+        }
+        return outByteStream.toByteArray();
+    }
+
+    private byte[] toBytes(Collection<CompoundTag> blocks) throws IOException {
+        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream(16384);
+        DataOutputStream outStream = new DataOutputStream(outByteStream);
+        outStream.writeInt(blocks.size());
+        for (CompoundTag block : blocks) {
+            byte[] blockData = toBytes(block);
+            outStream.writeInt(blockData.length);
+            outStream.write(blockData);
+        }
+        return outByteStream.toByteArray();
+    }
+
+    private byte[] toBytes(CompoundTag tag) throws IOException {
+        if (tag == null || tag.getValue().isEmpty())
+            return new byte[0];
+        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
+        NBTOutputStream outStream = new NBTOutputStream(
+                outByteStream,
+                NBTInputStream.NO_COMPRESSION,
+                ByteOrder.BIG_ENDIAN
+        );
+        outStream.writeTag(tag);
+        return outByteStream.toByteArray();
+    }
+
+    @SuppressWarnings("all")
+    private CustomCropsChunk deserializeChunk(CustomCropsWorld world, byte[] bytes, int chunkVersion) throws IOException {
+        Function<String, Key> keyFunction = chunkVersion < 2 ?
+        (s) -> {
+            return Key.key("customcrops", StringUtils.toLowerCase(s));
+        } : s -> {
+            return Key.key(s);
+        };
+        DataInputStream chunkData = new DataInputStream(new ByteArrayInputStream(bytes));
+        // read coordinate
+        int x = chunkData.readInt();
+        int z = chunkData.readInt();
+        ChunkPos coordinate = new ChunkPos(x, z);
+        // read loading info
+        int loadedSeconds = chunkData.readInt();
+        long lastLoadedTime = chunkData.readLong();
+        // read task queue
+        int tasksSize = chunkData.readInt();
+        PriorityBlockingQueue<DelayedTickTask> queue = new PriorityBlockingQueue<>(Math.max(11, tasksSize));
+        for (int i = 0; i < tasksSize; i++) {
+            int time = chunkData.readInt();
+            BlockPos pos = new BlockPos(chunkData.readInt());
+            queue.add(new DelayedTickTask(time, pos));
+        }
+        // read ticked blocks
+        int tickedSize = chunkData.readInt();
+        HashSet<BlockPos> tickedSet = new HashSet<>(Math.max(11, tickedSize));
+        for (int i = 0; i < tickedSize; i++) {
+            tickedSet.add(new BlockPos(chunkData.readInt()));
+        }
+        // read block data
+        ConcurrentHashMap<Integer, CustomCropsSection> sectionMap = new ConcurrentHashMap<>();
+        int sections = chunkData.readInt();
+        // read sections
+        for (int i = 0; i < sections; i++) {
+            ConcurrentHashMap<BlockPos, CustomCropsBlockState> blockMap = new ConcurrentHashMap<>();
+            int sectionID = chunkData.readInt();
+            byte[] sectionBytes = new byte[chunkData.readInt()];
+            chunkData.read(sectionBytes);
+            DataInputStream sectionData = new DataInputStream(new ByteArrayInputStream(sectionBytes));
+            int blockAmount = sectionData.readInt();
+            // read blocks
+            for (int j = 0; j < blockAmount; j++) {
+                byte[] blockData = new byte[sectionData.readInt()];
+                sectionData.read(blockData);
+                CompoundTag tag = readCompound(blockData);
+                CompoundMap block = tag.getValue();
+                Key key = keyFunction.apply((String) block.get("type").getValue());
+                CompoundMap data = (CompoundMap) block.get("data").getValue();
+                CustomCropsBlock customBlock = InternalRegistries.BLOCK.get(key);
+                if (customBlock == null) {
+                    BukkitCustomCropsPlugin.getInstance().getPluginLogger().warn("[" + world.worldName() + "] Unrecognized custom block " + key + " has been removed from chunk " + ChunkPos.of(x, z));
+                    continue;
+                }
+                for (int pos : (int[]) block.get("pos").getValue()) {
+                    BlockPos blockPos = new BlockPos(pos);
+                    blockMap.put(blockPos, CustomCropsBlockState.create(customBlock, TagUtils.deepClone(data)));
+                }
+            }
+            sectionMap.put(sectionID, CustomCropsSection.restore(sectionID, blockMap));
+        }
+        return world.restoreChunk(coordinate, loadedSeconds, lastLoadedTime, sectionMap, queue, tickedSet);
+    }
+
+    /**
+     * Converts a chunk into the NBT tree that older versions of the slime adaptors stored.
+     * New data is written with {@link #serializeChunk(SerializableChunk)} instead.
+     *
+     * @param serializableChunk the chunk
+     * @return the chunk tag
+     */
+    protected CompoundTag chunkToTag(SerializableChunk serializableChunk) {
+        CompoundMap map = new CompoundMap();
+        map.put(new IntTag("x", serializableChunk.x()));
+        map.put(new IntTag("z", serializableChunk.z()));
+        map.put(new IntTag("version", CHUNK_VERSION));
+        map.put(new IntTag("loadedSeconds", serializableChunk.loadedSeconds()));
+        map.put(new LongTag("lastLoadedTime", serializableChunk.lastLoadedTime()));
+        map.put(new IntArrayTag("queued", serializableChunk.queuedTasks()));
+        map.put(new IntArrayTag("ticked", serializableChunk.ticked()));
+        CompoundMap sectionMap = new CompoundMap();
+        for (SerializableSection section : serializableChunk.sections()) {
+            sectionMap.put(new ListTag<>(String.valueOf(section.sectionID()), TagType.TAG_COMPOUND, section.blocks()));
+        }
+        map.put(new CompoundTag("sections", sectionMap));
+        return new CompoundTag(serializableChunk.x() + "," + serializableChunk.z(), map);
+    }
+
+    /**
+     * Restores a chunk from the NBT tree that older versions of the slime adaptors stored.
+     *
+     * @param world the world
+     * @param tag   the chunk tag
+     * @return the chunk
+     */
+    @SuppressWarnings("all")
+    protected CustomCropsChunk tagToChunk(CustomCropsWorld<W> world, CompoundTag tag) {
+        CompoundMap map = tag.getValue();
+        IntTag version = (IntTag) map.getOrDefault("version", new IntTag("version", 1));
+        int versionNumber = version.getValue();
+        Function<String, Key> keyFunction = versionNumber < 2 ?
+                (s) -> {
+                    return Key.key("customcrops", StringUtils.toLowerCase(s));
+                } : s -> {
+            return Key.key(s);
+        };
+        int x = (int) map.get("x").getValue();
+        int z = (int) map.get("z").getValue();
+
+        ChunkPos coordinate = new ChunkPos(x, z);
+        int loadedSeconds = (int) map.get("loadedSeconds").getValue();
+        long lastLoadedTime = (long) map.get("lastLoadedTime").getValue();
+        int[] queued = (int[]) map.get("queued").getValue();
+        int[] ticked = (int[]) map.get("ticked").getValue();
+
+        PriorityBlockingQueue<DelayedTickTask> queue = new PriorityBlockingQueue<>(Math.max(11, queued.length / 2));
+        for (int i = 0, size = queued.length / 2; i < size; i++) {
+            BlockPos pos = new BlockPos(queued[2*i+1]);
+            queue.add(new DelayedTickTask(queued[2*i], pos));
+        }
+
+        HashSet<BlockPos> tickedSet = new HashSet<>(Math.max(11, ticked.length));
+        for (int tick : ticked) {
+            tickedSet.add(new BlockPos(tick));
+        }
+
+        ConcurrentHashMap<Integer, CustomCropsSection> sectionMap = new ConcurrentHashMap<>();
+        CompoundMap sectionCompoundMap = (CompoundMap) map.get("sections").getValue();
+        for (Map.Entry<String, Tag<?>> entry : sectionCompoundMap.entrySet()) {
+            if (entry.getValue() instanceof ListTag<?> listTag) {
+                int id = Integer.parseInt(entry.getKey());
+                ConcurrentHashMap<BlockPos, CustomCropsBlockState> blockMap = new ConcurrentHashMap<>();
+                ListTag<CompoundTag> blocks = (ListTag<CompoundTag>) listTag;
+                for (CompoundTag blockTag : blocks.getValue()) {
+                    CompoundMap block = blockTag.getValue();
+                    CompoundMap data = (CompoundMap) block.get("data").getValue();
+                    Key key = keyFunction.apply((String) block.get("type").getValue());
+                    CustomCropsBlock customBlock = InternalRegistries.BLOCK.get(key);
+                    if (customBlock == null) {
+                        BukkitCustomCropsPlugin.getInstance().getPluginLogger().warn("[" + world.worldName() + "] Unrecognized custom block " + key + " has been removed from chunk " + ChunkPos.of(x, z));
+                        continue;
+                    }
+                    for (int pos : (int[]) block.get("pos").getValue()) {
+                        BlockPos blockPos = new BlockPos(pos);
+                        blockMap.put(blockPos, CustomCropsBlockState.create(customBlock, TagUtils.deepClone(data)));
+                    }
+                }
+                sectionMap.put(id, CustomCropsSection.restore(id, blockMap));
+            }
+        }
+        return world.restoreChunk(coordinate, loadedSeconds, lastLoadedTime, sectionMap, queue, tickedSet);
+    }
+
+    private CompoundTag readCompound(byte[] bytes) throws IOException {
+        if (bytes.length == 0)
+            return null;
+        NBTInputStream nbtInputStream = new NBTInputStream(
+                new ByteArrayInputStream(bytes),
+                NBTInputStream.NO_COMPRESSION,
+                ByteOrder.BIG_ENDIAN
+        );
+        return (CompoundTag) nbtInputStream.readTag();
+    }
 }
@@ -17,6 +17,7 @@
 
 package net.momirealms.customcrops.api.data;
 
+import net.momirealms.customcrops.common.util.TriConsumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -43,11 +44,23 @@ public interface DatabaseStorage {
 
     /**
      * Saves player harvest data to database.
+     * Storages using {@link HarvestStorageSchema#NORMALIZED} only write the counters
+     * changed since the previous save.
      *
      * @param data The player's harvest data
      */
     void savePlayerData(@NotNull PlayerHarvestData data);
 
+    /**
+     * Visits the harvest count of every player and crop in the database.
+     * This is a full scan and is only meant for periodic jobs off the main thread.
+     * Storages that can't scan their players visit nothing, so only cached players are ranked.
+     *
+     * @param consumer receives the player's UUID, the crop ID and the count
+     */
+    default void forEachHarvestCount(@NotNull TriConsumer<UUID, String, Integer> consumer) {
+    }
+
     /**
      * Closes the database connection.
      */
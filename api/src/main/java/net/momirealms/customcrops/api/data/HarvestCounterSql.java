@@ -0,0 +1,235 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.data;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import net.momirealms.customcrops.common.plugin.logging.PluginLogger;
+import net.momirealms.customcrops.common.util.TriConsumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.sql.*;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared statements for the {@link HarvestStorageSchema#NORMALIZED} layout.
+ * The upsert statement is dialect specific and must accept (uuid, kind, item_id, count)
+ * and add the count to an existing row instead of replacing it.
+ */
+final class HarvestCounterSql {
+
+    static final String KIND_HARVEST = "harvest";
+    static final String KIND_QUALITY = "quality";
+
+    private static final Type COUNTS_TYPE = new TypeToken<Map<String, Integer>>(){}.getType();
+
+    private HarvestCounterSql() {
+    }
+
+    /**
+     * Loads all counters of a player from the normalized table.
+     *
+     * @return the data, or null if the player has no rows
+     */
+    @Nullable
+    static PlayerHarvestData load(Connection conn, String countersTable, UUID playerId) throws SQLException {
+        String sql = "SELECT kind, item_id, count FROM " + countersTable + " WHERE uuid = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, playerId.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                PlayerHarvestData data = null;
+                while (rs.next()) {
+                    if (data == null) {
+                        data = new PlayerHarvestData(playerId);
+                    }
+                    String kind = rs.getString(1);
+                    if (KIND_HARVEST.equals(kind)) {
+                        data.setHarvestCount(rs.getString(2), rs.getInt(3));
+                    } else if (KIND_QUALITY.equals(kind)) {
+                        data.setQualityItemCount(rs.getString(2), rs.getInt(3));
+                    }
+                }
+                if (data != null) {
+                    data.recalculateTotalHarvests();
+                    data.discardPendingDeltas();
+                }
+                return data;
+            }
+        }
+    }
+
+    /**
+     * Writes the pending deltas of a player as count increments in one transaction.
+     * If the write fails the deltas are put back so the next flush retries them.
+     */
+    static void writeDeltas(Connection conn, String upsertSql, @NotNull PlayerHarvestData data) throws SQLException {
+        Map<String, Integer> harvests = data.drainHarvestDeltas();
+        Map<String, Integer> qualityItems = data.drainQualityItemDeltas();
+        if (harvests.isEmpty() && qualityItems.isEmpty()) {
+            return;
+        }
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(upsertSql)) {
+                String uuid = data.getPlayerUUID().toString();
+                addBatch(pstmt, uuid, KIND_HARVEST, harvests);
+                addBatch(pstmt, uuid, KIND_QUALITY, qualityItems);
+                pstmt.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ignored) {
+            }
+            data.restoreDeltas(harvests, qualityItems);
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Copies every row of the legacy JSON table into the normalized table and renames
+     * the legacy table so the migration only runs once.
+     * <p>
+     * The copy is recorded in a marker table in the same transaction as the counters. Renaming
+     * the legacy table commits implicitly on MySQL and may fail on its own, in which case the
+     * next start only retries the rename instead of adding the counts a second time.
+     *
+     * @return the number of migrated players, or -1 if there was nothing to migrate
+     */
+    static int migrateLegacy(Connection conn, String legacyTable, String countersTable, String upsertSql,
+                             Gson gson, PluginLogger logger) throws SQLException {
+        if (!tableExists(conn, legacyTable)) {
+            return -1;
+        }
+        String markerTable = countersTable + "_migrations";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + markerTable + " (source VARCHAR(64) NOT NULL PRIMARY KEY)");
+        }
+        int migrated = -1;
+        if (!isMigrated(conn, markerTable, legacyTable)) {
+            migrated = 0;
+            boolean autoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try (Statement select = conn.createStatement();
+                     ResultSet rs = select.executeQuery("SELECT uuid, harvests, quality_items FROM " + legacyTable);
+                     PreparedStatement pstmt = conn.prepareStatement(upsertSql)) {
+                    while (rs.next()) {
+                        String uuid = rs.getString(1);
+                        try {
+                            addBatch(pstmt, uuid, KIND_HARVEST, parse(gson, rs.getString(2)));
+                            addBatch(pstmt, uuid, KIND_QUALITY, parse(gson, rs.getString(3)));
+                        } catch (RuntimeException e) {
+                            logger.warn("Skipped malformed harvest data of " + uuid + " during migration", e);
+                            continue;
+                        }
+                        if (++migrated % 500 == 0) {
+                            pstmt.executeBatch();
+                        }
+                    }
+                    pstmt.executeBatch();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO " + markerTable + " (source) VALUES (?)")) {
+                    pstmt.setString(1, legacyTable);
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + legacyTable + " RENAME TO " + legacyTable + "_migrated");
+        } catch (SQLException e) {
+            logger.warn("Failed to rename the migrated table " + legacyTable + ", its harvest data has been copied already and won't be copied again", e);
+        }
+        return migrated;
+    }
+
+    private static boolean isMigrated(Connection conn, String markerTable, String legacyTable) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM " + markerTable + " WHERE source = ?")) {
+            pstmt.setString(1, legacyTable);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Visits every harvest counter of the normalized table.
+     */
+    static void forEachHarvestCount(Connection conn, String countersTable, TriConsumer<UUID, String, Integer> consumer) throws SQLException {
+        String sql = "SELECT uuid, item_id, count FROM " + countersTable + " WHERE kind = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, KIND_HARVEST);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(UUID.fromString(rs.getString(1)), rs.getString(2), rs.getInt(3));
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits every harvest counter stored in the JSON blobs of the legacy table.
+     */
+    static void forEachLegacyHarvestCount(Connection conn, String legacyTable, Gson gson, TriConsumer<UUID, String, Integer> consumer) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT uuid, harvests FROM " + legacyTable)) {
+            while (rs.next()) {
+                UUID uuid = UUID.fromString(rs.getString(1));
+                parse(gson, rs.getString(2)).forEach((cropId, count) -> consumer.accept(uuid, cropId, count));
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getTables(conn.getCatalog(), null, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private static Map<String, Integer> parse(Gson gson, String json) {
+        if (json == null || json.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Integer> map = gson.fromJson(json, COUNTS_TYPE);
+        return map == null ? Map.of() : map;
+    }
+
+    private static void addBatch(PreparedStatement pstmt, String uuid, String kind, Map<String, Integer> counts) throws SQLException {
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() == 0) continue;
+            pstmt.setString(1, uuid);
+            pstmt.setString(2, kind);
+            pstmt.setString(3, entry.getKey());
+            pstmt.setInt(4, entry.getValue());
+            pstmt.addBatch();
+        }
+    }
+}
@@ -19,34 +19,49 @@ package net.momirealms.customcrops.api.data;
 
 import dev.dejvokep.boostedyaml.YamlDocument;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.misc.metrics.CustomCropsMetrics;
 import net.momirealms.customcrops.common.plugin.feature.Reloadable;
+import net.momirealms.customcrops.common.plugin.scheduler.IOExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 /**
  * Manages harvest data for all players with 3-second cache and database storage.
+ * <p>
+ * Player data is loaded asynchronously: it is prefetched while the player logs in, and
+ * harvests recorded before the storage responds are buffered and merged once it does.
+ * Data of offline players is evicted after being idle for a while, least recently used first.
  */
 public class HarvestDataManager implements Reloadable, Listener {
 
+    private static final long PREFETCH_TIMEOUT_MILLIS = 3000L;
+
     private final BukkitCustomCropsPlugin plugin;
-    private final Map<UUID, PlayerHarvestData> dataCache;
+    private final Map<UUID, CachedData> dataCache;
     private final Map<UUID, Long> dirtyTimestamps;
+    private final Map<UUID, CompletableFuture<Void>> playerTails;
     private ScheduledExecutorService cacheExecutor;
-    private DatabaseStorage storage;
+    private IOExecutor.Lane databaseExecutor;
+    private volatile CompletableFuture<DatabaseStorage> storageFuture;
+    private CompletableFuture<Void> shutdownFuture;
+    private HarvestLeaderboard leaderboard;
+    private volatile boolean reconciling;
+    private long flushDelayMillis;
+    private long idleExpireMillis;
+    private int maxCachedPlayers;
 
     /**
      * Creates a new HarvestDataManager.
@@ -57,13 +72,26 @@ public class HarvestDataManager implements Reloadable, Listener {
         this.plugin = plugin;
         this.dataCache = new ConcurrentHashMap<>();
         this.dirtyTimestamps = new ConcurrentHashMap<>();
+        this.playerTails = new ConcurrentHashMap<>();
+        this.storageFuture = CompletableFuture.completedFuture(null);
+        this.shutdownFuture = CompletableFuture.completedFuture(null);
     }
 
     @Override
     public void load() {
-        // Initialize database storage
-        initializeStorage();
-        
+        YamlDocument config = getConfig();
+        this.flushDelayMillis = config.getInt("other-settings.harvest-data.cache.flush-delay", 3) * 1000L;
+        this.idleExpireMillis = Math.max(0, config.getInt("other-settings.harvest-data.cache.keep-after-quit", 5)) * 1000L;
+        this.maxCachedPlayers = Math.max(1, config.getInt("other-settings.harvest-data.cache.max-size", 1000));
+
+        // Database work runs on the I/O executor, never more at once than there are connections
+        boolean mysql = config.getString("other-settings.harvest-data.storage-type", "sqlite").equalsIgnoreCase("mysql");
+        this.databaseExecutor = plugin.getIOExecutor().limited(mysql ? Math.max(1, config.getInt("other-settings.harvest-data.mysql.pool.maximum-pool-size", 10)) : 1);
+
+        // Initialize database storage once the previous one has been flushed and closed,
+        // so that loads never read rows that are about to be overwritten
+        this.storageFuture = shutdownFuture.handleAsync((v, t) -> initializeStorage(config), databaseExecutor);
+
         // Create or recreate executor service
         if (cacheExecutor == null || cacheExecutor.isShutdown()) {
             cacheExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -83,15 +111,33 @@ public class HarvestDataManager implements Reloadable, Listener {
 
         // Start cache flush task (every 1 second, flush data older than configured seconds)
         cacheExecutor.scheduleAtFixedRate(this::flushDirtyData, 1, 1, TimeUnit.SECONDS);
+        // Evict data of offline players that has not been accessed recently
+        cacheExecutor.scheduleWithFixedDelay(this::evictIdleData, 5, 5, TimeUnit.SECONDS);
 
-        plugin.getPluginLogger().info("HarvestDataManager loaded with " + storage.getType() + " storage");
+        // Rank offline players as well by periodically rebuilding the leaderboards from storage
+        if (config.getBoolean("other-settings.harvest-data.enable", true) && config.getBoolean("other-settings.harvest-data.leaderboard.enable", true)) {
+            leaderboard = new HarvestLeaderboard(config.getInt("other-settings.harvest-data.leaderboard.size", 10));
+            long interval = Math.max(10, config.getLong("other-settings.harvest-data.leaderboard.refresh-interval", 300L));
+            ScheduledExecutorService executor = cacheExecutor;
+            reconciling = false;
+            // the first rebuild runs as soon as the storage is ready
+            storageFuture.thenAccept(storage -> {
+                if (storage == null || executor.isShutdown()) return;
+                try {
+                    executor.scheduleWithFixedDelay(this::reconcileLeaderboard, 0, interval, TimeUnit.SECONDS);
+                } catch (RejectedExecutionException ignored) {
+                    // unloaded in the meantime
+                }
+            });
+        } else {
+            leaderboard = null;
+        }
     }
 
     @Override
     public void unload() {
-        // Flush all dirty data
-        flushAllData();
-        
+        HandlerList.unregisterAll(this);
+
         // Shutdown cache executor
         if (cacheExecutor != null && !cacheExecutor.isShutdown()) {
             cacheExecutor.shutdown();
@@ -104,15 +150,28 @@ public class HarvestDataManager implements Reloadable, Listener {
                 Thread.currentThread().interrupt();
             }
         }
-        
-        // Close database
-        if (storage != null) {
-            storage.close();
-        }
-        
+
+        // Flush all data and close the database off the main thread. This gets its own lane,
+        // as the flush waits for loads that may still need one of the connections. Pending saves of
+        // single players are awaited, so that none of them runs against a closed storage
+        List<CachedData> snapshot = new ArrayList<>(dataCache.values());
+        CompletableFuture<DatabaseStorage> storageFuture = this.storageFuture;
+        CompletableFuture<Void> pending = CompletableFuture.allOf(playerTails.values().toArray(CompletableFuture[]::new));
+        this.shutdownFuture = CompletableFuture.allOf(storageFuture, pending).handleAsync((v, t) -> {
+            DatabaseStorage storage = storageFuture.isCompletedExceptionally() ? null : storageFuture.join();
+            if (storage != null) {
+                flushAllData(storage, snapshot);
+                storage.close();
+            }
+            return null;
+        }, plugin.getIOExecutor().limited(1));
+
         // Clear cache
         dataCache.clear();
         dirtyTimestamps.clear();
+        if (leaderboard != null) {
+            leaderboard.clear();
+        }
     }
 
     @Override
@@ -124,23 +183,33 @@ public class HarvestDataManager implements Reloadable, Listener {
     @Override
     public void disable() {
         unload();
+        // The server is stopping, wait for the data to be written
+        try {
+            shutdownFuture.get(1, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            plugin.getPluginLogger().severe("Timed out waiting for harvest data to be saved", e);
+        }
     }
 
     /**
-     * Initializes the database storage based on configuration.
+     * Creates and initializes the database storage based on configuration.
+     * Called off the main thread, as initializing may connect to and migrate the database.
+     *
+     * @return the storage, or null if harvest data is not persisted
      */
-    private void initializeStorage() {
-        YamlDocument config = getConfig();
-        
+    @Nullable
+    private DatabaseStorage initializeStorage(YamlDocument config) {
+        DatabaseStorage storage;
+
         // Check if harvest data tracking is enabled
         if (!config.getBoolean("other-settings.harvest-data.enable", true)) {
             plugin.getPluginLogger().warn("Harvest data tracking is disabled in config.yml");
-            storage = new SQLiteStorage(plugin); // Use dummy storage
-            return;
+            return null; // Data only lives in memory
         }
         
         // Read storage type from config
         String storageType = config.getString("other-settings.harvest-data.storage-type", "sqlite");
+        HarvestStorageSchema schema = HarvestStorageSchema.fromString(config.getString("other-settings.harvest-data.schema", "json"));
         
         if (storageType.equalsIgnoreCase("mysql")) {
             // Read MySQL configuration
@@ -159,13 +228,20 @@ public class HarvestDataManager implements Reloadable, Listener {
             long maxLifetime = config.getLong("other-settings.harvest-data.mysql.pool.max-lifetime", 1800000L);
             
             storage = new MySQLStorage(plugin, host, port, database, username, password, tablePrefix,
-                                      maxPoolSize, minIdle, connectionTimeout, idleTimeout, maxLifetime);
+                                      maxPoolSize, minIdle, connectionTimeout, idleTimeout, maxLifetime, schema);
         } else {
             // Default to SQLite
-            storage = new SQLiteStorage(plugin);
+            storage = new SQLiteStorage(plugin, schema);
         }
         
-        storage.initialize();
+        try {
+            storage.initialize();
+        } catch (Exception e) {
+            plugin.getPluginLogger().severe("Failed to initialize " + storage.getType() + " storage", e);
+            return null;
+        }
+        plugin.getPluginLogger().info("HarvestDataManager loaded with " + storage.getType() + " storage");
+        return storage;
     }
     
     /**
@@ -185,44 +261,119 @@ public class HarvestDataManager implements Reloadable, Listener {
     }
 
     /**
-     * Gets or creates player harvest data.
+     * Gets or creates player harvest data, waiting for it to be loaded if needed.
      *
      * @param playerId The player's UUID
      * @return The player's harvest data
+     * @deprecated this blocks until the storage responds, use {@link #getData(UUID)} or
+     * {@link #loadPlayerData(UUID)} instead
      */
     @NotNull
+    @Deprecated
     public PlayerHarvestData getOrCreateData(@NotNull UUID playerId) {
-        return dataCache.computeIfAbsent(playerId, uuid -> {
-            PlayerHarvestData data = storage.loadPlayerData(uuid);
-            if (data == null) {
-                data = new PlayerHarvestData(uuid);
-            }
+        CompletableFuture<PlayerHarvestData> future = cache(playerId).future;
+        PlayerHarvestData data = future.getNow(null);
+        if (data != null) {
             return data;
-        });
+        }
+        if (Bukkit.isPrimaryThread()) {
+            plugin.debug(() -> "Harvest data of " + playerId + " is loaded on the main thread through the deprecated getOrCreateData");
+        }
+        return future.join();
     }
 
     /**
-     * Gets player harvest data if it exists.
+     * Gets player harvest data if it has been loaded.
      *
      * @param playerId The player's UUID
-     * @return The player's harvest data, or null if not found
+     * @return The player's harvest data, or null if not found or still loading
      */
     @Nullable
     public PlayerHarvestData getData(@NotNull UUID playerId) {
-        return dataCache.get(playerId);
+        CachedData cached = dataCache.get(playerId);
+        if (cached == null) {
+            return null;
+        }
+        cached.lastAccess = System.currentTimeMillis();
+        return cached.future.getNow(null);
     }
 
     /**
      * Adds a harvest record for a player.
+     * If the player's data is still loading, the harvest is merged once it completes.
      *
      * @param playerId The player's UUID
      * @param cropId The crop ID
      * @param amount The amount harvested
      */
     public void addHarvest(@NotNull UUID playerId, @NotNull String cropId, int amount) {
-        PlayerHarvestData data = getOrCreateData(playerId);
+        CustomCropsMetrics.HARVESTS.labels().add(amount);
+        CachedData cached = cache(playerId);
+        PlayerHarvestData data = cached.future.getNow(null);
+        if (data == null) {
+            synchronized (cached) {
+                data = cached.future.getNow(null);
+                if (data == null) {
+                    cached.buffer.addHarvest(cropId, amount);
+                    return;
+                }
+            }
+        }
         data.addHarvest(cropId, amount);
         markDirty(playerId);
+        HarvestLeaderboard leaderboard = this.leaderboard;
+        if (leaderboard != null) {
+            leaderboard.update(playerId, cropId, data.getHarvestCount(cropId), data.getTotalHarvests());
+        }
+    }
+
+    /**
+     * Sets the harvest count of a crop for a player.
+     * If the player's data is still loading, the count is set once it completes.
+     *
+     * @param playerId The player's UUID
+     * @param cropId The crop ID
+     * @param count The count, 0 or less removes the crop
+     */
+    public void setHarvestCount(@NotNull UUID playerId, @NotNull String cropId, int count) {
+        cache(playerId).future.thenAccept(data -> {
+            data.setHarvestCount(cropId, count);
+            markDirty(playerId);
+            HarvestLeaderboard leaderboard = this.leaderboard;
+            if (leaderboard != null) {
+                leaderboard.update(playerId, cropId, data.getHarvestCount(cropId), data.getTotalHarvests());
+            }
+        });
+    }
+
+    /**
+     * Clears all harvest and quality item counts of a player.
+     * If the player's data is still loading, it is cleared once it completes.
+     *
+     * @param playerId The player's UUID
+     */
+    public void clearData(@NotNull UUID playerId) {
+        cache(playerId).future.thenAccept(data -> {
+            Set<String> cropIds = data.getHarvestCounts().keySet();
+            data.clear();
+            markDirty(playerId);
+            HarvestLeaderboard leaderboard = this.leaderboard;
+            if (leaderboard != null) {
+                for (String cropId : cropIds) {
+                    leaderboard.update(playerId, cropId, 0, 0);
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the harvest leaderboard.
+     *
+     * @return The leaderboard, or null if leaderboards are disabled
+     */
+    @Nullable
+    public HarvestLeaderboard getLeaderboard() {
+        return leaderboard;
     }
 
     /**
@@ -262,13 +413,24 @@ public class HarvestDataManager implements Reloadable, Listener {
 
     /**
      * Adds a quality item record for a player.
+     * If the player's data is still loading, the record is merged once it completes.
      *
      * @param playerId The player's UUID
      * @param itemId The item ID
      * @param amount The amount obtained
      */
     public void addQualityItem(@NotNull UUID playerId, @NotNull String itemId, int amount) {
-        PlayerHarvestData data = getOrCreateData(playerId);
+        CachedData cached = cache(playerId);
+        PlayerHarvestData data = cached.future.getNow(null);
+        if (data == null) {
+            synchronized (cached) {
+                data = cached.future.getNow(null);
+                if (data == null) {
+                    cached.buffer.addQualityItem(itemId, amount);
+                    return;
+                }
+            }
+        }
         data.addQualityItem(itemId, amount);
         markDirty(playerId);
     }
@@ -298,13 +460,88 @@ public class HarvestDataManager implements Reloadable, Listener {
     }
 
     /**
-     * Loads player data into cache.
+     * Starts loading player data into cache without blocking.
      *
      * @param playerId The player's UUID
+     * @return A future completed with the player's data once loaded
+     */
+    public CompletableFuture<PlayerHarvestData> loadPlayerData(@NotNull UUID playerId) {
+        return cache(playerId).future;
+    }
+
+    /**
+     * Gets the cache entry of a player, scheduling the load if there is none.
+     * The load itself never runs inside a map operation, so no lock is held during I/O.
+     */
+    private CachedData cache(UUID playerId) {
+        CachedData cached = dataCache.get(playerId);
+        if (cached == null) {
+            CachedData created = new CachedData(playerId);
+            cached = dataCache.putIfAbsent(playerId, created);
+            if (cached == null) {
+                cached = created;
+                runForPlayer(playerId, storage -> completeLoad(created, storage));
+            }
+        }
+        cached.lastAccess = System.currentTimeMillis();
+        return cached;
+    }
+
+    /**
+     * Runs storage work of a player on the database executor once the storage is ready and the previous
+     * work of the same player has finished. Loads and saves of one player thus run in order, so that a
+     * load never reads rows that an earlier save has not written yet.
+     *
+     * @param playerId the player's UUID
+     * @param task the work, receives the storage or null if harvest data is not persisted
+     * @return a future completed when the work has finished
      */
-    public void loadPlayerData(@NotNull UUID playerId) {
-        if (!dataCache.containsKey(playerId)) {
-            getOrCreateData(playerId);
+    private CompletableFuture<Void> runForPlayer(UUID playerId, Consumer<DatabaseStorage> task) {
+        CompletableFuture<DatabaseStorage> storage = storageFuture;
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> tail = playerTails.put(playerId, future);
+        CompletableFuture<?> ready = tail == null ? storage : CompletableFuture.allOf(tail, storage);
+        ready.whenCompleteAsync((v, t) -> {
+            try {
+                task.accept(storage.isCompletedExceptionally() ? null : storage.join());
+                future.complete(null);
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        }, databaseExecutor);
+        future.whenComplete((v, t) -> playerTails.remove(playerId, future));
+        return future;
+    }
+
+    private void completeLoad(CachedData cached, @Nullable DatabaseStorage storage) {
+        PlayerHarvestData data = null;
+        if (storage != null) {
+            try {
+                data = storage.loadPlayerData(cached.playerId);
+            } catch (Exception e) {
+                plugin.getPluginLogger().severe("Failed to load harvest data for player " + cached.playerId, e);
+            }
+        }
+        if (data == null) {
+            data = new PlayerHarvestData(cached.playerId);
+        }
+        boolean merged;
+        synchronized (cached) {
+            Map<String, Integer> harvests = cached.buffer.getHarvestCounts();
+            Map<String, Integer> qualityItems = cached.buffer.getQualityItemCounts();
+            harvests.forEach(data::addHarvest);
+            qualityItems.forEach(data::addQualityItem);
+            merged = !harvests.isEmpty() || !qualityItems.isEmpty();
+            cached.future.complete(data);
+        }
+        if (merged) {
+            markDirty(cached.playerId);
+            HarvestLeaderboard leaderboard = this.leaderboard;
+            if (leaderboard != null) {
+                for (String cropId : cached.buffer.getHarvestCounts().keySet()) {
+                    leaderboard.update(cached.playerId, cropId, data.getHarvestCount(cropId), data.getTotalHarvests());
+                }
+            }
         }
     }
 
@@ -317,22 +554,45 @@ public class HarvestDataManager implements Reloadable, Listener {
         dirtyTimestamps.put(playerId, System.currentTimeMillis());
     }
 
+    /**
+     * Gets the number of players whose modified data is waiting to be written.
+     *
+     * @return the number of players
+     */
+    public int pendingFlushCount() {
+        return dirtyTimestamps.size();
+    }
+
+    /**
+     * Gets the number of players whose data is cached, including the ones still loading.
+     *
+     * @return the number of players
+     */
+    public int cachedPlayerCount() {
+        return dataCache.size();
+    }
+
     /**
      * Flushes dirty data that is older than configured cache time.
      */
     private void flushDirtyData() {
+        DatabaseStorage storage = storageFuture.getNow(null);
+        // the data stays dirty while the database is backed up, and is flushed once it has caught up
+        if (storage == null || databaseExecutor.isSaturated()) {
+            return;
+        }
         long now = System.currentTimeMillis();
-        int flushDelay = getConfig().getInt("other-settings.harvest-data.cache.flush-delay", 3);
-        long cacheTime = flushDelay * 1000L; // Convert to milliseconds
         
         dirtyTimestamps.entrySet().removeIf(entry -> {
             UUID playerId = entry.getKey();
             long timestamp = entry.getValue();
             
-            if (now - timestamp >= cacheTime) {
-                PlayerHarvestData data = dataCache.get(playerId);
+            if (now - timestamp >= flushDelayMillis) {
+                CachedData cached = dataCache.get(playerId);
+                PlayerHarvestData data = cached == null ? null : cached.future.getNow(null);
                 if (data != null) {
-                    plugin.getScheduler().async().execute(() -> storage.savePlayerData(data));
+                    runForPlayer(playerId, s -> storage.savePlayerData(data));
+                    CustomCropsMetrics.HARVEST_DATA_FLUSHES.labels().increment();
                 }
                 return true; // Remove from dirty timestamps
             }
@@ -341,33 +601,124 @@ public class HarvestDataManager implements Reloadable, Listener {
     }
 
     /**
-     * Flushes all cached data immediately.
+     * Evicts loaded data of offline players that has been idle for longer than keep-after-quit,
+     * and the least recently used ones whenever the cache holds more than max-size players.
      */
-    private void flushAllData() {
-        if (storage == null || dataCache.isEmpty()) {
+    private void evictIdleData() {
+        DatabaseStorage storage = storageFuture.getNow(null);
+        // dirty data is kept while the database is backed up, as evicting it would queue another save
+        boolean saturated = databaseExecutor.isSaturated();
+        long now = System.currentTimeMillis();
+        List<CachedData> candidates = new ArrayList<>();
+        for (CachedData cached : dataCache.values()) {
+            if (cached.future.isDone() && Bukkit.getPlayer(cached.playerId) == null) {
+                candidates.add(cached);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(cached -> cached.lastAccess));
+        int overflow = dataCache.size() - maxCachedPlayers;
+        for (CachedData cached : candidates) {
+            if (overflow <= 0 && now - cached.lastAccess < idleExpireMillis) {
+                break;
+            }
+            if (saturated && dirtyTimestamps.containsKey(cached.playerId)) {
+                continue;
+            }
+            if (dataCache.remove(cached.playerId, cached)) {
+                overflow--;
+                if (dirtyTimestamps.remove(cached.playerId) != null && storage != null) {
+                    // a load started by the player logging back in waits for this save
+                    PlayerHarvestData data = cached.future.join();
+                    runForPlayer(cached.playerId, s -> storage.savePlayerData(data));
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the leaderboards from storage.
+     */
+    private void reconcileLeaderboard() {
+        HarvestLeaderboard leaderboard = this.leaderboard;
+        DatabaseStorage storage = storageFuture.getNow(null);
+        if (leaderboard == null || storage == null || reconciling) {
+            return;
+        }
+        reconciling = true;
+        // the scan may take a while, so it runs on the database lanes and only the result is published here
+        CompletableFuture.supplyAsync(() -> leaderboard.scan(storage), databaseExecutor)
+                .whenCompleteAsync((scanned, throwable) -> {
+                    reconciling = false;
+                    if (throwable != null) {
+                        plugin.getPluginLogger().warn("Failed to refresh harvest leaderboards", throwable);
+                        return;
+                    }
+                    if (this.leaderboard != leaderboard) return;
+                    List<PlayerHarvestData> loaded = new ArrayList<>();
+                    for (CachedData cached : dataCache.values()) {
+                        PlayerHarvestData data = cached.future.getNow(null);
+                        if (data != null) {
+                            loaded.add(data);
+                        }
+                    }
+                    try {
+                        leaderboard.apply(scanned, loaded);
+                    } catch (Exception e) {
+                        plugin.getPluginLogger().warn("Failed to refresh harvest leaderboards", e);
+                    }
+                }, cacheExecutor);
+    }
+
+    /**
+     * Flushes the given cached data immediately.
+     */
+    private void flushAllData(DatabaseStorage storage, List<CachedData> snapshot) {
+        if (snapshot.isEmpty()) {
             return;
         }
         
         plugin.getPluginLogger().info("Flushing all harvest data...");
-        for (PlayerHarvestData data : dataCache.values()) {
+        for (CachedData cached : snapshot) {
+            PlayerHarvestData data;
+            try {
+                // loads that are still running were scheduled against this storage
+                data = cached.future.get(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                continue;
+            }
             try {
                 storage.savePlayerData(data);
             } catch (Exception e) {
                 plugin.getPluginLogger().severe("Failed to save harvest data for player " + data.getPlayerUUID(), e);
             }
         }
-        dirtyTimestamps.clear();
         plugin.getPluginLogger().info("All harvest data flushed");
     }
 
+    /**
+     * Event handler for pre-login. Runs on a login thread, so the data
+     * is prefetched here and is usually ready before the player joins.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        try {
+            loadPlayerData(event.getUniqueId()).get(PREFETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+            // the load keeps running, harvests are buffered until it completes
+        }
+    }
+
     /**
      * Event handler for player join.
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
-        plugin.getScheduler().async().execute(() -> {
-            loadPlayerData(event.getPlayer().getUniqueId());
-        });
+        loadPlayerData(event.getPlayer().getUniqueId());
     }
 
     /**
@@ -376,26 +727,40 @@ public class HarvestDataManager implements Reloadable, Listener {
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
         UUID playerId = event.getPlayer().getUniqueId();
-        
-        // Force save on quit
-        PlayerHarvestData data = dataCache.get(playerId);
-        if (data != null) {
-            plugin.getScheduler().async().execute(() -> {
-                storage.savePlayerData(data);
-                dirtyTimestamps.remove(playerId);
-            });
+        CachedData cached = dataCache.get(playerId);
+        if (cached == null) {
+            return;
         }
-        
-        // Remove from cache after configured delay
-        int keepAfterQuit = getConfig().getInt("other-settings.harvest-data.cache.keep-after-quit", 5);
-        if (keepAfterQuit > 0) {
-            long delayTicks = keepAfterQuit * 20L; // Convert seconds to ticks
-            Bukkit.getScheduler().runTaskLater(plugin.getBootstrap(), () -> {
-                dataCache.remove(playerId);
-            }, delayTicks);
-        } else {
-            // Remove immediately if keepAfterQuit is 0
-            dataCache.remove(playerId);
+
+        // Force save on quit, the entry is evicted once it has been idle for keep-after-quit seconds
+        cached.lastAccess = System.currentTimeMillis();
+        // the load of the player is queued before this save, so the data is ready when it runs
+        runForPlayer(playerId, storage -> {
+            PlayerHarvestData data = cached.future.getNow(null);
+            if (storage == null || data == null) {
+                return;
+            }
+            dirtyTimestamps.remove(playerId);
+            storage.savePlayerData(data);
+            if (idleExpireMillis <= 0 && Bukkit.getPlayer(playerId) == null) {
+                dataCache.remove(playerId, cached);
+            }
+        });
+    }
+
+    private static class CachedData {
+
+        private final UUID playerId;
+        private final CompletableFuture<PlayerHarvestData> future;
+        // harvests recorded before the load completed, guarded by this
+        private final PlayerHarvestData buffer;
+        private volatile long lastAccess;
+
+        private CachedData(UUID playerId) {
+            this.playerId = playerId;
+            this.future = new CompletableFuture<>();
+            this.buffer = new PlayerHarvestData(playerId);
+            this.lastAccess = System.currentTimeMillis();
         }
     }
 }
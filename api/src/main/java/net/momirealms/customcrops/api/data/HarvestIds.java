@@ -0,0 +1,64 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.data;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Normalizes item IDs into the keys used by harvest statistics.
+ * These are meant to be computed once when configs are loaded, not per harvest.
+ */
+public final class HarvestIds {
+
+    private static final String[] QUALITY_SUFFIXES = {"_gold", "_silver", "_normal"};
+
+    private HarvestIds() {
+    }
+
+    /**
+     * Removes the namespace prefix, e.g. "customcrops:orange_bell_pepper" -> "orange_bell_pepper"
+     *
+     * @param id the item ID
+     * @return the ID without namespace, or null if the input is null
+     */
+    @Nullable
+    public static String stripNamespace(@Nullable String id) {
+        if (id == null) return null;
+        int index = id.indexOf(':');
+        return index < 0 ? id : id.substring(index + 1);
+    }
+
+    /**
+     * Gets the crop key of a quality loot, with the namespace and a trailing quality suffix removed.
+     * e.g. "customcrops:strawberry_gold" -> "strawberry", while "orange_bell_pepper" is kept intact
+     *
+     * @param qualityLoot the item ID of a quality loot
+     * @return the crop key, or null if the loot is empty
+     */
+    @Nullable
+    public static String cropId(@Nullable String qualityLoot) {
+        String id = stripNamespace(qualityLoot);
+        if (id == null || id.isEmpty()) return null;
+        for (String suffix : QUALITY_SUFFIXES) {
+            if (id.endsWith(suffix)) {
+                return id.substring(0, id.length() - suffix.length());
+            }
+        }
+        return id;
+    }
+}
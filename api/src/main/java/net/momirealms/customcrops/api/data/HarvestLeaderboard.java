@@ -0,0 +1,274 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory top-N rankings of harvests per crop and in total.
+ * <p>
+ * Boards are updated incrementally whenever the counts of a cached player change and are
+ * periodically rebuilt from storage, so that offline players are ranked as well.
+ * Reads never lock: each board publishes an immutable array of entries.
+ */
+public class HarvestLeaderboard {
+
+    /**
+     * Board key of the ranking by total harvests.
+     */
+    public static final String TOTAL = "total";
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final int size;
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    private final Map<UUID, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a leaderboard keeping the given number of entries per board.
+     *
+     * @param size the number of ranked players per board
+     */
+    public HarvestLeaderboard(int size) {
+        this.size = Math.max(1, size);
+    }
+
+    /**
+     * Gets the number of ranked players per board.
+     *
+     * @return the board size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Records the new counts of a player after a harvest, or after the counts were set or cleared.
+     *
+     * @param playerId the player's UUID
+     * @param cropId the changed crop
+     * @param cropCount the player's new count of that crop
+     * @param totalCount the player's new total count
+     */
+    public void update(@NotNull UUID playerId, @NotNull String cropId, int cropCount, int totalCount) {
+        if (!names.containsKey(playerId)) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                names.put(playerId, player.getName());
+            }
+        }
+        boards.computeIfAbsent(cropId, k -> new Board()).offer(playerId, cropCount, size);
+        boards.computeIfAbsent(TOTAL, k -> new Board()).offer(playerId, totalCount, size);
+    }
+
+    /**
+     * Gets the entry at the given rank.
+     *
+     * @param board the crop ID or {@link #TOTAL}
+     * @param rank the 1-based rank
+     * @return the entry, or null if the rank is not occupied
+     */
+    @Nullable
+    public Entry get(@NotNull String board, int rank) {
+        Board b = boards.get(board);
+        if (b == null || rank < 1) return null;
+        Entry[] top = b.top;
+        return rank <= top.length ? top[rank - 1] : null;
+    }
+
+    /**
+     * Gets a snapshot of a board, highest count first.
+     *
+     * @param board the crop ID or {@link #TOTAL}
+     * @return the ranked entries
+     */
+    @NotNull
+    public List<Entry> getTop(@NotNull String board) {
+        Board b = boards.get(board);
+        return b == null ? List.of() : List.of(b.top);
+    }
+
+    /**
+     * Gets the cached name of a ranked player.
+     *
+     * @param playerId the player's UUID
+     * @return the name, or null if it has not been resolved yet
+     */
+    @Nullable
+    public String getName(@NotNull UUID playerId) {
+        return names.get(playerId);
+    }
+
+    /**
+     * Rebuilds every board from storage. This scans the storage and must not be called on the main thread.
+     * Players with cached data are re-applied afterward, as their cached counts may contain
+     * harvests that have not been flushed yet.
+     *
+     * @param storage the storage to read from
+     * @param cached the currently cached player data
+     */
+    public void reconcile(@NotNull DatabaseStorage storage, @NotNull Collection<PlayerHarvestData> cached) {
+        apply(scan(storage), cached);
+    }
+
+    /**
+     * Builds the boards from storage without changing the current ones. This scans the storage
+     * and must not be called on the main thread.
+     *
+     * @param storage the storage to read from
+     * @return the ranked entries of every board, highest count first
+     */
+    @NotNull
+    public Map<String, Entry[]> scan(@NotNull DatabaseStorage storage) {
+        Map<String, PriorityQueue<Entry>> heaps = new HashMap<>();
+        Map<UUID, Integer> totals = new HashMap<>();
+        storage.forEachHarvestCount((uuid, cropId, count) -> {
+            offerToHeap(heaps.computeIfAbsent(cropId, k -> new PriorityQueue<>()), new Entry(uuid, count));
+            totals.merge(uuid, count, Integer::sum);
+        });
+        PriorityQueue<Entry> totalHeap = new PriorityQueue<>();
+        totals.forEach((uuid, count) -> offerToHeap(totalHeap, new Entry(uuid, count)));
+        heaps.put(TOTAL, totalHeap);
+
+        Map<String, Entry[]> scanned = new HashMap<>();
+        heaps.forEach((key, heap) -> {
+            Entry[] top = heap.toArray(EMPTY);
+            Arrays.sort(top, Collections.reverseOrder());
+            scanned.put(key, top);
+        });
+        return scanned;
+    }
+
+    /**
+     * Replaces the boards with the result of {@link #scan(DatabaseStorage)}.
+     * Players with cached data are re-applied afterward, as their cached counts may contain
+     * harvests that have not been flushed yet.
+     *
+     * @param scanned the scanned boards
+     * @param cached the currently cached player data
+     */
+    public void apply(@NotNull Map<String, Entry[]> scanned, @NotNull Collection<PlayerHarvestData> cached) {
+        Map<String, Board> rebuilt = new HashMap<>();
+        scanned.forEach((key, top) -> {
+            Board board = new Board();
+            board.top = top;
+            rebuilt.put(key, board);
+        });
+        boards.keySet().retainAll(rebuilt.keySet());
+        boards.putAll(rebuilt);
+
+        for (PlayerHarvestData data : cached) {
+            data.getHarvestCounts().forEach((cropId, count) ->
+                    boards.computeIfAbsent(cropId, k -> new Board()).offer(data.getPlayerUUID(), count, size));
+            boards.computeIfAbsent(TOTAL, k -> new Board()).offer(data.getPlayerUUID(), data.getTotalHarvests(), size);
+        }
+
+        for (Board board : boards.values()) {
+            for (Entry entry : board.top) {
+                names.computeIfAbsent(entry.playerId(), uuid -> {
+                    OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
+                    return player.getName() == null ? uuid.toString() : player.getName();
+                });
+            }
+        }
+    }
+
+    /**
+     * Clears all boards.
+     */
+    public void clear() {
+        boards.clear();
+        names.clear();
+    }
+
+    private void offerToHeap(PriorityQueue<Entry> heap, Entry entry) {
+        if (heap.size() < size) {
+            heap.add(entry);
+        } else if (entry.compareTo(heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /**
+     * A ranked player and their count.
+     *
+     * @param playerId the player's UUID
+     * @param count the harvest count
+     */
+    public record Entry(UUID playerId, int count) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(@NotNull Entry o) {
+            return Integer.compare(count, o.count);
+        }
+    }
+
+    private static class Board {
+
+        private volatile Entry[] top = EMPTY;
+
+        /**
+         * A ranked player moves up or down within the board, and leaves it once the count drops to 0.
+         * Other players enter the board by beating the lowest entry, so a player that now ranks above
+         * a lowered entry only shows up after the next rebuild from storage.
+         */
+        private synchronized void offer(UUID playerId, int count, int size) {
+            Entry[] current = top;
+            int existing = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i].playerId().equals(playerId)) {
+                    existing = i;
+                    break;
+                }
+            }
+            Entry[] next;
+            if (existing >= 0) {
+                if (current[existing].count() == count) return;
+                if (count <= 0) {
+                    next = new Entry[current.length - 1];
+                    System.arraycopy(current, 0, next, 0, existing);
+                    System.arraycopy(current, existing + 1, next, existing, next.length - existing);
+                    top = next;
+                    return;
+                }
+                next = current.clone();
+                next[existing] = new Entry(playerId, count);
+            } else if (count <= 0) {
+                return;
+            } else if (current.length < size) {
+                next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = new Entry(playerId, count);
+            } else if (count > current[current.length - 1].count()) {
+                next = current.clone();
+                next[next.length - 1] = new Entry(playerId, count);
+            } else {
+                return;
+            }
+            Arrays.sort(next, Collections.reverseOrder());
+            top = next;
+        }
+    }
+}
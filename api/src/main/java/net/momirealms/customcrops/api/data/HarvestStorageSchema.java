@@ -0,0 +1,53 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * Layout used by the SQL storages to persist harvest data.
+ */
+public enum HarvestStorageSchema {
+
+    /**
+     * One row per player, counters stored as JSON blobs. Every save rewrites the whole row.
+     */
+    JSON,
+    /**
+     * One row per (player, kind, item). Saves only write the counters changed since the last flush.
+     */
+    NORMALIZED;
+
+    /**
+     * Parses a schema name from config, falling back to {@link #JSON}.
+     *
+     * @param name the configured name
+     * @return the schema
+     */
+    @NotNull
+    public static HarvestStorageSchema fromString(String name) {
+        if (name == null) return JSON;
+        try {
+            return valueOf(name.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            return JSON;
+        }
+    }
+}
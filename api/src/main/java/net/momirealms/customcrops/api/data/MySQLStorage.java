@@ -22,6 +22,7 @@ import com.google.gson.reflect.TypeToken;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.common.util.TriConsumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -40,6 +41,7 @@ public class MySQLStorage implements DatabaseStorage {
 
     private final BukkitCustomCropsPlugin plugin;
     private final Gson gson;
+    private final HarvestStorageSchema schema;
     private HikariDataSource dataSource;
     
     private final String host;
@@ -58,8 +60,17 @@ public class MySQLStorage implements DatabaseStorage {
                        String username, String password, String tablePrefix,
                        int maxPoolSize, int minIdle, long connectionTimeout, 
                        long idleTimeout, long maxLifetime) {
+        this(plugin, host, port, database, username, password, tablePrefix, maxPoolSize, minIdle,
+                connectionTimeout, idleTimeout, maxLifetime, HarvestStorageSchema.JSON);
+    }
+
+    public MySQLStorage(BukkitCustomCropsPlugin plugin, String host, int port, String database,
+                       String username, String password, String tablePrefix,
+                       int maxPoolSize, int minIdle, long connectionTimeout,
+                       long idleTimeout, long maxLifetime, HarvestStorageSchema schema) {
         this.plugin = plugin;
         this.gson = new Gson();
+        this.schema = schema;
         this.host = host;
         this.port = port;
         this.database = database;
@@ -89,6 +100,12 @@ public class MySQLStorage implements DatabaseStorage {
             config.setMaxLifetime(maxLifetime);
             
             dataSource = new HikariDataSource(config);
+
+            if (schema == HarvestStorageSchema.NORMALIZED) {
+                initializeNormalized();
+                plugin.getPluginLogger().info("MySQL storage initialized successfully (normalized schema)");
+                return;
+            }
             
             // Create table
             try (Connection conn = dataSource.getConnection();
@@ -110,9 +127,43 @@ public class MySQLStorage implements DatabaseStorage {
         }
     }
 
+    private String countersUpsert() {
+        return "INSERT INTO " + tablePrefix + "harvest_counters (uuid, kind, item_id, count) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE count = count + VALUES(count)";
+    }
+
+    private void initializeNormalized() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "harvest_counters (" +
+                    "uuid VARCHAR(36) NOT NULL," +
+                    "kind VARCHAR(16) NOT NULL," +
+                    "item_id VARCHAR(191) NOT NULL," +
+                    "count INT NOT NULL," +
+                    "PRIMARY KEY (uuid, kind, item_id)" +
+                    ")"
+                );
+            }
+            int migrated = HarvestCounterSql.migrateLegacy(conn, tablePrefix + "harvest_data", tablePrefix + "harvest_counters", countersUpsert(), gson, plugin.getPluginLogger());
+            if (migrated >= 0) {
+                plugin.getPluginLogger().info("Migrated harvest data of " + migrated + " players to the normalized schema");
+            }
+        }
+    }
+
     @Override
     @Nullable
     public PlayerHarvestData loadPlayerData(@NotNull UUID playerId) {
+        if (schema == HarvestStorageSchema.NORMALIZED) {
+            try (Connection conn = dataSource.getConnection()) {
+                return HarvestCounterSql.load(conn, tablePrefix + "harvest_counters", playerId);
+            } catch (SQLException e) {
+                plugin.getPluginLogger().severe("Failed to load player data for " + playerId, e);
+                return null;
+            }
+        }
+
         String sql = "SELECT * FROM " + tablePrefix + "harvest_data WHERE uuid = ?";
         
         try (Connection conn = dataSource.getConnection();
@@ -145,6 +196,7 @@ public class MySQLStorage implements DatabaseStorage {
                     
                     data.setTotalHarvests(rs.getInt("total_harvests"));
                     data.recalculateTotalHarvests();
+                    data.discardPendingDeltas();
                     
                     return data;
                 }
@@ -158,6 +210,15 @@ public class MySQLStorage implements DatabaseStorage {
 
     @Override
     public void savePlayerData(@NotNull PlayerHarvestData data) {
+        if (schema == HarvestStorageSchema.NORMALIZED) {
+            try (Connection conn = dataSource.getConnection()) {
+                HarvestCounterSql.writeDeltas(conn, countersUpsert(), data);
+            } catch (SQLException e) {
+                plugin.getPluginLogger().severe("Failed to save player data for " + data.getPlayerUUID(), e);
+            }
+            return;
+        }
+
         String sql = "INSERT INTO " + tablePrefix + "harvest_data (uuid, harvests, quality_items, total_harvests, last_updated) " +
                     "VALUES (?, ?, ?, ?, ?) " +
                     "ON DUPLICATE KEY UPDATE harvests = VALUES(harvests), quality_items = VALUES(quality_items), " +
@@ -177,6 +238,19 @@ public class MySQLStorage implements DatabaseStorage {
         }
     }
 
+    @Override
+    public void forEachHarvestCount(@NotNull TriConsumer<UUID, String, Integer> consumer) {
+        try (Connection conn = dataSource.getConnection()) {
+            if (schema == HarvestStorageSchema.NORMALIZED) {
+                HarvestCounterSql.forEachHarvestCount(conn, tablePrefix + "harvest_counters", consumer);
+            } else {
+                HarvestCounterSql.forEachLegacyHarvestCount(conn, tablePrefix + "harvest_data", gson, consumer);
+            }
+        } catch (SQLException e) {
+            plugin.getPluginLogger().severe("Failed to scan harvest data", e);
+        }
+    }
+
     @Override
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
@@ -20,6 +20,7 @@ package net.momirealms.customcrops.api.data;
 import com.google.gson.annotations.SerializedName;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -45,6 +46,9 @@ public class PlayerHarvestData {
     @SerializedName("last_updated")
     private long lastUpdated;
 
+    private final transient Map<String, Integer> pendingHarvestDeltas;
+    private final transient Map<String, Integer> pendingQualityItemDeltas;
+
     /**
      * Creates a new PlayerHarvestData instance.
      *
@@ -54,6 +58,8 @@ public class PlayerHarvestData {
         this.playerUUID = playerUUID;
         this.harvestCounts = new ConcurrentHashMap<>();
         this.qualityItemCounts = new ConcurrentHashMap<>();
+        this.pendingHarvestDeltas = new ConcurrentHashMap<>();
+        this.pendingQualityItemDeltas = new ConcurrentHashMap<>();
         this.totalHarvests = 0;
         this.lastUpdated = System.currentTimeMillis();
     }
@@ -77,6 +83,7 @@ public class PlayerHarvestData {
     public void addHarvest(@NotNull String cropId, int amount) {
         if (amount <= 0) return;
         harvestCounts.merge(cropId, amount, Integer::sum);
+        pendingHarvestDeltas.merge(cropId, amount, Integer::sum);
         totalHarvests += amount;
         lastUpdated = System.currentTimeMillis();
     }
@@ -130,14 +137,17 @@ public class PlayerHarvestData {
     }
 
     /**
-     * Sets the harvest count for a specific crop (used for data loading).
+     * Sets the harvest count for a specific crop.
+     * The difference to the previous count is recorded as a delta, see {@link #discardPendingDeltas()} when loading.
      *
      * @param cropId The crop ID
-     * @param count The count
+     * @param count The count, 0 or less removes the crop
      */
     public void setHarvestCount(@NotNull String cropId, int count) {
-        if (count > 0) {
-            harvestCounts.put(cropId, count);
+        int delta = set(harvestCounts, pendingHarvestDeltas, cropId, count);
+        if (delta != 0) {
+            totalHarvests += delta;
+            lastUpdated = System.currentTimeMillis();
         }
     }
 
@@ -160,11 +170,15 @@ public class PlayerHarvestData {
     }
 
     /**
-     * Clears all harvest data.
+     * Clears all harvest data. The removed counts are recorded as negative deltas.
      */
     public void clear() {
-        harvestCounts.clear();
-        qualityItemCounts.clear();
+        for (String cropId : harvestCounts.keySet()) {
+            set(harvestCounts, pendingHarvestDeltas, cropId, 0);
+        }
+        for (String itemId : qualityItemCounts.keySet()) {
+            set(qualityItemCounts, pendingQualityItemDeltas, itemId, 0);
+        }
         totalHarvests = 0;
         lastUpdated = System.currentTimeMillis();
     }
@@ -178,6 +192,7 @@ public class PlayerHarvestData {
     public void addQualityItem(@NotNull String itemId, int amount) {
         if (amount <= 0) return;
         qualityItemCounts.merge(itemId, amount, Integer::sum);
+        pendingQualityItemDeltas.merge(itemId, amount, Integer::sum);
         lastUpdated = System.currentTimeMillis();
     }
 
@@ -212,15 +227,86 @@ public class PlayerHarvestData {
     }
 
     /**
-     * Sets the quality item count (used for data loading).
+     * Sets the quality item count.
+     * The difference to the previous count is recorded as a delta, see {@link #discardPendingDeltas()} when loading.
      *
      * @param itemId The item ID
-     * @param count The count
+     * @param count The count, 0 or less removes the item
      */
     public void setQualityItemCount(@NotNull String itemId, int count) {
-        if (count > 0) {
-            qualityItemCounts.put(itemId, count);
+        if (set(qualityItemCounts, pendingQualityItemDeltas, itemId, count) != 0) {
+            lastUpdated = System.currentTimeMillis();
         }
     }
-}
 
+    /**
+     * Takes the harvest counts added since the last drain and resets them.
+     * Used by storages that persist increments instead of full snapshots.
+     *
+     * @return A map of crop IDs to the amount harvested since the last drain
+     */
+    @NotNull
+    public Map<String, Integer> drainHarvestDeltas() {
+        return drain(pendingHarvestDeltas);
+    }
+
+    /**
+     * Takes the quality item counts added since the last drain and resets them.
+     *
+     * @return A map of item IDs to the amount obtained since the last drain
+     */
+    @NotNull
+    public Map<String, Integer> drainQualityItemDeltas() {
+        return drain(pendingQualityItemDeltas);
+    }
+
+    /**
+     * Puts previously drained deltas back, e.g. after a failed write,
+     * so they are retried on the next flush.
+     *
+     * @param harvests The drained harvest deltas
+     * @param qualityItems The drained quality item deltas
+     */
+    public void restoreDeltas(@NotNull Map<String, Integer> harvests, @NotNull Map<String, Integer> qualityItems) {
+        harvests.forEach((key, value) -> pendingHarvestDeltas.merge(key, value, Integer::sum));
+        qualityItems.forEach((key, value) -> pendingQualityItemDeltas.merge(key, value, Integer::sum));
+    }
+
+    /**
+     * Drops the pending deltas without writing them. Used after loading,
+     * as the counts that were set are already stored.
+     */
+    public void discardPendingDeltas() {
+        pendingHarvestDeltas.clear();
+        pendingQualityItemDeltas.clear();
+    }
+
+    /**
+     * Checks if there are increments that have not been drained yet.
+     *
+     * @return True if any delta is pending
+     */
+    public boolean hasPendingDeltas() {
+        return !pendingHarvestDeltas.isEmpty() || !pendingQualityItemDeltas.isEmpty();
+    }
+
+    private static int set(Map<String, Integer> counts, Map<String, Integer> pending, String key, int count) {
+        Integer previous = count > 0 ? counts.put(key, count) : counts.remove(key);
+        int delta = Math.max(count, 0) - (previous == null ? 0 : previous);
+        if (delta != 0) {
+            pending.merge(key, delta, Integer::sum);
+        }
+        return delta;
+    }
+
+    private static Map<String, Integer> drain(Map<String, Integer> pending) {
+        Map<String, Integer> drained = new HashMap<>();
+        for (String key : pending.keySet()) {
+            Integer value = pending.remove(key);
+            if (value != null && value != 0) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+}
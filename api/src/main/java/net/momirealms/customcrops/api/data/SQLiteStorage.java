@@ -20,6 +20,7 @@ package net.momirealms.customcrops.api.data;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.common.util.TriConsumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -36,12 +37,21 @@ public class SQLiteStorage implements DatabaseStorage {
     private final BukkitCustomCropsPlugin plugin;
     private final File databaseFile;
     private final Gson gson;
+    private final HarvestStorageSchema schema;
     private Connection connection;
 
+    private static final String COUNTERS_UPSERT = "INSERT INTO harvest_counters (uuid, kind, item_id, count) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT(uuid, kind, item_id) DO UPDATE SET count = count + excluded.count";
+
     public SQLiteStorage(BukkitCustomCropsPlugin plugin) {
+        this(plugin, HarvestStorageSchema.JSON);
+    }
+
+    public SQLiteStorage(BukkitCustomCropsPlugin plugin, HarvestStorageSchema schema) {
         this.plugin = plugin;
         this.databaseFile = plugin.getDataDirectory().resolve("harvest-data.db").toFile();
         this.gson = new Gson();
+        this.schema = schema;
     }
 
     @Override
@@ -58,6 +68,12 @@ public class SQLiteStorage implements DatabaseStorage {
             // Establish connection
             connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
             
+            if (schema == HarvestStorageSchema.NORMALIZED) {
+                initializeNormalized();
+                plugin.getPluginLogger().info("SQLite storage initialized successfully (normalized schema)");
+                return;
+            }
+
             // Create table
             try (Statement stmt = connection.createStatement()) {
                 stmt.execute(
@@ -77,9 +93,39 @@ public class SQLiteStorage implements DatabaseStorage {
         }
     }
 
+    private void initializeNormalized() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(
+                "CREATE TABLE IF NOT EXISTS harvest_counters (" +
+                "uuid TEXT NOT NULL," +
+                "kind TEXT NOT NULL," +
+                "item_id TEXT NOT NULL," +
+                "count INTEGER NOT NULL," +
+                "PRIMARY KEY (uuid, kind, item_id)" +
+                ")"
+            );
+        }
+        int migrated = HarvestCounterSql.migrateLegacy(connection, "harvest_data", "harvest_counters", COUNTERS_UPSERT, gson, plugin.getPluginLogger());
+        if (migrated >= 0) {
+            plugin.getPluginLogger().info("Migrated harvest data of " + migrated + " players to the normalized schema");
+        }
+    }
+
     @Override
     @Nullable
     public PlayerHarvestData loadPlayerData(@NotNull UUID playerId) {
+        if (schema == HarvestStorageSchema.NORMALIZED) {
+            // the connection is shared, so reads must not run inside another player's transaction
+            synchronized (this) {
+                try {
+                    return HarvestCounterSql.load(connection, "harvest_counters", playerId);
+                } catch (SQLException e) {
+                    plugin.getPluginLogger().severe("Failed to load player data for " + playerId, e);
+                    return null;
+                }
+            }
+        }
+
         String sql = "SELECT * FROM harvest_data WHERE uuid = ?";
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -111,6 +157,7 @@ public class SQLiteStorage implements DatabaseStorage {
                     
                     data.setTotalHarvests(rs.getInt("total_harvests"));
                     data.recalculateTotalHarvests();
+                    data.discardPendingDeltas();
                     
                     return data;
                 }
@@ -124,6 +171,18 @@ public class SQLiteStorage implements DatabaseStorage {
 
     @Override
     public void savePlayerData(@NotNull PlayerHarvestData data) {
+        if (schema == HarvestStorageSchema.NORMALIZED) {
+            // the connection is shared, so transactions must not interleave
+            synchronized (this) {
+                try {
+                    HarvestCounterSql.writeDeltas(connection, COUNTERS_UPSERT, data);
+                } catch (SQLException e) {
+                    plugin.getPluginLogger().severe("Failed to save player data for " + data.getPlayerUUID(), e);
+                }
+            }
+            return;
+        }
+
         String sql = "INSERT OR REPLACE INTO harvest_data (uuid, harvests, quality_items, total_harvests, last_updated) VALUES (?, ?, ?, ?, ?)";
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -139,6 +198,21 @@ public class SQLiteStorage implements DatabaseStorage {
         }
     }
 
+    @Override
+    public void forEachHarvestCount(@NotNull TriConsumer<UUID, String, Integer> consumer) {
+        try {
+            synchronized (this) {
+                if (schema == HarvestStorageSchema.NORMALIZED) {
+                    HarvestCounterSql.forEachHarvestCount(connection, "harvest_counters", consumer);
+                } else {
+                    HarvestCounterSql.forEachLegacyHarvestCount(connection, "harvest_data", gson, consumer);
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getPluginLogger().severe("Failed to scan harvest data", e);
+        }
+    }
+
     @Override
     public void close() {
         if (connection != null) {
@@ -18,12 +18,14 @@
 package net.momirealms.customcrops.api.event;
 
 import net.momirealms.customcrops.api.context.Context;
+import net.momirealms.customcrops.api.data.HarvestIds;
 import org.bukkit.Location;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -38,13 +40,19 @@ public class QualityCropActionEvent extends Event implements Cancellable {
     private final Location location;
     private final List<ItemStack> items;
     private final String[] qualityCrops;
+    private final String cropId;
 
     public QualityCropActionEvent(Context<?> context, Location location, String[] qualityCrops, List<ItemStack> itemStacks) {
+        this(context, location, qualityCrops, HarvestIds.cropId(qualityCrops.length > 0 ? qualityCrops[0] : null), itemStacks);
+    }
+
+    public QualityCropActionEvent(Context<?> context, Location location, String[] qualityCrops, @Nullable String cropId, List<ItemStack> itemStacks) {
         this.cancelled = false;
         this.context = context;
         this.location = location;
         this.items = itemStacks;
         this.qualityCrops = qualityCrops;
+        this.cropId = cropId;
     }
 
     /**
@@ -123,4 +131,14 @@ public class QualityCropActionEvent extends Event implements Cancellable {
     public String[] qualityCrops() {
         return qualityCrops;
     }
+
+    /**
+     * Gets the crop key used by harvest statistics, without namespace and quality suffix
+     *
+     * @return the crop key, or null if it can't be determined
+     */
+    @Nullable
+    public String cropId() {
+        return cropId;
+    }
 }
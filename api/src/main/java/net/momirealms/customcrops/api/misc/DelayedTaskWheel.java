@@ -0,0 +1,261 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc;
+
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.common.plugin.feature.Reloadable;
+import net.momirealms.customcrops.common.plugin.scheduler.SchedulerTask;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A shared timing wheel for the tasks that are delayed by a number of ticks, such as delayed actions and crop death.
+ * <p>
+ * Instead of one scheduler task per delayed task, the wheel is advanced once per tick and the tasks that are due
+ * are run in batches, one batch per chunk. On Folia each batch runs on the region that owns the chunk.
+ * Tasks bound to a location are dropped when their chunk unloads.
+ */
+public class DelayedTaskWheel implements Reloadable {
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final BukkitCustomCropsPlugin plugin;
+    private final ConcurrentLinkedQueue<Entry> incoming = new ConcurrentLinkedQueue<>();
+    // only accessed by the ticking thread
+    private final ArrayList<ArrayList<Entry>> slots = new ArrayList<>(WHEEL_SIZE);
+    private final ConcurrentHashMap<ChunkKey, ChunkTasks> chunks = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long currentTick;
+    private SchedulerTask tickTask;
+
+    public DelayedTaskWheel(BukkitCustomCropsPlugin plugin) {
+        this.plugin = plugin;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            this.slots.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void load() {
+        this.tickTask = plugin.getScheduler().sync().runRepeating(this::tick, 1, 1, null);
+    }
+
+    @Override
+    public void unload() {
+        if (this.tickTask != null) {
+            this.tickTask.cancel();
+            this.tickTask = null;
+        }
+    }
+
+    @Override
+    public void disable() {
+        unload();
+        this.incoming.clear();
+        for (ArrayList<Entry> slot : this.slots) {
+            slot.clear();
+        }
+        this.chunks.clear();
+        this.pending.set(0);
+    }
+
+    /**
+     * Runs a task on the thread that owns the location after some ticks.
+     * If the location is not null, the task is dropped when its chunk unloads.
+     *
+     * @param task the task
+     * @param delayTicks the delay in ticks
+     * @param location the location, or null to run the task on the global thread
+     * @return the scheduled task
+     */
+    public SchedulerTask schedule(Runnable task, long delayTicks, @Nullable Location location) {
+        if (location == null || location.getWorld() == null) {
+            return enqueue(new Entry(task, delayTicks, false, null, null));
+        }
+        ChunkKey key = new ChunkKey(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        ChunkTasks tasks = this.chunks.compute(key, (k, v) -> {
+            if (v == null) v = new ChunkTasks();
+            v.count++;
+            return v;
+        });
+        return enqueue(new Entry(task, delayTicks, false, key, tasks));
+    }
+
+    /**
+     * Runs a task asynchronously after some ticks
+     *
+     * @param task the task
+     * @param delayTicks the delay in ticks
+     * @return the scheduled task
+     */
+    public SchedulerTask scheduleAsync(Runnable task, long delayTicks) {
+        return enqueue(new Entry(task, delayTicks, true, null, null));
+    }
+
+    /**
+     * Drops the pending tasks bound to a chunk. Called when the chunk unloads.
+     *
+     * @param world the world
+     * @param chunkX the chunk x
+     * @param chunkZ the chunk z
+     */
+    public void cancelChunk(World world, int chunkX, int chunkZ) {
+        ChunkTasks tasks = this.chunks.remove(new ChunkKey(world, chunkX, chunkZ));
+        if (tasks != null) {
+            tasks.cancelled = true;
+        }
+    }
+
+    /**
+     * Gets the number of tasks that are waiting to run
+     *
+     * @return the number of pending tasks
+     */
+    public int pendingTasks() {
+        return this.pending.get();
+    }
+
+    private Entry enqueue(Entry entry) {
+        this.pending.incrementAndGet();
+        // the ticking thread assigns the target tick, so that a task is never put into a slot that has just been passed
+        this.incoming.add(entry);
+        return entry;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks that are due
+     */
+    public void tick() {
+        long tick = ++this.currentTick;
+        ArrayList<Entry> due = new ArrayList<>();
+        Entry entry;
+        while ((entry = this.incoming.poll()) != null) {
+            entry.targetTick = tick - 1 + Math.max(1, entry.delay);
+            if (entry.targetTick <= tick) {
+                due.add(entry);
+            } else {
+                this.slots.get((int) (entry.targetTick & WHEEL_MASK)).add(entry);
+            }
+        }
+        ArrayList<Entry> slot = this.slots.get((int) (tick & WHEEL_MASK));
+        if (!slot.isEmpty()) {
+            ArrayList<Entry> remaining = new ArrayList<>();
+            for (Entry scheduled : slot) {
+                // tasks delayed by more than one lap stay in the slot
+                if (scheduled.targetTick <= tick) {
+                    due.add(scheduled);
+                } else {
+                    remaining.add(scheduled);
+                }
+            }
+            this.slots.set((int) (tick & WHEEL_MASK), remaining);
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        ArrayList<Runnable> global = new ArrayList<>();
+        ArrayList<Runnable> async = new ArrayList<>();
+        Map<ChunkKey, List<Runnable>> regional = new HashMap<>();
+        for (Entry dueEntry : due) {
+            this.pending.decrementAndGet();
+            boolean dropped = dueEntry.cancelled;
+            if (dueEntry.chunk != null) {
+                dropped |= dueEntry.chunk.cancelled;
+                this.chunks.computeIfPresent(dueEntry.key, (k, v) -> v != dueEntry.chunk || --v.count > 0 ? v : null);
+            }
+            if (dropped) {
+                continue;
+            }
+            if (dueEntry.async) {
+                async.add(dueEntry.task);
+            } else if (dueEntry.key != null) {
+                regional.computeIfAbsent(dueEntry.key, k -> new ArrayList<>()).add(dueEntry.task);
+            } else {
+                global.add(dueEntry.task);
+            }
+        }
+        if (!async.isEmpty()) {
+            plugin.getScheduler().async().execute(() -> runAll(async));
+        }
+        for (Map.Entry<ChunkKey, List<Runnable>> batch : regional.entrySet()) {
+            ChunkKey key = batch.getKey();
+            plugin.getScheduler().sync().run(() -> runAll(batch.getValue()), key.world(), key.x(), key.z());
+        }
+        // the wheel is ticked on the global thread
+        runAll(global);
+    }
+
+    private void runAll(List<Runnable> tasks) {
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                plugin.getPluginLogger().warn("Failed to run delayed task", e);
+            }
+        }
+    }
+
+    private record ChunkKey(World world, int x, int z) {
+    }
+
+    private static class ChunkTasks {
+        // guarded by the map's per-key lock
+        private int count;
+        private volatile boolean cancelled;
+    }
+
+    private static class Entry implements SchedulerTask {
+
+        private final Runnable task;
+        private final long delay;
+        private final boolean async;
+        private final ChunkKey key;
+        private final ChunkTasks chunk;
+        private long targetTick;
+        private volatile boolean cancelled;
+
+        private Entry(Runnable task, long delay, boolean async, ChunkKey key, ChunkTasks chunk) {
+            this.task = task;
+            this.delay = delay;
+            this.async = async;
+            this.key = key;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+    }
+}
@@ -105,6 +105,19 @@ public class HologramManager implements Listener, Reloadable {
         }
     }
 
+    /**
+     * Gets the number of holograms currently shown to players
+     *
+     * @return the number of holograms
+     */
+    public int activeHologramCount() {
+        int count = 0;
+        for (HologramCache cache : hologramMap.values()) {
+            count += cache.cache.size();
+        }
+        return count;
+    }
+
     public static class HologramCache {
 
         private final ConcurrentHashMap<Location, Pair<FakeNamedEntity, Long>> cache = new ConcurrentHashMap<>();
@@ -25,26 +25,42 @@ import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Manages cooldowns for various actions or events.
  * Keeps track of cooldown times for different keys associated with player UUIDs.
+ * Keys are interned to int ids, so that a check is a single slot update in the player's data.
  */
 public class CoolDownManager implements Listener, Reloadable {
 
     private final ConcurrentHashMap<UUID, Data> dataMap;
+    private final ConcurrentHashMap<String, Integer> keyIds;
     private final BukkitCustomCropsPlugin plugin;
 
     public CoolDownManager(BukkitCustomCropsPlugin plugin) {
         this.dataMap = new ConcurrentHashMap<>();
+        this.keyIds = new ConcurrentHashMap<>();
         this.plugin = plugin;
     }
 
+    /**
+     * Gets the id of a cooldown key, registering it if it's new.
+     * Ids are stable for the lifetime of the plugin, so they can be resolved once when configs are loaded.
+     *
+     * @param key The key associated with the cooldown.
+     * @return The id of the key.
+     */
+    public int keyId(String key) {
+        Integer id = keyIds.get(key);
+        if (id != null) return id;
+        synchronized (keyIds) {
+            return keyIds.computeIfAbsent(key, k -> keyIds.size());
+        }
+    }
+
     /**
      * Checks if a player is currently in cooldown for a specific key.
      *
@@ -54,8 +70,23 @@ public class CoolDownManager implements Listener, Reloadable {
      * @return True if the player is in cooldown, false otherwise.
      */
     public boolean isCoolDown(UUID uuid, String key, long time) {
-        Data data = this.dataMap.computeIfAbsent(uuid, k -> new Data());
-        return data.isCoolDown(key, time);
+        return isCoolDown(uuid, keyId(key), time);
+    }
+
+    /**
+     * Checks if a player is currently in cooldown for a specific key.
+     *
+     * @param uuid  The UUID of the player.
+     * @param keyId The id of the key, see {@link #keyId(String)}.
+     * @param time  The cooldown time in milliseconds.
+     * @return True if the player is in cooldown, false otherwise.
+     */
+    public boolean isCoolDown(UUID uuid, int keyId, long time) {
+        Data data = this.dataMap.get(uuid);
+        if (data == null) {
+            data = this.dataMap.computeIfAbsent(uuid, k -> new Data(keyIds.size()));
+        }
+        return data.isCoolDown(keyId, time);
     }
 
     @Override
@@ -86,27 +117,57 @@ public class CoolDownManager implements Listener, Reloadable {
 
     public static class Data {
 
-        private final Map<String, Long> coolDownMap;
+        // marks a slot that has been copied into a larger array
+        private static final long MOVED = Long.MIN_VALUE;
+
+        private volatile AtomicLongArray slots;
 
-        public Data() {
-            this.coolDownMap = Collections.synchronizedMap(new HashMap<>());
+        public Data(int capacity) {
+            this.slots = new AtomicLongArray(Math.max(4, capacity));
         }
 
         /**
          * Checks if the player is in cooldown for a specific key.
+         * A slot holds the time the key was last used, so an expired cooldown is simply overwritten.
          *
-         * @param key   The key associated with the cooldown.
+         * @param keyId The id of the key.
          * @param delay The cooldown delay in milliseconds.
          * @return True if the player is in cooldown, false otherwise.
          */
-        public boolean isCoolDown(String key, long delay) {
+        public boolean isCoolDown(int keyId, long delay) {
             long time = System.currentTimeMillis();
-            long last = coolDownMap.getOrDefault(key, time - delay);
-            if (last + delay > time) {
-                return true; // Player is in cooldown
-            } else {
-                coolDownMap.put(key, time);
-                return false; // Player is not in cooldown
+            while (true) {
+                AtomicLongArray slots = slots(keyId);
+                long last = slots.get(keyId);
+                if (last == MOVED) {
+                    continue;
+                }
+                if (last != 0 && last + delay > time) {
+                    return true; // Player is in cooldown
+                }
+                if (slots.compareAndSet(keyId, last, time)) {
+                    return false; // Player is not in cooldown
+                }
+            }
+        }
+
+        private AtomicLongArray slots(int keyId) {
+            AtomicLongArray slots = this.slots;
+            if (keyId < slots.length()) {
+                return slots;
+            }
+            synchronized (this) {
+                slots = this.slots;
+                if (keyId >= slots.length()) {
+                    AtomicLongArray grown = new AtomicLongArray(Math.max(keyId + 1, slots.length() << 1));
+                    for (int i = 0; i < slots.length(); i++) {
+                        // writers that still hold the old array see MOVED and retry on the new one
+                        grown.set(i, slots.getAndSet(i, MOVED));
+                    }
+                    this.slots = grown;
+                    slots = grown;
+                }
+                return slots;
             }
         }
     }
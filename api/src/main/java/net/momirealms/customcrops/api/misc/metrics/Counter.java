@@ -0,0 +1,68 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing counter. Each label combination is backed by a {@link LongAdder},
+ * so concurrent increments from tick threads don't contend. Hot paths should keep the adder
+ * returned by {@link #labels(String...)} instead of looking it up on every increment.
+ */
+public final class Counter extends Metric {
+
+    private final Map<List<String>, LongAdder> children = new ConcurrentHashMap<>();
+
+    Counter(String name, String help, String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    /**
+     * Gets the adder for the given label values
+     *
+     * @param values label values, in the order of {@link #labelNames()}
+     * @return the adder
+     */
+    public LongAdder labels(String... values) {
+        return children.computeIfAbsent(checkLabels(values), k -> new LongAdder());
+    }
+
+    /**
+     * Removes the adder for the given label values, so that it is no longer exported
+     *
+     * @param values label values, in the order of {@link #labelNames()}
+     */
+    public void remove(String... values) {
+        children.remove(checkLabels(values));
+    }
+
+    @Override
+    public MetricFamily.Type type() {
+        return MetricFamily.Type.COUNTER;
+    }
+
+    @Override
+    protected void collect(List<MetricFamily.Sample> samples) {
+        for (Map.Entry<List<String>, LongAdder> entry : children.entrySet()) {
+            samples.add(new MetricFamily.Sample(name(), labelNames(), entry.getKey(), entry.getValue().sum()));
+        }
+    }
+}
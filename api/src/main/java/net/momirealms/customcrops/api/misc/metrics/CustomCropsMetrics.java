@@ -0,0 +1,69 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics recorded on the plugin's hot paths
+ */
+public final class CustomCropsMetrics {
+
+    private static final double[] DURATION_BUCKETS = {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5};
+
+    public static final Histogram WORLD_TICK_SECONDS = MetricsRegistry.getInstance().histogram(
+            "customcrops_world_tick_seconds", "Time spent in the per-second world timer", DURATION_BUCKETS, "world");
+    public static final Counter BLOCK_TICKS = MetricsRegistry.getInstance().counter(
+            "customcrops_block_ticks_total", "Blocks ticked by the world timer", "world", "mode");
+    public static final Histogram WORLD_SAVE_SECONDS = MetricsRegistry.getInstance().histogram(
+            "customcrops_world_save_seconds", "Time spent saving a world", DURATION_BUCKETS, "world");
+    public static final Counter SERIALIZED_CHUNKS = MetricsRegistry.getInstance().counter(
+            "customcrops_serialized_chunks_total", "Chunks serialized for saving");
+    public static final Counter SERIALIZED_CHUNK_BYTES = MetricsRegistry.getInstance().counter(
+            "customcrops_serialized_chunk_bytes_total", "Compressed bytes of the serialized chunks");
+    public static final Counter REGION_FILE_BYTES = MetricsRegistry.getInstance().counter(
+            "customcrops_region_file_bytes_total", "Bytes written to region files");
+    public static final Counter REGION_EVICTIONS = MetricsRegistry.getInstance().counter(
+            "customcrops_region_evictions_total", "Idle regions unloaded to keep the region cache within its memory budget", "world");
+    public static final Counter HARVESTS = MetricsRegistry.getInstance().counter(
+            "customcrops_harvests_total", "Crops harvested by players");
+    public static final Counter HARVEST_DATA_FLUSHES = MetricsRegistry.getInstance().counter(
+            "customcrops_harvest_data_flushes_total", "Player harvest data written to the database");
+
+    public static final LongAdder ACTIVE_FAKE_ITEMS = new LongAdder();
+
+    static {
+        MetricsRegistry.getInstance().gauge("customcrops_fake_items", "Fake items currently shown by actions", sink -> sink.set(ACTIVE_FAKE_ITEMS.sum()));
+    }
+
+    private CustomCropsMetrics() {
+    }
+
+    /**
+     * Removes the samples labelled with a world, called once the world has been unloaded
+     *
+     * @param world the world name
+     */
+    public static void removeWorld(String world) {
+        WORLD_TICK_SECONDS.remove(world);
+        BLOCK_TICKS.remove(world, "scheduled");
+        BLOCK_TICKS.remove(world, "random");
+        WORLD_SAVE_SECONDS.remove(world);
+        REGION_EVICTIONS.remove(world);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A gauge whose values are computed when the metrics are collected
+ */
+public final class Gauge extends Metric {
+
+    private final GaugeCollector collector;
+
+    Gauge(String name, String help, GaugeCollector collector, String... labelNames) {
+        super(name, help, labelNames);
+        this.collector = collector;
+    }
+
+    @Override
+    public MetricFamily.Type type() {
+        return MetricFamily.Type.GAUGE;
+    }
+
+    @Override
+    protected void collect(List<MetricFamily.Sample> samples) {
+        collector.collect((value, values) -> samples.add(new MetricFamily.Sample(name(), labelNames(), new ArrayList<>(checkLabels(values)), value)));
+    }
+
+    @FunctionalInterface
+    public interface GaugeCollector {
+
+        /**
+         * Reports the current values. Called from the thread that collects the metrics,
+         * so implementations must only read thread-safe state.
+         *
+         * @param sink the sink to report to
+         */
+        void collect(Sink sink);
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+
+        void set(double value, String... labelValues);
+    }
+}
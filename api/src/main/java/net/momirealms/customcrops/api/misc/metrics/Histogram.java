@@ -0,0 +1,109 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in seconds with fixed bucket bounds
+ */
+public final class Histogram extends Metric {
+
+    private final double[] bounds;
+    private final Map<List<String>, Child> children = new ConcurrentHashMap<>();
+
+    Histogram(String name, String help, double[] bounds, String... labelNames) {
+        super(name, help, labelNames);
+        this.bounds = bounds.clone();
+    }
+
+    /**
+     * Gets the child for the given label values
+     *
+     * @param values label values, in the order of {@link #labelNames()}
+     * @return the child
+     */
+    public Child labels(String... values) {
+        return children.computeIfAbsent(checkLabels(values), k -> new Child(bounds));
+    }
+
+    /**
+     * Removes the child for the given label values, so that it is no longer exported
+     *
+     * @param values label values, in the order of {@link #labelNames()}
+     */
+    public void remove(String... values) {
+        children.remove(checkLabels(values));
+    }
+
+    @Override
+    public MetricFamily.Type type() {
+        return MetricFamily.Type.HISTOGRAM;
+    }
+
+    @Override
+    protected void collect(List<MetricFamily.Sample> samples) {
+        List<String> bucketLabels = new ArrayList<>(labelNames());
+        bucketLabels.add("le");
+        for (Map.Entry<List<String>, Child> entry : children.entrySet()) {
+            Child child = entry.getValue();
+            long cumulative = 0;
+            for (int i = 0; i <= bounds.length; i++) {
+                cumulative += child.buckets[i].sum();
+                List<String> values = new ArrayList<>(entry.getKey());
+                values.add(i == bounds.length ? "+Inf" : MetricFamily.formatValue(bounds[i]));
+                samples.add(new MetricFamily.Sample(name() + "_bucket", bucketLabels, values, cumulative));
+            }
+            samples.add(new MetricFamily.Sample(name() + "_sum", labelNames(), entry.getKey(), child.sum.sum()));
+            samples.add(new MetricFamily.Sample(name() + "_count", labelNames(), entry.getKey(), cumulative));
+        }
+    }
+
+    public static final class Child {
+
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Child(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double seconds) {
+            int i = 0;
+            while (i < bounds.length && seconds > bounds[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            sum.add(seconds);
+        }
+
+        public void observeNanos(long nanos) {
+            observe(nanos / 1e9);
+        }
+    }
+}
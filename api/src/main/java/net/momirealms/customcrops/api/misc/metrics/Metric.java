@@ -0,0 +1,69 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.metrics;
+
+import java.util.List;
+
+/**
+ * Base class of the metrics held by {@link MetricsRegistry}
+ */
+public abstract class Metric {
+
+    private final String name;
+    private final String help;
+    private final List<String> labelNames;
+
+    protected Metric(String name, String help, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.labelNames = List.of(labelNames);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String help() {
+        return help;
+    }
+
+    public List<String> labelNames() {
+        return labelNames;
+    }
+
+    /**
+     * Gets the Prometheus type of this metric
+     *
+     * @return the type
+     */
+    public abstract MetricFamily.Type type();
+
+    /**
+     * Adds the current samples of this metric
+     *
+     * @param samples the list to add to
+     */
+    protected abstract void collect(List<MetricFamily.Sample> samples);
+
+    protected List<String> checkLabels(String... values) {
+        if (values.length != labelNames.size()) {
+            throw new IllegalArgumentException("Metric " + name + " expects labels " + labelNames + " but got " + values.length + " values");
+        }
+        return List.of(values);
+    }
+}
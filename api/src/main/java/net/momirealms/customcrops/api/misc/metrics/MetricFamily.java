@@ -0,0 +1,107 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.metrics;
+
+import java.util.List;
+
+/**
+ * A snapshot of one metric with all of its samples
+ *
+ * @param name    the metric name
+ * @param help    the description
+ * @param type    the metric type
+ * @param samples the samples
+ */
+public record MetricFamily(String name, String help, Type type, List<Sample> samples) {
+
+    /**
+     * Appends this family in the Prometheus text exposition format
+     *
+     * @param builder the builder to append to
+     */
+    public void appendPrometheus(StringBuilder builder) {
+        builder.append("# HELP ").append(name).append(' ');
+        for (int i = 0; i < help.length(); i++) {
+            char c = help.charAt(i);
+            switch (c) {
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                default -> builder.append(c);
+            }
+        }
+        builder.append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type.prometheusName).append('\n');
+        for (Sample sample : samples) {
+            sample.appendPrometheus(builder);
+        }
+    }
+
+    static String formatValue(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    public enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("histogram");
+
+        private final String prometheusName;
+
+        Type(String prometheusName) {
+            this.prometheusName = prometheusName;
+        }
+    }
+
+    /**
+     * A single value
+     *
+     * @param name        the sample name, which has a suffix such as _bucket for histograms
+     * @param labelNames  label names
+     * @param labelValues label values
+     * @param value       the value
+     */
+    public record Sample(String name, List<String> labelNames, List<String> labelValues, double value) {
+
+        private void appendPrometheus(StringBuilder builder) {
+            builder.append(name);
+            if (!labelNames.isEmpty()) {
+                builder.append('{');
+                for (int i = 0; i < labelNames.size(); i++) {
+                    if (i > 0) builder.append(',');
+                    builder.append(labelNames.get(i)).append("=\"");
+                    String value = labelValues.get(i);
+                    for (int j = 0; j < value.length(); j++) {
+                        char c = value.charAt(j);
+                        switch (c) {
+                            case '\\' -> builder.append("\\\\");
+                            case '"' -> builder.append("\\\"");
+                            case '\n' -> builder.append("\\n");
+                            default -> builder.append(c);
+                        }
+                    }
+                    builder.append('"');
+                }
+                builder.append('}');
+            }
+            builder.append(' ').append(formatValue(value)).append('\n');
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the metrics exposed by CustomCrops.
+ * <p>
+ * Other plugins can pull the current values with {@link #collect()} or {@link #scrape()},
+ * and register their own metrics to have them served by the built-in endpoint.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets or creates a counter
+     *
+     * @param name       the metric name, ending with _total by convention
+     * @param help       the description
+     * @param labelNames label names
+     * @return the counter
+     */
+    public Counter counter(String name, String help, String... labelNames) {
+        return register(name, Counter.class, () -> new Counter(name, help, labelNames));
+    }
+
+    /**
+     * Gets or creates a histogram
+     *
+     * @param name       the metric name
+     * @param help       the description
+     * @param bounds     upper bounds of the buckets in ascending order
+     * @param labelNames label names
+     * @return the histogram
+     */
+    public Histogram histogram(String name, String help, double[] bounds, String... labelNames) {
+        return register(name, Histogram.class, () -> new Histogram(name, help, bounds, labelNames));
+    }
+
+    /**
+     * Registers a gauge, replacing the previous one with the same name
+     *
+     * @param name       the metric name
+     * @param help       the description
+     * @param collector  computes the values on collection
+     * @param labelNames label names
+     */
+    public void gauge(String name, String help, Gauge.GaugeCollector collector, String... labelNames) {
+        Metric previous = metrics.get(name);
+        if (previous != null && !(previous instanceof Gauge)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + previous.type());
+        }
+        metrics.put(name, new Gauge(name, help, collector, labelNames));
+    }
+
+    /**
+     * Removes a metric
+     *
+     * @param name the metric name
+     */
+    public void unregister(String name) {
+        metrics.remove(name);
+    }
+
+    /**
+     * Takes a snapshot of all the metrics
+     *
+     * @return the metric families sorted by name
+     */
+    public List<MetricFamily> collect() {
+        List<MetricFamily> families = new ArrayList<>(metrics.size());
+        for (Metric metric : metrics.values()) {
+            List<MetricFamily.Sample> samples = new ArrayList<>();
+            metric.collect(samples);
+            families.add(new MetricFamily(metric.name(), metric.help(), metric.type(), samples));
+        }
+        return families;
+    }
+
+    /**
+     * Takes a snapshot of all the metrics in the Prometheus text exposition format
+     *
+     * @return the text
+     */
+    public String scrape() {
+        StringBuilder builder = new StringBuilder(4096);
+        for (MetricFamily family : collect()) {
+            family.appendPrometheus(builder);
+        }
+        return builder.toString();
+    }
+
+    private <M extends Metric> M register(String name, Class<M> type, Supplier<M> factory) {
+        Metric metric = metrics.computeIfAbsent(name, k -> factory.get());
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + metric.type());
+        }
+        return type.cast(metric);
+    }
+}
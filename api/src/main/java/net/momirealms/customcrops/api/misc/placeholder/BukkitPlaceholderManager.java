@@ -113,7 +113,7 @@ public class BukkitPlaceholderManager implements PlaceholderManager {
         String custom = Optional.ofNullable(customPlaceholderMap.get(placeholder)).map(supplier -> supplier.apply(player, replacements)).orElse(null);
         if (custom == null)
             return placeholder;
-        return setPlaceholders(player, custom);
+        return setPlaceholders(player, parse(player, custom, replacements));
     }
 
     @Override
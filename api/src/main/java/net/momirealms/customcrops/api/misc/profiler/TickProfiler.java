@@ -0,0 +1,412 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.misc.profiler;
+
+import net.momirealms.customcrops.api.action.Action;
+import net.momirealms.customcrops.api.action.EmptyAction;
+import net.momirealms.customcrops.api.context.Context;
+import net.momirealms.customcrops.api.core.block.AbstractCustomCropsBlock;
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
+import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
+import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.Pos3;
+import net.momirealms.customcrops.api.requirement.BlockBatch;
+import net.momirealms.customcrops.api.requirement.EmptyRequirement;
+import net.momirealms.customcrops.api.requirement.Requirement;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A sampling-free profiler for the tick pipeline. When no session is running, every
+ * entry point is a single field read followed by the original call.
+ */
+public final class TickProfiler {
+
+    private static final Map<Object, String> LABELS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static volatile Session session;
+    private static volatile Session lastSession;
+
+    private TickProfiler() {
+    }
+
+    /**
+     * Starts a new session
+     *
+     * @return false if a session is already running
+     */
+    public static synchronized boolean start() {
+        if (session != null) return false;
+        session = new Session();
+        lastSession = session;
+        return true;
+    }
+
+    /**
+     * Stops the running session
+     *
+     * @return the stopped session, or null if none was running
+     */
+    @Nullable
+    public static synchronized Session stop() {
+        Session current = session;
+        if (current == null) return null;
+        current.stopNanos = System.nanoTime();
+        session = null;
+        return current;
+    }
+
+    public static boolean isRunning() {
+        return session != null;
+    }
+
+    /**
+     * Gets the running session or the last stopped one
+     *
+     * @return the session, or null if the profiler was never started
+     */
+    @Nullable
+    public static Session lastSession() {
+        return lastSession;
+    }
+
+    /**
+     * Remembers the config type of an action or requirement, so that it can be reported
+     * by name instead of by class. This is called once when the config is parsed.
+     *
+     * @param object the action or requirement
+     * @param type   the type in config
+     */
+    public static void label(Object object, String type) {
+        // shared instances would be labelled by whichever config was parsed last
+        if (object == null || type == null || object instanceof EmptyAction<?> || object instanceof EmptyRequirement<?>) return;
+        LABELS.put(object, type);
+    }
+
+    public static void chunkTimer(String world, CustomCropsChunk chunk) {
+        Session current = session;
+        if (current == null) {
+            chunk.timer();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chunk.timer();
+        } finally {
+            current.chunkTimers.computeIfAbsent(world, k -> new LatencyHistogram()).record(System.nanoTime() - start);
+        }
+    }
+
+    public static void worldTimer(String world, Runnable timer) {
+        Session current = session;
+        if (current == null) {
+            timer.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            timer.run();
+        } finally {
+            current.worldTimers.computeIfAbsent(world, k -> new LatencyHistogram()).record(System.nanoTime() - start);
+        }
+    }
+
+    public static void scheduledTick(CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location, boolean offline) {
+        Session current = session;
+        if (current == null) {
+            state.type().scheduledTick(state, world, location, offline);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            state.type().scheduledTick(state, world, location, offline);
+        } finally {
+            current.recordBlock(state, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Ticks a group of blocks of the same type. The time is shared evenly between the blocks.
+     */
+    public static void scheduledTick(CustomCropsBlock type, List<CustomCropsBlockState> states, List<Pos3> locations, CustomCropsWorld<?> world, boolean offline) {
+        Session current = session;
+        if (current == null) {
+            type.scheduledTick(states, locations, world, offline);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            type.scheduledTick(states, locations, world, offline);
+        } finally {
+            long share = (System.nanoTime() - start) / Math.max(1, states.size());
+            for (CustomCropsBlockState state : states) {
+                current.recordBlock(state, share);
+            }
+        }
+    }
+
+    public static void randomTick(CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location, boolean offline) {
+        Session current = session;
+        if (current == null) {
+            state.type().randomTick(state, world, location, offline);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            state.type().randomTick(state, world, location, offline);
+        } finally {
+            current.recordBlock(state, System.nanoTime() - start);
+        }
+    }
+
+    public static <T> void trigger(Action<T> action, Context<T> context) {
+        Session current = session;
+        if (current == null) {
+            action.trigger(context);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            action.trigger(context);
+        } finally {
+            current.actions.computeIfAbsent(labelOf(action), k -> new Timing()).record(System.nanoTime() - start);
+        }
+    }
+
+    public static <T> boolean isSatisfied(Requirement<T> requirement, Context<T> context) {
+        Session current = session;
+        if (current == null) {
+            return requirement.isSatisfied(context);
+        }
+        long start = System.nanoTime();
+        try {
+            return requirement.isSatisfied(context);
+        } finally {
+            current.requirements.computeIfAbsent(labelOf(requirement), k -> new Timing()).record(System.nanoTime() - start);
+        }
+    }
+
+    public static <T> void evaluate(Requirement<T> requirement, BlockBatch<T> batch) {
+        Session current = session;
+        if (current == null) {
+            requirement.evaluate(batch);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            requirement.evaluate(batch);
+        } finally {
+            current.requirements.computeIfAbsent(labelOf(requirement), k -> new Timing()).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Wraps a task that is about to be queued for the main/region thread,
+     * so that the time it spent in the queue is recorded
+     *
+     * @param task the task
+     * @return the task itself if no session is running
+     */
+    public static Runnable wrapSync(Runnable task) {
+        Session current = session;
+        if (current == null) return task;
+        long queued = System.nanoTime();
+        return () -> {
+            current.syncLatency.record(System.nanoTime() - queued);
+            task.run();
+        };
+    }
+
+    private static String labelOf(Object object) {
+        String label = LABELS.get(object);
+        return label != null ? label : object.getClass().getSimpleName();
+    }
+
+    /**
+     * Accumulated time and call count
+     */
+    public static class Timing {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long duration) {
+            count.increment();
+            nanos.add(duration);
+            max.accumulate(duration);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return nanos.sum();
+        }
+
+        public long maxNanos() {
+            return max.get();
+        }
+    }
+
+    /**
+     * Timings of a block type, broken down by the config id stored in the block state
+     */
+    public static class BlockTiming extends Timing {
+
+        private final ConcurrentHashMap<String, Timing> configs = new ConcurrentHashMap<>();
+
+        public Map<String, Timing> configs() {
+            return Collections.unmodifiableMap(configs);
+        }
+    }
+
+    public static class Session {
+
+        private final long startMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private volatile long stopNanos = -1;
+        private final ConcurrentHashMap<String, LatencyHistogram> chunkTimers = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, LatencyHistogram> worldTimers = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<CustomCropsBlock, BlockTiming> blocks = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Timing> actions = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Timing> requirements = new ConcurrentHashMap<>();
+        private final LatencyHistogram syncLatency = new LatencyHistogram();
+
+        private void recordBlock(CustomCropsBlockState state, long duration) {
+            BlockTiming timing = blocks.computeIfAbsent(state.type(), k -> new BlockTiming());
+            timing.record(duration);
+            if (state.type() instanceof AbstractCustomCropsBlock block) {
+                String id = block.id(state);
+                if (!id.isEmpty()) {
+                    timing.configs.computeIfAbsent(id, k -> new Timing()).record(duration);
+                }
+            }
+        }
+
+        public long startMillis() {
+            return startMillis;
+        }
+
+        public boolean isRunning() {
+            return stopNanos < 0;
+        }
+
+        public long durationNanos() {
+            long stop = stopNanos;
+            return (stop < 0 ? System.nanoTime() : stop) - startNanos;
+        }
+
+        public Map<String, LatencyHistogram> chunkTimers() {
+            return Collections.unmodifiableMap(chunkTimers);
+        }
+
+        public Map<String, LatencyHistogram> worldTimers() {
+            return Collections.unmodifiableMap(worldTimers);
+        }
+
+        public Map<String, BlockTiming> blocks() {
+            Map<String, BlockTiming> map = new HashMap<>();
+            blocks.forEach((block, timing) -> map.put(block.type().asString(), timing));
+            return map;
+        }
+
+        public Map<String, Timing> actions() {
+            return Collections.unmodifiableMap(actions);
+        }
+
+        public Map<String, Timing> requirements() {
+            return Collections.unmodifiableMap(requirements);
+        }
+
+        public LatencyHistogram syncLatency() {
+            return syncLatency;
+        }
+
+        /**
+         * Writes a plain text report with every recorded entry
+         *
+         * @return the report
+         */
+        public String toText() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("CustomCrops profile started at ").append(new Date(startMillis))
+                    .append(", ").append(String.format(Locale.ROOT, "%.1f", durationNanos() / 1e9)).append("s")
+                    .append(isRunning() ? " (running)" : "").append('\n');
+            appendHistograms(builder, "World timer", worldTimers);
+            appendHistograms(builder, "Chunk timer", chunkTimers);
+            builder.append("\nBlock ticks (inclusive)\n");
+            for (Map.Entry<String, BlockTiming> entry : sortByTotal(blocks())) {
+                appendTiming(builder, "  ", entry.getKey(), entry.getValue());
+                for (Map.Entry<String, Timing> config : sortByTotal(entry.getValue().configs)) {
+                    appendTiming(builder, "    ", config.getKey(), config.getValue());
+                }
+            }
+            builder.append("\nRequirements (inclusive)\n");
+            for (Map.Entry<String, Timing> entry : sortByTotal(requirements)) {
+                appendTiming(builder, "  ", entry.getKey(), entry.getValue());
+            }
+            builder.append("\nActions (inclusive, nested actions are counted again)\n");
+            for (Map.Entry<String, Timing> entry : sortByTotal(actions)) {
+                appendTiming(builder, "  ", entry.getKey(), entry.getValue());
+            }
+            builder.append("\nSync queue latency\n");
+            appendHistogram(builder, "sync", syncLatency);
+            return builder.toString();
+        }
+
+        private static void appendHistograms(StringBuilder builder, String title, Map<String, LatencyHistogram> histograms) {
+            builder.append('\n').append(title).append('\n');
+            for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+                appendHistogram(builder, entry.getKey(), entry.getValue());
+            }
+        }
+
+        private static void appendHistogram(StringBuilder builder, String name, LatencyHistogram histogram) {
+            builder.append(String.format(Locale.ROOT, "  %-24s n=%d p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms%n",
+                    name, histogram.count(), histogram.percentile(50) / 1e6, histogram.percentile(95) / 1e6,
+                    histogram.percentile(99) / 1e6, histogram.maxNanos() / 1e6));
+        }
+
+        private static void appendTiming(StringBuilder builder, String indent, String name, Timing timing) {
+            long count = timing.count();
+            builder.append(String.format(Locale.ROOT, "%s%-32s total=%.3fms calls=%d avg=%.2fus max=%.2fus%n",
+                    indent, name, timing.totalNanos() / 1e6, count,
+                    count == 0 ? 0 : timing.totalNanos() / 1e3 / count, timing.maxNanos() / 1e3));
+        }
+
+        /**
+         * Sorts timings by their total time, the most expensive first
+         *
+         * @param map timings
+         * @return sorted entries
+         * @param <T> timing type
+         */
+        public static <T extends Timing> List<Map.Entry<String, T>> sortByTotal(Map<String, T> map) {
+            List<Map.Entry<String, T>> list = new ArrayList<>(map.entrySet());
+            list.sort(Comparator.comparingLong((Map.Entry<String, T> e) -> e.getValue().totalNanos()).reversed());
+            return list;
+        }
+    }
+}
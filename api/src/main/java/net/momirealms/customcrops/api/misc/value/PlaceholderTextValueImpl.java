@@ -17,8 +17,10 @@
 
 package net.momirealms.customcrops.api.misc.value;
 
+import net.kyori.adventure.text.Component;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.misc.placeholder.BukkitPlaceholderManager;
+import net.momirealms.customcrops.common.helper.MiniMessageTemplate;
 import org.bukkit.OfflinePlayer;
 
 import java.util.Map;
@@ -26,6 +28,7 @@ import java.util.Map;
 public class PlaceholderTextValueImpl<T> implements TextValue<T> {
 
     private final String raw;
+    private volatile MiniMessageTemplate template;
 
     public PlaceholderTextValueImpl(String raw) {
         this.raw = raw;
@@ -39,4 +42,21 @@ public class PlaceholderTextValueImpl<T> implements TextValue<T> {
         else text = BukkitPlaceholderManager.getInstance().parse(null, raw, replacements);
         return text;
     }
+
+    @Override
+    public Component renderComponent(Context<T> context) {
+        Map<String, String> replacements = context.placeholderMap();
+        OfflinePlayer player = context.holder() instanceof OfflinePlayer p ? p : null;
+        return template().render(placeholder -> BukkitPlaceholderManager.getInstance().parseSingle(player, placeholder, replacements));
+    }
+
+    // compiled on first use, the legacy color code setting is only known once the config is loaded
+    private MiniMessageTemplate template() {
+        MiniMessageTemplate template = this.template;
+        if (template == null || !template.isCurrent()) {
+            template = MiniMessageTemplate.compile(raw);
+            this.template = template;
+        }
+        return template;
+    }
 }
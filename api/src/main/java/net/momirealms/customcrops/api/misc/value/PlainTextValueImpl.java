@@ -17,11 +17,15 @@
 
 package net.momirealms.customcrops.api.misc.value;
 
+import net.kyori.adventure.text.Component;
 import net.momirealms.customcrops.api.context.Context;
+import net.momirealms.customcrops.common.helper.AdventureHelper;
 
 public class PlainTextValueImpl<T> implements TextValue<T> {
 
     private final String raw;
+    private volatile Component component;
+    private volatile boolean legacy;
 
     public PlainTextValueImpl(String raw) {
         this.raw = raw;
@@ -31,4 +35,15 @@ public class PlainTextValueImpl<T> implements TextValue<T> {
     public String render(Context<T> context) {
         return raw;
     }
+
+    @Override
+    public Component renderComponent(Context<T> context) {
+        Component component = this.component;
+        if (component == null || legacy != AdventureHelper.legacySupport) {
+            legacy = AdventureHelper.legacySupport;
+            component = AdventureHelper.miniMessage(raw);
+            this.component = component;
+        }
+        return component;
+    }
 }
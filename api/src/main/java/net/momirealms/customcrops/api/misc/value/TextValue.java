@@ -17,8 +17,10 @@
 
 package net.momirealms.customcrops.api.misc.value;
 
+import net.kyori.adventure.text.Component;
 import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.misc.placeholder.PlaceholderAPIUtils;
+import net.momirealms.customcrops.common.helper.AdventureHelper;
 import org.bukkit.OfflinePlayer;
 
 import java.util.regex.Pattern;
@@ -54,6 +56,16 @@ public interface TextValue<T> {
         return PlaceholderAPIUtils.parse(player, render(context));
     }
 
+    /**
+     * Renders the text value within the given context and parses it as MiniMessage.
+     *
+     * @param context the context in which the text value is rendered
+     * @return the rendered component
+     */
+    default Component renderComponent(Context<T> context) {
+        return AdventureHelper.miniMessage(render(context));
+    }
+
     /**
      * Creates a TextValue based on a placeholder text.
      * Placeholders can be dynamically replaced with context-specific values.
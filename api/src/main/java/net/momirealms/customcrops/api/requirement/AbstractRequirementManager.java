@@ -21,15 +21,17 @@ import dev.dejvokep.boostedyaml.block.implementation.Section;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.action.Action;
 import net.momirealms.customcrops.api.action.ActionManager;
+import net.momirealms.customcrops.api.context.Context;
 import net.momirealms.customcrops.api.context.ContextKeys;
 import net.momirealms.customcrops.api.core.ConfigManager;
 import net.momirealms.customcrops.api.core.block.GreenhouseBlock;
 import net.momirealms.customcrops.api.core.block.PotBlock;
 import net.momirealms.customcrops.api.core.block.ScarecrowBlock;
 import net.momirealms.customcrops.api.core.mechanic.crop.CrowAttack;
-import net.momirealms.customcrops.api.core.mechanic.fertilizer.Fertilizer;
 import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerConfig;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
 import net.momirealms.customcrops.api.core.world.*;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.api.misc.value.MathValue;
 import net.momirealms.customcrops.api.misc.value.TextValue;
 import net.momirealms.customcrops.api.util.MoonPhase;
@@ -48,6 +50,9 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static java.util.Objects.requireNonNull;
 
@@ -55,6 +60,7 @@ import static java.util.Objects.requireNonNull;
 public abstract class AbstractRequirementManager<T> implements RequirementManager<T> {
 
     private final HashMap<String, RequirementFactory<T>> requirementFactoryMap = new HashMap<>();
+    private final HashSet<String> mainThreadTypes = new HashSet<>();
     private static final String EXPANSION_FOLDER = "expansions/requirement";
     protected final BukkitCustomCropsPlugin plugin;
     protected Class<T> tClass;
@@ -101,9 +107,15 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
 
     @Override
     public boolean unregisterRequirement(@NotNull String type) {
+        this.mainThreadTypes.remove(type);
         return this.requirementFactoryMap.remove(type) != null;
     }
 
+    @Override
+    public boolean supportsParallelParsing() {
+        return mainThreadTypes.isEmpty();
+    }
+
     @Override
     public boolean hasRequirement(@NotNull String type) {
         return requirementFactoryMap.containsKey(type);
@@ -155,7 +167,9 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
             plugin.getPluginLogger().warn("Requirement type: " + type + " not exists");
             return Requirement.empty();
         }
-        return factory.process(section.get("value"), actionList, runActions);
+        Requirement<T> requirement = factory.process(section.get("value"), actionList, runActions);
+        TickProfiler.label(requirement, type);
+        return requirement;
     }
 
     @NotNull
@@ -166,7 +180,9 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
             plugin.getPluginLogger().warn("Requirement type: " + type + " doesn't exist.");
             return Requirement.empty();
         }
-        return factory.process(value);
+        Requirement<T> requirement = factory.process(value);
+        TickProfiler.label(requirement, type);
+        return requirement;
     }
 
     @SuppressWarnings({"ResultOfMethodCallIgnored", "unchecked"})
@@ -192,6 +208,9 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                 RequirementExpansion<T> expansion = expansionClass.getDeclaredConstructor().newInstance();
                 unregisterRequirement(expansion.getRequirementType());
                 registerRequirement(expansion.getRequirementFactory(), expansion.getRequirementType());
+                if (!expansion.isThreadSafe()) {
+                    mainThreadTypes.add(expansion.getRequirementType());
+                }
                 plugin.getPluginLogger().info("Loaded requirement expansion: " + expansion.getRequirementType() + "[" + expansion.getVersion() + "]" + " by " + expansion.getAuthor());
             }
         } catch (InvocationTargetException | InstantiationException | IllegalAccessException |
@@ -321,25 +340,11 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
     protected void registerBiomeRequirement() {
         registerRequirement((args, actions, runActions) -> {
             HashSet<String> biomes = new HashSet<>(ListUtils.toList(args));
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                String currentBiome = SparrowHeart.getInstance().getBiomeResourceLocation(location);
-                if (biomes.contains(currentBiome))
-                    return true;
-                if (runActions) ActionManager.trigger(context, actions);
-                return false;
-            };
+            return environmentRequirement(location -> SparrowHeart.getInstance().getBiomeResourceLocation(location), BlockBatch::biome, biomes::contains, actions, runActions);
         }, "biome");
         registerRequirement((args, actions, runActions) -> {
             HashSet<String> biomes = new HashSet<>(ListUtils.toList(args));
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                String currentBiome = SparrowHeart.getInstance().getBiomeResourceLocation(location);
-                if (!biomes.contains(currentBiome))
-                    return true;
-                if (runActions) ActionManager.trigger(context, actions);
-                return false;
-            };
+            return environmentRequirement(location -> SparrowHeart.getInstance().getBiomeResourceLocation(location), BlockBatch::biome, biome -> !biomes.contains(biome), actions, runActions);
         }, "!biome");
     }
 
@@ -750,8 +755,8 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                     Optional<CustomCropsBlockState> optionalState = world.getBlockState(pos3);
                     if (optionalState.isPresent()) {
                         if (optionalState.get().type() instanceof PotBlock potBlock) {
-                            Fertilizer[] fertilizers = potBlock.fertilizers(optionalState.get());
-                            if (fertilizers.length == 0) {
+                            FertilizerEffect effect = potBlock.fertilizerEffect(optionalState.get());
+                            if (effect.size() == 0) {
                                 if (!has && types.isEmpty()) {
                                     return true;
                                 }
@@ -760,22 +765,16 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                                     if (types.isEmpty()) {
                                         return true;
                                     }
-                                    for (Fertilizer fertilizer : fertilizers) {
-                                        FertilizerConfig config = fertilizer.config();
-                                        if (config != null) {
-                                            if (types.contains(config.type().id())) {
-                                                return true;
-                                            }
+                                    for (FertilizerConfig config : effect.configs()) {
+                                        if (types.contains(config.type().id())) {
+                                            return true;
                                         }
                                     }
                                 } else {
                                     outer: {
-                                        for (Fertilizer fertilizer : fertilizers) {
-                                            FertilizerConfig config = fertilizer.config();
-                                            if (config != null) {
-                                                if (types.contains(config.type().id())) {
-                                                    break outer;
-                                                }
+                                        for (FertilizerConfig config : effect.configs()) {
+                                            if (types.contains(config.type().id())) {
+                                                break outer;
                                             }
                                         }
                                         return true;
@@ -808,8 +807,8 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                     Optional<CustomCropsBlockState> optionalState = world.getBlockState(pos3);
                     if (optionalState.isPresent()) {
                         if (optionalState.get().type() instanceof PotBlock potBlock) {
-                            Fertilizer[] fertilizers = potBlock.fertilizers(optionalState.get());
-                            if (fertilizers.length == 0) {
+                            FertilizerEffect effect = potBlock.fertilizerEffect(optionalState.get());
+                            if (effect.size() == 0) {
                                 if (!has && keys.isEmpty()) {
                                     return true;
                                 }
@@ -818,15 +817,15 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                                     if (keys.isEmpty()) {
                                         return true;
                                     }
-                                    for (Fertilizer fertilizer : fertilizers) {
-                                        if (keys.contains(fertilizer.id())) {
+                                    for (String key : keys) {
+                                        if (effect.contains(key)) {
                                             return true;
                                         }
                                     }
                                 } else {
                                     outer: {
-                                        for (Fertilizer fertilizer : fertilizers) {
-                                            if (keys.contains(fertilizer.id())) {
+                                        for (String key : keys) {
+                                            if (effect.contains(key)) {
                                                 break outer;
                                             }
                                         }
@@ -853,15 +852,12 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                 String[] split = line.split("~");
                 return new Pair<>(Integer.parseInt(split[0]), Integer.parseInt(split[1]));
             }).toList();
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                int temp = location.getBlock().getLightLevel();
+            return environmentRequirement(location -> location.getBlock().getLightLevel(), BlockBatch::lightLevel, light -> {
                 for (Pair<Integer, Integer> pair : lightPairs)
-                    if (temp >= pair.left() && temp <= pair.right())
+                    if (light >= pair.left() && light <= pair.right())
                         return true;
-                if (advanced) ActionManager.trigger(context, actions);
                 return false;
-            };
+            }, actions, advanced);
         }, "light");
         registerRequirement((args, actions, advanced) -> {
             List<String> list = ListUtils.toList(args);
@@ -869,55 +865,28 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                 String[] split = line.split("~");
                 return new Pair<>(Integer.parseInt(split[0]), Integer.parseInt(split[1]));
             }).toList();
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                int temp = location.getBlock().getLightFromSky();
+            return environmentRequirement(location -> location.getBlock().getLightFromSky(), BlockBatch::skyLight, light -> {
                 for (Pair<Integer, Integer> pair : lightPairs)
-                    if (temp >= pair.left() && temp <= pair.right())
+                    if (light >= pair.left() && light <= pair.right())
                         return true;
-                if (advanced) ActionManager.trigger(context, actions);
                 return false;
-            };
+            }, actions, advanced);
         }, "natural-light", "skylight");
         registerRequirement((args, actions, advanced) -> {
             int value = (int) args;
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                int light = location.getBlock().getLightFromSky();
-                if (light > value) return true;
-                if (advanced) ActionManager.trigger(context, actions);
-                return false;
-            };
+            return environmentRequirement(location -> location.getBlock().getLightFromSky(), BlockBatch::skyLight, light -> light > value, actions, advanced);
         }, "skylight_more_than", "skylight-more-than", "natural_light_more_than", "natural-light-more-than");
         registerRequirement((args, actions, advanced) -> {
             int value = (int) args;
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                int light = location.getBlock().getLightFromSky();
-                if (light < value) return true;
-                if (advanced) ActionManager.trigger(context, actions);
-                return false;
-            };
+            return environmentRequirement(location -> location.getBlock().getLightFromSky(), BlockBatch::skyLight, light -> light < value, actions, advanced);
         }, "skylight_less_than", "skylight-less-than", "natural_light_less_than", "natural-light-less-than");
         registerRequirement((args, actions, advanced) -> {
             int value = (int) args;
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                int light = location.getBlock().getLightLevel();
-                if (light > value) return true;
-                if (advanced) ActionManager.trigger(context, actions);
-                return false;
-            };
+            return environmentRequirement(location -> location.getBlock().getLightLevel(), BlockBatch::lightLevel, light -> light > value, actions, advanced);
         }, "light_more_than", "light-more-than");
         registerRequirement((args, actions, advanced) -> {
             int value = (int) args;
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                int light = location.getBlock().getLightLevel();
-                if (light < value) return true;
-                if (advanced) ActionManager.trigger(context, actions);
-                return false;
-            };
+            return environmentRequirement(location -> location.getBlock().getLightLevel(), BlockBatch::lightLevel, light -> light < value, actions, advanced);
         }, "light_less_than", "light-less-than");
     }
 
@@ -928,18 +897,50 @@ public abstract class AbstractRequirementManager<T> implements RequirementManage
                 String[] split = line.split("~");
                 return new Pair<>(Integer.parseInt(split[0]), Integer.parseInt(split[1]));
             }).toList();
-            return context -> {
-                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
-                double temp = location.getWorld().getTemperature(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+            return environmentRequirement(location -> location.getWorld().getTemperature(location.getBlockX(), location.getBlockY(), location.getBlockZ()), BlockBatch::temperature, temp -> {
                 for (Pair<Integer, Integer> pair : temperaturePairs)
                     if (temp >= pair.left() && temp <= pair.right())
                         return true;
-                if (advanced) ActionManager.trigger(context, actions);
                 return false;
-            };
+            }, actions, advanced);
         }, "temperature");
     }
 
+    /**
+     * Creates a requirement that tests a value looked up at the block location.
+     * When evaluated in a batch, the lookup is memoized by the batch and shared with the other requirements.
+     *
+     * @param lookup      the lookup for a single block
+     * @param batchLookup the lookup for a block in a batch
+     * @param test        the test of the value
+     * @param actions     actions to trigger if the requirement is not met
+     * @param runActions  whether to trigger the actions
+     * @return the requirement
+     */
+    private static <T, V> Requirement<T> environmentRequirement(Function<Location, V> lookup, BiFunction<BlockBatch<T>, Integer, V> batchLookup,
+                                                                Predicate<V> test, List<Action<T>> actions, boolean runActions) {
+        return new Requirement<>() {
+            @Override
+            public boolean isSatisfied(Context<T> context) {
+                Location location = requireNonNull(context.arg(ContextKeys.LOCATION));
+                if (test.test(lookup.apply(location)))
+                    return true;
+                if (runActions) ActionManager.trigger(context, actions);
+                return false;
+            }
+
+            @Override
+            public void evaluate(BlockBatch<T> batch) {
+                for (int i = batch.nextRemaining(0); i >= 0; i = batch.nextRemaining(i + 1)) {
+                    if (test.test(batchLookup.apply(batch, i)))
+                        continue;
+                    batch.reject(i);
+                    if (runActions) ActionManager.trigger(batch.context(i), actions);
+                }
+            }
+        };
+    }
+
     private void registerPotRequirement() {
         registerRequirement((args, actions, advanced) -> {
             if (args instanceof Section section) {
@@ -0,0 +1,216 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.api.requirement;
+
+import net.momirealms.customcrops.api.context.Context;
+import net.momirealms.customcrops.api.context.ContextKeys;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.EnvironmentSnapshot;
+import net.momirealms.customcrops.api.core.world.Pos3;
+import net.momirealms.sparrow.heart.SparrowHeart;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A group of blocks of the same config in one chunk whose requirements are evaluated together.
+ * <p>
+ * The batch keeps track of which blocks still satisfy the requirements evaluated so far, and memoizes the
+ * environment lookups (biome, temperature and light) so that requirements and conditions evaluated one after
+ * another resolve them only once. Blocks captured by an {@link EnvironmentSnapshot} read it instead of the world.
+ *
+ * @param <T> the type of the context holder
+ */
+public class BlockBatch<T> {
+
+    private final CustomCropsWorld<?> world;
+    private final List<Context<T>> contexts;
+    private final Location[] locations;
+    private final BitSet remaining;
+    private final EnvironmentSnapshot snapshot;
+    private final int[] snapshotIndexes;
+    private final int[] lightLevels;
+    private final int[] skyLights;
+    private final double[] temperatures;
+    // biomes are stored per 4x4x4 cell, so blocks in the same cell share the lookup
+    private final HashMap<Long, String> biomes = new HashMap<>(4);
+
+    /**
+     * Creates a batch over the given contexts. Each context must have a {@link ContextKeys#LOCATION}.
+     *
+     * @param world    the world the blocks are in
+     * @param contexts the contexts of the blocks
+     */
+    public BlockBatch(CustomCropsWorld<?> world, List<Context<T>> contexts) {
+        this(world, contexts, null);
+    }
+
+    /**
+     * Creates a batch over the given contexts. Each context must have a {@link ContextKeys#LOCATION}.
+     *
+     * @param world    the world the blocks are in
+     * @param contexts the contexts of the blocks
+     * @param snapshot the snapshot of the chunk the blocks are in
+     */
+    public BlockBatch(CustomCropsWorld<?> world, List<Context<T>> contexts, @Nullable EnvironmentSnapshot snapshot) {
+        int size = contexts.size();
+        this.world = world;
+        this.contexts = contexts;
+        this.locations = new Location[size];
+        for (int i = 0; i < size; i++) {
+            this.locations[i] = requireNonNull(contexts.get(i).arg(ContextKeys.LOCATION));
+        }
+        this.remaining = new BitSet(size);
+        this.remaining.set(0, size);
+        this.lightLevels = new int[size];
+        this.skyLights = new int[size];
+        this.temperatures = new double[size];
+        Arrays.fill(lightLevels, -1);
+        Arrays.fill(skyLights, -1);
+        Arrays.fill(temperatures, Double.NaN);
+        this.snapshot = snapshot;
+        this.snapshotIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.snapshotIndexes[i] = snapshot == null ? -1 : snapshot.indexOf(Pos3.from(locations[i]));
+        }
+    }
+
+    public CustomCropsWorld<?> world() {
+        return world;
+    }
+
+    public World bukkitWorld() {
+        return world.bukkitWorld();
+    }
+
+    public int size() {
+        return contexts.size();
+    }
+
+    public Context<T> context(int index) {
+        return contexts.get(index);
+    }
+
+    public Location location(int index) {
+        return locations[index];
+    }
+
+    /**
+     * Restricts the batch to the given blocks, for instance the ones a previous condition didn't decide.
+     *
+     * @param candidates the indexes of the blocks to evaluate next
+     */
+    public void select(BitSet candidates) {
+        remaining.clear();
+        remaining.or(candidates);
+    }
+
+    /**
+     * Gets the blocks that satisfied all the requirements evaluated since the last {@link #select(BitSet)}.
+     *
+     * @return a copy of the remaining indexes
+     */
+    public BitSet remaining() {
+        return (BitSet) remaining.clone();
+    }
+
+    public boolean isEmpty() {
+        return remaining.isEmpty();
+    }
+
+    /**
+     * Gets the next block that is still being evaluated.
+     *
+     * @param from the index to start from
+     * @return the index, or -1 if there is none
+     */
+    public int nextRemaining(int from) {
+        return remaining.nextSetBit(from);
+    }
+
+    /**
+     * Marks a block as not satisfying the requirement being evaluated.
+     *
+     * @param index the index of the block
+     */
+    public void reject(int index) {
+        remaining.clear(index);
+    }
+
+    public String biome(int index) {
+        int snapshotIndex = snapshotIndexes[index];
+        if (snapshotIndex >= 0) return snapshot.biome(snapshotIndex);
+        Location location = locations[index];
+        return biomes.computeIfAbsent(biomeCell(location.getBlockX(), location.getBlockY(), location.getBlockZ()), k -> SparrowHeart.getInstance().getBiomeResourceLocation(location));
+    }
+
+    /**
+     * Packs the 4x4x4 cell that biomes are stored in into a key
+     *
+     * @param x the block x
+     * @param y the block y
+     * @param z the block z
+     * @return the key of the cell
+     */
+    public static long biomeCell(int x, int y, int z) {
+        return ((long) (x >> 2) & 0xFFFFFF) << 36
+                | ((long) (y >> 2) & 0xFFF) << 24
+                | ((z >> 2) & 0xFFFFFF);
+    }
+
+    public double temperature(int index) {
+        double temperature = temperatures[index];
+        if (Double.isNaN(temperature)) {
+            int snapshotIndex = snapshotIndexes[index];
+            if (snapshotIndex >= 0) return snapshot.temperature(snapshotIndex);
+            Location location = locations[index];
+            temperature = location.getWorld().getTemperature(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+            temperatures[index] = temperature;
+        }
+        return temperature;
+    }
+
+    public int lightLevel(int index) {
+        int light = lightLevels[index];
+        if (light < 0) {
+            int snapshotIndex = snapshotIndexes[index];
+            if (snapshotIndex >= 0) return snapshot.lightLevel(snapshotIndex);
+            light = locations[index].getBlock().getLightLevel();
+            lightLevels[index] = light;
+        }
+        return light;
+    }
+
+    public int skyLight(int index) {
+        int light = skyLights[index];
+        if (light < 0) {
+            int snapshotIndex = snapshotIndexes[index];
+            if (snapshotIndex >= 0) return snapshot.skyLight(snapshotIndex);
+            light = locations[index].getBlock().getLightFromSky();
+            skyLights[index] = light;
+        }
+        return light;
+    }
+}
@@ -32,4 +32,8 @@ public class EmptyRequirement<T> implements Requirement<T> {
     public boolean isSatisfied(Context<T> context) {
         return true;
     }
+
+    @Override
+    public void evaluate(BlockBatch<T> batch) {
+    }
 }
@@ -35,6 +35,20 @@ public interface Requirement<T> {
      */
     boolean isSatisfied(Context<T> context);
 
+    /**
+     * Evaluates the requirement for every remaining block of a batch and rejects the ones that don't meet it.
+     * Requirements that depend on the environment of the blocks can override this to share lookups across the batch.
+     *
+     * @param batch the batch of blocks
+     */
+    default void evaluate(BlockBatch<T> batch) {
+        for (int i = batch.nextRemaining(0); i >= 0; i = batch.nextRemaining(i + 1)) {
+            if (!isSatisfied(batch.context(i))) {
+                batch.reject(i);
+            }
+        }
+    }
+
     static <T> Requirement<T> empty() {
         return EmptyRequirement.instance();
     }
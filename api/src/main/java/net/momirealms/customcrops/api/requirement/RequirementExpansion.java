@@ -50,4 +50,14 @@ public abstract class RequirementExpansion<T> {
      * @return The requirement factory.
      */
     public abstract RequirementFactory<T> getRequirementFactory();
+
+    /**
+     * Check if the requirement factory may be called off the main thread, which lets configs be parsed in parallel.
+     * Expansions that use the Bukkit API while creating requirements should keep the default.
+     *
+     * @return True if the requirement factory is thread-safe.
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
 }
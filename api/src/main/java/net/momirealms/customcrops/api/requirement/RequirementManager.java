@@ -19,6 +19,7 @@ package net.momirealms.customcrops.api.requirement;
 
 import dev.dejvokep.boostedyaml.block.implementation.Section;
 import net.momirealms.customcrops.api.context.Context;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.common.plugin.feature.Reloadable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -57,6 +58,16 @@ public interface RequirementManager<T> extends Reloadable {
      */
     boolean hasRequirement(@NotNull String type);
 
+    /**
+     * Checks if all registered requirement factories may be called off the main thread.
+     * Configs are only parsed in parallel if this is true.
+     *
+     * @return True if requirements can be parsed in parallel, otherwise false.
+     */
+    default boolean supportsParallelParsing() {
+        return true;
+    }
+
     /**
      * Retrieves a RequirementFactory based on the specified requirement type.
      *
@@ -108,7 +119,7 @@ public interface RequirementManager<T> extends Reloadable {
         if (requirements == null) return true;
         for (Requirement<T> requirement : requirements) {
             if (requirement == null) continue;
-            if (!requirement.isSatisfied(context)) {
+            if (!TickProfiler.isSatisfied(requirement, context)) {
                 return false;
             }
         }
@@ -125,10 +136,26 @@ public interface RequirementManager<T> extends Reloadable {
     static <T> boolean isSatisfied(Context<T> context, @Nullable List<Requirement<T>> requirements) {
         if (requirements == null) return true;
         for (Requirement<T> requirement : requirements) {
-            if (!requirement.isSatisfied(context)) {
+            if (!TickProfiler.isSatisfied(requirement, context)) {
                 return false;
             }
         }
         return true;
     }
+
+    /**
+     * Evaluates the requirements for every remaining block of a batch.
+     * Blocks that don't meet all the requirements are rejected from the batch.
+     *
+     * @param batch        The batch of blocks.
+     * @param requirements An array of requirements to check.
+     */
+    static <T> void evaluate(BlockBatch<T> batch, @Nullable Requirement<T>[] requirements) {
+        if (requirements == null) return;
+        for (Requirement<T> requirement : requirements) {
+            if (batch.isEmpty()) return;
+            if (requirement == null) continue;
+            TickProfiler.evaluate(requirement, batch);
+        }
+    }
 }
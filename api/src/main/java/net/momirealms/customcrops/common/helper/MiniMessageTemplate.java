@@ -0,0 +1,218 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.common.helper;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A MiniMessage text with {@code {placeholder}} slots that is parsed only once.
+ * <p>
+ * The text is parsed with every slot replaced by a marker character. Rendering then copies the component tree
+ * and writes the slot values into the text components that hold the markers. Values containing MiniMessage tags,
+ * slots placed where they can change the meaning of a tag, and texts with tags that color every character on
+ * their own, such as gradients, fall back to parsing the filled text.
+ */
+public final class MiniMessageTemplate {
+
+    private static final Pattern PATTERN = Pattern.compile("\\{[^{}]+}");
+    // these tags color each character on their own, so a marker would be colored as a single character
+    private static final Pattern MODIFYING_TAG = Pattern.compile("<(gradient|rainbow|transition)[:>]", Pattern.CASE_INSENSITIVE);
+    // noncharacters, they never appear in configured texts or font glyphs
+    private static final char FIRST_MARKER = '\uFDD0';
+    private static final int MAX_SLOTS = 32;
+
+    private final String[] literals;
+    private final String[] slots;
+    private final Component tree;
+    private final boolean legacy;
+
+    private MiniMessageTemplate(String[] literals, String[] slots, Component tree, boolean legacy) {
+        this.literals = literals;
+        this.slots = slots;
+        this.tree = tree;
+        this.legacy = legacy;
+    }
+
+    /**
+     * Compiles a MiniMessage text into a template.
+     *
+     * @param source the MiniMessage text
+     * @return the template
+     */
+    public static MiniMessageTemplate compile(String source) {
+        ArrayList<String> literals = new ArrayList<>();
+        ArrayList<String> slots = new ArrayList<>();
+        StringBuilder marked = new StringBuilder(source.length());
+        Matcher matcher = PATTERN.matcher(source);
+        int last = 0;
+        boolean inTag = false;
+        while (matcher.find()) {
+            String literal = source.substring(last, matcher.start());
+            inTag |= insideTag(source, matcher.start());
+            literals.add(literal);
+            slots.add(matcher.group());
+            marked.append(literal).append((char) (FIRST_MARKER + Math.min(slots.size() - 1, MAX_SLOTS - 1)));
+            last = matcher.end();
+        }
+        literals.add(source.substring(last));
+        marked.append(source.substring(last));
+        boolean legacy = AdventureHelper.legacySupport;
+        Component tree = null;
+        if (!inTag && slots.size() <= MAX_SLOTS && (slots.isEmpty() || !MODIFYING_TAG.matcher(source).find())) {
+            Component parsed = AdventureHelper.miniMessage(marked.toString());
+            // markers that ended up in hover texts, click values or similar can't be filled by walking the text
+            if (countMarkers(parsed) == slots.size()) {
+                tree = parsed;
+            }
+        }
+        return new MiniMessageTemplate(literals.toArray(new String[0]), slots.toArray(new String[0]), tree, legacy);
+    }
+
+    /**
+     * Gets the placeholders of this template in order of appearance, including the braces.
+     *
+     * @return the placeholders
+     */
+    public String[] slots() {
+        return slots.clone();
+    }
+
+    /**
+     * Checks if the template was compiled with the current legacy color code setting.
+     *
+     * @return true if the template can be used as is
+     */
+    public boolean isCurrent() {
+        return legacy == AdventureHelper.legacySupport;
+    }
+
+    /**
+     * Renders the template as a component.
+     *
+     * @param resolver maps a placeholder such as {@code {point}} to its value
+     * @return the component
+     */
+    public Component render(UnaryOperator<String> resolver) {
+        String[] values = new String[slots.length];
+        boolean plain = tree != null && isCurrent();
+        for (int i = 0; i < slots.length; i++) {
+            String value = resolver.apply(slots[i]);
+            values[i] = value == null ? slots[i] : value;
+            plain &= isPlain(values[i]);
+        }
+        if (plain) {
+            return fill(tree, values);
+        }
+        return AdventureHelper.miniMessage(join(values));
+    }
+
+    /**
+     * Renders the template as a MiniMessage text without parsing it.
+     *
+     * @param resolver maps a placeholder such as {@code {point}} to its value
+     * @return the filled MiniMessage text
+     */
+    public String renderText(UnaryOperator<String> resolver) {
+        String[] values = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            String value = resolver.apply(slots[i]);
+            values[i] = value == null ? slots[i] : value;
+        }
+        return join(values);
+    }
+
+    private String join(String[] values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            builder.append(literals[i]).append(values[i]);
+        }
+        return builder.append(literals[values.length]).toString();
+    }
+
+    private boolean isPlain(String value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '<' || c == '\\' || (legacy && AdventureHelper.isLegacyColorCode(c)) || isMarker(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Component fill(Component component, String[] values) {
+        Component result = component;
+        if (component instanceof TextComponent text && containsMarker(text.content())) {
+            String content = text.content();
+            StringBuilder builder = new StringBuilder(content.length() + 16);
+            for (int i = 0, length = content.length(); i < length; i++) {
+                char c = content.charAt(i);
+                if (isMarker(c)) builder.append(values[c - FIRST_MARKER]);
+                else builder.append(c);
+            }
+            result = text.content(builder.toString());
+        }
+        List<Component> children = component.children();
+        List<Component> filled = null;
+        for (int i = 0, size = children.size(); i < size; i++) {
+            Component child = children.get(i);
+            Component filledChild = fill(child, values);
+            if (filledChild != child) {
+                if (filled == null) filled = new ArrayList<>(children);
+                filled.set(i, filledChild);
+            }
+        }
+        return filled == null ? result : result.children(filled);
+    }
+
+    private static int countMarkers(Component component) {
+        int count = 0;
+        if (component instanceof TextComponent text) {
+            String content = text.content();
+            for (int i = 0, length = content.length(); i < length; i++) {
+                if (isMarker(content.charAt(i))) count++;
+            }
+        }
+        for (Component child : component.children()) {
+            count += countMarkers(child);
+        }
+        return count;
+    }
+
+    private static boolean containsMarker(String content) {
+        for (int i = 0, length = content.length(); i < length; i++) {
+            if (isMarker(content.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isMarker(char c) {
+        return c >= FIRST_MARKER && c < FIRST_MARKER + MAX_SLOTS;
+    }
+
+    // a slot between '<' and '>' is part of a tag, for instance <{color}> or <hover:show_text:'{value}'>
+    private static boolean insideTag(String source, int index) {
+        return source.lastIndexOf('<', index) > source.lastIndexOf('>', index);
+    }
+}
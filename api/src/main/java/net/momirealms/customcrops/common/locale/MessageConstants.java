@@ -23,6 +23,8 @@ import net.kyori.adventure.text.TranslatableComponent;
 public interface MessageConstants {
 
     TranslatableComponent.Builder COMMAND_RELOAD_SUCCESS = Component.translatable().key("command.reload.success");
+    TranslatableComponent.Builder COMMAND_RELOAD_CONTENTS_SUCCESS = Component.translatable().key("command.reload.contents.success");
+    TranslatableComponent.Builder COMMAND_RELOAD_CONTENTS_NONE = Component.translatable().key("command.reload.contents.none");
     TranslatableComponent.Builder SEASON_SPRING = Component.translatable().key("season.spring");
     TranslatableComponent.Builder SEASON_SUMMER = Component.translatable().key("season.summer");
     TranslatableComponent.Builder SEASON_AUTUMN = Component.translatable().key("season.autumn");
@@ -44,6 +46,7 @@ public interface MessageConstants {
     TranslatableComponent.Builder COMMAND_SET_DATE_FAILURE_OTHER = Component.translatable().key("command.date.set.failure.other");
     TranslatableComponent.Builder COMMAND_SET_DATE_FAILURE_INVALID = Component.translatable().key("command.date.set.failure.invalid");
     TranslatableComponent.Builder COMMAND_FORCE_TICK_SUCCESS = Component.translatable().key("command.force_tick.success");
+    TranslatableComponent.Builder COMMAND_FORCE_TICK_PROGRESS = Component.translatable().key("command.force_tick.progress");
     TranslatableComponent.Builder COMMAND_FORCE_TICK_FAILURE_TYPE = Component.translatable().key("command.force_tick.failure.type");
     TranslatableComponent.Builder COMMAND_FORCE_TICK_FAILURE_DISABLE = Component.translatable().key("command.force_tick.failure.disable");
     TranslatableComponent.Builder COMMAND_DEBUG_DATA_FAILURE = Component.translatable().key("command.debug.data.failure");
@@ -60,4 +63,14 @@ public interface MessageConstants {
     TranslatableComponent.Builder COMMAND_UNSAFE_RESTORE_SUCCESS = Component.translatable().key("command.unsafe.restore.success");
     TranslatableComponent.Builder COMMAND_UNSAFE_FIX_FAILURE_WORLD = Component.translatable().key("command.unsafe.fix.failure.world");
     TranslatableComponent.Builder COMMAND_UNSAFE_FIX_SUCCESS = Component.translatable().key("command.unsafe.fix.success");
+    TranslatableComponent.Builder COMMAND_PROFILE_START_SUCCESS = Component.translatable().key("command.profile.start.success");
+    TranslatableComponent.Builder COMMAND_PROFILE_START_FAILURE_RUNNING = Component.translatable().key("command.profile.start.failure.running");
+    TranslatableComponent.Builder COMMAND_PROFILE_STOP_SUCCESS = Component.translatable().key("command.profile.stop.success");
+    TranslatableComponent.Builder COMMAND_PROFILE_STOP_FAILURE_IDLE = Component.translatable().key("command.profile.stop.failure.idle");
+    TranslatableComponent.Builder COMMAND_PROFILE_REPORT_FAILURE_NONE = Component.translatable().key("command.profile.report.failure.none");
+    TranslatableComponent.Builder COMMAND_PROFILE_REPORT_HEADER = Component.translatable().key("command.profile.report.header");
+    TranslatableComponent.Builder COMMAND_PROFILE_REPORT_SECTION = Component.translatable().key("command.profile.report.section");
+    TranslatableComponent.Builder COMMAND_PROFILE_REPORT_HISTOGRAM = Component.translatable().key("command.profile.report.histogram");
+    TranslatableComponent.Builder COMMAND_PROFILE_REPORT_TIMING = Component.translatable().key("command.profile.report.timing");
+    TranslatableComponent.Builder COMMAND_PROFILE_REPORT_FILE = Component.translatable().key("command.profile.report.file");
 }
@@ -0,0 +1,241 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.common.plugin.scheduler;
+
+import net.momirealms.customcrops.common.plugin.CustomCropsPlugin;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking disk and database work on virtual threads, so that a slow disk or database
+ * never holds up the threads that tick the worlds.
+ * <p>
+ * Tasks are grouped by the resource they touch. {@link #supplySerial(Object, Supplier)} runs the tasks of
+ * one resource, such as a region file, one after another in submission order, while {@link #limited(int)}
+ * runs at most a fixed number of tasks at the same time, such as the connections of a database pool.
+ * The number of running tasks is capped. A task only takes one of the slots once it can run, that is once the
+ * previous task of its resource has finished or its lane has a free permit, so a stalled database holds no more
+ * slots than its pool has connections and never starves the region files. Tasks that can run while all the slots
+ * are taken wait for one, and as every resource or lane contributes only the tasks it could run at once, that
+ * wait is bounded. Submitting never blocks, as the callers include the main thread and the threads that tick
+ * the worlds; callers that can retry later should check {@link Lane#isSaturated()} instead of adding to a lane.
+ */
+public class IOExecutor {
+
+    private final CustomCropsPlugin plugin;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final ConcurrentLinkedQueue<Runnable> deferred = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Object, CompletableFuture<?>> serialTails = new ConcurrentHashMap<>();
+
+    public IOExecutor(CustomCropsPlugin plugin, int maxPending) {
+        this.plugin = plugin;
+        this.maxPending = maxPending;
+        this.pending = new Semaphore(maxPending);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name("customcrops-io-", 0)
+                .uncaughtExceptionHandler((t, e) -> plugin.getPluginLogger().warn("Thread " + t.getName() + " threw an uncaught exception", e))
+                .factory());
+    }
+
+    /**
+     * Runs a task after all the tasks previously submitted for the same resource have finished.
+     *
+     * @param resource the resource, compared with {@link Object#equals(Object)}
+     * @param task     the task
+     * @return a future completed when the task has finished
+     */
+    public CompletableFuture<Void> runSerial(Object resource, Runnable task) {
+        return supplySerial(resource, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Computes a value after all the tasks previously submitted for the same resource have finished.
+     *
+     * @param resource the resource, compared with {@link Object#equals(Object)}
+     * @param task     the task
+     * @param <T>      the type of the value
+     * @return a future completed with the value
+     */
+    public <T> CompletableFuture<T> supplySerial(Object resource, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable runnable = () -> complete(future, task);
+        // swapping the tail is atomic, the task is started outside the map as it may run in place on shutdown
+        CompletableFuture<?> tail = this.serialTails.put(resource, future);
+        if (tail == null || tail.isDone()) {
+            start(runnable);
+        } else {
+            tail.whenComplete((v, t) -> start(runnable));
+        }
+        future.whenComplete((v, t) -> this.serialTails.remove(resource, future));
+        return future;
+    }
+
+    /**
+     * Creates an executor that runs at most the given number of its tasks at the same time.
+     *
+     * @param permits the maximum number of concurrent tasks
+     * @return the executor
+     */
+    public Lane limited(int permits) {
+        return new Lane(permits);
+    }
+
+    /**
+     * Stops accepting new threads and waits for the submitted tasks to finish.
+     * Tasks submitted afterward run on the calling thread.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(timeout, unit)) {
+                this.plugin.getPluginLogger().warn("Timed out waiting for " + (this.maxPending - this.pending.availablePermits() + this.deferred.size()) + " I/O tasks to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Submits a task that can run now and releases its slot when it has finished, or lets it wait for a slot
+     */
+    private void start(Runnable task) {
+        if (this.pending.tryAcquire()) {
+            submit(task);
+            return;
+        }
+        this.deferred.add(task);
+        // a task may have finished before the task was queued, in which case nobody would start it
+        if (this.pending.tryAcquire()) {
+            Runnable next = this.deferred.poll();
+            if (next != null) {
+                submit(next);
+            } else {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Hands the slot of a finished task over to the next waiting task, or returns it
+     */
+    private void release() {
+        Runnable next = this.deferred.poll();
+        if (next != null) {
+            submit(next);
+            return;
+        }
+        this.pending.release();
+        if (!this.deferred.isEmpty() && this.pending.tryAcquire()) {
+            next = this.deferred.poll();
+            if (next != null) {
+                submit(next);
+            } else {
+                this.pending.release();
+            }
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // shutting down, the data must still be written
+            task.run();
+        }
+    }
+
+    /**
+     * An executor that runs at most a fixed number of its tasks at the same time. The other tasks wait in the
+     * lane in submission order without holding any of the slots of the {@link IOExecutor}.
+     */
+    public final class Lane implements Executor {
+
+        private final int permits;
+        private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+
+        private Lane(int permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            this.queued.incrementAndGet();
+            this.queue.add(task);
+            drain();
+        }
+
+        /**
+         * Checks if as many tasks wait in this lane as the executor allows to run in total.
+         * Callers that can retry later, such as periodic flushes, should skip their work while this is true.
+         *
+         * @return true if the lane is saturated
+         */
+        public boolean isSaturated() {
+            return this.queued.get() >= maxPending;
+        }
+
+        private void drain() {
+            while (!this.queue.isEmpty()) {
+                int running = this.active.get();
+                if (running >= this.permits) return;
+                if (!this.active.compareAndSet(running, running + 1)) continue;
+                Runnable task = this.queue.poll();
+                if (task == null) {
+                    this.active.decrementAndGet();
+                    continue;
+                }
+                this.queued.decrementAndGet();
+                start(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        this.active.decrementAndGet();
+                        release();
+                        drain();
+                    }
+                });
+            }
+        }
+    }
+
+    private <T> void complete(CompletableFuture<T> future, Supplier<T> task) {
+        T result;
+        try {
+            result = task.get();
+        } catch (Throwable t) {
+            release();
+            future.completeExceptionally(t);
+            return;
+        }
+        // the permit is returned first, as the dependents of the future may submit tasks themselves
+        release();
+        future.complete(result);
+    }
+}
@@ -137,4 +137,60 @@ public class RandomUtils {
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Draws the number of successes out of n independent trials with probability p.
+     * Small expected counts use the waiting-time method (expected O(np) draws), larger ones
+     * a normal approximation, so the cost does not grow with n.
+     *
+     * @param n the number of trials
+     * @param p the probability of success of each trial
+     * @return the number of successes, between 0 and n
+     */
+    public static int binomial(int n, double p) {
+        if (n <= 0 || p <= 0) return 0;
+        if (p >= 1) return n;
+        if (p > 0.5) return n - binomial(n, 1 - p);
+        Random random = ThreadLocalRandom.current();
+        double mean = n * p;
+        if (mean < 16) {
+            // sum geometric gaps between successes until they exceed n
+            double logQ = Math.log1p(-p);
+            long trials = 0;
+            int successes = 0;
+            while (true) {
+                trials += Math.max(1, (long) Math.ceil(Math.log(1 - random.nextDouble()) / logQ));
+                if (trials > n) return successes;
+                successes++;
+            }
+        }
+        long x = Math.round(mean + Math.sqrt(mean * (1 - p)) * random.nextGaussian());
+        return (int) Math.max(0, Math.min(n, x));
+    }
+
+    /**
+     * Splits n draws across categories given by cumulative probabilities, as if each draw
+     * picked the first category whose cumulative value is greater than a uniform random number.
+     * Runs in O(categories) by drawing conditional binomials.
+     * If the last cumulative value is below 1, the remaining probability yields no category.
+     *
+     * @param n          the number of draws
+     * @param cumulative the ascending cumulative probabilities
+     * @return the number of draws per category
+     */
+    public static int[] multinomial(int n, double[] cumulative) {
+        int[] counts = new int[cumulative.length];
+        int remaining = n;
+        double previous = 0;
+        for (int i = 0; i < cumulative.length && remaining > 0; i++) {
+            double p = cumulative[i] - previous;
+            double left = 1 - previous;
+            previous = cumulative[i];
+            if (p <= 0) continue;
+            int count = left <= p ? remaining : binomial(remaining, p / left);
+            counts[i] = count;
+            remaining -= count;
+        }
+        return counts;
+    }
+}
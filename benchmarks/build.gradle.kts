@@ -0,0 +1,60 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+repositories {
+    mavenCentral()
+    maven("https://repo.papermc.io/repository/maven-public/")
+    maven("https://repo.rapture.pw/repository/maven-releases/") // flow nbt
+    maven("https://jitpack.io/")
+}
+
+dependencies {
+    implementation(project(":api"))
+    // The benchmarks run on a plain JVM, so the platform API has to be on the runtime classpath
+    implementation("dev.folia:folia-api:${rootProject.properties["paper_version"]}-R0.1-SNAPSHOT")
+    implementation("com.flowpowered:flow-nbt:${rootProject.properties["flow_nbt_version"]}")
+    implementation("com.github.luben:zstd-jni:${rootProject.properties["zstd_version"]}")
+    implementation(files("../api/libs/boosted-yaml-${rootProject.properties["boosted_yaml_version"]}.jar"))
+    compileOnly("org.jetbrains:annotations:${rootProject.properties["jetbrains_annotations_version"]}")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+    options.release.set(21)
+}
+
+// ./gradlew :benchmarks:jmh -Pjmh.includes=ChunkSerialization -Pjmh.blocksPerChunk=256,4096
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    timeUnit = "us"
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results-${rootProject.properties["project_version"]}.json")
+    profilers = listOf("gc")
+    project.findProperty("jmh.includes")?.let { includes = listOf(it.toString()) }
+    val parameters = listOf("blocksPerChunk", "chunks", "chunksPerRegion", "sections", "minTickUnit")
+        .mapNotNull { name -> project.findProperty("jmh.$name")?.let { name to it.toString().split(",") } }
+        .toMap()
+    if (parameters.isNotEmpty()) benchmarkParameters = parameters.mapValues { objects.listProperty(String::class.java).value(it.value) }
+}
+
+// ./gradlew :benchmarks:simulate -Psim.args="--chunks 50000 --blocks-per-chunk 20" -Psim.heap=8g
+tasks.register<JavaExec>("simulate") {
+    group = "benchmark"
+    description = "Runs the headless tick simulator. Pass --help through sim.args to list the options."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "net.momirealms.customcrops.benchmarks.simulator.TickSimulator"
+    args = project.findProperty("sim.args")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+    maxHeapSize = project.findProperty("sim.heap")?.toString() ?: "4g"
+}
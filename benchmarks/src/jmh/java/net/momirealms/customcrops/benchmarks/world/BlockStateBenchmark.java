@@ -0,0 +1,117 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.world;
+
+import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.Pos3;
+import net.momirealms.customcrops.benchmarks.headless.InMemoryWorldAdaptor;
+import net.momirealms.customcrops.benchmarks.headless.SyntheticFarm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Block state lookups and updates through {@link CustomCropsWorld}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BlockStateBenchmark {
+
+    @Param({"64", "512", "4096"})
+    public int blocksPerChunk;
+
+    @Param({"64"})
+    public int chunks;
+
+    @Param({"4"})
+    public int sections;
+
+    private CustomCropsWorld<String> world;
+    private Pos3[] positions;
+    private Pos3[] emptyPositions;
+    private CustomCropsBlockState template;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        InMemoryWorldAdaptor adaptor = new InMemoryWorldAdaptor();
+        world = adaptor.createWorld("block_state_" + blocksPerChunk, SyntheticFarm.setting(300, 0));
+        List<Pos3> placed = SyntheticFarm.populate(world, chunks, blocksPerChunk, sections, 42L);
+        SplittableRandom random = new SplittableRandom(7L);
+        positions = placed.toArray(new Pos3[0]);
+        shuffle(positions, random);
+        // positions just above the populated sections are inside loaded chunks but hold no block
+        emptyPositions = new Pos3[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            Pos3 pos = positions[i];
+            emptyPositions[i] = new Pos3(pos.x(), (SyntheticFarm.BASE_SECTION + sections) * 16 + (pos.y() & 15), pos.z());
+        }
+        template = SyntheticFarm.randomState(random);
+    }
+
+    @Benchmark
+    public Optional<CustomCropsBlockState> getLoadedBlockState() {
+        return world.getLoadedBlockState(next());
+    }
+
+    @Benchmark
+    public Optional<CustomCropsBlockState> getBlockState() {
+        return world.getBlockState(next());
+    }
+
+    @Benchmark
+    public Optional<CustomCropsBlockState> getMissingBlockState() {
+        return world.getLoadedBlockState(emptyPositions[nextIndex()]);
+    }
+
+    @Benchmark
+    public Optional<CustomCropsBlockState> addThenRemoveBlockState() {
+        Pos3 pos = emptyPositions[nextIndex()];
+        world.addBlockState(pos, template);
+        return world.removeBlockState(pos);
+    }
+
+    @Benchmark
+    public Optional<CustomCropsBlockState> replaceBlockState() {
+        return world.addBlockState(next(), template);
+    }
+
+    private Pos3 next() {
+        return positions[nextIndex()];
+    }
+
+    private int nextIndex() {
+        int index = cursor;
+        cursor = index + 1 == positions.length ? 0 : index + 1;
+        return index;
+    }
+
+    private static void shuffle(Pos3[] array, SplittableRandom random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Pos3 tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.world;
+
+import net.momirealms.customcrops.api.core.world.ChunkPos;
+import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.SerializableChunk;
+import net.momirealms.customcrops.benchmarks.headless.InMemoryWorldAdaptor;
+import net.momirealms.customcrops.benchmarks.headless.SyntheticFarm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code toSerializableChunk} → {@code serializeChunk} → {@code deserializeChunk}
+ * on chunks of different densities
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkSerializationBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int blocksPerChunk;
+
+    @Param({"1", "4"})
+    public int sections;
+
+    private InMemoryWorldAdaptor adaptor;
+    private CustomCropsWorld<String> world;
+    private CustomCropsChunk chunk;
+    private SerializableChunk serializable;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        adaptor = new InMemoryWorldAdaptor();
+        world = adaptor.createWorld("chunk_codec_" + blocksPerChunk + "_" + sections, SyntheticFarm.setting(300, 0));
+        SyntheticFarm.populate(world, 1, blocksPerChunk, sections, 42L);
+        chunk = world.getLoadedChunk(ChunkPos.of(0, 0)).orElseThrow();
+        // spread the scheduled ticks as a running server would have them
+        for (int i = 0; i < 300; i++) {
+            chunk.timer();
+        }
+        serializable = adaptor.toSerializable(chunk);
+        bytes = adaptor.encode(serializable);
+    }
+
+    @Benchmark
+    public SerializableChunk toSerializableChunk() {
+        return adaptor.toSerializable(chunk);
+    }
+
+    @Benchmark
+    public byte[] serializeChunk() {
+        return adaptor.encode(serializable);
+    }
+
+    @Benchmark
+    public CustomCropsChunk deserializeChunk() {
+        return adaptor.decodeChunk(world, bytes);
+    }
+
+    @Benchmark
+    public CustomCropsChunk roundTrip() {
+        return adaptor.decodeChunk(world, adaptor.encodeChunk(chunk));
+    }
+}
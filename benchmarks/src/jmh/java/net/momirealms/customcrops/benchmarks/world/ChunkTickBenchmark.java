@@ -0,0 +1,81 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.world;
+
+import net.momirealms.customcrops.api.core.world.ChunkPos;
+import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.benchmarks.headless.InMemoryWorldAdaptor;
+import net.momirealms.customcrops.benchmarks.headless.SyntheticBlock;
+import net.momirealms.customcrops.benchmarks.headless.SyntheticFarm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-second chunk timer. A full cycle runs {@code arrangeTasks} once and then
+ * drains the scheduled tick queue over {@code minTickUnit} seconds, so every block is
+ * ticked exactly once per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkTickBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    public int blocksPerChunk;
+
+    @Param({"4"})
+    public int sections;
+
+    @Param({"300"})
+    public int minTickUnit;
+
+    @Param({"0", "3"})
+    public int randomTickSpeed;
+
+    private CustomCropsChunk chunk;
+    private SyntheticBlock block;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        InMemoryWorldAdaptor adaptor = new InMemoryWorldAdaptor();
+        CustomCropsWorld<String> world = adaptor.createWorld("tick_" + blocksPerChunk, SyntheticFarm.setting(minTickUnit, randomTickSpeed));
+        SyntheticFarm.populate(world, 1, blocksPerChunk, sections, 42L);
+        chunk = world.getLoadedChunk(ChunkPos.of(0, 0)).orElseThrow();
+        block = SyntheticBlock.register();
+        // align the chunk so that the first timer call of each cycle rearranges the queue
+        for (int i = 0; i < minTickUnit; i++) {
+            chunk.timer();
+        }
+    }
+
+    @Benchmark
+    public long fullCycle() {
+        for (int i = 0; i < minTickUnit; i++) {
+            chunk.timer();
+        }
+        return block.scheduledTicks();
+    }
+
+    @Benchmark
+    public long singleSecond() {
+        chunk.timer();
+        return block.scheduledTicks();
+    }
+}
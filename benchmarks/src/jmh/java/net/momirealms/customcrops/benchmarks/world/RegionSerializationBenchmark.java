@@ -0,0 +1,75 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.world;
+
+import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.world.CustomCropsRegion;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.RegionPos;
+import net.momirealms.customcrops.benchmarks.headless.InMemoryWorldAdaptor;
+import net.momirealms.customcrops.benchmarks.headless.SyntheticFarm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Region serialize/deserialize. Chunk payloads are already compressed at this level,
+ * so this mostly measures copying and the chunk index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegionSerializationBenchmark {
+
+    @Param({"16", "256", "1024"})
+    public int chunksPerRegion;
+
+    @Param({"256"})
+    public int blocksPerChunk;
+
+    @Param({"4"})
+    public int sections;
+
+    private InMemoryWorldAdaptor adaptor;
+    private CustomCropsWorld<String> world;
+    private CustomCropsRegion region;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        adaptor = new InMemoryWorldAdaptor();
+        world = adaptor.createWorld("region_codec_" + chunksPerRegion, SyntheticFarm.setting(300, 0));
+        // a 32x32 region holds at most 1024 chunks, all populated chunks start at 0,0
+        SyntheticFarm.populate(world, Math.min(chunksPerRegion, 1024), blocksPerChunk, sections, 42L);
+        for (CustomCropsChunk chunk : world.loadedChunks()) {
+            adaptor.saveChunk(world, chunk);
+        }
+        region = world.getLoadedRegion(RegionPos.of(0, 0)).orElseThrow();
+        bytes = adaptor.encodeRegion(region);
+    }
+
+    @Benchmark
+    public byte[] serializeRegion() {
+        return adaptor.encodeRegion(region);
+    }
+
+    @Benchmark
+    public CustomCropsRegion deserializeRegion() {
+        return adaptor.decodeRegion(world, bytes, RegionPos.of(0, 0));
+    }
+}
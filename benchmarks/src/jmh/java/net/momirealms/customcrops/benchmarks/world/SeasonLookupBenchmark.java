@@ -0,0 +1,82 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.world;
+
+import net.momirealms.customcrops.api.core.world.*;
+import net.momirealms.customcrops.benchmarks.headless.InMemoryWorldAdaptor;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The season lookup done by the season requirements for every crop. {@code providerLookup} repeats what
+ * {@code BukkitWorldManager#getSeason} used to do with sync-seasons enabled: resolve the reference world,
+ * find its CustomCrops world and ask the built-in provider. {@code cachedLookup} reads the cached state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SeasonLookupBenchmark {
+
+    private final ConcurrentHashMap<String, CustomCropsWorld<?>> worlds = new ConcurrentHashMap<>();
+    private World bukkitWorld;
+    private String referenceWorld;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        InMemoryWorldAdaptor adaptor = new InMemoryWorldAdaptor();
+        CustomCropsWorld<String> world = adaptor.createWorld("season", WorldSetting.of(
+                true, 300,
+                1, 1, 1, 1, 1, 1,
+                false, 0, 10_000,
+                true, true, 28,
+                -1, -1, -1,
+                0
+        ));
+        world.extraData().setSeason(Season.SUMMER);
+        world.extraData().setDate(3);
+        world.seasonState(new SeasonState(Season.SUMMER, 3));
+        worlds.put(world.worldName(), world);
+        bukkitWorld = world.bukkitWorld();
+        referenceWorld = world.worldName();
+    }
+
+    @Benchmark
+    public Season providerLookup() {
+        World reference = Bukkit.getWorld(referenceWorld);
+        if (reference == null) {
+            return Season.DISABLE;
+        }
+        return Optional.ofNullable(worlds.get(reference.getName())).map(w -> {
+            if (!w.setting().enableSeason()) {
+                return Season.DISABLE;
+            }
+            return w.extraData().getSeason();
+        }).orElse(Season.DISABLE);
+    }
+
+    @Benchmark
+    public Season cachedLookup() {
+        CustomCropsWorld<?> world = worlds.get(bukkitWorld.getName());
+        return world == null ? Season.DISABLE : world.seasonState().season();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.world;
+
+import net.momirealms.customcrops.api.core.world.ChunkPos;
+import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.SerializableChunk;
+import net.momirealms.customcrops.benchmarks.headless.InMemoryWorldAdaptor;
+import net.momirealms.customcrops.benchmarks.headless.SyntheticFarm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The NBT tree the slime adaptors used to store per chunk against the
+ * compressed binary chunk format they store now
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SlimeChunkCodecBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int blocksPerChunk;
+
+    private InMemoryWorldAdaptor adaptor;
+    private CustomCropsWorld<String> world;
+    private SerializableChunk serializable;
+    private byte[] treeBytes;
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        adaptor = new InMemoryWorldAdaptor();
+        world = adaptor.createWorld("slime_codec_" + blocksPerChunk, SyntheticFarm.setting(300, 0));
+        SyntheticFarm.populate(world, 1, blocksPerChunk, 1, 42L);
+        CustomCropsChunk chunk = world.getLoadedChunk(ChunkPos.of(0, 0)).orElseThrow();
+        for (int i = 0; i < 300; i++) {
+            chunk.timer();
+        }
+        serializable = adaptor.toSerializable(chunk);
+        treeBytes = adaptor.encodeTree(serializable);
+        binaryBytes = adaptor.encode(serializable);
+    }
+
+    @Benchmark
+    public byte[] saveTree() {
+        return adaptor.encodeTree(serializable);
+    }
+
+    @Benchmark
+    public byte[] saveBinary() {
+        return adaptor.encode(serializable);
+    }
+
+    @Benchmark
+    public CustomCropsChunk loadTree() {
+        return adaptor.decodeTree(world, treeBytes);
+    }
+
+    @Benchmark
+    public CustomCropsChunk loadBinary() {
+        return adaptor.decodeChunk(world, binaryBytes);
+    }
+}
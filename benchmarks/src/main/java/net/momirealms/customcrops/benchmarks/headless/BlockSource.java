@@ -0,0 +1,42 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
+import net.momirealms.customcrops.api.core.world.Pos3;
+
+import java.util.SplittableRandom;
+
+/**
+ * Supplies the block states that synthetic farms are filled with.
+ * Implementations are expected to register their block types themselves.
+ */
+@FunctionalInterface
+public interface BlockSource {
+
+    BlockSource SYNTHETIC = (pos, random) -> SyntheticFarm.randomState(random);
+
+    /**
+     * Creates the block state to be placed at the given position
+     *
+     * @param pos    the position
+     * @param random the random source of the farm
+     * @return the block state
+     */
+    CustomCropsBlockState create(Pos3 pos, SplittableRandom random);
+}
@@ -0,0 +1,195 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import net.momirealms.customcrops.api.core.*;
+import net.momirealms.customcrops.api.core.world.Pos3;
+import net.momirealms.customcrops.common.item.Item;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An item manager that remembers which id was placed where instead of touching the world.
+ * Player interactions are ignored and no item stacks can be built.
+ */
+public class HeadlessItemManager extends AbstractItemManager {
+
+    private final Map<Pos3, String> placed = new ConcurrentHashMap<>();
+    private final LongAdder placements = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+
+    @Override
+    public void place(@NotNull Location location, @NotNull ExistenceForm form, @NotNull String id, FurnitureRotation rotation) {
+        placed.put(Pos3.from(location), id);
+        placements.increment();
+    }
+
+    @Override
+    public FurnitureRotation remove(@NotNull Location location, @NotNull ExistenceForm form) {
+        if (placed.remove(Pos3.from(location)) != null) {
+            removals.increment();
+        }
+        return FurnitureRotation.NONE;
+    }
+
+    @Override
+    public void placeBlock(@NotNull Location location, @NotNull String id) {
+        place(location, ExistenceForm.BLOCK, id, FurnitureRotation.NONE);
+    }
+
+    @Override
+    public void placeFurniture(@NotNull Location location, @NotNull String id, FurnitureRotation rotation) {
+        place(location, ExistenceForm.FURNITURE, id, rotation);
+    }
+
+    @Override
+    public void removeBlock(@NotNull Location location) {
+        remove(location, ExistenceForm.BLOCK);
+    }
+
+    @Override
+    public FurnitureRotation removeFurniture(@NotNull Location location) {
+        return remove(location, ExistenceForm.FURNITURE);
+    }
+
+    @Override
+    public String blockID(@NotNull Location location) {
+        return anyID(location);
+    }
+
+    @Override
+    public String blockID(@NotNull Block block) {
+        return anyID(block.getLocation());
+    }
+
+    @Override
+    public @Nullable String furnitureID(@NotNull Entity entity) {
+        return null;
+    }
+
+    @Override
+    public @NotNull String entityID(@NotNull Entity entity) {
+        return entity.getType().name();
+    }
+
+    @Override
+    public @Nullable String furnitureID(Location location) {
+        return placed.get(Pos3.from(location));
+    }
+
+    @Override
+    public @NotNull String anyID(Location location) {
+        return placed.getOrDefault(Pos3.from(location), "AIR");
+    }
+
+    @Override
+    public @Nullable String id(Location location, ExistenceForm form) {
+        return placed.get(Pos3.from(location));
+    }
+
+    @Override
+    public void setCustomEventListener(@NotNull AbstractCustomEventListener listener) {
+    }
+
+    @Override
+    public void setCustomItemProvider(@NotNull CustomItemProvider provider) {
+    }
+
+    @Override
+    public @Nullable String id(@Nullable ItemStack itemStack) {
+        return null;
+    }
+
+    @Override
+    public @Nullable ItemStack build(@Nullable Player player, @NotNull String id) {
+        return null;
+    }
+
+    @Override
+    public Item<ItemStack> wrap(@NotNull ItemStack itemStack) {
+        throw new UnsupportedOperationException("Items cannot be wrapped without a server");
+    }
+
+    @Override
+    public void decreaseDamage(Player player, ItemStack itemStack, int amount) {
+    }
+
+    @Override
+    public void increaseDamage(Player holder, ItemStack itemStack, int amount) {
+    }
+
+    @Override
+    public void handlePlayerInteractAir(Player player, EquipmentSlot hand, ItemStack itemInHand) {
+    }
+
+    @Override
+    public void handlePlayerInteractBlock(Player player, Block block, String blockID, BlockFace blockFace, EquipmentSlot hand, ItemStack itemInHand, Cancellable event) {
+    }
+
+    @Override
+    public void handlePlayerInteractFurniture(Player player, Location location, String furnitureID, EquipmentSlot hand, ItemStack itemInHand, Cancellable event) {
+    }
+
+    @Override
+    public void handlePlayerBreak(Player player, Location location, ItemStack itemInHand, String brokenID, Cancellable event) {
+    }
+
+    @Override
+    public void handlePhysicsBreak(Location location, String brokenID, Cancellable event) {
+    }
+
+    @Override
+    public void handleEntityTrample(Entity entity, Location location, String brokenID, Cancellable event) {
+    }
+
+    @Override
+    public void handleEntityExplode(Entity entity, Location location, String brokenID, Cancellable event) {
+    }
+
+    @Override
+    public void handleBlockExplode(Block block, Location location, String brokenID, Cancellable event) {
+    }
+
+    @Override
+    public void handlePlayerPlace(Player player, Location location, String placedID, EquipmentSlot hand, ItemStack itemInHand, Cancellable event) {
+    }
+
+    public long placements() {
+        return placements.sum();
+    }
+
+    public long removals() {
+        return removals.sum();
+    }
+
+    public int placedCount() {
+        return placed.size();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.misc.DelayedTaskWheel;
+import net.momirealms.customcrops.common.dependency.Dependency;
+import net.momirealms.customcrops.common.dependency.DependencyManager;
+import net.momirealms.customcrops.common.plugin.classpath.ClassPathAppender;
+import net.momirealms.customcrops.common.plugin.logging.JavaPluginLogger;
+import net.momirealms.customcrops.common.plugin.logging.PluginLogger;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A {@link BukkitCustomCropsPlugin} that only provides what the world storage layer needs:
+ * a logger, an inline scheduler and an item manager that does not touch any world.
+ * Dependencies such as zstd are expected to be on the classpath instead of being downloaded.
+ */
+public class HeadlessPlugin extends BukkitCustomCropsPlugin {
+
+    private static HeadlessPlugin instance;
+
+    private final PluginLogger logger;
+    private final boolean debug;
+
+    protected HeadlessPlugin() {
+        super(HeadlessServer.plugin());
+        this.logger = new JavaPluginLogger(HeadlessServer.logger());
+        this.debug = Boolean.getBoolean("customcrops.debug");
+        this.dependencyManager = new ClasspathDependencyManager();
+        this.scheduler = new HeadlessScheduler(this);
+        this.itemManager = new HeadlessItemManager();
+        this.taskWheel = new DelayedTaskWheel(this);
+    }
+
+    /**
+     * Installs the headless server and plugin once per JVM
+     *
+     * @return the plugin instance
+     */
+    public static synchronized HeadlessPlugin bootstrap() {
+        if (instance == null) {
+            HeadlessServer.install();
+            instance = new HeadlessPlugin();
+        }
+        return instance;
+    }
+
+    @Override
+    public HeadlessScheduler getScheduler() {
+        return (HeadlessScheduler) scheduler;
+    }
+
+    @Override
+    public HeadlessItemManager getItemManager() {
+        return (HeadlessItemManager) itemManager;
+    }
+
+    @Override
+    public void debug(Supplier<String> message) {
+        if (debug) {
+            logger.info("[DEBUG] " + message.get());
+        }
+    }
+
+    @Override
+    public InputStream getResourceStream(String filePath) {
+        return getClass().getClassLoader().getResourceAsStream(filePath);
+    }
+
+    @Override
+    public PluginLogger getPluginLogger() {
+        return logger;
+    }
+
+    @Override
+    public ClassPathAppender getClassPathAppender() {
+        return file -> {
+            throw new UnsupportedOperationException("The headless plugin cannot append " + file + " to the classpath");
+        };
+    }
+
+    @Override
+    public Path getDataDirectory() {
+        return Path.of("build", "headless");
+    }
+
+    @Override
+    public String getServerVersion() {
+        return "1.20.4";
+    }
+
+    @Override
+    public String getPluginVersion() {
+        return "headless";
+    }
+
+    @Override
+    public void load() {
+    }
+
+    @Override
+    public void enable() {
+    }
+
+    @Override
+    public void disable() {
+    }
+
+    @Override
+    public void reload() {
+    }
+
+    private static class ClasspathDependencyManager implements DependencyManager {
+
+        @Override
+        public void loadDependencies(Collection<Dependency> dependencies) {
+        }
+
+        @Override
+        public ClassLoader obtainClassLoaderWith(Set<Dependency> dependencies) {
+            return HeadlessPlugin.class.getClassLoader();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import net.momirealms.customcrops.common.plugin.CustomCropsPlugin;
+import net.momirealms.customcrops.common.plugin.scheduler.AbstractJavaScheduler;
+import net.momirealms.customcrops.common.plugin.scheduler.RegionExecutor;
+import net.momirealms.customcrops.common.plugin.scheduler.SchedulerTask;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A scheduler whose "main thread" is whichever thread calls it. Delayed sync tasks are
+ * kept in a queue and only run when the simulation advances the game clock.
+ */
+public class HeadlessScheduler extends AbstractJavaScheduler<Location, World> {
+
+    private final SyncExecutor sync = new SyncExecutor();
+
+    public HeadlessScheduler(CustomCropsPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public RegionExecutor<Location, World> sync() {
+        return sync;
+    }
+
+    /**
+     * Advances the game clock and runs the sync tasks that became due
+     *
+     * @param ticks game ticks to advance
+     */
+    public void advance(long ticks) {
+        sync.advance(ticks);
+    }
+
+    /**
+     * Gets the number of sync tasks executed so far
+     *
+     * @return executed tasks
+     */
+    public long executedSyncTasks() {
+        return sync.executed.sum();
+    }
+
+    private static class SyncExecutor implements RegionExecutor<Location, World> {
+
+        private final PriorityQueue<DelayedTask> queue = new PriorityQueue<>();
+        private final LongAdder executed = new LongAdder();
+        private long currentTick;
+        private long sequence;
+
+        @Override
+        public void run(Runnable r, Location l) {
+            executed.increment();
+            r.run();
+        }
+
+        @Override
+        public void run(Runnable r, World world, int x, int z) {
+            run(r, null);
+        }
+
+        @Override
+        public synchronized SchedulerTask runLater(Runnable r, long delayTicks, Location l) {
+            DelayedTask task = new DelayedTask(r, currentTick + Math.max(1, delayTicks), 0, sequence++);
+            queue.add(task);
+            return task;
+        }
+
+        @Override
+        public synchronized SchedulerTask runRepeating(Runnable r, long delayTicks, long period, Location l) {
+            DelayedTask task = new DelayedTask(r, currentTick + Math.max(1, delayTicks), Math.max(1, period), sequence++);
+            queue.add(task);
+            return task;
+        }
+
+        private void advance(long ticks) {
+            long target;
+            synchronized (this) {
+                target = currentTick + ticks;
+            }
+            while (true) {
+                DelayedTask task;
+                synchronized (this) {
+                    task = queue.peek();
+                    if (task == null || task.dueTick > target) {
+                        currentTick = target;
+                        return;
+                    }
+                    queue.poll();
+                    currentTick = task.dueTick;
+                    if (task.cancelled) continue;
+                    if (task.period > 0) {
+                        // the task is out of the queue, so it is safe to move it forward
+                        task.dueTick += task.period;
+                        task.sequence = sequence++;
+                        queue.add(task);
+                    }
+                }
+                run(task.runnable, null);
+            }
+        }
+    }
+
+    private static class DelayedTask implements SchedulerTask, Comparable<DelayedTask> {
+
+        private final Runnable runnable;
+        private final long period;
+        private long dueTick;
+        private long sequence;
+        private volatile boolean cancelled;
+
+        private DelayedTask(Runnable runnable, long dueTick, long period, long sequence) {
+            this.runnable = runnable;
+            this.dueTick = dueTick;
+            this.period = period;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public int compareTo(DelayedTask o) {
+            int result = Long.compare(dueTick, o.dueTick);
+            return result != 0 ? result : Long.compare(sequence, o.sequence);
+        }
+    }
+}
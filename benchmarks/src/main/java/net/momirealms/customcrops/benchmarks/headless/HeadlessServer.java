@@ -0,0 +1,142 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Installs a proxy {@link Server} into {@link Bukkit} so that the world storage code,
+ * which resolves worlds through {@code Bukkit.getWorld}, can run on a plain JVM.
+ * Every method that is not modelled here returns the zero value of its return type.
+ */
+public final class HeadlessServer {
+
+    private static final Logger LOGGER = Logger.getLogger("CustomCrops-Headless");
+    private static final Map<String, HeadlessWorldHandle> WORLDS = new ConcurrentHashMap<>();
+    private static volatile boolean installed;
+
+    private HeadlessServer() {
+    }
+
+    public static synchronized void install() {
+        if (installed) return;
+        Server server = (Server) Proxy.newProxyInstance(
+                HeadlessServer.class.getClassLoader(),
+                new Class[]{Server.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getWorld" -> args[0] instanceof String name ? world(name).bukkit() : null;
+                    case "getLogger" -> LOGGER;
+                    case "getName" -> "Headless";
+                    case "getVersion", "getBukkitVersion", "getMinecraftVersion" -> "1.20.4-R0.1-SNAPSHOT";
+                    case "isPrimaryThread" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "HeadlessServer";
+                    default -> defaultValue(method.getReturnType());
+                }
+        );
+        try {
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, server);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to install the headless server", e);
+        }
+        installed = true;
+    }
+
+    /**
+     * Gets or creates the world handle with the given name
+     *
+     * @param name world name
+     * @return the handle
+     */
+    public static HeadlessWorldHandle world(String name) {
+        return WORLDS.computeIfAbsent(name, HeadlessServer::createWorld);
+    }
+
+    static Plugin plugin() {
+        return (Plugin) Proxy.newProxyInstance(
+                HeadlessServer.class.getClassLoader(),
+                new Class[]{Plugin.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> "CustomCrops";
+                    case "getLogger" -> LOGGER;
+                    case "isEnabled" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "CustomCrops";
+                    default -> defaultValue(method.getReturnType());
+                }
+        );
+    }
+
+    static Logger logger() {
+        return LOGGER;
+    }
+
+    private static HeadlessWorldHandle createWorld(String name) {
+        AtomicLong fullTime = new AtomicLong();
+        World world = (World) Proxy.newProxyInstance(
+                HeadlessServer.class.getClassLoader(),
+                new Class[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> name;
+                    case "getFullTime", "getGameTime" -> fullTime.get();
+                    case "getTime" -> fullTime.get() % 24_000;
+                    case "hashCode" -> name.hashCode();
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "HeadlessWorld{" + name + "}";
+                    default -> defaultValue(method.getReturnType());
+                }
+        );
+        return new HeadlessWorldHandle(name, world, fullTime);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+
+    /**
+     * A proxied Bukkit world together with its controllable clock
+     *
+     * @param name     world name
+     * @param bukkit   the proxied world
+     * @param fullTime the value returned by {@link World#getFullTime()}
+     */
+    public record HeadlessWorldHandle(String name, World bukkit, AtomicLong fullTime) {
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import com.flowpowered.nbt.CompoundTag;
+import com.flowpowered.nbt.stream.NBTInputStream;
+import com.flowpowered.nbt.stream.NBTOutputStream;
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.world.*;
+import net.momirealms.customcrops.api.core.world.adaptor.AbstractWorldAdaptor;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A world adaptor that keeps region files in memory and uses the same chunk and region
+ * format as the Bukkit adaptor. Worlds are identified by their names.
+ */
+public class InMemoryWorldAdaptor extends AbstractWorldAdaptor<String> {
+
+    private final Map<String, Map<RegionPos, byte[]>> regionFiles = new ConcurrentHashMap<>();
+    private final Map<String, WorldExtraData> extraData = new ConcurrentHashMap<>();
+
+    public InMemoryWorldAdaptor() {
+        HeadlessPlugin.bootstrap();
+    }
+
+    /**
+     * Creates a world backed by this adaptor
+     *
+     * @param name    world name
+     * @param setting world setting
+     * @return the world
+     */
+    public CustomCropsWorld<String> createWorld(String name, WorldSetting setting) {
+        HeadlessServer.world(name);
+        CustomCropsWorld<String> world = adapt(name);
+        world.setting(setting);
+        return world;
+    }
+
+    @Override
+    public String getWorld(String worldName) {
+        return worldName;
+    }
+
+    @Override
+    public CustomCropsWorld<String> adapt(Object world) {
+        return CustomCropsWorld.create((String) world, this);
+    }
+
+    @Override
+    public WorldExtraData loadExtraData(String world) {
+        return extraData.getOrDefault(world, WorldExtraData.empty());
+    }
+
+    @Override
+    public void saveExtraData(CustomCropsWorld<String> world) {
+        extraData.put(world.worldName(), world.extraData());
+    }
+
+    @Nullable
+    @Override
+    public CustomCropsRegion loadRegion(CustomCropsWorld<String> world, RegionPos pos, boolean createIfNotExist) {
+        byte[] bytes = regionFiles(world).get(pos);
+        if (bytes == null) {
+            return createIfNotExist ? world.createRegion(pos) : null;
+        }
+        return decodeRegion(world, bytes, pos);
+    }
+
+    @Nullable
+    @Override
+    public CustomCropsChunk loadChunk(CustomCropsWorld<String> world, ChunkPos pos, boolean createIfNotExist) {
+        CustomCropsRegion region = world.getOrCreateRegion(pos.toRegionPos());
+        if (!region.isLoaded()) {
+            region.load();
+        }
+        byte[] bytes = region.getCachedChunkBytes(pos);
+        if (bytes == null) {
+            return createIfNotExist ? world.createChunk(pos) : null;
+        }
+        return decodeChunk(world, bytes);
+    }
+
+    @Override
+    public void saveRegion(CustomCropsWorld<String> world, CustomCropsRegion region) {
+        if (region.canPrune()) {
+            regionFiles(world).remove(region.regionPos());
+            return;
+        }
+        regionFiles(world).put(region.regionPos(), encodeRegion(region));
+    }
+
+    @Override
+    public void saveChunk(CustomCropsWorld<String> world, CustomCropsChunk chunk) {
+        RegionPos pos = chunk.chunkPos().toRegionPos();
+        Optional<CustomCropsRegion> region = world.getLoadedRegion(pos);
+        if (region.isEmpty()) {
+            BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("[" + world.worldName() + "] Region " + pos + " unloaded before chunk " + chunk.chunkPos() + " saving.");
+            return;
+        }
+        SerializableChunk serializableChunk = toSerializableChunk(chunk);
+        if (serializableChunk.canPrune()) {
+            region.get().removeCachedChunk(chunk.chunkPos());
+        } else {
+            region.get().setCachedChunk(chunk.chunkPos(), serializeChunk(serializableChunk));
+        }
+    }
+
+    @Override
+    public String getName(String world) {
+        return world;
+    }
+
+    @Override
+    public int priority() {
+        return BUKKIT_WORLD_PRIORITY;
+    }
+
+    public SerializableChunk toSerializable(CustomCropsChunk chunk) {
+        return toSerializableChunk(chunk);
+    }
+
+    public byte[] encode(SerializableChunk chunk) {
+        return serializeChunk(chunk);
+    }
+
+    public byte[] encodeChunk(CustomCropsChunk chunk) {
+        return serializeChunk(toSerializableChunk(chunk));
+    }
+
+    public CustomCropsChunk decodeChunk(CustomCropsWorld<String> world, byte[] bytes) {
+        try (DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return deserializeChunk(world, dataStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes a chunk as the NBT tree that older slime adaptors stored
+     *
+     * @param chunk the chunk
+     * @return the uncompressed NBT bytes
+     */
+    public byte[] encodeTree(SerializableChunk chunk) {
+        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
+        try (NBTOutputStream outStream = new NBTOutputStream(outByteStream, NBTInputStream.NO_COMPRESSION, ByteOrder.BIG_ENDIAN)) {
+            outStream.writeTag(chunkToTag(chunk));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outByteStream.toByteArray();
+    }
+
+    public CustomCropsChunk decodeTree(CustomCropsWorld<String> world, byte[] bytes) {
+        try (NBTInputStream inStream = new NBTInputStream(new ByteArrayInputStream(bytes), NBTInputStream.NO_COMPRESSION, ByteOrder.BIG_ENDIAN)) {
+            return tagToChunk(world, (CompoundTag) inStream.readTag());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public byte[] encodeRegion(CustomCropsRegion region) {
+        return serializeRegion(region);
+    }
+
+    public CustomCropsRegion decodeRegion(CustomCropsWorld<String> world, byte[] bytes, RegionPos pos) {
+        try (DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return deserializeRegion(world, dataStream, pos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the total size of the region files stored for a world
+     *
+     * @param world the world
+     * @return size in bytes
+     */
+    public long storedBytes(CustomCropsWorld<String> world) {
+        long size = 0;
+        for (byte[] bytes : regionFiles(world).values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+
+    private Map<RegionPos, byte[]> regionFiles(CustomCropsWorld<String> world) {
+        return regionFiles.computeIfAbsent(world.worldName(), k -> new ConcurrentHashMap<>());
+    }
+}
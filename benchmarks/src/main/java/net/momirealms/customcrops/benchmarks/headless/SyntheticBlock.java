@@ -0,0 +1,116 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import com.flowpowered.nbt.IntTag;
+import com.flowpowered.nbt.Tag;
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.ExistenceForm;
+import net.momirealms.customcrops.api.core.FurnitureRotation;
+import net.momirealms.customcrops.api.core.InternalRegistries;
+import net.momirealms.customcrops.api.core.block.AbstractCustomCropsBlock;
+import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.Pos3;
+import net.momirealms.customcrops.common.util.Key;
+import org.bukkit.Location;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A block mechanic that only touches its own state and the item manager when ticked,
+ * so that measurements reflect the storage and scheduling layer rather than crop logic.
+ */
+public class SyntheticBlock extends AbstractCustomCropsBlock {
+
+    public static final Key TYPE = Key.key("benchmark", "synthetic");
+
+    public static final int POINTS_PER_STAGE = 4;
+
+    private static SyntheticBlock instance;
+
+    private final LongAdder scheduledTicks = new LongAdder();
+    private final LongAdder randomTicks = new LongAdder();
+
+    protected SyntheticBlock() {
+        super(TYPE);
+    }
+
+    /**
+     * Registers the synthetic block once so that serialized chunks can be read back
+     *
+     * @return the registered block
+     */
+    public static synchronized SyntheticBlock register() {
+        if (instance == null) {
+            instance = new SyntheticBlock();
+            InternalRegistries.BLOCK.register(TYPE, instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public void scheduledTick(CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location, boolean offlineTick) {
+        scheduledTicks.increment();
+        grow(state, world, location);
+    }
+
+    @Override
+    public void randomTick(CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location, boolean offlineTick) {
+        randomTicks.increment();
+        grow(state, world, location);
+    }
+
+    // Like a crop reaching its next stage, the model is swapped on the main thread
+    private void grow(CustomCropsBlockState state, CustomCropsWorld<?> world, Pos3 location) {
+        Tag<?> tag = state.get("point");
+        int point = tag == null ? 0 : tag.getAsIntTag().map(IntTag::getValue).orElse(0);
+        state.set("point", new IntTag("point", ++point));
+        if (point % POINTS_PER_STAGE == 0) {
+            String stageID = id(state) + "_stage_" + (point / POINTS_PER_STAGE);
+            BukkitCustomCropsPlugin plugin = BukkitCustomCropsPlugin.getInstance();
+            Location bukkitLocation = location.toLocation(world.bukkitWorld());
+            plugin.getScheduler().sync().run(() -> {
+                plugin.getItemManager().remove(bukkitLocation, ExistenceForm.BLOCK);
+                plugin.getItemManager().place(bukkitLocation, ExistenceForm.BLOCK, stageID, FurnitureRotation.NONE);
+            }, bukkitLocation);
+        }
+    }
+
+    public long scheduledTicks() {
+        return scheduledTicks.sum();
+    }
+
+    public long randomTicks() {
+        return randomTicks.sum();
+    }
+
+    public void resetCounters() {
+        scheduledTicks.reset();
+        randomTicks.reset();
+    }
+
+    @Override
+    public boolean isInstance(String id) {
+        return false;
+    }
+
+    @Override
+    public void restore(Location location, CustomCropsBlockState state) {
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.headless;
+
+import com.flowpowered.nbt.CompoundMap;
+import com.flowpowered.nbt.IntTag;
+import com.flowpowered.nbt.StringTag;
+import net.momirealms.customcrops.api.core.world.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates deterministic farms of {@link SyntheticBlock}s.
+ * Chunks are laid out in a square starting at chunk 0,0 and blocks are spread over
+ * the requested number of sections without ever sharing a position.
+ */
+public final class SyntheticFarm {
+
+    public static final int BASE_SECTION = 4;
+    private static final int BLOCKS_PER_SECTION = 16 * 16 * 16;
+    private static final String[] CROP_IDS = {
+            "tomato", "pitaya", "rice", "chinese_cabbage", "pepper", "eggplant", "garlic", "redpacket"
+    };
+
+    private SyntheticFarm() {
+    }
+
+    /**
+     * Creates a setting that ticks every block once per {@code minTickUnit} seconds
+     *
+     * @param minTickUnit     the scheduler cycle in seconds
+     * @param randomTickSpeed random ticks per section per second
+     * @return the setting
+     */
+    public static WorldSetting setting(int minTickUnit, int randomTickSpeed) {
+        return WorldSetting.of(
+                true, minTickUnit,
+                1, 1, 1, 1, 1, 1,
+                false, 0, 10_000,
+                false, false, 28,
+                -1, -1, -1,
+                randomTickSpeed
+        );
+    }
+
+    /**
+     * Fills {@code chunks} chunks with {@code blocksPerChunk} blocks each
+     *
+     * @param world          the world
+     * @param chunks         the number of chunks
+     * @param blocksPerChunk the number of blocks in each chunk
+     * @param sections       the number of sections the blocks are spread over
+     * @param seed           the random seed
+     * @return the positions of all the generated blocks
+     */
+    public static List<Pos3> populate(CustomCropsWorld<?> world, int chunks, int blocksPerChunk, int sections, long seed) {
+        return populate(world, chunks, blocksPerChunk, sections, seed, BlockSource.SYNTHETIC);
+    }
+
+    /**
+     * Fills {@code chunks} chunks with blocks created by the given source
+     *
+     * @param world          the world
+     * @param chunks         the number of chunks
+     * @param blocksPerChunk the number of blocks in each chunk
+     * @param sections       the number of sections the blocks are spread over
+     * @param seed           the random seed
+     * @param source         the block source
+     * @return the positions of all the generated blocks
+     */
+    public static List<Pos3> populate(CustomCropsWorld<?> world, int chunks, int blocksPerChunk, int sections, long seed, BlockSource source) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int side = (int) Math.ceil(Math.sqrt(chunks));
+        List<Pos3> positions = new ArrayList<>(chunks * blocksPerChunk);
+        for (int i = 0; i < chunks; i++) {
+            ChunkPos chunkPos = ChunkPos.of(i % side, i / side);
+            positions.addAll(populateChunk(world, chunkPos, blocksPerChunk, sections, random, source));
+        }
+        return positions;
+    }
+
+    /**
+     * Fills a single chunk
+     *
+     * @param world          the world
+     * @param chunkPos       the chunk
+     * @param blocksPerChunk the number of blocks
+     * @param sections       the number of sections the blocks are spread over
+     * @param random         the random source for block data
+     * @return the positions of the generated blocks
+     */
+    public static List<Pos3> populateChunk(CustomCropsWorld<?> world, ChunkPos chunkPos, int blocksPerChunk, int sections, SplittableRandom random) {
+        return populateChunk(world, chunkPos, blocksPerChunk, sections, random, BlockSource.SYNTHETIC);
+    }
+
+    /**
+     * Fills a single chunk with blocks created by the given source
+     *
+     * @param world          the world
+     * @param chunkPos       the chunk
+     * @param blocksPerChunk the number of blocks
+     * @param sections       the number of sections the blocks are spread over
+     * @param random         the random source for block data
+     * @param source         the block source
+     * @return the positions of the generated blocks
+     */
+    public static List<Pos3> populateChunk(CustomCropsWorld<?> world, ChunkPos chunkPos, int blocksPerChunk, int sections, SplittableRandom random, BlockSource source) {
+        if (sections <= 0 || sections > 16) {
+            throw new IllegalArgumentException("sections should be between 1 and 16: " + sections);
+        }
+        int amount = Math.min(blocksPerChunk, sections * BLOCKS_PER_SECTION);
+        List<Pos3> positions = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            Pos3 pos3 = position(chunkPos, i, sections);
+            world.addBlockState(pos3, source.create(pos3, random));
+            positions.add(pos3);
+        }
+        return positions;
+    }
+
+    /**
+     * Gets the i-th position of a chunk. Odd multipliers are bijections modulo 4096,
+     * so positions are unique and scattered across the section.
+     */
+    public static Pos3 position(ChunkPos chunkPos, int index, int sections) {
+        int section = BASE_SECTION + index % sections;
+        int local = ((index / sections) * 1597) & (BLOCKS_PER_SECTION - 1);
+        int x = local & 15;
+        int z = (local >> 4) & 15;
+        int y = section * 16 + (local >> 8);
+        return new Pos3(chunkPos.x() * 16 + x, y, chunkPos.z() * 16 + z);
+    }
+
+    /**
+     * Creates a block state whose data looks like a growing crop
+     *
+     * @param random the random source
+     * @return the block state
+     */
+    public static CustomCropsBlockState randomState(SplittableRandom random) {
+        CompoundMap map = new CompoundMap();
+        map.put(new StringTag("key", CROP_IDS[random.nextInt(CROP_IDS.length)]));
+        map.put(new IntTag("point", random.nextInt(6)));
+        if (random.nextInt(4) == 0) {
+            map.put(new IntTag("tick", random.nextInt(3)));
+        }
+        return CustomCropsBlockState.create(SyntheticBlock.register(), map);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.simulator;
+
+import net.momirealms.customcrops.benchmarks.headless.BlockSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Command line options of the {@link TickSimulator}
+ *
+ * @param chunks          number of chunks to populate
+ * @param blocksPerChunk  blocks in each chunk
+ * @param sections        sections the blocks of a chunk are spread over
+ * @param seconds         simulated seconds that are measured
+ * @param warmup          simulated seconds that run before measuring
+ * @param minTickUnit     the scheduler cycle in seconds
+ * @param randomTickSpeed random ticks per section per second
+ * @param saveInterval    seconds between two world saves, 0 to only save at the end
+ * @param churn           chunks unloaded per second to imitate moving players
+ * @param seed            random seed
+ * @param source          the block source
+ */
+public record SimulationOptions(
+        int chunks,
+        int blocksPerChunk,
+        int sections,
+        int seconds,
+        int warmup,
+        int minTickUnit,
+        int randomTickSpeed,
+        int saveInterval,
+        int churn,
+        long seed,
+        BlockSource source
+) {
+
+    public static final String USAGE = """
+            Usage: TickSimulator [options]
+              --chunks <n>             chunks to populate (default 2500)
+              --blocks-per-chunk <n>   blocks in each chunk (default 64)
+              --sections <n>           sections per chunk, 1-16 (default 2)
+              --seconds <n>            measured simulated seconds (default 900)
+              --warmup <n>             simulated seconds before measuring (default 60)
+              --min-tick-unit <n>      scheduler cycle in seconds (default 300)
+              --random-tick-speed <n>  random ticks per section per second (default 0)
+              --save-interval <n>      seconds between saves, 0 to only save at the end (default 300)
+              --churn <n>              chunks unloaded per second (default 0)
+              --seed <n>               random seed (default 42)
+              --source <class>         a BlockSource implementation with a no-arg constructor
+            """;
+
+    public static SimulationOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            String key = arg.substring(2);
+            int split = key.indexOf('=');
+            if (split >= 0) {
+                values.put(key.substring(0, split), key.substring(split + 1));
+            } else if (key.equals("help")) {
+                values.put(key, "true");
+            } else if (i + 1 < args.length) {
+                values.put(key, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+        if (values.containsKey("help")) {
+            return null;
+        }
+        SimulationOptions options = new SimulationOptions(
+                intValue(values, "chunks", 2500),
+                intValue(values, "blocks-per-chunk", 64),
+                intValue(values, "sections", 2),
+                intValue(values, "seconds", 900),
+                intValue(values, "warmup", 60),
+                intValue(values, "min-tick-unit", 300),
+                intValue(values, "random-tick-speed", 0),
+                intValue(values, "save-interval", 300),
+                intValue(values, "churn", 0),
+                Long.parseLong(Objects.requireNonNullElse(values.remove("seed"), "42")),
+                source(values.remove("source"))
+        );
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        return options;
+    }
+
+    private static int intValue(Map<String, String> values, String key, int def) {
+        String value = values.remove(key);
+        return value == null ? def : Integer.parseInt(value);
+    }
+
+    private static BlockSource source(String className) {
+        if (className == null) {
+            return BlockSource.SYNTHETIC;
+        }
+        try {
+            return (BlockSource) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Failed to create block source " + className, e);
+        }
+    }
+}
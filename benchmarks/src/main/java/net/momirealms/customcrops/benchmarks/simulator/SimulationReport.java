@@ -0,0 +1,102 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.simulator;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Results of a {@link TickSimulator} run
+ *
+ * @param options         the options of the run
+ * @param populateNanos   time spent placing the blocks
+ * @param tickNanos       duration of every measured second
+ * @param tickBytes       bytes allocated by the ticking thread in every measured second
+ * @param saveNanos       duration of every world save, including the final one
+ * @param storedBytes     size of all region files after the last save
+ * @param gcCount         garbage collections during the measured seconds
+ * @param gcMillis        time spent in garbage collection during the measured seconds
+ * @param scheduledTicks  scheduled block ticks
+ * @param randomTicks     random block ticks
+ * @param modelSwaps      models placed through the item manager
+ * @param syncTasks       tasks run through the sync scheduler
+ */
+public record SimulationReport(
+        SimulationOptions options,
+        long populateNanos,
+        long[] tickNanos,
+        long[] tickBytes,
+        long[] saveNanos,
+        long storedBytes,
+        long gcCount,
+        long gcMillis,
+        long scheduledTicks,
+        long randomTicks,
+        long modelSwaps,
+        long syncTasks
+) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+    public void print(PrintStream out) {
+        long[] ticks = tickNanos.clone();
+        Arrays.sort(ticks);
+        long totalBytes = Arrays.stream(tickBytes).sum();
+        long totalTickNanos = Arrays.stream(tickNanos).sum();
+        int seconds = tickNanos.length;
+
+        out.printf(Locale.ROOT, "Farm: %d chunks x %d blocks (%d sections), min-tick-unit %ds, random-tick-speed %d, churn %d/s%n",
+                options.chunks(), options.blocksPerChunk(), options.sections(), options.minTickUnit(), options.randomTickSpeed(), options.churn());
+        out.printf(Locale.ROOT, "Populated in %.1f ms, simulated %d seconds after %d seconds of warmup%n",
+                populateNanos / 1e6, seconds, options.warmup());
+        out.println();
+        out.println("Tick time per simulated second (ms)");
+        for (double p : PERCENTILES) {
+            out.printf(Locale.ROOT, "  %-6s %10.3f%n", p == 100 ? "max" : "p" + formatPercentile(p), percentile(ticks, p) / 1e6);
+        }
+        out.printf(Locale.ROOT, "  %-6s %10.3f%n", "mean", seconds == 0 ? 0 : totalTickNanos / 1e6 / seconds);
+        out.println();
+        out.println("Allocation");
+        out.printf(Locale.ROOT, "  %.2f MB per simulated second%n", seconds == 0 ? 0 : totalBytes / 1048576.0 / seconds);
+        out.printf(Locale.ROOT, "  %.2f MB per second of tick time%n", totalTickNanos == 0 ? 0 : totalBytes / 1048576.0 / (totalTickNanos / 1e9));
+        out.printf(Locale.ROOT, "  %d collections, %d ms in GC%n", gcCount, gcMillis);
+        out.println();
+        out.println("Saves");
+        if (saveNanos.length > 0) {
+            long[] saves = saveNanos.clone();
+            Arrays.sort(saves);
+            out.printf(Locale.ROOT, "  %d saves, min %.1f ms, mean %.1f ms, max %.1f ms%n",
+                    saves.length, saves[0] / 1e6, Arrays.stream(saves).average().orElse(0) / 1e6, saves[saves.length - 1] / 1e6);
+        }
+        out.printf(Locale.ROOT, "  %.2f MB stored%n", storedBytes / 1048576.0);
+        out.println();
+        out.printf(Locale.ROOT, "Block ticks: %d scheduled, %d random, %d model swaps, %d sync tasks%n",
+                scheduledTicks, randomTicks, modelSwaps, syncTasks);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String formatPercentile(double p) {
+        return p == Math.rint(p) ? String.valueOf((int) p) : String.valueOf(p);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.benchmarks.simulator;
+
+import net.momirealms.customcrops.api.core.world.ChunkPos;
+import net.momirealms.customcrops.api.core.world.CustomCropsChunk;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
+import net.momirealms.customcrops.api.core.world.CustomCropsWorldImpl;
+import net.momirealms.customcrops.benchmarks.headless.*;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Drives a {@link CustomCropsWorldImpl} second by second on the calling thread, the same
+ * way the world scheduler would, and reports how long each second took.
+ * <p>
+ * Run it with {@code ./gradlew :benchmarks:simulate -Psim.args="--chunks 50000 --blocks-per-chunk 20"}.
+ */
+public class TickSimulator {
+
+    private static final String WORLD_NAME = "simulation";
+    private static final int TICKS_PER_SECOND = 20;
+    // lazy chunks are written to their region after 30 seconds, revisit them after that
+    private static final int REVISIT_DELAY = 45;
+
+    private final SimulationOptions options;
+    private final HeadlessPlugin plugin;
+    private final InMemoryWorldAdaptor adaptor;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final SplittableRandom random;
+
+    public TickSimulator(SimulationOptions options) {
+        this.options = options;
+        this.plugin = HeadlessPlugin.bootstrap();
+        this.adaptor = new InMemoryWorldAdaptor();
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.random = new SplittableRandom(options.seed());
+    }
+
+    public static void main(String[] args) {
+        SimulationOptions options;
+        try {
+            options = SimulationOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(SimulationOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+        if (options == null) {
+            System.out.println(SimulationOptions.USAGE);
+            return;
+        }
+        new TickSimulator(options).run().print(System.out);
+        System.exit(0);
+    }
+
+    public SimulationReport run() {
+        CustomCropsWorld<String> world = adaptor.createWorld(WORLD_NAME, SyntheticFarm.setting(options.minTickUnit(), options.randomTickSpeed()));
+        CustomCropsWorldImpl<String> worldImpl = (CustomCropsWorldImpl<String>) world;
+        HeadlessServer.HeadlessWorldHandle handle = HeadlessServer.world(WORLD_NAME);
+        SyntheticBlock block = SyntheticBlock.register();
+
+        long populateStart = System.nanoTime();
+        SyntheticFarm.populate(world, options.chunks(), options.blocksPerChunk(), options.sections(), options.seed(), options.source());
+        long populateNanos = System.nanoTime() - populateStart;
+
+        List<ChunkPos> loaded = new ArrayList<>(options.chunks());
+        for (CustomCropsChunk chunk : world.loadedChunks()) {
+            loaded.add(chunk.chunkPos());
+        }
+        ArrayDeque<Unloaded> unloaded = new ArrayDeque<>();
+
+        long[] tickNanos = new long[options.seconds()];
+        long[] tickBytes = new long[options.seconds()];
+        List<Long> saveNanos = new ArrayList<>();
+        long gcCountBefore = 0, gcTimeBefore = 0, placementsBefore = 0, syncTasksBefore = 0;
+
+        int total = options.warmup() + options.seconds();
+        for (int second = 0; second < total; second++) {
+            boolean measuring = second >= options.warmup();
+            if (second == options.warmup()) {
+                block.resetCounters();
+                gcCountBefore = gcCount();
+                gcTimeBefore = gcTime();
+                placementsBefore = plugin.getItemManager().placements();
+                syncTasksBefore = plugin.getScheduler().executedSyncTasks();
+            }
+            churn(world, loaded, unloaded, second);
+
+            long bytesBefore = threadBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            worldImpl.timer();
+            plugin.getScheduler().advance(TICKS_PER_SECOND);
+            long elapsed = System.nanoTime() - start;
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+            handle.fullTime().addAndGet(TICKS_PER_SECOND);
+
+            if (measuring) {
+                int index = second - options.warmup();
+                tickNanos[index] = elapsed;
+                tickBytes[index] = allocated;
+                if (options.saveInterval() > 0 && (index + 1) % options.saveInterval() == 0) {
+                    saveNanos.add(save(world));
+                }
+            }
+        }
+        saveNanos.add(save(world));
+
+        SimulationReport report = new SimulationReport(
+                options,
+                populateNanos,
+                tickNanos,
+                tickBytes,
+                saveNanos.stream().mapToLong(Long::longValue).toArray(),
+                adaptor.storedBytes(world),
+                gcCount() - gcCountBefore,
+                gcTime() - gcTimeBefore,
+                block.scheduledTicks(),
+                block.randomTicks(),
+                plugin.getItemManager().placements() - placementsBefore,
+                plugin.getScheduler().executedSyncTasks() - syncTasksBefore
+        );
+        world.scheduler().shutdownScheduler();
+        world.scheduler().shutdownExecutor();
+        return report;
+    }
+
+    private long save(CustomCropsWorld<String> world) {
+        long start = System.nanoTime();
+        world.save(false, true);
+        return System.nanoTime() - start;
+    }
+
+    // Imitates players walking around: some chunks go lazy and older ones are loaded again
+    private void churn(CustomCropsWorld<String> world, List<ChunkPos> loaded, ArrayDeque<Unloaded> unloaded, int second) {
+        if (options.churn() <= 0) return;
+        while (!unloaded.isEmpty() && second - unloaded.peek().second() >= REVISIT_DELAY) {
+            ChunkPos pos = unloaded.poll().pos();
+            CustomCropsChunk chunk = world.getOrCreateChunk(pos);
+            chunk.load(false);
+            chunk.notifyOfflineTask();
+            loaded.add(pos);
+        }
+        for (int i = 0; i < options.churn() && !loaded.isEmpty(); i++) {
+            int index = random.nextInt(loaded.size());
+            ChunkPos pos = loaded.get(index);
+            loaded.set(index, loaded.get(loaded.size() - 1));
+            loaded.remove(loaded.size() - 1);
+            world.getLoadedChunk(pos).ifPresent(chunk -> chunk.unload(true));
+            unloaded.add(new Unloaded(pos, second));
+        }
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+
+    private record Unloaded(ChunkPos pos, int second) {
+    }
+}
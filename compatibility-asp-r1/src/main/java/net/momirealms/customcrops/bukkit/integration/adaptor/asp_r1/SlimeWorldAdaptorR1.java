@@ -21,14 +21,9 @@ import com.flowpowered.nbt.*;
 import com.infernalsuite.aswm.api.events.LoadSlimeWorldEvent;
 import com.infernalsuite.aswm.api.world.SlimeWorld;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
-import net.momirealms.customcrops.api.core.InternalRegistries;
-import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import net.momirealms.customcrops.api.core.world.*;
 import net.momirealms.customcrops.api.core.world.adaptor.AbstractWorldAdaptor;
-import net.momirealms.customcrops.api.util.StringUtils;
-import net.momirealms.customcrops.api.util.TagUtils;
 import net.momirealms.customcrops.common.helper.GsonHelper;
-import net.momirealms.customcrops.common.util.Key;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.event.EventHandler;
@@ -36,12 +31,11 @@ import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.lang.reflect.Method;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.function.Function;
 
 public class SlimeWorldAdaptorR1 extends AbstractWorldAdaptor<SlimeWorld> implements Listener {
@@ -137,11 +131,22 @@ public class SlimeWorldAdaptorR1 extends AbstractWorldAdaptor<SlimeWorld> implem
         if (chunkTag == null) {
             return createIfNotExists ? world.createChunk(pos) : null;
         }
-        Optional<CompoundTag> chunkCompoundTag = chunkTag.getAsCompoundTag();
-        if (chunkCompoundTag.isEmpty()) {
-            return createIfNotExists ? world.createChunk(pos) : null;
+        CustomCropsChunk chunk;
+        if (chunkTag instanceof ByteArrayTag byteArrayTag) {
+            try (DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(byteArrayTag.getValue()))) {
+                chunk = deserializeChunk(world, dataStream);
+            } catch (IOException e) {
+                BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("[" + world.worldName() + "] Failed to load CustomCrops data at " + pos, e);
+                return createIfNotExists ? world.createChunk(pos) : null;
+            }
+        } else {
+            // chunks saved by older versions keep the NBT tree until they are saved again
+            Optional<CompoundTag> chunkCompoundTag = chunkTag.getAsCompoundTag();
+            if (chunkCompoundTag.isEmpty()) {
+                return createIfNotExists ? world.createChunk(pos) : null;
+            }
+            chunk = tagToChunk(world, chunkCompoundTag.get());
         }
-        CustomCropsChunk chunk = tagToChunk(world, chunkCompoundTag.get());
         long time2 = System.currentTimeMillis();
         BukkitCustomCropsPlugin.getInstance().debug(() -> "Took " + (time2-time1) + "ms to load chunk " + pos);
         return chunk;
@@ -154,11 +159,14 @@ public class SlimeWorldAdaptorR1 extends AbstractWorldAdaptor<SlimeWorld> implem
     public void saveChunk(CustomCropsWorld<SlimeWorld> world, CustomCropsChunk chunk) {
         CompoundMap ccDataMap = createOrGetDataMap(world.world());
         SerializableChunk serializableChunk = toSerializableChunk(chunk);
+        String key = chunk.chunkPos().asString();
+        // encode on the calling thread, only the map update has to happen on the main thread
+        ByteArrayTag chunkTag = serializableChunk.canPrune() ? null : new ByteArrayTag(key, serializeChunk(serializableChunk));
         Runnable runnable = () -> {
-            if (serializableChunk.canPrune()) {
-                ccDataMap.remove(chunk.chunkPos().asString());
+            if (chunkTag == null) {
+                ccDataMap.remove(key);
             } else {
-                ccDataMap.put(chunkToTag(serializableChunk));
+                ccDataMap.put(chunkTag);
             }
         };
         if (Bukkit.isPrimaryThread()) {
@@ -177,79 +185,4 @@ public class SlimeWorldAdaptorR1 extends AbstractWorldAdaptor<SlimeWorld> implem
     public int priority() {
         return SLIME_WORLD_PRIORITY;
     }
-
-    private CompoundTag chunkToTag(SerializableChunk serializableChunk) {
-        CompoundMap map = new CompoundMap();
-        map.put(new IntTag("x", serializableChunk.x()));
-        map.put(new IntTag("z", serializableChunk.z()));
-        map.put(new IntTag("version", CHUNK_VERSION));
-        map.put(new IntTag("loadedSeconds", serializableChunk.loadedSeconds()));
-        map.put(new LongTag("lastLoadedTime", serializableChunk.lastLoadedTime()));
-        map.put(new IntArrayTag("queued", serializableChunk.queuedTasks()));
-        map.put(new IntArrayTag("ticked", serializableChunk.ticked()));
-        CompoundMap sectionMap = new CompoundMap();
-        for (SerializableSection section : serializableChunk.sections()) {
-            sectionMap.put(new ListTag<>(String.valueOf(section.sectionID()), TagType.TAG_COMPOUND, section.blocks()));
-        }
-        map.put(new CompoundTag("sections", sectionMap));
-        return new CompoundTag(serializableChunk.x() + "," + serializableChunk.z(), map);
-    }
-
-    @SuppressWarnings("all")
-    private CustomCropsChunk tagToChunk(CustomCropsWorld<SlimeWorld> world, CompoundTag tag) {
-        CompoundMap map = tag.getValue();
-        IntTag version = (IntTag) map.getOrDefault("version", new IntTag("version", 1));
-        int versionNumber = version.getValue();
-        Function<String, Key> keyFunction = versionNumber < 2 ?
-                (s) -> {
-                    return Key.key("customcrops", StringUtils.toLowerCase(s));
-                } : s -> {
-            return Key.key(s);
-        };
-        int x = (int) map.get("x").getValue();
-        int z = (int) map.get("z").getValue();
-
-        ChunkPos coordinate = new ChunkPos(x, z);
-        int loadedSeconds = (int) map.get("loadedSeconds").getValue();
-        long lastLoadedTime = (long) map.get("lastLoadedTime").getValue();
-        int[] queued = (int[]) map.get("queued").getValue();
-        int[] ticked = (int[]) map.get("ticked").getValue();
-
-        PriorityBlockingQueue<DelayedTickTask> queue = new PriorityBlockingQueue<>(Math.max(11, queued.length / 2));
-        for (int i = 0, size = queued.length / 2; i < size; i++) {
-            BlockPos pos = new BlockPos(queued[2*i+1]);
-            queue.add(new DelayedTickTask(queued[2*i], pos));
-        }
-
-        HashSet<BlockPos> tickedSet = new HashSet<>(Math.max(11, ticked.length));
-        for (int tick : ticked) {
-            tickedSet.add(new BlockPos(tick));
-        }
-
-        ConcurrentHashMap<Integer, CustomCropsSection> sectionMap = new ConcurrentHashMap<>();
-        CompoundMap sectionCompoundMap = (CompoundMap) map.get("sections").getValue();
-        for (Map.Entry<String, Tag<?>> entry : sectionCompoundMap.entrySet()) {
-            if (entry.getValue() instanceof ListTag<?> listTag) {
-                int id = Integer.parseInt(entry.getKey());
-                ConcurrentHashMap<BlockPos, CustomCropsBlockState> blockMap = new ConcurrentHashMap<>();
-                ListTag<CompoundTag> blocks = (ListTag<CompoundTag>) listTag;
-                for (CompoundTag blockTag : blocks.getValue()) {
-                    CompoundMap block = blockTag.getValue();
-                    CompoundMap data = (CompoundMap) block.get("data").getValue();
-                    Key key = keyFunction.apply((String) block.get("type").getValue());
-                    CustomCropsBlock customBlock = InternalRegistries.BLOCK.get(key);
-                    if (customBlock == null) {
-                        BukkitCustomCropsPlugin.getInstance().getInstance().getPluginLogger().warn("[" + world.worldName() + "] Unrecognized custom block " + key + " has been removed from chunk " + ChunkPos.of(x, z));
-                        continue;
-                    }
-                    for (int pos : (int[]) block.get("pos").getValue()) {
-                        BlockPos blockPos = new BlockPos(pos);
-                        blockMap.put(blockPos, CustomCropsBlockState.create(customBlock, TagUtils.deepClone(data)));
-                    }
-                }
-                sectionMap.put(id, CustomCropsSection.restore(id, blockMap));
-            }
-        }
-        return world.restoreChunk(coordinate, loadedSeconds, lastLoadedTime, sectionMap, queue, tickedSet);
-    }
 }
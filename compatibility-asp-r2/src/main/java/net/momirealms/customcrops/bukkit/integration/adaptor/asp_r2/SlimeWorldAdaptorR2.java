@@ -25,14 +25,9 @@ import com.infernalsuite.asp.api.events.LoadSlimeWorldEvent;
 import com.infernalsuite.asp.api.world.SlimeChunk;
 import com.infernalsuite.asp.api.world.SlimeWorld;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
-import net.momirealms.customcrops.api.core.InternalRegistries;
-import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import net.momirealms.customcrops.api.core.world.*;
 import net.momirealms.customcrops.api.core.world.adaptor.AbstractWorldAdaptor;
-import net.momirealms.customcrops.api.util.StringUtils;
-import net.momirealms.customcrops.api.util.TagUtils;
 import net.momirealms.customcrops.common.helper.GsonHelper;
-import net.momirealms.customcrops.common.util.Key;
 import net.momirealms.customcrops.common.util.ReflectionUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -42,37 +37,45 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.nio.ByteOrder;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.PriorityBlockingQueue;
-import java.util.function.Function;
 
 public class SlimeWorldAdaptorR2 extends AbstractWorldAdaptor<SlimeWorld> implements Listener {
+    private static final String CHUNK_DATA = "customcrops-chunk";
+    private static final String LEGACY_CHUNK_DATA = "customcrops-data";
     private final Class<?> byteArrayTagClass = ReflectionUtils.getClazz("net{}kyori{}adventure{}nbt{}ByteArrayBinaryTag".replace("{}", "."));
-    private final Method method$ByteArrayBinaryTag$byteArrayBinaryTag = ReflectionUtils.getStaticMethod(byteArrayTagClass, byteArrayTagClass, byte.class.arrayType());
-    private final Method method$ByteArrayBinaryTag$value = ReflectionUtils.getMethod(byteArrayTagClass, byte.class.arrayType());
+    private final MethodHandle methodHandle$ByteArrayBinaryTag$byteArrayBinaryTag;
+    private final MethodHandle methodHandle$ByteArrayBinaryTag$value;
 
     public SlimeWorldAdaptorR2() {
+        try {
+            this.methodHandle$ByteArrayBinaryTag$byteArrayBinaryTag = ReflectionUtils.unreflectMethod(ReflectionUtils.getStaticMethod(byteArrayTagClass, byteArrayTagClass, byte.class.arrayType()))
+                    .asType(MethodType.methodType(Object.class, byte[].class));
+            this.methodHandle$ByteArrayBinaryTag$value = ReflectionUtils.unreflectMethod(ReflectionUtils.getMethod(byteArrayTagClass, byte.class.arrayType()))
+                    .asType(MethodType.methodType(byte[].class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to init ByteArrayBinaryTag method handles", e);
+        }
     }
 
     public byte[] byteArrayTagToBytes(Object byteArrayTag) {
         try {
-            return (byte[]) method$ByteArrayBinaryTag$value.invoke(byteArrayTag);
-        } catch (ReflectiveOperationException e) {
+            return (byte[]) methodHandle$ByteArrayBinaryTag$value.invokeExact(byteArrayTag);
+        } catch (Throwable e) {
             throw new RuntimeException("Failed to convert byte array tag to byte[]", e);
         }
     }
 
     public Object bytesToByteArrayTag(byte[] bytes) {
         try {
-            return method$ByteArrayBinaryTag$byteArrayBinaryTag.invoke(null, (Object) bytes);
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException("Failed to convert byte array tag to byte[]", e);
+            return methodHandle$ByteArrayBinaryTag$byteArrayBinaryTag.invokeExact(bytes);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to convert byte[] to byte array tag", e);
         }
     }
 
@@ -145,20 +148,29 @@ public class SlimeWorldAdaptorR2 extends AbstractWorldAdaptor<SlimeWorld> implem
         if (slimeChunk == null) {
             return createIfNotExists ? world.createChunk(pos) : null;
         }
-        Object extraTag = slimeChunk.getExtraData().get("customcrops-data");
-        CompoundTag chunkTag = null;
+        CustomCropsChunk chunk = null;
+        Object extraTag = slimeChunk.getExtraData().get(CHUNK_DATA);
         if (extraTag != null) {
-            try {
-                NBTInputStream nbtInputStream = new NBTInputStream(new ByteArrayInputStream(byteArrayTagToBytes(extraTag)), 0, ByteOrder.BIG_ENDIAN);
-                chunkTag = ((CompoundTag) nbtInputStream.readTag());
+            try (DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(byteArrayTagToBytes(extraTag)))) {
+                chunk = deserializeChunk(world, dataStream);
             } catch (IOException e) {
                 BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("Failed to read extra data from custom crops tag", e);
             }
+        } else {
+            // chunks saved by older versions keep the NBT tree until they are saved again
+            Object legacyTag = slimeChunk.getExtraData().get(LEGACY_CHUNK_DATA);
+            if (legacyTag != null) {
+                try {
+                    NBTInputStream nbtInputStream = new NBTInputStream(new ByteArrayInputStream(byteArrayTagToBytes(legacyTag)), 0, ByteOrder.BIG_ENDIAN);
+                    chunk = tagToChunk(world, (CompoundTag) nbtInputStream.readTag());
+                } catch (IOException e) {
+                    BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("Failed to read extra data from custom crops tag", e);
+                }
+            }
         }
-        if (chunkTag == null) {
+        if (chunk == null) {
             return createIfNotExists ? world.createChunk(pos) : null;
         }
-        CustomCropsChunk chunk = tagToChunk(world, chunkTag);
         long time2 = System.currentTimeMillis();
         BukkitCustomCropsPlugin.getInstance().debug(() -> "Took " + (time2-time1) + "ms to load chunk " + pos);
         return chunk;
@@ -177,22 +189,14 @@ public class SlimeWorldAdaptorR2 extends AbstractWorldAdaptor<SlimeWorld> implem
         }
         Map<String, Object> data = (Map) slimeChunk.getExtraData();
         SerializableChunk serializableChunk = toSerializableChunk(chunk);
+        // encode on the calling thread, only the map update has to happen on the main thread
+        Object chunkTag = serializableChunk.canPrune() ? null : bytesToByteArrayTag(serializeChunk(serializableChunk));
         Runnable runnable = () -> {
-            if (serializableChunk.canPrune()) {
-                data.remove("customcrops-data");
+            data.remove(LEGACY_CHUNK_DATA);
+            if (chunkTag == null) {
+                data.remove(CHUNK_DATA);
             } else {
-                CompoundTag chunkTag = chunkToTag(serializableChunk);
-                byte[] bytes;
-                try {
-                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                    NBTOutputStream nbtOutputStream = new NBTOutputStream(baos, 0, ByteOrder.BIG_ENDIAN);
-                    nbtOutputStream.writeTag(chunkTag);
-                    bytes = baos.toByteArray();
-                    nbtOutputStream.close();
-                    data.put("customcrops-data", bytesToByteArrayTag(bytes));
-                } catch (IOException e) {
-                    BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("Failed to save chunk " + chunk.chunkPos() + " on world " + world.worldName(), e);
-                }
+                data.put(CHUNK_DATA, chunkTag);
             }
         };
         if (Bukkit.isPrimaryThread()) {
@@ -211,79 +215,4 @@ public class SlimeWorldAdaptorR2 extends AbstractWorldAdaptor<SlimeWorld> implem
     public int priority() {
         return SLIME_WORLD_PRIORITY;
     }
-
-    private CompoundTag chunkToTag(SerializableChunk serializableChunk) {
-        CompoundMap map = new CompoundMap();
-        map.put(new IntTag("x", serializableChunk.x()));
-        map.put(new IntTag("z", serializableChunk.z()));
-        map.put(new IntTag("version", CHUNK_VERSION));
-        map.put(new IntTag("loadedSeconds", serializableChunk.loadedSeconds()));
-        map.put(new LongTag("lastLoadedTime", serializableChunk.lastLoadedTime()));
-        map.put(new IntArrayTag("queued", serializableChunk.queuedTasks()));
-        map.put(new IntArrayTag("ticked", serializableChunk.ticked()));
-        CompoundMap sectionMap = new CompoundMap();
-        for (SerializableSection section : serializableChunk.sections()) {
-            sectionMap.put(new ListTag<>(String.valueOf(section.sectionID()), TagType.TAG_COMPOUND, section.blocks()));
-        }
-        map.put(new CompoundTag("sections", sectionMap));
-        return new CompoundTag(serializableChunk.x() + "," + serializableChunk.z(), map);
-    }
-
-    @SuppressWarnings("all")
-    private CustomCropsChunk tagToChunk(CustomCropsWorld<SlimeWorld> world, CompoundTag tag) {
-        CompoundMap map = tag.getValue();
-        IntTag version = (IntTag) map.getOrDefault("version", new IntTag("version", 1));
-        int versionNumber = version.getValue();
-        Function<String, Key> keyFunction = versionNumber < 2 ?
-                (s) -> {
-                    return Key.key("customcrops", StringUtils.toLowerCase(s));
-                } : s -> {
-            return Key.key(s);
-        };
-        int x = (int) map.get("x").getValue();
-        int z = (int) map.get("z").getValue();
-
-        ChunkPos coordinate = new ChunkPos(x, z);
-        int loadedSeconds = (int) map.get("loadedSeconds").getValue();
-        long lastLoadedTime = (long) map.get("lastLoadedTime").getValue();
-        int[] queued = (int[]) map.get("queued").getValue();
-        int[] ticked = (int[]) map.get("ticked").getValue();
-
-        PriorityBlockingQueue<DelayedTickTask> queue = new PriorityBlockingQueue<>(Math.max(11, queued.length / 2));
-        for (int i = 0, size = queued.length / 2; i < size; i++) {
-            BlockPos pos = new BlockPos(queued[2*i+1]);
-            queue.add(new DelayedTickTask(queued[2*i], pos));
-        }
-
-        HashSet<BlockPos> tickedSet = new HashSet<>(Math.max(11, ticked.length));
-        for (int tick : ticked) {
-            tickedSet.add(new BlockPos(tick));
-        }
-
-        ConcurrentHashMap<Integer, CustomCropsSection> sectionMap = new ConcurrentHashMap<>();
-        CompoundMap sectionCompoundMap = (CompoundMap) map.get("sections").getValue();
-        for (Map.Entry<String, Tag<?>> entry : sectionCompoundMap.entrySet()) {
-            if (entry.getValue() instanceof ListTag<?> listTag) {
-                int id = Integer.parseInt(entry.getKey());
-                ConcurrentHashMap<BlockPos, CustomCropsBlockState> blockMap = new ConcurrentHashMap<>();
-                ListTag<CompoundTag> blocks = (ListTag<CompoundTag>) listTag;
-                for (CompoundTag blockTag : blocks.getValue()) {
-                    CompoundMap block = blockTag.getValue();
-                    CompoundMap data = (CompoundMap) block.get("data").getValue();
-                    Key key = keyFunction.apply((String) block.get("type").getValue());
-                    CustomCropsBlock customBlock = InternalRegistries.BLOCK.get(key);
-                    if (customBlock == null) {
-                        BukkitCustomCropsPlugin.getInstance().getInstance().getPluginLogger().warn("[" + world.worldName() + "] Unrecognized custom block " + key + " has been removed from chunk " + ChunkPos.of(x, z));
-                        continue;
-                    }
-                    for (int pos : (int[]) block.get("pos").getValue()) {
-                        BlockPos blockPos = new BlockPos(pos);
-                        blockMap.put(blockPos, CustomCropsBlockState.create(customBlock, TagUtils.deepClone(data)));
-                    }
-                }
-                sectionMap.put(id, CustomCropsSection.restore(id, blockMap));
-            }
-        }
-        return world.restoreChunk(coordinate, loadedSeconds, lastLoadedTime, sectionMap, queue, tickedSet);
-    }
 }
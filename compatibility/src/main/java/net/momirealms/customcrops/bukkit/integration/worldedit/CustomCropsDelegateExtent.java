@@ -28,16 +28,22 @@ import com.sk89q.worldedit.world.block.BlockStateHolder;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.core.InternalRegistries;
 import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
+import net.momirealms.customcrops.api.core.world.ChunkPos;
 import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
 import net.momirealms.customcrops.api.core.world.CustomCropsWorld;
 import net.momirealms.customcrops.api.core.world.Pos3;
 import net.momirealms.customcrops.common.util.Key;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CustomCropsDelegateExtent extends AbstractDelegateExtent {
 
     private CustomCropsWorld<?> world = null;
+    // the positions of the tracked blocks in each chunk this edit has touched
+    private final Map<ChunkPos, Set<Pos3>> trackedBlocks = new ConcurrentHashMap<>();
 
     protected CustomCropsDelegateExtent(EditSessionEvent editSessionEvent) {
         super(editSessionEvent.getExtent());
@@ -52,7 +58,13 @@ public class CustomCropsDelegateExtent extends AbstractDelegateExtent {
         if (world != null) {
             BaseBlock baseBlock = block.toBaseBlock();
             Pos3 pos3 = new Pos3(location.getBlockX(), location.getBlockY(), location.getBlockZ());
-            world.removeBlockState(pos3);
+            Set<Pos3> tracked = trackedBlocks(pos3.toChunkPos());
+            // most of the edited blocks have no data, so skip the lookup that would load the chunk.
+            // the snapshot can be stale on long edits, so the loaded chunk is checked as well
+            boolean wasTracked = tracked.remove(pos3);
+            if (wasTracked || world.getLoadedBlockState(pos3).isPresent()) {
+                world.removeBlockState(pos3);
+            }
             CompoundTag tag = baseBlock.getNbtData();
             if (tag != null) {
                 String type = tag.getString("cc_type");
@@ -64,6 +76,7 @@ public class CustomCropsDelegateExtent extends AbstractDelegateExtent {
                         if (bytes != null) {
                             CustomCropsBlockState state = CustomCropsBlockState.create(customCropsBlock, bytes);
                             world.addBlockState(pos3, state);
+                            tracked.add(pos3);
                         }
                     }
                 }
@@ -71,4 +84,19 @@ public class CustomCropsDelegateExtent extends AbstractDelegateExtent {
         }
         return super.setBlock(location, block);
     }
+
+    private Set<Pos3> trackedBlocks(ChunkPos chunkPos) {
+        return trackedBlocks.computeIfAbsent(chunkPos, pos -> {
+            Set<Pos3> positions = ConcurrentHashMap.newKeySet();
+            int minX = pos.x() * 16;
+            int minZ = pos.z() * 16;
+            world.forEachBlockInBox(
+                    new Pos3(minX, Integer.MIN_VALUE / 2, minZ),
+                    new Pos3(minX + 15, Integer.MAX_VALUE / 2, minZ + 15),
+                    state -> true,
+                    (blockPos, state) -> positions.add(blockPos)
+            );
+            return positions;
+        });
+    }
 }
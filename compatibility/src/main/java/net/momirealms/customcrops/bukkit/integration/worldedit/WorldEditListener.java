@@ -123,27 +123,10 @@ public class WorldEditListener implements Reloadable, Listener {
         if (optionalWorld.isEmpty()) {
             return;
         }
-        CustomCropsWorld<?> customWorld = optionalWorld.get();
-
-        HashMap<BlockVector3, CustomCropsBlockState> tempMap = new HashMap<>();
-
-        BlockVector3 maxPoint = region.getMaximumPoint();
-        BlockVector3 minPoint = region.getMinimumPoint();
-        int minX = Math.min(minPoint.getBlockX(), maxPoint.getBlockX());
-        int minY = Math.min(minPoint.getBlockY(), maxPoint.getBlockY());
-        int minZ = Math.min(minPoint.getBlockZ(), maxPoint.getBlockZ());
-        int maxX = Math.max(maxPoint.getBlockX(), minPoint.getBlockX());
-        int maxY = Math.max(maxPoint.getBlockY(), minPoint.getBlockY());
-        int maxZ = Math.max(maxPoint.getBlockZ(), minPoint.getBlockZ());
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    Pos3 pos3 = new Pos3(x, y, z);
-                    BlockVector3 vector3 = BlockVector3.at(x, y, z);
-                    Optional<CustomCropsBlockState> optionalState = customWorld.getBlockState(pos3);
-                    optionalState.ifPresent(customCropsBlockState -> tempMap.put(vector3, customCropsBlockState));
-                }
-            }
+        // capture the blocks before they are cut
+        Map<BlockVector3, CustomCropsBlockState> blocks = collectBlocks(optionalWorld.get(), region);
+        if (blocks.isEmpty()) {
+            return;
         }
 
         BukkitCustomCropsPlugin.getInstance().getScheduler().sync().runLater(() -> {
@@ -153,34 +136,7 @@ public class WorldEditListener implements Reloadable, Listener {
             } catch (EmptyClipboardException e) {
                 return;
             }
-            Clipboard clipboard = holder.getClipboard();
-            for (Map.Entry<BlockVector3, CustomCropsBlockState> entry : tempMap.entrySet()) {
-                BaseBlock baseBlock = clipboard.getFullBlock(entry.getKey());
-                CustomCropsBlockState state = entry.getValue();
-                CompoundTag tag = baseBlock.getNbtData();
-                if (tag != null) {
-                    Map<String, Tag> map = tag.getValue();
-                    map.put("cc_type", new StringTag(state.type().type().asString()));
-                    map.put("cc_data", new ByteArrayTag(state.getNBTDataAsBytes()));
-                } else {
-                    try {
-                        clipboard.setBlock(entry.getKey(), (BaseBlock) baseBlockConstructor.newInstance(
-                                baseBlock.toImmutableState(),
-                                new CompoundTag(
-                                        new HashMap<>(
-                                                Map.of(
-                                                        "cc_type", new StringTag(state.type().type().asString()),
-                                                        "cc_data", new ByteArrayTag(state.getNBTDataAsBytes())
-                                                )
-                                        )
-                                )
-                        ));
-                    } catch (WorldEditException | InvocationTargetException |
-                             InstantiationException | IllegalAccessException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            }
+            writeToClipboard(holder.getClipboard(), blocks);
         }, 1, player.getLocation());
     }
 
@@ -201,53 +157,56 @@ public class WorldEditListener implements Reloadable, Listener {
         if (world == null) return;
 
         BukkitCustomCropsPlugin.getInstance().getWorldManager().getWorld(world.getName())
-                .ifPresent(customWorld -> {
-                    BukkitCustomCropsPlugin.getInstance().getScheduler().async().execute(() -> {
-                        BlockVector3 maxPoint = region.getMaximumPoint();
-                        BlockVector3 minPoint = region.getMinimumPoint();
-                        int minX = Math.min(minPoint.getBlockX(), maxPoint.getBlockX());
-                        int minY = Math.min(minPoint.getBlockY(), maxPoint.getBlockY());
-                        int minZ = Math.min(minPoint.getBlockZ(), maxPoint.getBlockZ());
-                        int maxX = Math.max(maxPoint.getBlockX(), minPoint.getBlockX());
-                        int maxY = Math.max(maxPoint.getBlockY(), minPoint.getBlockY());
-                        int maxZ = Math.max(maxPoint.getBlockZ(), minPoint.getBlockZ());
-                        for (int x = minX; x <= maxX; x++) {
-                            for (int y = minY; y <= maxY; y++) {
-                                for (int z = minZ; z <= maxZ; z++) {
-                                    Pos3 pos3 = new Pos3(x, y, z);
-                                    BlockVector3 vector3 = BlockVector3.at(x, y, z);
-                                    Optional<CustomCropsBlockState> optionalState = customWorld.getBlockState(pos3);
-                                    if (optionalState.isPresent()) {
-                                        BaseBlock baseBlock = clipboard.getFullBlock(vector3);
-                                        CustomCropsBlockState state = optionalState.get();
-                                        CompoundTag tag = baseBlock.getNbtData();
-                                        if (tag != null) {
-                                            Map<String, Tag> map = tag.getValue();
-                                            map.put("cc_type", new StringTag(state.type().type().asString()));
-                                            map.put("cc_data", new ByteArrayTag(state.getNBTDataAsBytes()));
-                                        } else {
-                                            try {
-                                                clipboard.setBlock(vector3, (BaseBlock) baseBlockConstructor.newInstance(
-                                                        baseBlock.toImmutableState(),
-                                                        new CompoundTag(
-                                                                new HashMap<>(
-                                                                        Map.of(
-                                                                                "cc_type", new StringTag(state.type().type().asString()),
-                                                                                "cc_data", new ByteArrayTag(state.getNBTDataAsBytes())
-                                                                        )
-                                                                )
-                                                        )
-                                                ));
-                                            } catch (WorldEditException | InvocationTargetException |
-                                                     InstantiationException | IllegalAccessException e) {
-                                                throw new RuntimeException(e);
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    });
-                });
+                .ifPresent(customWorld -> BukkitCustomCropsPlugin.getInstance().getScheduler().async().execute(() ->
+                        writeToClipboard(clipboard, collectBlocks(customWorld, region))));
+    }
+
+    private static Map<BlockVector3, CustomCropsBlockState> collectBlocks(CustomCropsWorld<?> world, Region region) {
+        BlockVector3 minPoint = region.getMinimumPoint();
+        BlockVector3 maxPoint = region.getMaximumPoint();
+        HashMap<BlockVector3, CustomCropsBlockState> blocks = new HashMap<>();
+        world.forEachBlockInBox(
+                new Pos3(minPoint.getBlockX(), minPoint.getBlockY(), minPoint.getBlockZ()),
+                new Pos3(maxPoint.getBlockX(), maxPoint.getBlockY(), maxPoint.getBlockZ()),
+                state -> true,
+                (pos, state) -> {
+                    BlockVector3 vector3 = BlockVector3.at(pos.x(), pos.y(), pos.z());
+                    // the bounding box of a non-cuboid selection may contain blocks outside the selection
+                    if (region.contains(vector3)) {
+                        blocks.put(vector3, state);
+                    }
+                }
+        );
+        return blocks;
+    }
+
+    private void writeToClipboard(Clipboard clipboard, Map<BlockVector3, CustomCropsBlockState> blocks) {
+        for (Map.Entry<BlockVector3, CustomCropsBlockState> entry : blocks.entrySet()) {
+            BaseBlock baseBlock = clipboard.getFullBlock(entry.getKey());
+            CustomCropsBlockState state = entry.getValue();
+            CompoundTag tag = baseBlock.getNbtData();
+            if (tag != null) {
+                Map<String, Tag> map = tag.getValue();
+                map.put("cc_type", new StringTag(state.type().type().asString()));
+                map.put("cc_data", new ByteArrayTag(state.getNBTDataAsBytes()));
+            } else {
+                try {
+                    clipboard.setBlock(entry.getKey(), (BaseBlock) baseBlockConstructor.newInstance(
+                            baseBlock.toImmutableState(),
+                            new CompoundTag(
+                                    new HashMap<>(
+                                            Map.of(
+                                                    "cc_type", new StringTag(state.type().type().asString()),
+                                                    "cc_data", new ByteArrayTag(state.getNBTDataAsBytes())
+                                            )
+                                    )
+                            )
+                    ));
+                } catch (WorldEditException | InvocationTargetException |
+                         InstantiationException | IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
     }
 }
@@ -30,6 +30,7 @@ import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerType;
 import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
 import net.momirealms.customcrops.api.data.HarvestDataManager;
 import net.momirealms.customcrops.api.event.CustomCropsReloadEvent;
+import net.momirealms.customcrops.api.misc.DelayedTaskWheel;
 import net.momirealms.customcrops.api.misc.HologramManager;
 import net.momirealms.customcrops.api.misc.cooldown.CoolDownManager;
 import net.momirealms.customcrops.api.misc.placeholder.BukkitPlaceholderManager;
@@ -39,11 +40,14 @@ import net.momirealms.customcrops.bukkit.action.BlockActionManager;
 import net.momirealms.customcrops.bukkit.action.PlayerActionManager;
 import net.momirealms.customcrops.bukkit.command.BukkitCommandManager;
 import net.momirealms.customcrops.bukkit.config.BukkitConfigManager;
+import net.momirealms.customcrops.bukkit.config.ContentWatcher;
 import net.momirealms.customcrops.bukkit.integration.BukkitIntegrationManager;
 import net.momirealms.customcrops.bukkit.integration.worldedit.WorldEditHook;
 import net.momirealms.customcrops.bukkit.item.BukkitItemManager;
 import net.momirealms.customcrops.bukkit.integration.placeholder.HarvestPlaceholderExpansion;
+import net.momirealms.customcrops.bukkit.listener.HarvestEventLogger;
 import net.momirealms.customcrops.bukkit.listener.HarvestTracker;
+import net.momirealms.customcrops.bukkit.metrics.PrometheusExporter;
 import net.momirealms.customcrops.bukkit.requirement.BlockRequirementManager;
 import net.momirealms.customcrops.bukkit.requirement.PlayerRequirementManager;
 import net.momirealms.customcrops.bukkit.scheduler.BukkitSchedulerAdapter;
@@ -58,6 +62,7 @@ import net.momirealms.customcrops.common.plugin.classpath.ReflectionClassPathApp
 import net.momirealms.customcrops.common.plugin.feature.Reloadable;
 import net.momirealms.customcrops.common.plugin.logging.JavaPluginLogger;
 import net.momirealms.customcrops.common.plugin.logging.PluginLogger;
+import net.momirealms.customcrops.common.plugin.scheduler.IOExecutor;
 import net.momirealms.sparrow.heart.SparrowHeart;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
@@ -68,6 +73,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -77,6 +83,9 @@ public class BukkitCustomCropsPluginImpl extends BukkitCustomCropsPlugin {
     private final PluginLogger logger;
     private BukkitCommandManager commandManager;
     private HologramManager hologramManager;
+    private HarvestEventLogger harvestEventLogger;
+    private PrometheusExporter prometheusExporter;
+    private ContentWatcher contentWatcher;
     private Consumer<Supplier<String>> debugger = (supplier -> {});
     private String buildByBit = "%%__BUILTBYBIT__%%";
     private String polymart = "%%__POLYMART__%%";
@@ -88,6 +97,7 @@ public class BukkitCustomCropsPluginImpl extends BukkitCustomCropsPlugin {
         super(bootstrap);
         VersionHelper.init(getServerVersion());
         this.scheduler = new BukkitSchedulerAdapter(this);
+        this.ioExecutor = new IOExecutor(this, 4096);
         this.logger = new JavaPluginLogger(getBootstrap().getLogger());
         this.classPathAppender = new ReflectionClassPathAppender(this);
         this.dependencyManager = new DependencyManagerImpl(this);
@@ -163,12 +173,17 @@ public class BukkitCustomCropsPluginImpl extends BukkitCustomCropsPlugin {
         this.placeholderManager = new BukkitPlaceholderManager(this);
         this.coolDownManager = new CoolDownManager(this);
         this.hologramManager = new HologramManager(this);
+        this.taskWheel = new DelayedTaskWheel(this);
         this.harvestDataManager = new HarvestDataManager(this);
         this.commandManager = new BukkitCommandManager(this);
         this.commandManager.registerDefaultFeatures();
 
+        this.harvestEventLogger = new HarvestEventLogger(this);
+        this.prometheusExporter = new PrometheusExporter(this);
+        this.contentWatcher = new ContentWatcher(this);
+
         // Register harvest tracker
-        Bukkit.getPluginManager().registerEvents(new HarvestTracker(this, this.harvestDataManager), getBootstrap());
+        Bukkit.getPluginManager().registerEvents(new HarvestTracker(this, this.harvestDataManager, this.harvestEventLogger), getBootstrap());
 
         boolean downloadFromPolymart = polymart.equals("1");
         boolean downloadFromBBB = buildByBit.equals("true");
@@ -235,8 +250,14 @@ public class BukkitCustomCropsPluginImpl extends BukkitCustomCropsPlugin {
         debug(() -> "Saving harvest data");
         this.harvestDataManager.disable();
         debug(() -> "Saved harvest data");
+        this.harvestEventLogger.disable();
+        this.prometheusExporter.disable();
+        this.contentWatcher.disable();
+        debug(() -> "Waiting for pending writes");
+        this.ioExecutor.shutdown(1, TimeUnit.MINUTES);
         this.placeholderManager.disable();
         this.hologramManager.disable();
+        this.taskWheel.disable();
         this.integrationManager.disable();
         this.coolDownManager.disable();
         if (!Bukkit.getServer().isStopping()) {
@@ -258,8 +279,12 @@ public class BukkitCustomCropsPluginImpl extends BukkitCustomCropsPlugin {
         this.coolDownManager.reload();
         this.translationManager.reload();
         this.hologramManager.reload();
+        this.taskWheel.reload();
         this.itemManager.reload();
         this.harvestDataManager.reload();
+        this.harvestEventLogger.reload();
+        this.prometheusExporter.reload();
+        this.contentWatcher.reload();
 
         this.actionManagers.values().forEach(Reloadable::reload);
         this.requirementManagers.values().forEach(Reloadable::reload);
@@ -89,24 +89,22 @@ public class PlayerActionManager extends AbstractActionManager<Player> {
 
     private void registerMessageAction() {
         registerAction((args, chance) -> {
-            List<String> messages = ListUtils.toList(args);
+            List<TextValue<Player>> messages = ListUtils.toList(args).stream().map(TextValue::<Player>auto).toList();
             return context -> {
                 if (context.holder() == null) return;
                 if (Math.random() > chance.evaluate(context)) return;
-                List<String> replaced = plugin.getPlaceholderManager().parse(context.holder(), messages, context.placeholderMap());
-                for (String text : replaced) {
-                    SparrowHeart.getInstance().sendMessage(context.holder(), AdventureHelper.componentToJson(AdventureHelper.miniMessage(text)));
+                for (TextValue<Player> message : messages) {
+                    SparrowHeart.getInstance().sendMessage(context.holder(), AdventureHelper.componentToJson(message.renderComponent(context)));
                 }
             };
         }, "message");
         registerAction((args, chance) -> {
-            List<String> messages = ListUtils.toList(args);
+            List<TextValue<Player>> messages = ListUtils.toList(args).stream().map(TextValue::<Player>auto).toList();
             return context -> {
                 if (context.holder() == null) return;
                 if (Math.random() > chance.evaluate(context)) return;
-                String random = messages.get(RandomUtils.generateRandomInt(0, messages.size() - 1));
-                random = BukkitPlaceholderManager.getInstance().parse(context.holder(), random, context.placeholderMap());
-                SparrowHeart.getInstance().sendMessage(context.holder(), AdventureHelper.componentToJson(AdventureHelper.miniMessage(random)));
+                TextValue<Player> random = messages.get(RandomUtils.generateRandomInt(0, messages.size() - 1));
+                SparrowHeart.getInstance().sendMessage(context.holder(), AdventureHelper.componentToJson(random.renderComponent(context)));
             };
         }, "random-message");
     }
@@ -137,21 +135,20 @@ public class PlayerActionManager extends AbstractActionManager<Player> {
 
     private void registerActionBarAction() {
         registerAction((args, chance) -> {
-            String text = (String) args;
+            TextValue<Player> text = TextValue.auto((String) args);
             return context -> {
                 if (context.holder() == null) return;
                 if (Math.random() > chance.evaluate(context)) return;
-                SparrowHeart.getInstance().sendActionBar(context.holder(), AdventureHelper.componentToJson(AdventureHelper.miniMessage(plugin.getPlaceholderManager().parse(context.holder(), text, context.placeholderMap()))));
+                SparrowHeart.getInstance().sendActionBar(context.holder(), AdventureHelper.componentToJson(text.renderComponent(context)));
             };
         }, "actionbar");
         registerAction((args, chance) -> {
-            List<String> texts = ListUtils.toList(args);
+            List<TextValue<Player>> texts = ListUtils.toList(args).stream().map(TextValue::<Player>auto).toList();
             return context -> {
                 if (context.holder() == null) return;
                 if (Math.random() > chance.evaluate(context)) return;
-                String random = texts.get(RandomUtils.generateRandomInt(0, texts.size() - 1));
-                random = plugin.getPlaceholderManager().parse(context.holder(), random, context.placeholderMap());
-                SparrowHeart.getInstance().sendActionBar(context.holder(), AdventureHelper.componentToJson(AdventureHelper.miniMessage(random)));
+                TextValue<Player> random = texts.get(RandomUtils.generateRandomInt(0, texts.size() - 1));
+                SparrowHeart.getInstance().sendActionBar(context.holder(), AdventureHelper.componentToJson(random.renderComponent(context)));
             };
         }, "random-actionbar");
     }
@@ -417,8 +414,8 @@ public class PlayerActionManager extends AbstractActionManager<Player> {
                     final Player player = context.holder();
                     if (player == null) return;
                     SparrowHeart.getInstance().sendTitle(player,
-                            AdventureHelper.componentToJson(AdventureHelper.miniMessage(title.render(context))),
-                            AdventureHelper.componentToJson(AdventureHelper.miniMessage(subtitle.render(context))),
+                            AdventureHelper.componentToJson(title.renderComponent(context)),
+                            AdventureHelper.componentToJson(subtitle.renderComponent(context)),
                             fadeIn, stay, fadeOut
                     );
                 };
@@ -429,22 +426,24 @@ public class PlayerActionManager extends AbstractActionManager<Player> {
         }, "title");
         registerAction((args, chance) -> {
             if (args instanceof Section section) {
-                List<String> titles = section.getStringList("titles");
-                if (titles.isEmpty()) titles.add("");
-                List<String> subtitles = section.getStringList("subtitles");
-                if (subtitles.isEmpty()) subtitles.add("");
+                List<String> titleList = section.getStringList("titles");
+                if (titleList.isEmpty()) titleList.add("");
+                List<String> subtitleList = section.getStringList("subtitles");
+                if (subtitleList.isEmpty()) subtitleList.add("");
+                List<TextValue<Player>> titles = titleList.stream().map(TextValue::<Player>auto).toList();
+                List<TextValue<Player>> subtitles = subtitleList.stream().map(TextValue::<Player>auto).toList();
                 int fadeIn = section.getInt("fade-in", 20);
                 int stay = section.getInt("stay", 30);
                 int fadeOut = section.getInt("fade-out", 10);
                 return context -> {
                     if (context.holder() == null) return;
                     if (Math.random() > chance.evaluate(context)) return;
-                    TextValue<Player> title = TextValue.auto(titles.get(RandomUtils.generateRandomInt(0, titles.size() - 1)));
-                    TextValue<Player> subtitle = TextValue.auto(subtitles.get(RandomUtils.generateRandomInt(0, subtitles.size() - 1)));
+                    TextValue<Player> title = titles.get(RandomUtils.generateRandomInt(0, titles.size() - 1));
+                    TextValue<Player> subtitle = subtitles.get(RandomUtils.generateRandomInt(0, subtitles.size() - 1));
                     final Player player = context.holder();
                     SparrowHeart.getInstance().sendTitle(player,
-                            AdventureHelper.componentToJson(AdventureHelper.miniMessage(title.render(context))),
-                            AdventureHelper.componentToJson(AdventureHelper.miniMessage(subtitle.render(context))),
+                            AdventureHelper.componentToJson(title.renderComponent(context)),
+                            AdventureHelper.componentToJson(subtitle.renderComponent(context)),
                             fadeIn, stay, fadeOut
                     );
                 };
@@ -46,7 +46,10 @@ public class BukkitCommandManager extends AbstractCommandManager<CommandSender>
             new DebugInsightCommand(this),
             new UnsafeRestoreCommand(this),
             new UnsafeDeleteCommand(this),
-            new UnsafeFixCommand(this)
+            new UnsafeFixCommand(this),
+            new ProfileStartCommand(this),
+            new ProfileStopCommand(this),
+            new ProfileReportCommand(this)
     );
 
     private final Index<String, CommandFeature<CommandSender>> INDEX = Index.create(CommandFeature::getFeatureID, FEATURES);
@@ -18,6 +18,7 @@
 package net.momirealms.customcrops.bukkit.command.feature;
 
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import net.momirealms.customcrops.api.core.world.*;
 import net.momirealms.customcrops.api.util.LocationUtils;
 import net.momirealms.customcrops.bukkit.command.BukkitCommandFeature;
@@ -169,12 +170,11 @@ public class DebugInsightCommand extends BukkitCommandFeature<CommandSender> imp
                         customCropsWorld.getChunk(pos).ifPresentOrElse(cropsChunk -> {
                             ArrayList<HighlightBlocks> highlightBlockList = new ArrayList<>();
                             HashMap<net.momirealms.customcrops.api.misc.NamedTextColor, List<Location>> blockMap = new HashMap<>();
-                            for (CustomCropsSection section : cropsChunk.sections()) {
-                                for (Map.Entry<BlockPos, CustomCropsBlockState> entry : section.blockMap().entrySet()) {
-                                    net.momirealms.customcrops.api.misc.NamedTextColor namedTextColor = entry.getValue().type().insightColor();
-                                    Location location = LocationUtils.toSurfaceCenterLocation(entry.getKey().toPos3(pos).toLocation(world));
-                                    List<Location> locations = blockMap.computeIfAbsent(namedTextColor, k -> new ArrayList<>());
-                                    locations.add(location);
+                            // blocks are already grouped by type in the chunk's index
+                            for (CustomCropsBlock type : cropsChunk.blockCounts().keySet()) {
+                                List<Location> locations = blockMap.computeIfAbsent(type.insightColor(), k -> new ArrayList<>());
+                                for (int position : cropsChunk.blockPositions(type)) {
+                                    locations.add(LocationUtils.toSurfaceCenterLocation(new BlockPos(position).toPos3(pos).toLocation(world)));
                                 }
                             }
                             for (Map.Entry<net.momirealms.customcrops.api.misc.NamedTextColor, List<Location>> entry : blockMap.entrySet()) {
@@ -42,9 +42,11 @@ import org.incendo.cloud.suggestion.Suggestion;
 import org.incendo.cloud.suggestion.SuggestionProvider;
 
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class ForceTickCommand extends BukkitCommandFeature<CommandSender> {
 
@@ -87,26 +89,100 @@ public class ForceTickCommand extends BukkitCommandFeature<CommandSender> {
                         return;
                     }
                     CustomCropsWorld<?> customCropsWorld = optionalWorld.get();
-                    customCropsWorld.scheduler().async().execute(() -> {
-                        int amount = 0;
+                    BukkitCustomCropsPlugin.getInstance().getScheduler().async().execute(() -> {
                         long time1 = System.currentTimeMillis();
-                        for (CustomCropsChunk customCropsChunk : customCropsWorld.loadedChunks()) {
-                            for (CustomCropsSection customCropsSection : customCropsChunk.sections()) {
-                                for (Map.Entry<BlockPos, CustomCropsBlockState> entry : customCropsSection.blockMap().entrySet()) {
-                                    CustomCropsBlockState state = entry.getValue();
-                                    if (state.type() == customCropsBlock) {
-                                        Pos3 pos3 = entry.getKey().toPos3(customCropsChunk.chunkPos());
-                                        mode.consumer.accept(customCropsBlock, state, customCropsWorld, pos3);
-                                        amount++;
-                                    }
-                                }
-                            }
-                        }
-                        handleFeedback(context.sender(), MessageConstants.COMMAND_FORCE_TICK_SUCCESS, Component.text(System.currentTimeMillis() - time1), Component.text(amount));
+                        // the type index skips chunks and sections without the type, so the scan never visits other blocks
+                        List<ChunkPositions> targets = Arrays.stream(customCropsWorld.loadedChunks())
+                                .parallel()
+                                .filter(chunk -> chunk.blockCount(customCropsBlock) > 0)
+                                .map(chunk -> new ChunkPositions(chunk, chunk.blockPositions(customCropsBlock)))
+                                .toList();
+                        customCropsWorld.scheduler().async().execute(new TickJob(context, customCropsWorld, customCropsBlock, mode, targets, time1));
                     });
                 });
     }
 
+    private record ChunkPositions(CustomCropsChunk chunk, int[] positions) {
+    }
+
+    /**
+     * Ticks the collected blocks on the world worker in slices, so other world tasks can run in between.
+     */
+    private class TickJob implements Runnable {
+
+        private static final int SLICE_SIZE = 4096;
+        private static final long PROGRESS_INTERVAL = 2000;
+
+        private final CommandContext<CommandSender> context;
+        private final CustomCropsWorld<?> world;
+        private final CustomCropsBlock block;
+        private final Mode mode;
+        private final List<ChunkPositions> targets;
+        private final long startTime;
+        private final int total;
+        private int chunkIndex;
+        private int offset;
+        private int visited;
+        private int amount;
+        private long lastReport;
+
+        private TickJob(CommandContext<CommandSender> context, CustomCropsWorld<?> world, CustomCropsBlock block, Mode mode, List<ChunkPositions> targets, long startTime) {
+            this.context = context;
+            this.world = world;
+            this.block = block;
+            this.mode = mode;
+            this.targets = targets;
+            this.startTime = startTime;
+            this.lastReport = startTime;
+            int total = 0;
+            for (ChunkPositions target : targets) {
+                total += target.positions().length;
+            }
+            this.total = total;
+        }
+
+        @Override
+        public void run() {
+            int budget = SLICE_SIZE;
+            while (chunkIndex < targets.size() && budget > 0) {
+                ChunkPositions target = targets.get(chunkIndex);
+                CustomCropsChunk chunk = target.chunk();
+                int[] positions = target.positions();
+                if (!chunk.isLoaded()) {
+                    visited += positions.length - offset;
+                    chunkIndex++;
+                    offset = 0;
+                    continue;
+                }
+                ChunkPos chunkPos = chunk.chunkPos();
+                for (; offset < positions.length && budget > 0; offset++, budget--, visited++) {
+                    Pos3 pos3 = new BlockPos(positions[offset]).toPos3(chunkPos);
+                    Optional<CustomCropsBlockState> state = chunk.getBlockState(pos3);
+                    // the block might have been replaced since the positions were collected
+                    if (state.isPresent() && state.get().type() == block) {
+                        mode.consumer.accept(block, state.get(), world, pos3);
+                        amount++;
+                    }
+                }
+                if (offset >= positions.length) {
+                    chunkIndex++;
+                    offset = 0;
+                }
+            }
+            if (chunkIndex < targets.size()) {
+                long now = System.currentTimeMillis();
+                if (now - lastReport >= PROGRESS_INTERVAL) {
+                    lastReport = now;
+                    handleFeedback(context, MessageConstants.COMMAND_FORCE_TICK_PROGRESS, Component.text(visited), Component.text(total));
+                }
+                // resubmitting from the worker itself would queue the next slice ahead of every other world task
+                world.scheduler().asyncLater(this, 0, TimeUnit.MILLISECONDS);
+            } else {
+                handleFeedback(context.sender(), MessageConstants.COMMAND_FORCE_TICK_SUCCESS, Component.text(System.currentTimeMillis() - startTime), Component.text(amount));
+            }
+        }
+    }
+
     private enum Mode {
 
         RANDOM_TICK((customCropsBlock, state, world, location) -> customCropsBlock.randomTick(state, world, location, false)),
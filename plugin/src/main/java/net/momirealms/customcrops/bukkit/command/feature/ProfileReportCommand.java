@@ -0,0 +1,118 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.bukkit.command.feature;
+
+import net.kyori.adventure.text.Component;
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.misc.profiler.LatencyHistogram;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
+import net.momirealms.customcrops.bukkit.command.BukkitCommandFeature;
+import net.momirealms.customcrops.common.command.CustomCropsCommandManager;
+import net.momirealms.customcrops.common.locale.MessageConstants;
+import org.bukkit.command.CommandSender;
+import org.incendo.cloud.Command;
+import org.incendo.cloud.CommandManager;
+import org.incendo.cloud.context.CommandContext;
+import org.incendo.cloud.parser.standard.IntegerParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ProfileReportCommand extends BukkitCommandFeature<CommandSender> {
+
+    public ProfileReportCommand(CustomCropsCommandManager<CommandSender> commandManager) {
+        super(commandManager);
+    }
+
+    @Override
+    public Command.Builder<? extends CommandSender> assembleCommand(CommandManager<CommandSender> manager, Command.Builder<CommandSender> builder) {
+        return builder
+                .optional("limit", IntegerParser.integerParser(1, 100))
+                .handler(context -> {
+                    TickProfiler.Session session = TickProfiler.lastSession();
+                    if (session == null) {
+                        handleFeedback(context, MessageConstants.COMMAND_PROFILE_REPORT_FAILURE_NONE);
+                        return;
+                    }
+                    int limit = context.getOrDefault("limit", 10);
+                    handleFeedback(context, MessageConstants.COMMAND_PROFILE_REPORT_HEADER,
+                            Component.text(String.format(Locale.ROOT, "%.1f", session.durationNanos() / 1e9)),
+                            Component.text(session.isRunning() ? "running" : "stopped"));
+                    for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(session.worldTimers()).entrySet()) {
+                        sendHistogram(context, entry.getKey(), entry.getValue());
+                    }
+                    sendHistogram(context, "sync", session.syncLatency());
+                    sendTimings(context, "Blocks", TickProfiler.Session.sortByTotal(session.blocks()), limit);
+                    sendTimings(context, "Requirements", TickProfiler.Session.sortByTotal(session.requirements()), limit);
+                    sendTimings(context, "Actions", TickProfiler.Session.sortByTotal(session.actions()), limit);
+
+                    String report = session.toText();
+                    BukkitCustomCropsPlugin plugin = BukkitCustomCropsPlugin.getInstance();
+                    plugin.getScheduler().async().execute(() -> {
+                        Path file = plugin.getDataDirectory().resolve("profiles")
+                                .resolve("profile-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+                        try {
+                            Files.createDirectories(file.getParent());
+                            Files.writeString(file, report, StandardCharsets.UTF_8);
+                            handleFeedback(context, MessageConstants.COMMAND_PROFILE_REPORT_FILE, Component.text(plugin.getDataDirectory().relativize(file).toString()));
+                        } catch (IOException e) {
+                            plugin.getPluginLogger().warn("Failed to write profile report to " + file, e);
+                        }
+                    });
+                });
+    }
+
+    private void sendHistogram(CommandContext<CommandSender> context, String name, LatencyHistogram histogram) {
+        handleFeedback(context, MessageConstants.COMMAND_PROFILE_REPORT_HISTOGRAM,
+                Component.text(name),
+                Component.text(histogram.count()),
+                Component.text(millis(histogram.percentile(50))),
+                Component.text(millis(histogram.percentile(99))),
+                Component.text(millis(histogram.maxNanos())));
+    }
+
+    private <T extends TickProfiler.Timing> void sendTimings(CommandContext<CommandSender> context, String section, List<Map.Entry<String, T>> timings, int limit) {
+        if (timings.isEmpty()) return;
+        handleFeedback(context, MessageConstants.COMMAND_PROFILE_REPORT_SECTION, Component.text(section));
+        for (Map.Entry<String, T> entry : timings.subList(0, Math.min(limit, timings.size()))) {
+            T timing = entry.getValue();
+            handleFeedback(context, MessageConstants.COMMAND_PROFILE_REPORT_TIMING,
+                    Component.text(entry.getKey()),
+                    Component.text(millis(timing.totalNanos())),
+                    Component.text(timing.count()),
+                    Component.text(millis(timing.maxNanos())));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    @Override
+    public String getFeatureID() {
+        return "profile_report";
+    }
+}
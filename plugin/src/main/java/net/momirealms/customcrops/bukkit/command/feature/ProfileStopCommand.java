@@ -0,0 +1,55 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.bukkit.command.feature;
+
+import net.kyori.adventure.text.Component;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
+import net.momirealms.customcrops.bukkit.command.BukkitCommandFeature;
+import net.momirealms.customcrops.common.command.CustomCropsCommandManager;
+import net.momirealms.customcrops.common.locale.MessageConstants;
+import org.bukkit.command.CommandSender;
+import org.incendo.cloud.Command;
+import org.incendo.cloud.CommandManager;
+
+import java.util.Locale;
+
+public class ProfileStopCommand extends BukkitCommandFeature<CommandSender> {
+
+    public ProfileStopCommand(CustomCropsCommandManager<CommandSender> commandManager) {
+        super(commandManager);
+    }
+
+    @Override
+    public Command.Builder<? extends CommandSender> assembleCommand(CommandManager<CommandSender> manager, Command.Builder<CommandSender> builder) {
+        return builder
+                .handler(context -> {
+                    TickProfiler.Session session = TickProfiler.stop();
+                    if (session == null) {
+                        handleFeedback(context, MessageConstants.COMMAND_PROFILE_STOP_FAILURE_IDLE);
+                        return;
+                    }
+                    handleFeedback(context, MessageConstants.COMMAND_PROFILE_STOP_SUCCESS,
+                            Component.text(String.format(Locale.ROOT, "%.1f", session.durationNanos() / 1e9)));
+                });
+    }
+
+    @Override
+    public String getFeatureID() {
+        return "profile_stop";
+    }
+}
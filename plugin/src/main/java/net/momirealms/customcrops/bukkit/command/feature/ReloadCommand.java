@@ -20,6 +20,7 @@ package net.momirealms.customcrops.bukkit.command.feature;
 import net.kyori.adventure.text.Component;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.bukkit.command.BukkitCommandFeature;
+import net.momirealms.customcrops.bukkit.config.BukkitConfigManager;
 import net.momirealms.customcrops.common.command.CustomCropsCommandManager;
 import net.momirealms.customcrops.common.locale.MessageConstants;
 import org.bukkit.command.CommandSender;
@@ -36,7 +37,18 @@ public class ReloadCommand extends BukkitCommandFeature<CommandSender> {
     public Command.Builder<? extends CommandSender> assembleCommand(CommandManager<CommandSender> manager, Command.Builder<CommandSender> builder) {
         return builder
                 .flag(manager.flagBuilder("silent").withAliases("s"))
+                .flag(manager.flagBuilder("contents").withAliases("c"))
                 .handler(context -> {
+                    if (context.flags().hasFlag("contents")) {
+                        long time1 = System.currentTimeMillis();
+                        int changed = ((BukkitConfigManager) BukkitCustomCropsPlugin.getInstance().getConfigManager()).reloadChangedContents();
+                        if (changed == 0) {
+                            handleFeedback(context, MessageConstants.COMMAND_RELOAD_CONTENTS_NONE);
+                        } else {
+                            handleFeedback(context, MessageConstants.COMMAND_RELOAD_CONTENTS_SUCCESS, Component.text(changed), Component.text(System.currentTimeMillis() - time1));
+                        }
+                        return;
+                    }
                     long time1 = System.currentTimeMillis();
                     BukkitCustomCropsPlugin.getInstance().reload();
                     BukkitCustomCropsPlugin.getInstance().getWorldManager().reloadWorlds();
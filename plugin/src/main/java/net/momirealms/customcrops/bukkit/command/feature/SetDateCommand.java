@@ -75,12 +75,14 @@ public class SetDateCommand extends BukkitCommandFeature<CommandSender> {
                                 if (ConfigManager.syncSeasons()) {
                                     if (ConfigManager.referenceWorld().equals(world.getName())) {
                                         customCropsWorld.extraData().setDate(date);
+                                        BukkitCustomCropsPlugin.getInstance().getWorldManager().refreshSeasonState(customCropsWorld);
                                         handleFeedback(context, MessageConstants.COMMAND_SET_DATE_SUCCESS, Component.text(world.getName()), Component.text(date));
                                     } else {
                                         handleFeedback(context, MessageConstants.COMMAND_SET_DATE_FAILURE_REFERENCE, Component.text(world.getName()));
                                     }
                                 } else {
                                     customCropsWorld.extraData().setDate(date);
+                                    BukkitCustomCropsPlugin.getInstance().getWorldManager().refreshSeasonState(customCropsWorld);
                                     handleFeedback(context, MessageConstants.COMMAND_SET_DATE_SUCCESS, Component.text(world.getName()), Component.text(date));
                                 }
                             } else {
@@ -85,12 +85,14 @@ public class SetSeasonCommand extends BukkitCommandFeature<CommandSender> {
                                 if (ConfigManager.syncSeasons()) {
                                     if (ConfigManager.referenceWorld().equals(world.getName())) {
                                         customCropsWorld.extraData().setSeason(seasonEnum);
+                                        BukkitCustomCropsPlugin.getInstance().getWorldManager().refreshSeasonState(customCropsWorld);
                                         handleFeedback(context, MessageConstants.COMMAND_SET_SEASON_SUCCESS, Component.text(world.getName()), Component.text(seasonEnum.translation()));
                                     } else {
                                         handleFeedback(context, MessageConstants.COMMAND_SET_SEASON_FAILURE_REFERENCE, Component.text(world.getName()));
                                     }
                                 } else {
                                     customCropsWorld.extraData().setSeason(seasonEnum);
+                                    BukkitCustomCropsPlugin.getInstance().getWorldManager().refreshSeasonState(customCropsWorld);
                                     handleFeedback(context, MessageConstants.COMMAND_SET_SEASON_SUCCESS, Component.text(world.getName()), Component.text(seasonEnum.translation()));
                                 }
                             } else {
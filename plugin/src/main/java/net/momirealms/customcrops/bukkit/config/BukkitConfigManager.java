@@ -34,30 +34,52 @@ import net.momirealms.customcrops.api.core.mechanic.crop.CropConfig;
 import net.momirealms.customcrops.api.core.mechanic.crop.CropStageConfig;
 import net.momirealms.customcrops.api.core.mechanic.crop.DeathCondition;
 import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerConfig;
+import net.momirealms.customcrops.api.core.mechanic.fertilizer.FertilizerEffect;
 import net.momirealms.customcrops.api.core.mechanic.pot.PotConfig;
 import net.momirealms.customcrops.api.core.mechanic.sprinkler.SprinklerConfig;
 import net.momirealms.customcrops.api.core.mechanic.wateringcan.WateringCanConfig;
+import net.momirealms.customcrops.api.core.world.CustomCropsBlockState;
 import net.momirealms.customcrops.common.helper.AdventureHelper;
 import net.momirealms.customcrops.common.locale.TranslationManager;
 import net.momirealms.customcrops.common.plugin.CustomCropsProperties;
 import net.momirealms.customcrops.common.util.ListUtils;
+import net.momirealms.customcrops.common.util.Pair;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Registry;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class BukkitConfigManager extends ConfigManager {
 
+    private static final ThreadLocal<List<Runnable>> PENDING_REGISTRATIONS = new ThreadLocal<>();
+    private static final List<ClearableRegistry<?, ?>> CONTENT_REGISTRIES = List.of(
+            Registries.CROP, Registries.SEED_TO_CROP, Registries.STAGE_TO_CROP_UNSAFE, Registries.ITEM_TO_DEAD_CROP,
+            Registries.SPRINKLER, Registries.ITEM_TO_SPRINKLER,
+            Registries.POT, Registries.ITEM_TO_POT,
+            Registries.FERTILIZER, Registries.ITEM_TO_FERTILIZER,
+            Registries.WATERING_CAN, Registries.ITEM_TO_WATERING_CAN,
+            Registries.ITEMS, Registries.BLOCKS
+    );
     private static YamlDocument MAIN_CONFIG;
     public static YamlDocument getMainConfig() {
         return MAIN_CONFIG;
     }
 
+    private final Map<String, ParsedFile> loadedFiles = new LinkedHashMap<>();
+    private final List<Runnable> externalRegistrations = new ArrayList<>();
+    private volatile Map<ClearableRegistry<?, ?>, ClearableRegistry<?, ?>> staging;
+    private boolean replaying;
+
     public BukkitConfigManager(BukkitCustomCropsPlugin plugin) {
         super(plugin);
     }
@@ -147,6 +169,8 @@ public class BukkitConfigManager extends ConfigManager {
 
         interveneAntiGrief = config.getBoolean("other-settings.intervene-anti-grief", false);
         asyncWorldSaving = config.getBoolean("other-settings.async-world-saving", true);
+        regionCacheMaxMemory = Math.max(0, config.getLong("other-settings.region-cache.max-memory", 256L)) * 1024 * 1024;
+        worldSnapshot = config.getBoolean("other-settings.world-snapshot", true);
 
         preventDroppingStageItems = config.getBoolean("other-settings.prevent-dropping-stage-items", true);
 
@@ -169,12 +193,7 @@ public class BukkitConfigManager extends ConfigManager {
             }
         }
 
-        for (String id : scarecrow) {
-            Registries.BLOCKS.register(id, BuiltInBlockMechanics.SCARECROW.mechanic());
-        }
-        for (String id : greenhouse) {
-            Registries.BLOCKS.register(id, BuiltInBlockMechanics.GREENHOUSE.mechanic());
-        }
+        this.registerSettingBlocks();
 
         overriddenCrops.clear();
         overriddenCrops.addAll(config.getStringList("mechanics.override-vanilla-blocks")
@@ -213,13 +232,148 @@ public class BukkitConfigManager extends ConfigManager {
     }
 
     private void loadConfigs() {
-        Deque<File> fileDeque = new ArrayDeque<>();
+        ConfigSnapshot snapshot = getMainConfig().getBoolean("other-settings.config-loading.snapshot", false) ?
+                ConfigSnapshot.read(plugin.getDataDirectory().resolve("cache").resolve("contents.bin")) : null;
+        List<ParsedFile> parsedFiles = parseConfigFiles(collectConfigFiles(), snapshot);
+        this.loadedFiles.clear();
+        this.replaying = true;
+        try {
+            // registrations are merged in file order, so the result doesn't depend on which worker finished first
+            for (ParsedFile parsedFile : parsedFiles) {
+                this.loadedFiles.put(parsedFile.key(), parsedFile);
+                parsedFile.registrations().forEach(Runnable::run);
+            }
+        } finally {
+            this.replaying = false;
+        }
+        if (snapshot != null && snapshot.isDirty()) {
+            plugin.getScheduler().async().execute(snapshot::write);
+        }
+    }
+
+    /**
+     * Re-parses the content files that were added or changed since the last load, and swaps the
+     * content registries in one step without unloading the worlds. Blocks look their configs up by id,
+     * so existing blocks use the new definitions on their next tick.
+     * <p>
+     * Settings in config.yml are not reloaded.
+     *
+     * @return the number of files that were added, changed or removed
+     */
+    public int reloadChangedContents() {
+        Path contentsFolder = contentsFolder();
+        List<Pair<ConfigType, File>> files = collectConfigFiles();
+        List<Pair<ConfigType, File>> changedFiles = new ArrayList<>();
+        Set<String> presentFiles = new HashSet<>();
+        for (Pair<ConfigType, File> pair : files) {
+            String key = fileKey(contentsFolder, pair.right());
+            presentFiles.add(key);
+            ParsedFile loaded = this.loadedFiles.get(key);
+            if (loaded == null || !loaded.isUnchanged(pair.right())) {
+                changedFiles.add(pair);
+            }
+        }
+        int removedFiles = 0;
+        for (String key : this.loadedFiles.keySet()) {
+            if (!presentFiles.contains(key)) removedFiles++;
+        }
+        if (changedFiles.isEmpty() && removedFiles == 0) {
+            return 0;
+        }
+
+        Map<String, ParsedFile> reparsed = new HashMap<>();
+        for (ParsedFile parsedFile : parseConfigFiles(changedFiles, null)) {
+            reparsed.put(parsedFile.key(), parsedFile);
+        }
+        Map<String, ParsedFile> nextFiles = new LinkedHashMap<>();
+        for (Pair<ConfigType, File> pair : files) {
+            String key = fileKey(contentsFolder, pair.right());
+            ParsedFile parsedFile = reparsed.containsKey(key) ? reparsed.get(key) : this.loadedFiles.get(key);
+            if (parsedFile != null) nextFiles.put(key, parsedFile);
+        }
+
+        Map<ClearableRegistry<?, ?>, ClearableRegistry<?, ?>> staging = new HashMap<>();
+        for (ClearableRegistry<?, ?> registry : CONTENT_REGISTRIES) {
+            staging.put(registry, new ClearableMappedRegistry<>(registry.key()));
+        }
+        this.staging = staging;
+        this.replaying = true;
+        try {
+            this.registerSettingBlocks();
+            for (ParsedFile parsedFile : nextFiles.values()) {
+                parsedFile.registrations().forEach(Runnable::run);
+            }
+            for (Runnable registration : this.externalRegistrations) {
+                registration.run();
+            }
+        } finally {
+            this.staging = null;
+            this.replaying = false;
+        }
+        for (Map.Entry<ClearableRegistry<?, ?>, ClearableRegistry<?, ?>> entry : staging.entrySet()) {
+            swap(entry.getKey(), entry.getValue());
+        }
+        FertilizerEffect.invalidateAll();
+        this.loadedFiles.clear();
+        this.loadedFiles.putAll(nextFiles);
+        return changedFiles.size() + removedFiles;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, T> void swap(ClearableRegistry<K, T> live, ClearableRegistry<?, ?> staged) {
+        live.replaceWith((ClearableRegistry<K, T>) staged);
+    }
+
+    private List<ParsedFile> parseConfigFiles(List<Pair<ConfigType, File>> files, @Nullable ConfigSnapshot snapshot) {
+        boolean parallel = getMainConfig().getBoolean("other-settings.config-loading.parallel", true) && supportsParallelParsing();
+        Path contentsFolder = contentsFolder();
+        ExecutorService executor = parallel && files.size() > 1 ? Executors.newFixedThreadPool(
+                Math.min(files.size(), Math.min(8, Runtime.getRuntime().availableProcessors())),
+                r -> {
+                    Thread thread = new Thread(r, "CustomCrops-Config-Loader");
+                    thread.setDaemon(true);
+                    return thread;
+                }) : null;
+        try {
+            List<CompletableFuture<ParsedFile>> futures = new ArrayList<>(files.size());
+            for (Pair<ConfigType, File> pair : files) {
+                if (executor == null) {
+                    futures.add(CompletableFuture.completedFuture(parseConfigFile(pair.left(), pair.right(), contentsFolder, snapshot)));
+                } else {
+                    futures.add(CompletableFuture.supplyAsync(() -> parseConfigFile(pair.left(), pair.right(), contentsFolder, snapshot), executor));
+                }
+            }
+            List<ParsedFile> result = new ArrayList<>(futures.size());
+            for (CompletableFuture<ParsedFile> future : futures) {
+                result.add(future.join());
+            }
+            return result;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw e;
+        } finally {
+            if (executor != null) executor.shutdown();
+        }
+    }
+
+    // factories of expansions that did not opt in to parallel parsing stay on the calling thread
+    private boolean supportsParallelParsing() {
+        return plugin.getActionManager(Player.class).supportsParallelParsing()
+                && plugin.getActionManager(CustomCropsBlockState.class).supportsParallelParsing()
+                && plugin.getRequirementManager(Player.class).supportsParallelParsing()
+                && plugin.getRequirementManager(CustomCropsBlockState.class).supportsParallelParsing();
+    }
+
+    private List<Pair<ConfigType, File>> collectConfigFiles() {
+        List<Pair<ConfigType, File>> result = new ArrayList<>();
         for (ConfigType type : ConfigType.values()) {
             File typeFolder = new File(plugin.getDataFolder(), "contents" + File.separator + type.path());
             if (!typeFolder.exists()) {
-                if (!typeFolder.mkdirs()) return;
+                if (!typeFolder.mkdirs()) return result;
                 saveResource("contents" + File.separator + type.path() + File.separator + "default.yml");
             }
+            List<File> typeFiles = new ArrayList<>();
+            Deque<File> fileDeque = new ArrayDeque<>();
             fileDeque.push(typeFolder);
             while (!fileDeque.isEmpty()) {
                 File file = fileDeque.pop();
@@ -229,85 +383,153 @@ public class BukkitConfigManager extends ConfigManager {
                     if (subFile.isDirectory()) {
                         fileDeque.push(subFile);
                     } else if (subFile.isFile() && subFile.getName().endsWith(".yml")) {
-                        try {
-                            YamlDocument document = plugin.getConfigManager().loadData(subFile);
-                            boolean save = false;
-                            for (Map.Entry<String, Object> entry : document.getStringRouteMappedValues(false).entrySet()) {
-                                if (entry.getValue() instanceof Section section) {
-                                    try {
-                                        if (type.parse(this, entry.getKey(), section)) {
-                                            save = true;
-                                        }
-                                    } catch (Exception e) {
-                                        plugin.getPluginLogger().warn("Error occurs during parsing config section " + entry.getKey() + " in file " + subFile.toPath(), e);
-                                    }
-                                }
-                            }
-                            if (save) {
-                                document.save(subFile);
-                            }
-                        } catch (ConstructorException e) {
-                            plugin.getPluginLogger().warn("Could not load config file: " + subFile.getAbsolutePath() + ". Is it a corrupted file?");
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
+                        typeFiles.add(subFile);
+                    }
+                }
+            }
+            typeFiles.sort(Comparator.comparing(File::getPath));
+            for (File file : typeFiles) {
+                result.add(Pair.of(type, file));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses one file, possibly on a worker thread. The configs are not registered here but
+     * collected and returned, so that they can be registered in a fixed order afterwards.
+     */
+    private ParsedFile parseConfigFile(ConfigType type, File file, Path contentsFolder, @Nullable ConfigSnapshot snapshot) {
+        String key = fileKey(contentsFolder, file);
+        long lastModified = file.lastModified();
+        long length = file.length();
+        byte[] hash = new byte[0];
+        List<Runnable> registrations = new ArrayList<>();
+        PENDING_REGISTRATIONS.set(registrations);
+        try {
+            byte[] content = Files.readAllBytes(file.toPath());
+            hash = ConfigSnapshot.hash(content);
+            YamlDocument document = snapshot == null ? null : snapshot.get(key, hash);
+            boolean fromSnapshot = document != null;
+            if (document == null) {
+                document = YamlDocument.create(new ByteArrayInputStream(content));
+            }
+            boolean save = false;
+            for (Map.Entry<String, Object> entry : document.getStringRouteMappedValues(false).entrySet()) {
+                if (entry.getValue() instanceof Section section) {
+                    try {
+                        if (type.parse(this, entry.getKey(), section)) {
+                            save = true;
                         }
+                    } catch (Exception e) {
+                        plugin.getPluginLogger().warn("Error occurs during parsing config section " + entry.getKey() + " in file " + file.toPath(), e);
                     }
                 }
             }
+            if (save) {
+                // files that need to be updated are never cached, so a document from the snapshot is never saved without its comments
+                if (!fromSnapshot) {
+                    document.save(file);
+                    lastModified = file.lastModified();
+                    length = file.length();
+                    hash = ConfigSnapshot.hash(Files.readAllBytes(file.toPath()));
+                }
+            } else if (snapshot != null && !fromSnapshot) {
+                snapshot.put(key, hash, document);
+            }
+        } catch (ConstructorException e) {
+            plugin.getPluginLogger().warn("Could not load config file: " + file.getAbsolutePath() + ". Is it a corrupted file?");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            PENDING_REGISTRATIONS.remove();
         }
+        return new ParsedFile(key, lastModified, length, hash, registrations);
     }
 
-    private void clearConfigs() {
-        Registries.CROP.clear();
-        Registries.SEED_TO_CROP.clear();
-        Registries.STAGE_TO_CROP_UNSAFE.clear();
-        Registries.ITEM_TO_DEAD_CROP.clear();
+    private Path contentsFolder() {
+        return plugin.getDataDirectory().resolve("contents");
+    }
 
-        Registries.SPRINKLER.clear();
-        Registries.ITEM_TO_SPRINKLER.clear();
+    private static String fileKey(Path contentsFolder, File file) {
+        return contentsFolder.relativize(file.toPath().toAbsolutePath()).toString().replace('\\', '/');
+    }
 
-        Registries.POT.clear();
-        Registries.ITEM_TO_POT.clear();
+    /**
+     * Collects registrations made while parsing on a worker thread. Registrations from other plugins
+     * are remembered so that {@link #reloadChangedContents()} can replay them.
+     *
+     * @return true if the registration was collected and must not be applied now
+     */
+    private boolean deferRegistration(Runnable registration) {
+        List<Runnable> pending = PENDING_REGISTRATIONS.get();
+        if (pending != null) {
+            pending.add(registration);
+            return true;
+        }
+        if (!replaying) {
+            this.externalRegistrations.add(registration);
+        }
+        return false;
+    }
 
-        Registries.FERTILIZER.clear();
-        Registries.ITEM_TO_FERTILIZER.clear();
+    @SuppressWarnings("unchecked")
+    private <K, T> ClearableRegistry<K, T> target(ClearableRegistry<K, T> registry) {
+        Map<ClearableRegistry<?, ?>, ClearableRegistry<?, ?>> staging = this.staging;
+        return staging == null ? registry : (ClearableRegistry<K, T>) staging.getOrDefault(registry, registry);
+    }
 
-        Registries.WATERING_CAN.clear();
-        Registries.ITEM_TO_WATERING_CAN.clear();
+    private void registerSettingBlocks() {
+        for (String id : scarecrow) {
+            target(Registries.BLOCKS).register(id, BuiltInBlockMechanics.SCARECROW.mechanic());
+        }
+        for (String id : greenhouse) {
+            target(Registries.BLOCKS).register(id, BuiltInBlockMechanics.GREENHOUSE.mechanic());
+        }
+    }
 
-        Registries.ITEMS.clear();
-        Registries.BLOCKS.clear();
+    private void clearConfigs() {
+        for (ClearableRegistry<?, ?> registry : CONTENT_REGISTRIES) {
+            registry.clear();
+        }
+        FertilizerEffect.invalidateAll();
+        this.externalRegistrations.clear();
+        this.loadedFiles.clear();
     }
 
     @Override
     public void registerWateringCanConfig(WateringCanConfig config) {
-        Registries.WATERING_CAN.register(config.id(), config);
-        Registries.ITEM_TO_WATERING_CAN.register(config.itemID(), config);
-        Registries.ITEMS.register(config.itemID(), BuiltInItemMechanics.WATERING_CAN.mechanic());
+        if (deferRegistration(() -> registerWateringCanConfig(config))) return;
+        target(Registries.WATERING_CAN).register(config.id(), config);
+        target(Registries.ITEM_TO_WATERING_CAN).register(config.itemID(), config);
+        target(Registries.ITEMS).register(config.itemID(), BuiltInItemMechanics.WATERING_CAN.mechanic());
     }
 
     @Override
     public void registerFertilizerConfig(FertilizerConfig config) {
-        Registries.FERTILIZER.register(config.id(), config);
-        Registries.ITEM_TO_FERTILIZER.register(config.itemID(), config);
-        Registries.ITEMS.register(config.itemID(), BuiltInItemMechanics.FERTILIZER.mechanic());
+        if (deferRegistration(() -> registerFertilizerConfig(config))) return;
+        target(Registries.FERTILIZER).register(config.id(), config);
+        FertilizerEffect.invalidateAll();
+        target(Registries.ITEM_TO_FERTILIZER).register(config.itemID(), config);
+        target(Registries.ITEMS).register(config.itemID(), BuiltInItemMechanics.FERTILIZER.mechanic());
     }
 
     @Override
     public void registerCropConfig(CropConfig config) {
-        Registries.CROP.register(config.id(), config);
+        if (deferRegistration(() -> registerCropConfig(config))) return;
+        target(Registries.CROP).register(config.id(), config);
         for (String seed : config.seeds()) {
-            Registries.SEED_TO_CROP.register(seed, config);
-            Registries.ITEMS.register(seed, BuiltInItemMechanics.SEED.mechanic());
+            target(Registries.SEED_TO_CROP).register(seed, config);
+            target(Registries.ITEMS).register(seed, BuiltInItemMechanics.SEED.mechanic());
         }
         for (DeathCondition condition : config.deathConditions()) {
             String deadStage = condition.deathStage();
             if (deadStage != null) {
-                if (!Registries.BLOCKS.containsKey(deadStage)) {
-                    Registries.BLOCKS.register(deadStage, BuiltInBlockMechanics.DEAD_CROP.mechanic());
+                if (!target(Registries.BLOCKS).containsKey(deadStage)) {
+                    target(Registries.BLOCKS).register(deadStage, BuiltInBlockMechanics.DEAD_CROP.mechanic());
                 }
-                if (!Registries.ITEM_TO_DEAD_CROP.containsKey(deadStage)) {
-                    Registries.ITEM_TO_DEAD_CROP.register(deadStage, 0);
+                if (!target(Registries.ITEM_TO_DEAD_CROP).containsKey(deadStage)) {
+                    target(Registries.ITEM_TO_DEAD_CROP).register(deadStage, 0);
                 }
             }
         }
@@ -315,12 +537,12 @@ public class BukkitConfigManager extends ConfigManager {
             String stageID = stageConfig.stageID();
             if (stageID != null) {
                 offsets.put(stageID, stageConfig.displayInfoOffset());
-                List<CropConfig> list = Registries.STAGE_TO_CROP_UNSAFE.get(stageID);
+                List<CropConfig> list = target(Registries.STAGE_TO_CROP_UNSAFE).get(stageID);
                 if (list != null) {
                     list.add(config);
                 } else {
-                    Registries.STAGE_TO_CROP_UNSAFE.register(stageID, new ArrayList<>(List.of(config)));
-                    Registries.BLOCKS.register(stageID, BuiltInBlockMechanics.CROP.mechanic());
+                    target(Registries.STAGE_TO_CROP_UNSAFE).register(stageID, new ArrayList<>(List.of(config)));
+                    target(Registries.BLOCKS).register(stageID, BuiltInBlockMechanics.CROP.mechanic());
                 }
             }
         }
@@ -328,23 +550,39 @@ public class BukkitConfigManager extends ConfigManager {
 
     @Override
     public void registerPotConfig(PotConfig config) {
-        Registries.POT.register(config.id(), config);
+        if (deferRegistration(() -> registerPotConfig(config))) return;
+        target(Registries.POT).register(config.id(), config);
         for (String pot : config.blocks()) {
-            Registries.ITEM_TO_POT.register(pot, config);
-            Registries.BLOCKS.register(pot, BuiltInBlockMechanics.POT.mechanic());
+            target(Registries.ITEM_TO_POT).register(pot, config);
+            target(Registries.BLOCKS).register(pot, BuiltInBlockMechanics.POT.mechanic());
         }
     }
 
     @Override
     public void registerSprinklerConfig(SprinklerConfig config) {
-        Registries.SPRINKLER.register(config.id(), config);
+        if (deferRegistration(() -> registerSprinklerConfig(config))) return;
+        target(Registries.SPRINKLER).register(config.id(), config);
         for (String id : new HashSet<>(List.of(config.threeDItem(), config.threeDItemWithWater()))) {
-            Registries.ITEM_TO_SPRINKLER.register(id, config);
-            Registries.BLOCKS.register(id, BuiltInBlockMechanics.SPRINKLER.mechanic());
+            target(Registries.ITEM_TO_SPRINKLER).register(id, config);
+            target(Registries.BLOCKS).register(id, BuiltInBlockMechanics.SPRINKLER.mechanic());
         }
         if (config.twoDItem() != null) {
-            Registries.ITEM_TO_SPRINKLER.register(config.twoDItem(), config);
-            Registries.ITEMS.register(config.twoDItem(), BuiltInItemMechanics.SPRINKLER_ITEM.mechanic());
+            target(Registries.ITEM_TO_SPRINKLER).register(config.twoDItem(), config);
+            target(Registries.ITEMS).register(config.twoDItem(), BuiltInItemMechanics.SPRINKLER_ITEM.mechanic());
+        }
+    }
+
+    private record ParsedFile(String key, long lastModified, long length, byte[] hash, List<Runnable> registrations) {
+
+        private boolean isUnchanged(File file) {
+            if (file.lastModified() == lastModified && file.length() == length) {
+                return true;
+            }
+            try {
+                return Arrays.equals(hash, ConfigSnapshot.hash(Files.readAllBytes(file.toPath())));
+            } catch (IOException e) {
+                return false;
+            }
         }
     }
 }
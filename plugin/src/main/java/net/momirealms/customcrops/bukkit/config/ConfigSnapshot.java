@@ -0,0 +1,285 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.bukkit.config;
+
+import dev.dejvokep.boostedyaml.YamlDocument;
+import dev.dejvokep.boostedyaml.block.implementation.Section;
+import dev.dejvokep.boostedyaml.route.Route;
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary cache of the parsed content files, keyed by the SHA-256 of each file.
+ * <p>
+ * Unchanged files are rebuilt from the cached tree instead of being parsed by SnakeYAML again.
+ * Only the YAML tree is cached: actions and requirements are code rather than data, so the config
+ * objects are still built from the tree on every load.
+ */
+public class ConfigSnapshot {
+
+    private static final int MAGIC = 0x43434653;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte LIST = 6;
+    private static final byte MAP = 7;
+
+    private final Path file;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    private ConfigSnapshot(Path file, Map<String, Entry> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * Reads the snapshot file. A missing or unreadable file results in an empty snapshot.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     */
+    public static ConfigSnapshot read(Path file) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION) {
+                    int size = in.readInt();
+                    for (int i = 0; i < size; i++) {
+                        String path = readString(in);
+                        byte[] hash = in.readNBytes(in.readInt());
+                        byte[] tree = in.readNBytes(in.readInt());
+                        entries.put(path, new Entry(hash, tree));
+                    }
+                }
+            } catch (IOException e) {
+                BukkitCustomCropsPlugin.getInstance().getPluginLogger().warn("Failed to read config snapshot " + file + ". It will be rebuilt.", e);
+                entries.clear();
+            }
+        }
+        return new ConfigSnapshot(file, entries);
+    }
+
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Rebuilds the document of a file if its content didn't change since the snapshot was taken
+     *
+     * @param path the file path relative to the contents folder
+     * @param hash the hash of the current content
+     * @return the document, or null if the file has to be parsed
+     */
+    @Nullable
+    public YamlDocument get(String path, byte[] hash) {
+        Entry entry = previous.get(path);
+        if (entry == null || !Arrays.equals(entry.hash, hash)) {
+            return null;
+        }
+        try {
+            YamlDocument document = YamlDocument.create(InputStream.nullInputStream());
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry.tree));
+            readSection(in, document);
+            current.put(path, entry);
+            return document;
+        } catch (IOException | RuntimeException e) {
+            BukkitCustomCropsPlugin.getInstance().getPluginLogger().warn("Failed to restore " + path + " from config snapshot", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the document of a parsed file
+     *
+     * @param path     the file path relative to the contents folder
+     * @param hash     the hash of the content
+     * @param document the parsed document
+     */
+    public void put(String path, byte[] hash, YamlDocument document) {
+        this.changed = true;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeSection(out, document);
+        } catch (IOException | IllegalArgumentException e) {
+            // values that can't be represented are simply parsed from YAML every time
+            BukkitCustomCropsPlugin.getInstance().debug(() -> "Not caching " + path + ": " + e.getMessage());
+            return;
+        }
+        current.put(path, new Entry(hash, bytes.toByteArray()));
+    }
+
+    /**
+     * Checks whether any file was added, changed or removed since the snapshot was read
+     *
+     * @return whether the snapshot should be written
+     */
+    public boolean isDirty() {
+        return changed || current.size() != previous.size();
+    }
+
+    /**
+     * Writes the entries seen during this load, dropping the files that no longer exist
+     */
+    public void write() {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                List<Map.Entry<String, Entry>> entries = new ArrayList<>(current.entrySet());
+                entries.sort(Map.Entry.comparingByKey());
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().hash.length);
+                    out.write(entry.getValue().hash);
+                    out.writeInt(entry.getValue().tree.length);
+                    out.write(entry.getValue().tree);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            BukkitCustomCropsPlugin.getInstance().getPluginLogger().warn("Failed to write config snapshot " + file, e);
+        }
+    }
+
+    private static void writeSection(DataOutputStream out, Section section) throws IOException {
+        Map<String, Object> values = section.getStringRouteMappedValues(false);
+        out.writeInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Section section) {
+            out.writeByte(MAP);
+            writeSection(out, section);
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            writeString(out, s);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else {
+            throw new IllegalArgumentException("Unsupported value type " + value.getClass().getName());
+        }
+    }
+
+    private static void readSection(DataInputStream in, Section section) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            Route key = Route.fromSingleKey(readString(in));
+            byte type = in.readByte();
+            if (type == MAP) {
+                readSection(in, section.createSection(key));
+            } else {
+                section.set(key, readValue(in, type));
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in, byte type) throws IOException {
+        return switch (type) {
+            case NULL -> null;
+            case STRING -> readString(in);
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case DOUBLE -> in.readDouble();
+            case BOOLEAN -> in.readBoolean();
+            case LIST -> {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in, in.readByte()));
+                }
+                yield list;
+            }
+            case MAP -> {
+                int size = in.readInt();
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in, in.readByte()));
+                }
+                yield map;
+            }
+            default -> throw new IOException("Unknown value type " + type);
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    private record Entry(byte[] hash, byte[] tree) {
+    }
+}
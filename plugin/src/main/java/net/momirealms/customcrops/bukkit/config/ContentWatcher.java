@@ -0,0 +1,129 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.bukkit.config;
+
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.common.plugin.feature.Reloadable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the contents folder and reloads the changed files once they have been quiet for a moment.
+ */
+public class ContentWatcher implements Reloadable {
+
+    private static final long DEBOUNCE_MILLIS = 1000;
+
+    private final BukkitCustomCropsPlugin plugin;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ContentWatcher(BukkitCustomCropsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void load() {
+        if (!BukkitConfigManager.getMainConfig().getBoolean("other-settings.config-loading.watch-files", false)) {
+            return;
+        }
+        Path contentsFolder = plugin.getDataDirectory().resolve("contents");
+        try {
+            this.watchService = contentsFolder.getFileSystem().newWatchService();
+            registerAll(contentsFolder);
+        } catch (IOException e) {
+            plugin.getPluginLogger().warn("Failed to watch " + contentsFolder, e);
+            this.unload();
+            return;
+        }
+        WatchService service = this.watchService;
+        this.thread = new Thread(() -> watch(service), "CustomCrops-Content-Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void unload() {
+        if (this.watchService != null) {
+            try {
+                this.watchService.close();
+            } catch (IOException ignored) {
+            }
+            this.watchService = null;
+        }
+        if (this.thread != null) {
+            this.thread.interrupt();
+            this.thread = null;
+        }
+    }
+
+    private void registerAll(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                // editors often write a file in several steps, so wait until the folder is quiet
+                while (key != null) {
+                    handleEvents(key);
+                    key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                plugin.getScheduler().sync().run(this::reloadContents, null);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void handleEvents(WatchKey key) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == ENTRY_CREATE && event.context() instanceof Path name) {
+                Path child = dir.resolve(name);
+                if (Files.isDirectory(child)) {
+                    try {
+                        registerAll(child);
+                    } catch (IOException | ClosedWatchServiceException e) {
+                        plugin.getPluginLogger().warn("Failed to watch " + child, e);
+                    }
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void reloadContents() {
+        long time1 = System.currentTimeMillis();
+        int changed = ((BukkitConfigManager) plugin.getConfigManager()).reloadChangedContents();
+        if (changed != 0) {
+            plugin.getPluginLogger().info("Reloaded " + changed + " changed content file(s). Took " + (System.currentTimeMillis() - time1) + "ms.");
+        }
+    }
+}
@@ -17,21 +17,14 @@
 
 package net.momirealms.customcrops.bukkit.integration.adaptor;
 
-import com.flowpowered.nbt.CompoundMap;
-import com.flowpowered.nbt.CompoundTag;
-import com.flowpowered.nbt.stream.NBTInputStream;
-import com.flowpowered.nbt.stream.NBTOutputStream;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.core.ConfigManager;
-import net.momirealms.customcrops.api.core.InternalRegistries;
-import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
 import net.momirealms.customcrops.api.core.world.*;
 import net.momirealms.customcrops.api.core.world.adaptor.AbstractWorldAdaptor;
-import net.momirealms.customcrops.api.util.StringUtils;
-import net.momirealms.customcrops.api.util.TagUtils;
+import net.momirealms.customcrops.api.misc.metrics.CustomCropsMetrics;
 import net.momirealms.customcrops.common.helper.GsonHelper;
 import net.momirealms.customcrops.common.helper.VersionHelper;
-import net.momirealms.customcrops.common.util.Key;
+import net.momirealms.customcrops.common.plugin.scheduler.IOExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
 import org.bukkit.World;
@@ -39,11 +32,9 @@ import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
-import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.nio.file.Files;
+import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -132,28 +123,41 @@ public class BukkitWorldAdaptor extends AbstractWorldAdaptor<World> {
     @Override
     public CustomCropsRegion loadRegion(CustomCropsWorld<World> world, RegionPos pos, boolean createIfNotExist) {
         File data = getRegionDataFile(world.world(), pos);
-        // if the data file not exists
-        if (!data.exists()) {
-            return createIfNotExist ? world.createRegion(pos) : null;
-        } else {
+        IOExecutor ioExecutor = BukkitCustomCropsPlugin.getInstance().getIOExecutor();
+        try {
+            // read through the file's I/O lane so that a save still in flight is never read half-written
+            byte[] bytes = ioExecutor.supplySerial(data, () -> readRegionFile(data)).join();
+            // if the data file not exists
+            if (bytes == null) {
+                return createIfNotExist ? world.createRegion(pos) : null;
+            }
             // load region from local files
-            try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(data))) {
-                DataInputStream dataStream = new DataInputStream(bis);
-                CustomCropsRegion region = deserializeRegion(world, dataStream, pos);
-                dataStream.close();
-                return region;
-            } catch (Exception e) {
-                BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("[" + world.worldName() + "] Failed to load CustomCrops region data at " + pos + ". Deleting the corrupted region.", e);
-                boolean success = data.delete();
-                if (success) {
-                    return createIfNotExist ? world.createRegion(pos) : null;
-                } else {
-                    throw new RuntimeException("[" + world.worldName() + "] Failed to delete corrupted CustomCrops region data at " + pos);
-                }
+            try (DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                return deserializeRegion(world, dataStream, pos);
+            }
+        } catch (Exception e) {
+            BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("[" + world.worldName() + "] Failed to load CustomCrops region data at " + pos + ". Deleting the corrupted region.", e);
+            boolean success = ioExecutor.supplySerial(data, data::delete).join();
+            if (success) {
+                return createIfNotExist ? world.createRegion(pos) : null;
+            } else {
+                throw new RuntimeException("[" + world.worldName() + "] Failed to delete corrupted CustomCrops region data at " + pos);
             }
         }
     }
 
+    @Nullable
+    private static byte[] readRegionFile(File data) {
+        if (!data.exists()) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(data.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Nullable
     @Override
     public CustomCropsChunk loadChunk(CustomCropsWorld<World> world, ChunkPos pos, boolean createIfNotExist) {
@@ -185,28 +189,38 @@ public class BukkitWorldAdaptor extends AbstractWorldAdaptor<World> {
     @Override
     public void saveRegion(CustomCropsWorld<World> world, CustomCropsRegion region) {
         File file = getRegionDataFile(world.world(), region.regionPos());
+        IOExecutor ioExecutor = BukkitCustomCropsPlugin.getInstance().getIOExecutor();
         if (region.canPrune()) {
-            if (file.exists()) {
-                file.delete();
-            }
+            ioExecutor.runSerial(file, () -> {
+                if (file.exists()) {
+                    file.delete();
+                }
+            });
             return;
         }
         long time1 = System.currentTimeMillis();
+        // serialize on the calling thread, the file then matches the region at the time of saving
+        byte[] bytes = serializeRegion(region);
+        ioExecutor.runSerial(file, () -> writeRegionFile(world, region.regionPos(), file, bytes, time1));
+    }
+
+    private void writeRegionFile(CustomCropsWorld<World> world, RegionPos pos, File file, byte[] bytes, long time1) {
         File parentDir = file.getParentFile();
         if (parentDir != null && !parentDir.exists()) {
             parentDir.mkdirs();
         }
         try (FileOutputStream fos = new FileOutputStream(file); BufferedOutputStream bos = new BufferedOutputStream(fos)) {
-            bos.write(serializeRegion(region));
+            bos.write(bytes);
+            CustomCropsMetrics.REGION_FILE_BYTES.labels().add(bytes.length);
             long time2 = System.currentTimeMillis();
-            BukkitCustomCropsPlugin.getInstance().debug(() -> "[" + world.worldName() + "] Took " + (time2-time1) + "ms to save region " + region.regionPos());
+            BukkitCustomCropsPlugin.getInstance().debug(() -> "[" + world.worldName() + "] Took " + (time2-time1) + "ms to save region " + pos);
         } catch (IOException e) {
             // Check if this is a SlimeWorld - they use .slime files and store data in NBT ExtraData
             File worldFolder = getWorldFolder(world.world());
             if (worldFolder.getName().endsWith(".slime") || !worldFolder.isDirectory()) {
                 BukkitCustomCropsPlugin.getInstance().debug(() -> "[" + world.worldName() + "] Skipping region file save for SlimeWorld format (data saved in NBT)");
             } else {
-                BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("[" + world.worldName() + "] Failed to save CustomCrops region data." + region.regionPos(), e);
+                BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("[" + world.worldName() + "] Failed to save CustomCrops region data." + pos, e);
             }
         }
     }
@@ -238,65 +252,6 @@ public class BukkitWorldAdaptor extends AbstractWorldAdaptor<World> {
         return BUKKIT_WORLD_PRIORITY;
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    private CustomCropsRegion deserializeRegion(CustomCropsWorld<World> world, DataInputStream dataStream, RegionPos pos) throws IOException {
-        int regionVersion = dataStream.readByte();
-        int regionX = dataStream.readInt();
-        int regionZ = dataStream.readInt();
-        RegionPos regionPos = RegionPos.of(regionX, regionZ);
-        ConcurrentHashMap<ChunkPos, byte[]> map = new ConcurrentHashMap<>();
-        int chunkAmount = dataStream.readInt();
-        for (int i = 0; i < chunkAmount; i++) {
-            int chunkX = dataStream.readInt();
-            int chunkZ = dataStream.readInt();
-            ChunkPos chunkPos = ChunkPos.of(chunkX, chunkZ);
-            byte[] chunkData = new byte[dataStream.readInt()];
-            dataStream.read(chunkData);
-            map.put(chunkPos, chunkData);
-        }
-        return world.restoreRegion(pos, map);
-    }
-
-    private byte[] serializeRegion(CustomCropsRegion region) {
-        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
-        DataOutputStream outStream = new DataOutputStream(outByteStream);
-        try {
-            outStream.writeByte(REGION_VERSION);
-            outStream.writeInt(region.regionPos().x());
-            outStream.writeInt(region.regionPos().z());
-            Map<ChunkPos, byte[]> map = region.dataToSave();
-            outStream.writeInt(map.size());
-            for (Map.Entry<ChunkPos, byte[]> entry : map.entrySet()) {
-                outStream.writeInt(entry.getKey().x());
-                outStream.writeInt(entry.getKey().z());
-                byte[] dataArray = entry.getValue();
-                outStream.writeInt(dataArray.length);
-                outStream.write(dataArray);
-            }
-        } catch (IOException e) {
-            BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("Failed to serialize CustomCrops region data." + region.regionPos(), e);
-        }
-        return outByteStream.toByteArray();
-    }
-
-    private CustomCropsChunk deserializeChunk(CustomCropsWorld<World> world, DataInputStream dataStream) throws IOException {
-        int chunkVersion = dataStream.readByte();
-        byte[] blockData = readCompressedBytes(dataStream);
-        return deserializeChunk(world, blockData, chunkVersion);
-    }
-
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    private byte[] readCompressedBytes(DataInputStream dataStream) throws IOException {
-        int compressedLength = dataStream.readInt();
-        int decompressedLength = dataStream.readInt();
-        byte[] compressedData = new byte[compressedLength];
-        byte[] decompressedData = new byte[decompressedLength];
-
-        dataStream.read(compressedData);
-        zstdDecompress(decompressedData, compressedData);
-        return decompressedData;
-    }
-
     private File getWorldFolder(World world) {
         return worldFolderProvider.apply(world);
     }
@@ -308,151 +263,4 @@ public class BukkitWorldAdaptor extends AbstractWorldAdaptor<World> {
     private String getRegionDataFile(RegionPos regionPos) {
         return "r." + regionPos.x() + "." + regionPos.z() + ".mcc";
     }
-
-    private byte[] serializeChunk(SerializableChunk serializableChunk) {
-        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
-        DataOutputStream outStream = new DataOutputStream(outByteStream);
-        try {
-            outStream.writeByte(CHUNK_VERSION);
-            byte[] serializedSections = toBytes(serializableChunk);
-            byte[] compressed = zstdCompress(serializedSections);
-            outStream.writeInt(compressed.length);
-            outStream.writeInt(serializedSections.length);
-            outStream.write(compressed);
-        } catch (IOException e) {
-            BukkitCustomCropsPlugin.getInstance().getPluginLogger().severe("Failed to serialize chunk " + ChunkPos.of(serializableChunk.x(), serializableChunk.z()));
-        }
-        return outByteStream.toByteArray();
-    }
-
-    private byte[] toBytes(SerializableChunk chunk) throws IOException {
-        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream(16384);
-        DataOutputStream outStream = new DataOutputStream(outByteStream);
-        outStream.writeInt(chunk.x());
-        outStream.writeInt(chunk.z());
-        outStream.writeInt(chunk.loadedSeconds());
-        outStream.writeLong(chunk.lastLoadedTime());
-        // write queue
-        int[] queue = chunk.queuedTasks();
-        outStream.writeInt(queue.length / 2);
-        for (int i : queue) {
-            outStream.writeInt(i);
-        }
-        // write ticked blocks
-        int[] tickedSet = chunk.ticked();
-        outStream.writeInt(tickedSet.length);
-        for (int i : tickedSet) {
-            outStream.writeInt(i);
-        }
-        // write block data
-        List<SerializableSection> sectionsToSave = chunk.sections();
-        outStream.writeInt(sectionsToSave.size());
-        for (SerializableSection section : sectionsToSave) {
-            outStream.writeInt(section.sectionID());
-            byte[] blockData = toBytes(section.blocks());
-            outStream.writeInt(blockData.length);
-            outStream.write(blockData);
-        }
-        return outByteStream.toByteArray();
-    }
-
-    private byte[] toBytes(Collection<CompoundTag> blocks) throws IOException {
-        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream(16384);
-        DataOutputStream outStream = new DataOutputStream(outByteStream);
-        outStream.writeInt(blocks.size());
-        for (CompoundTag block : blocks) {
-            byte[] blockData = toBytes(block);
-            outStream.writeInt(blockData.length);
-            outStream.write(blockData);
-        }
-        return outByteStream.toByteArray();
-    }
-
-    private byte[] toBytes(CompoundTag tag) throws IOException {
-        if (tag == null || tag.getValue().isEmpty())
-            return new byte[0];
-        ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
-        NBTOutputStream outStream = new NBTOutputStream(
-                outByteStream,
-                NBTInputStream.NO_COMPRESSION,
-                ByteOrder.BIG_ENDIAN
-        );
-        outStream.writeTag(tag);
-        return outByteStream.toByteArray();
-    }
-
-    @SuppressWarnings("all")
-    private CustomCropsChunk deserializeChunk(CustomCropsWorld world, byte[] bytes, int chunkVersion) throws IOException {
-        Function<String, Key> keyFunction = chunkVersion < 2 ?
-        (s) -> {
-            return Key.key("customcrops", StringUtils.toLowerCase(s));
-        } : s -> {
-            return Key.key(s);
-        };
-        DataInputStream chunkData = new DataInputStream(new ByteArrayInputStream(bytes));
-        // read coordinate
-        int x = chunkData.readInt();
-        int z = chunkData.readInt();
-        ChunkPos coordinate = new ChunkPos(x, z);
-        // read loading info
-        int loadedSeconds = chunkData.readInt();
-        long lastLoadedTime = chunkData.readLong();
-        // read task queue
-        int tasksSize = chunkData.readInt();
-        PriorityBlockingQueue<DelayedTickTask> queue = new PriorityBlockingQueue<>(Math.max(11, tasksSize));
-        for (int i = 0; i < tasksSize; i++) {
-            int time = chunkData.readInt();
-            BlockPos pos = new BlockPos(chunkData.readInt());
-            queue.add(new DelayedTickTask(time, pos));
-        }
-        // read ticked blocks
-        int tickedSize = chunkData.readInt();
-        HashSet<BlockPos> tickedSet = new HashSet<>(Math.max(11, tickedSize));
-        for (int i = 0; i < tickedSize; i++) {
-            tickedSet.add(new BlockPos(chunkData.readInt()));
-        }
-        // read block data
-        ConcurrentHashMap<Integer, CustomCropsSection> sectionMap = new ConcurrentHashMap<>();
-        int sections = chunkData.readInt();
-        // read sections
-        for (int i = 0; i < sections; i++) {
-            ConcurrentHashMap<BlockPos, CustomCropsBlockState> blockMap = new ConcurrentHashMap<>();
-            int sectionID = chunkData.readInt();
-            byte[] sectionBytes = new byte[chunkData.readInt()];
-            chunkData.read(sectionBytes);
-            DataInputStream sectionData = new DataInputStream(new ByteArrayInputStream(sectionBytes));
-            int blockAmount = sectionData.readInt();
-            // read blocks
-            for (int j = 0; j < blockAmount; j++) {
-                byte[] blockData = new byte[sectionData.readInt()];
-                sectionData.read(blockData);
-                CompoundTag tag = readCompound(blockData);
-                CompoundMap block = tag.getValue();
-                Key key = keyFunction.apply((String) block.get("type").getValue());
-                CompoundMap data = (CompoundMap) block.get("data").getValue();
-                CustomCropsBlock customBlock = InternalRegistries.BLOCK.get(key);
-                if (customBlock == null) {
-                    BukkitCustomCropsPlugin.getInstance().getInstance().getPluginLogger().warn("[" + world.worldName() + "] Unrecognized custom block " + key + " has been removed from chunk " + ChunkPos.of(x, z));
-                    continue;
-                }
-                for (int pos : (int[]) block.get("pos").getValue()) {
-                    BlockPos blockPos = new BlockPos(pos);
-                    blockMap.put(blockPos, CustomCropsBlockState.create(customBlock, TagUtils.deepClone(data)));
-                }
-            }
-            sectionMap.put(sectionID, CustomCropsSection.restore(sectionID, blockMap));
-        }
-        return world.restoreChunk(coordinate, loadedSeconds, lastLoadedTime, sectionMap, queue, tickedSet);
-    }
-
-    private CompoundTag readCompound(byte[] bytes) throws IOException {
-        if (bytes.length == 0)
-            return null;
-        NBTInputStream nbtInputStream = new NBTInputStream(
-                new ByteArrayInputStream(bytes),
-                NBTInputStream.NO_COMPRESSION,
-                ByteOrder.BIG_ENDIAN
-        );
-        return (CompoundTag) nbtInputStream.readTag();
-    }
 }
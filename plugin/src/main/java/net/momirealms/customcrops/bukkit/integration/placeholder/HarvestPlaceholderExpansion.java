@@ -19,14 +19,23 @@ package net.momirealms.customcrops.bukkit.integration.placeholder;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
+import net.momirealms.customcrops.api.core.world.ChunkPos;
+import net.momirealms.customcrops.api.core.world.Pos3;
 import net.momirealms.customcrops.api.data.HarvestDataManager;
+import net.momirealms.customcrops.api.data.HarvestLeaderboard;
 import net.momirealms.customcrops.api.data.PlayerHarvestData;
+import net.momirealms.customcrops.common.util.Key;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * PlaceholderAPI expansion for harvest tracking system and world data.
  * 
@@ -42,11 +51,17 @@ import org.jetbrains.annotations.Nullable;
  * - %customcrops_season_<worldName>% - Season of specific world
  * - %customcrops_date% - Current date of player's world
  * - %customcrops_date_<worldName>% - Date of specific world
+ * - %customcrops_chunk_<mechanic>% - Number of blocks of a mechanic (crop, pot, sprinkler...) in the player's chunk
+ * - %customcrops_top_<cropId>_<rank>% - Name of the player at that rank ("total" ranks by total harvests)
+ * - %customcrops_top_<cropId>_<rank>_count% - Harvest count of the player at that rank
  */
 public class HarvestPlaceholderExpansion extends PlaceholderExpansion {
 
     private final BukkitCustomCropsPlugin plugin;
     private final HarvestDataManager dataManager;
+    private final Map<String, ParsedKey> parsedKeys = new ConcurrentHashMap<>();
+
+    private static final int MAX_CACHED_KEYS = 4096;
 
     public HarvestPlaceholderExpansion(BukkitCustomCropsPlugin plugin) {
         this.plugin = plugin;
@@ -79,37 +94,74 @@ public class HarvestPlaceholderExpansion extends PlaceholderExpansion {
     @Override
     @Nullable
     public String onRequest(OfflinePlayer offlinePlayer, @NotNull String params) {
-        String[] split = params.split("_", 2);
-        
-        switch (split[0]) {
-            case "season" -> {
-                if (split.length == 1) {
-                    Player player = offlinePlayer.getPlayer();
-                    if (player == null)
-                        return null;
-                    return plugin.getWorldManager().getSeason(player.getWorld()).translation();
-                } else {
-                    try {
-                        return plugin.getWorldManager().getSeason(Bukkit.getWorld(split[1])).translation();
-                    } catch (NullPointerException e) {
-                        plugin.getPluginLogger().severe("World " + split[1] + " does not exist");
-                    }
+        ParsedKey key = parsedKeys.get(params);
+        if (key == null) {
+            key = parse(params);
+            // params come from configs of other plugins, but never let a misbehaving caller grow the cache forever
+            if (parsedKeys.size() < MAX_CACHED_KEYS) {
+                parsedKeys.put(params, key);
+            }
+        }
+
+        switch (key.type) {
+            case SEASON -> {
+                Player player = offlinePlayer.getPlayer();
+                if (player == null)
+                    return null;
+                return plugin.getWorldManager().getSeason(player.getWorld()).translation();
+            }
+            case SEASON_OF_WORLD -> {
+                try {
+                    return plugin.getWorldManager().getSeason(Bukkit.getWorld(key.argument)).translation();
+                } catch (NullPointerException e) {
+                    plugin.getPluginLogger().severe("World " + key.argument + " does not exist");
+                    return null;
                 }
             }
-            case "date" -> {
-                if (split.length == 1) {
-                    Player player = offlinePlayer.getPlayer();
-                    if (player == null)
-                        return null;
-                    return String.valueOf(plugin.getWorldManager().getDate(player.getWorld()));
-                } else {
-                    try {
-                        return String.valueOf(plugin.getWorldManager().getDate(Bukkit.getWorld(split[1])));
-                    } catch (NullPointerException e) {
-                        plugin.getPluginLogger().severe("World " + split[1] + " does not exist");
-                    }
+            case DATE -> {
+                Player player = offlinePlayer.getPlayer();
+                if (player == null)
+                    return null;
+                return String.valueOf(plugin.getWorldManager().getDate(player.getWorld()));
+            }
+            case DATE_OF_WORLD -> {
+                try {
+                    return String.valueOf(plugin.getWorldManager().getDate(Bukkit.getWorld(key.argument)));
+                } catch (NullPointerException e) {
+                    plugin.getPluginLogger().severe("World " + key.argument + " does not exist");
+                    return null;
                 }
             }
+            case TOP_NAME, TOP_COUNT -> {
+                HarvestLeaderboard leaderboard = dataManager.getLeaderboard();
+                if (leaderboard == null)
+                    return "";
+                HarvestLeaderboard.Entry entry = leaderboard.get(key.argument, key.rank);
+                if (entry == null)
+                    return key.type == Type.TOP_COUNT ? "0" : "";
+                if (key.type == Type.TOP_COUNT)
+                    return String.valueOf(entry.count());
+                String name = leaderboard.getName(entry.playerId());
+                return name == null ? entry.playerId().toString() : name;
+            }
+            case CHUNK_BLOCKS -> {
+                Player player = offlinePlayer.getPlayer();
+                if (player == null)
+                    return null;
+                CustomCropsBlock block = plugin.getRegistryAccess().getBlockRegistry().get(
+                        key.argument.indexOf(':') >= 0 ? Key.key(key.argument) : Key.key("customcrops", key.argument));
+                if (block == null)
+                    return "0";
+                Location location = player.getLocation();
+                // never load the chunk here, that would read the region file on the calling thread
+                return String.valueOf(plugin.getWorldManager().getWorld(player.getWorld())
+                        .flatMap(world -> world.getLoadedChunk(ChunkPos.fromPos3(Pos3.from(location))))
+                        .map(chunk -> chunk.blockCount(block))
+                        .orElse(0));
+            }
+            case UNKNOWN -> {
+                return null;
+            }
         }
 
         // Handle harvest data placeholders - need online player for these
@@ -120,48 +172,86 @@ public class HarvestPlaceholderExpansion extends PlaceholderExpansion {
 
         PlayerHarvestData data = dataManager.getData(player.getUniqueId());
 
-        // %customcrops_total_harvests%
-        if (params.equals("total_harvests")) {
-            return String.valueOf(dataManager.getTotalHarvests(player.getUniqueId()));
-        }
+        return switch (key.type) {
+            case TOTAL_HARVESTS -> String.valueOf(dataManager.getTotalHarvests(player.getUniqueId()));
+            case UNIQUE_CROPS -> data != null ? String.valueOf(data.getHarvestCounts().size()) : "0";
+            case UNIQUE_QUALITIES -> data != null ? String.valueOf(data.getQualityItemCounts().size()) : "0";
+            case CROP -> String.valueOf(dataManager.getHarvestCount(player.getUniqueId(), key.argument));
+            case QUALITY -> String.valueOf(dataManager.getQualityItemCount(player.getUniqueId(), key.argument));
+            case HAS_HARVESTED -> dataManager.hasHarvested(player.getUniqueId(), key.argument) ? "true" : "false";
+            case HAS_QUALITY -> dataManager.hasObtainedQualityItem(player.getUniqueId(), key.argument) ? "true" : "false";
+            default -> null;
+        };
+    }
 
-        // %customcrops_unique_crops%
-        if (params.equals("unique_crops")) {
-            return data != null ? String.valueOf(data.getHarvestCounts().size()) : "0";
+    private static ParsedKey parse(String params) {
+        String[] split = params.split("_", 2);
+        switch (split[0]) {
+            case "season" -> {
+                return split.length == 1 ? new ParsedKey(Type.SEASON) : new ParsedKey(Type.SEASON_OF_WORLD, split[1]);
+            }
+            case "date" -> {
+                return split.length == 1 ? new ParsedKey(Type.DATE) : new ParsedKey(Type.DATE_OF_WORLD, split[1]);
+            }
+            case "chunk" -> {
+                if (split.length == 2) return new ParsedKey(Type.CHUNK_BLOCKS, split[1]);
+            }
         }
 
-        // %customcrops_unique_qualities%
-        if (params.equals("unique_qualities")) {
-            return data != null ? String.valueOf(data.getQualityItemCounts().size()) : "0";
-        }
+        if (params.equals("total_harvests")) return new ParsedKey(Type.TOTAL_HARVESTS);
+        if (params.equals("unique_crops")) return new ParsedKey(Type.UNIQUE_CROPS);
+        if (params.equals("unique_qualities")) return new ParsedKey(Type.UNIQUE_QUALITIES);
+        if (params.startsWith("crop_")) return new ParsedKey(Type.CROP, params.substring(5));
+        if (params.startsWith("quality_")) return new ParsedKey(Type.QUALITY, params.substring(8));
+        if (params.startsWith("has_harvested_")) return new ParsedKey(Type.HAS_HARVESTED, params.substring(14));
+        if (params.startsWith("has_quality_")) return new ParsedKey(Type.HAS_QUALITY, params.substring(12));
 
-        // %customcrops_crop_<cropId>%
-        if (params.startsWith("crop_")) {
-            String cropId = params.substring(5);
-            return String.valueOf(dataManager.getHarvestCount(player.getUniqueId(), cropId));
+        // %customcrops_top_<cropId>_<rank>% and %customcrops_top_<cropId>_<rank>_count%
+        if (params.startsWith("top_")) {
+            String rest = params.substring(4);
+            Type type = Type.TOP_NAME;
+            if (rest.endsWith("_count")) {
+                type = Type.TOP_COUNT;
+                rest = rest.substring(0, rest.length() - 6);
+            }
+            int index = rest.lastIndexOf('_');
+            if (index > 0) {
+                try {
+                    return new ParsedKey(type, rest.substring(0, index), Integer.parseInt(rest.substring(index + 1)));
+                } catch (NumberFormatException ignored) {
+                }
+            }
         }
 
-        // %customcrops_quality_<itemId>%
-        if (params.startsWith("quality_")) {
-            String itemId = params.substring(8);
-            return String.valueOf(dataManager.getQualityItemCount(player.getUniqueId(), itemId));
-        }
+        return new ParsedKey(Type.UNKNOWN);
+    }
 
-        // %customcrops_has_harvested_<cropId>%
-        if (params.startsWith("has_harvested_")) {
-            String cropId = params.substring(14);
-            boolean hasHarvested = dataManager.hasHarvested(player.getUniqueId(), cropId);
-            return hasHarvested ? "true" : "false";
-        }
+    private enum Type {
+        SEASON,
+        SEASON_OF_WORLD,
+        DATE,
+        DATE_OF_WORLD,
+        CHUNK_BLOCKS,
+        TOTAL_HARVESTS,
+        UNIQUE_CROPS,
+        UNIQUE_QUALITIES,
+        CROP,
+        QUALITY,
+        HAS_HARVESTED,
+        HAS_QUALITY,
+        TOP_NAME,
+        TOP_COUNT,
+        UNKNOWN
+    }
+
+    private record ParsedKey(Type type, String argument, int rank) {
 
-        // %customcrops_has_quality_<itemId>%
-        if (params.startsWith("has_quality_")) {
-            String itemId = params.substring(12);
-            boolean hasQuality = dataManager.hasObtainedQualityItem(player.getUniqueId(), itemId);
-            return hasQuality ? "true" : "false";
+        ParsedKey(Type type) {
+            this(type, null, 0);
         }
 
-        return null;
+        ParsedKey(Type type, String argument) {
+            this(type, argument, 0);
+        }
     }
 }
-
@@ -0,0 +1,279 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.bukkit.listener;
+
+import dev.dejvokep.boostedyaml.YamlDocument;
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.bukkit.config.BukkitConfigManager;
+import net.momirealms.customcrops.common.plugin.feature.Reloadable;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Structured stream of harvest events written as JSON lines.
+ * <p>
+ * Harvest threads only capture the values into a bounded ring buffer; formatting and file I/O
+ * happen on a background writer, which rotates the file once it exceeds the configured size.
+ * When the buffer is full, events are dropped and counted instead of blocking the tick.
+ */
+public class HarvestEventLogger implements Reloadable {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final BukkitCustomCropsPlugin plugin;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Level level = Level.OFF;
+    private volatile double sampleRate = 1;
+    private volatile ArrayBlockingQueue<HarvestEvent> buffer;
+    private long maxFileBytes;
+    private int maxFiles;
+    private Path file;
+    private Thread writerThread;
+
+    public HarvestEventLogger(BukkitCustomCropsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void load() {
+        YamlDocument config = BukkitConfigManager.getMainConfig();
+        this.level = Level.fromString(config.getString("other-settings.harvest-data.event-log.level", "off"));
+        if (level == Level.OFF) {
+            return;
+        }
+        this.sampleRate = Math.max(0, Math.min(1, config.getDouble("other-settings.harvest-data.event-log.sample-rate", 1.0)));
+        this.maxFileBytes = Math.max(1, config.getLong("other-settings.harvest-data.event-log.max-file-size", 10L)) * 1024 * 1024;
+        this.maxFiles = Math.max(1, config.getInt("other-settings.harvest-data.event-log.max-files", 5));
+        this.file = plugin.getDataDirectory().resolve("logs").resolve("harvest-events.jsonl");
+        this.buffer = new ArrayBlockingQueue<>(Math.max(64, config.getInt("other-settings.harvest-data.event-log.buffer-size", 8192)));
+        ArrayBlockingQueue<HarvestEvent> queue = this.buffer;
+        this.writerThread = new Thread(() -> drainLoop(queue), "CustomCrops-HarvestEvent-Writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void unload() {
+        this.level = Level.OFF;
+        Thread thread = this.writerThread;
+        this.writerThread = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.buffer = null;
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            plugin.getPluginLogger().warn("Dropped " + lost + " harvest events because the log buffer was full");
+        }
+    }
+
+    /**
+     * Draws the sample for one event. Callers use the result to skip building the event at all,
+     * and must draw only once per event so that the sample rate holds.
+     *
+     * @return the level to capture the event at, or {@link Level#OFF} if it should not be recorded
+     */
+    public Level sample() {
+        Level current = this.level;
+        if (current == Level.OFF) {
+            return Level.OFF;
+        }
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate ? current : Level.OFF;
+    }
+
+    /**
+     * Gets the current level.
+     *
+     * @return the level
+     */
+    public Level level() {
+        return level;
+    }
+
+    /**
+     * Enqueues an event without blocking.
+     *
+     * @param event the event
+     */
+    public void log(HarvestEvent event) {
+        ArrayBlockingQueue<HarvestEvent> queue = this.buffer;
+        if (queue != null && !queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drainLoop(ArrayBlockingQueue<HarvestEvent> queue) {
+        List<HarvestEvent> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder builder = new StringBuilder(256);
+        boolean running = true;
+        while (running) {
+            try {
+                HarvestEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            queue.drainTo(batch, BATCH_SIZE - batch.size());
+            if (!running) {
+                // write everything left before exiting
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                write(batch, builder);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<HarvestEvent> batch, StringBuilder builder) {
+        try {
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+                rotate();
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (HarvestEvent event : batch) {
+                    builder.setLength(0);
+                    event.appendJson(builder);
+                    writer.write(builder.toString());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            plugin.getPluginLogger().warn("Failed to write harvest events", e);
+        }
+    }
+
+    /**
+     * Shifts harvest-events.jsonl -> harvest-events.1.jsonl -> ... and deletes the oldest one.
+     */
+    private void rotate() throws IOException {
+        Path directory = file.getParent();
+        Files.deleteIfExists(directory.resolve("harvest-events." + maxFiles + ".jsonl"));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = directory.resolve("harvest-events." + i + ".jsonl");
+            if (Files.exists(source)) {
+                Files.move(source, directory.resolve("harvest-events." + (i + 1) + ".jsonl"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, directory.resolve("harvest-events.1.jsonl"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public enum Level {
+        /**
+         * Nothing is recorded.
+         */
+        OFF,
+        /**
+         * One event per harvest.
+         */
+        HARVEST,
+        /**
+         * One event per harvest including the dropped quality items.
+         */
+        DETAILED;
+
+        public static Level fromString(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                return OFF;
+            }
+        }
+    }
+
+    /**
+     * A captured harvest. Item IDs and amounts are parallel arrays and are empty unless the level is {@link Level#DETAILED}.
+     */
+    public record HarvestEvent(long time, UUID player, String playerName, String world, int x, int y, int z,
+                               @Nullable String cropId, boolean counted, String[] itemIds, int[] amounts) {
+
+        private void appendJson(StringBuilder builder) {
+            builder.append("{\"time\":").append(time)
+                    .append(",\"player\":\"").append(player).append('"')
+                    .append(",\"name\":");
+            appendString(builder, playerName);
+            builder.append(",\"world\":");
+            appendString(builder, world);
+            builder.append(",\"x\":").append(x)
+                    .append(",\"y\":").append(y)
+                    .append(",\"z\":").append(z)
+                    .append(",\"crop\":");
+            appendString(builder, cropId);
+            builder.append(",\"counted\":").append(counted);
+            if (itemIds.length > 0) {
+                builder.append(",\"items\":[");
+                for (int i = 0; i < itemIds.length; i++) {
+                    if (i > 0) builder.append(',');
+                    builder.append("{\"id\":");
+                    appendString(builder, itemIds[i]);
+                    builder.append(",\"amount\":").append(amounts[i]).append('}');
+                }
+                builder.append(']');
+            }
+            builder.append('}');
+        }
+
+        private static void appendString(StringBuilder builder, @Nullable String value) {
+            if (value == null) {
+                builder.append("null");
+                return;
+            }
+            builder.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> builder.append("\\\"");
+                    case '\\' -> builder.append("\\\\");
+                    case '\n' -> builder.append("\\n");
+                    case '\r' -> builder.append("\\r");
+                    case '\t' -> builder.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            builder.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            builder.append(c);
+                        }
+                    }
+                }
+            }
+            builder.append('"');
+        }
+    }
+}
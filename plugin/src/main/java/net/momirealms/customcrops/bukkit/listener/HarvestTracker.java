@@ -19,13 +19,18 @@ package net.momirealms.customcrops.bukkit.listener;
 
 import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
 import net.momirealms.customcrops.api.data.HarvestDataManager;
+import net.momirealms.customcrops.api.data.HarvestIds;
 import net.momirealms.customcrops.api.event.QualityCropActionEvent;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Listens to crop break events and tracks harvest statistics.
  */
@@ -33,16 +38,22 @@ public class HarvestTracker implements Listener {
 
     private final BukkitCustomCropsPlugin plugin;
     private final HarvestDataManager dataManager;
+    private final HarvestEventLogger eventLogger;
+
+    private static final String[] EMPTY_IDS = new String[0];
+    private static final int[] EMPTY_AMOUNTS = new int[0];
 
     /**
      * Creates a new HarvestTracker.
      *
      * @param plugin The plugin instance
      * @param dataManager The harvest data manager
+     * @param eventLogger The structured harvest event logger
      */
-    public HarvestTracker(BukkitCustomCropsPlugin plugin, HarvestDataManager dataManager) {
+    public HarvestTracker(BukkitCustomCropsPlugin plugin, HarvestDataManager dataManager, HarvestEventLogger eventLogger) {
         this.plugin = plugin;
         this.dataManager = dataManager;
+        this.eventLogger = eventLogger;
     }
 
     /**
@@ -52,61 +63,29 @@ public class HarvestTracker implements Listener {
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onQualityCropDrop(QualityCropActionEvent event) {
         // Only count if the context holder is a player
-        final Player player;
-        
-        if (event.context().holder() instanceof Player) {
-            player = (Player) event.context().holder();
-        } else {
-            return; // Skip if holder is not a player
-        }
-        
-        // Debug: Log raw quality crops array
-        String[] qualityCrops = event.qualityCrops();
-        plugin.getPluginLogger().info("[HarvestTracker] Player: " + player.getName() + 
-                                     ", Quality Crops Array: " + java.util.Arrays.toString(qualityCrops) +
-                                     ", Items Count: " + event.items().size());
-        
-        // Get crop ID from quality loots (first entry is typically the base crop)
-        String cropId = null;
-        if (qualityCrops != null && qualityCrops.length > 0 && qualityCrops[0] != null && !qualityCrops[0].isEmpty()) {
-            cropId = qualityCrops[0];
-            
-            plugin.getPluginLogger().info("[HarvestTracker] Original Crop ID: " + cropId);
-            
-            // Remove namespace prefix (e.g., "customcrops:orange_bell_pepper" -> "orange_bell_pepper")
-            if (cropId.contains(":")) {
-                cropId = cropId.substring(cropId.indexOf(":") + 1);
-                plugin.getPluginLogger().info("[HarvestTracker] Removed Namespace, New ID: " + cropId);
-            }
-            
-            // Extract base crop name if the ID contains quality suffix (at the END)
-            // e.g., "strawberry_gold" -> "strawberry"
-            // But keep names like "orange_bell_pepper" intact
-            if (cropId.endsWith("_gold") || cropId.endsWith("_silver") || cropId.endsWith("_normal")) {
-                cropId = cropId.replaceAll("_(gold|silver|normal)$", "");
-                plugin.getPluginLogger().info("[HarvestTracker] Stripped Quality Suffix, New ID: " + cropId);
-            }
+        if (!(event.context().holder() instanceof Player player)) {
+            return;
         }
-        
-        // Count harvest if we have a valid crop ID and items were dropped
-        if (cropId != null && !cropId.isEmpty() && !event.items().isEmpty()) {
+
+        // The crop ID is normalized once when the action is loaded
+        String cropId = event.cropId();
+        boolean counted = cropId != null && !cropId.isEmpty() && !event.items().isEmpty();
+        if (counted) {
             dataManager.addHarvest(player.getUniqueId(), cropId, 1);
-            
-            final String finalCropId = cropId;
-            plugin.getPluginLogger().info(String.format(
-                "[HarvestTracker] Player %s harvested crop %s (Total: %d, Crop: %d)",
-                player.getName(),
-                finalCropId,
-                dataManager.getTotalHarvests(player.getUniqueId()),
-                dataManager.getHarvestCount(player.getUniqueId(), finalCropId)
-            ));
         } else {
-            plugin.getPluginLogger().warn("[HarvestTracker] NOT COUNTED - CropID: " + cropId + 
-                                         ", Items Empty: " + event.items().isEmpty());
+            plugin.debug(() -> "[HarvestTracker] Not counted - CropID: " + event.cropId() + ", Items Empty: " + event.items().isEmpty());
         }
-        
+
+        HarvestEventLogger.Level captured = eventLogger.sample();
+        boolean detailed = captured == HarvestEventLogger.Level.DETAILED;
+        String[] qualityCrops = event.qualityCrops();
+        List<ItemStack> items = event.items();
+        String[] itemIds = detailed ? new String[items.size()] : EMPTY_IDS;
+        int[] amounts = detailed ? new int[items.size()] : EMPTY_AMOUNTS;
+        int tracked = 0;
+
         // Track each quality item dropped
-        for (ItemStack item : event.items()) {
+        for (ItemStack item : items) {
             if (item == null || item.getType().isAir()) {
                 continue;
             }
@@ -116,16 +95,28 @@ public class HarvestTracker implements Listener {
             
             if (itemId != null && !itemId.isEmpty()) {
                 dataManager.addQualityItem(player.getUniqueId(), itemId, item.getAmount());
-                
-                // Debug logging if enabled
-                plugin.debug(() -> String.format(
-                    "Player %s obtained quality item %s x%d",
-                    player.getName(),
-                    itemId,
-                    item.getAmount()
-                ));
+                if (detailed) {
+                    itemIds[tracked] = itemId;
+                    amounts[tracked] = item.getAmount();
+                    tracked++;
+                }
             }
         }
+
+        if (captured != HarvestEventLogger.Level.OFF) {
+            Location location = event.location();
+            eventLogger.log(new HarvestEventLogger.HarvestEvent(
+                    System.currentTimeMillis(),
+                    player.getUniqueId(),
+                    player.getName(),
+                    location.getWorld() == null ? null : location.getWorld().getName(),
+                    location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+                    cropId,
+                    counted,
+                    tracked == itemIds.length ? itemIds : Arrays.copyOf(itemIds, tracked),
+                    tracked == amounts.length ? amounts : Arrays.copyOf(amounts, tracked)
+            ));
+        }
     }
 
     /**
@@ -137,10 +128,7 @@ public class HarvestTracker implements Listener {
         String itemId = plugin.getItemManager().id(item);
         if (itemId != null && !itemId.isEmpty()) {
             // Remove namespace prefix if present
-            if (itemId.contains(":")) {
-                itemId = itemId.substring(itemId.indexOf(":") + 1);
-            }
-            return itemId;
+            return HarvestIds.stripNamespace(itemId);
         }
         
         // Fallback: check if any quality crop ID matches
@@ -150,10 +138,7 @@ public class HarvestTracker implements Listener {
                 ItemStack builtItem = plugin.getItemManager().build(null, cropId);
                 if (builtItem != null && builtItem.isSimilar(item)) {
                     // Remove namespace prefix before returning
-                    if (cropId.contains(":")) {
-                        return cropId.substring(cropId.indexOf(":") + 1);
-                    }
-                    return cropId;
+                    return HarvestIds.stripNamespace(cropId);
                 }
             }
         }
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (C) <2024> <XiaoMoMi>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.momirealms.customcrops.bukkit.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.dejvokep.boostedyaml.YamlDocument;
+import net.momirealms.customcrops.api.BukkitCustomCropsPlugin;
+import net.momirealms.customcrops.api.core.block.CustomCropsBlock;
+import net.momirealms.customcrops.api.core.world.*;
+import net.momirealms.customcrops.api.misc.HologramManager;
+import net.momirealms.customcrops.api.misc.metrics.MetricsRegistry;
+import net.momirealms.customcrops.bukkit.config.BukkitConfigManager;
+import net.momirealms.customcrops.common.plugin.feature.Reloadable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Registers the gauges that are computed from the plugin state and serves
+ * {@link MetricsRegistry} over HTTP in the Prometheus text format when enabled.
+ */
+public class PrometheusExporter implements Reloadable {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final BukkitCustomCropsPlugin plugin;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PrometheusExporter(BukkitCustomCropsPlugin plugin) {
+        this.plugin = plugin;
+        this.registerGauges();
+    }
+
+    @Override
+    public void load() {
+        YamlDocument config = BukkitConfigManager.getMainConfig();
+        if (!config.getBoolean("other-settings.metrics-exporter.enable", false)) {
+            return;
+        }
+        String host = config.getString("other-settings.metrics-exporter.host", "127.0.0.1");
+        int port = config.getInt("other-settings.metrics-exporter.port", 9464);
+        String path = config.getString("other-settings.metrics-exporter.path", "/metrics");
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException e) {
+            plugin.getPluginLogger().warn("Failed to start the metrics endpoint on " + host + ":" + port, e);
+            return;
+        }
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "CustomCrops-Metrics-Exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+        this.server.createContext(path, this::handle);
+        this.server.start();
+        plugin.getPluginLogger().info("Serving metrics on http://" + host + ":" + port + path);
+    }
+
+    @Override
+    public void unload() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.server = null;
+        }
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = MetricsRegistry.getInstance().scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private void registerGauges() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.gauge("customcrops_loaded_chunks", "Chunks being ticked", sink -> {
+            for (CustomCropsWorld<?> world : plugin.getWorldManager().loadedWorlds()) {
+                sink.set(world.loadedChunks().length, world.worldName());
+            }
+        }, "world");
+        registry.gauge("customcrops_lazy_chunks", "Unloaded chunks kept in memory before saving", sink -> {
+            for (CustomCropsWorld<?> world : plugin.getWorldManager().loadedWorlds()) {
+                sink.set(world.lazyChunks().length, world.worldName());
+            }
+        }, "world");
+        registry.gauge("customcrops_loaded_regions", "Regions kept in memory", sink -> {
+            for (CustomCropsWorld<?> world : plugin.getWorldManager().loadedWorlds()) {
+                sink.set(world.loadedRegions().length, world.worldName());
+            }
+        }, "world");
+        registry.gauge("customcrops_region_cache_bytes", "Serialized chunk data cached by the loaded regions", sink -> {
+            for (CustomCropsWorld<?> world : plugin.getWorldManager().loadedWorlds()) {
+                long bytes = 0;
+                for (CustomCropsRegion region : world.loadedRegions()) {
+                    bytes += region.cachedBytes();
+                }
+                sink.set(bytes, world.worldName());
+            }
+        }, "world");
+        registry.gauge("customcrops_tracked_blocks", "Blocks stored in loaded and lazy chunks", sink -> {
+            for (CustomCropsWorld<?> world : plugin.getWorldManager().loadedWorlds()) {
+                Map<String, Integer> counts = new HashMap<>();
+                countBlocks(world.loadedChunks(), counts);
+                countBlocks(world.lazyChunks(), counts);
+                for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                    sink.set(entry.getValue(), world.worldName(), entry.getKey());
+                }
+            }
+        }, "world", "type");
+        registry.gauge("customcrops_harvest_data_pending_flushes", "Players whose harvest data is waiting to be written", sink ->
+                sink.set(plugin.getHarvestDataManager().pendingFlushCount()));
+        registry.gauge("customcrops_harvest_data_cached_players", "Players whose harvest data is cached", sink ->
+                sink.set(plugin.getHarvestDataManager().cachedPlayerCount()));
+        registry.gauge("customcrops_delayed_tasks", "Delayed tasks waiting in the timing wheel", sink ->
+                sink.set(plugin.getTaskWheel().pendingTasks()));
+        registry.gauge("customcrops_holograms", "Holograms currently shown to players", sink -> {
+            HologramManager manager = HologramManager.getInstance();
+            sink.set(manager == null ? 0 : manager.activeHologramCount());
+        });
+    }
+
+    private static void countBlocks(CustomCropsChunk[] chunks, Map<String, Integer> counts) {
+        for (CustomCropsChunk chunk : chunks) {
+            for (Map.Entry<CustomCropsBlock, Integer> entry : chunk.blockCounts().entrySet()) {
+                counts.merge(entry.getKey().type().asString(), entry.getValue(), Integer::sum);
+            }
+        }
+    }
+}
@@ -224,10 +224,16 @@ public class PlayerRequirementManager extends AbstractRequirementManager<Player>
         registerRequirement((args, actions, runActions) -> {
             if (args instanceof Section section) {
                 String key = section.getString("key");
+                if (key == null) {
+                    plugin.getPluginLogger().warn("Missing key found at cooldown requirement " + section.getRouteAsString());
+                    // requirements without a key have always shared one cooldown
+                    key = "";
+                }
+                int keyId = plugin.getCoolDownManager().keyId(key);
                 int time = section.getInt("time");
                 return context -> {
                     if (context.holder() == null) return true;
-                    if (!plugin.getCoolDownManager().isCoolDown(context.holder().getUniqueId(), key, time))
+                    if (!plugin.getCoolDownManager().isCoolDown(context.holder().getUniqueId(), keyId, time))
                         return true;
                     if (runActions) ActionManager.trigger(context, actions);
                     return false;
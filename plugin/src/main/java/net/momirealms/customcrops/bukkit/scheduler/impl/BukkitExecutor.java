@@ -25,6 +25,7 @@
 
 package net.momirealms.customcrops.bukkit.scheduler.impl;
 
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.bukkit.scheduler.DummyTask;
 import net.momirealms.customcrops.common.plugin.scheduler.RegionExecutor;
 import net.momirealms.customcrops.common.plugin.scheduler.SchedulerTask;
@@ -47,7 +48,7 @@ public class BukkitExecutor implements RegionExecutor<Location, World> {
         if (Bukkit.isPrimaryThread()) {
             r.run();
         } else {
-            Bukkit.getScheduler().runTask(plugin, r);
+            Bukkit.getScheduler().runTask(plugin, TickProfiler.wrapSync(r));
         }
     }
 
@@ -63,7 +64,7 @@ public class BukkitExecutor implements RegionExecutor<Location, World> {
                 r.run();
                 return new DummyTask();
             } else {
-                return new BukkitCancellable(Bukkit.getScheduler().runTask(plugin, r));
+                return new BukkitCancellable(Bukkit.getScheduler().runTask(plugin, TickProfiler.wrapSync(r)));
             }
         }
         return new BukkitCancellable(Bukkit.getScheduler().runTaskLater(plugin, r, delayTicks));
@@ -26,6 +26,7 @@
 package net.momirealms.customcrops.bukkit.scheduler.impl;
 
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.momirealms.customcrops.api.misc.profiler.TickProfiler;
 import net.momirealms.customcrops.common.plugin.scheduler.RegionExecutor;
 import net.momirealms.customcrops.common.plugin.scheduler.SchedulerTask;
 import org.bukkit.Bukkit;
@@ -45,12 +46,13 @@ public class FoliaExecutor implements RegionExecutor<Location, World> {
 
     @Override
     public void run(Runnable r, Location l) {
-        Optional.ofNullable(l).ifPresentOrElse(loc -> Bukkit.getRegionScheduler().execute(plugin, loc, r), () -> Bukkit.getGlobalRegionScheduler().execute(plugin, r));
+        Runnable task = TickProfiler.wrapSync(r);
+        Optional.ofNullable(l).ifPresentOrElse(loc -> Bukkit.getRegionScheduler().execute(plugin, loc, task), () -> Bukkit.getGlobalRegionScheduler().execute(plugin, task));
     }
 
     @Override
     public void run(Runnable r, World world, int x, int z) {
-        Bukkit.getRegionScheduler().execute(plugin, world, x, z, r);
+        Bukkit.getRegionScheduler().execute(plugin, world, x, z, TickProfiler.wrapSync(r));
     }
 
     @Override
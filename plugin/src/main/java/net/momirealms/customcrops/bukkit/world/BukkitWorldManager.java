@@ -25,11 +25,13 @@ import net.momirealms.customcrops.api.core.TickMode;
 import net.momirealms.customcrops.api.core.world.*;
 import net.momirealms.customcrops.api.core.world.adaptor.WorldAdaptor;
 import net.momirealms.customcrops.api.integration.SeasonProvider;
+import net.momirealms.customcrops.api.misc.metrics.CustomCropsMetrics;
 import net.momirealms.customcrops.bukkit.config.BukkitConfigManager;
 import net.momirealms.customcrops.bukkit.integration.adaptor.BukkitWorldAdaptor;
 import net.momirealms.customcrops.bukkit.integration.adaptor.asp_r1.SlimeWorldAdaptorR1;
 import net.momirealms.customcrops.bukkit.integration.adaptor.asp_r2.SlimeWorldAdaptorR2;
 import net.momirealms.customcrops.common.helper.VersionHelper;
+import net.momirealms.customcrops.common.plugin.scheduler.SchedulerTask;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.World;
@@ -42,6 +44,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 public class BukkitWorldManager implements WorldManager, Listener {
     private final BukkitCustomCropsPlugin plugin;
@@ -52,6 +56,9 @@ public class BukkitWorldManager implements WorldManager, Listener {
     private MatchRule matchRule;
     private HashSet<String> worldList;
     private SeasonProvider seasonProvider;
+    private final List<SeasonListener> seasonListeners = new CopyOnWriteArrayList<>();
+    private SchedulerTask seasonRefreshTask;
+    private SchedulerTask regionCacheTask;
 
     public BukkitWorldManager(BukkitCustomCropsPlugin plugin) {
         this.plugin = plugin;
@@ -102,6 +109,9 @@ public class BukkitWorldManager implements WorldManager, Listener {
 
     public void seasonProvider(SeasonProvider seasonProvider) {
         this.seasonProvider = seasonProvider;
+        for (CustomCropsWorld<?> world : worlds.values()) {
+            refreshSeasonState(world);
+        }
     }
 
     @Override
@@ -111,6 +121,104 @@ public class BukkitWorldManager implements WorldManager, Listener {
 
     @Override
     public Season getSeason(World world) {
+        CustomCropsWorld<?> customCropsWorld = worlds.get(world.getName());
+        if (customCropsWorld != null) {
+            return customCropsWorld.seasonState().season();
+        }
+        return querySeason(world);
+    }
+
+    @Override
+    public int getDate(World world) {
+        CustomCropsWorld<?> customCropsWorld = worlds.get(world.getName());
+        if (customCropsWorld != null) {
+            return customCropsWorld.seasonState().date();
+        }
+        return queryDate(world);
+    }
+
+    @Override
+    public SeasonState refreshSeasonState(CustomCropsWorld<?> world) {
+        World bukkitWorld = world.bukkitWorld();
+        if (bukkitWorld == null) {
+            return world.seasonState();
+        }
+        SeasonState current;
+        SeasonState previous;
+        // query and swap under the world's lock, so that a stale result never overwrites a newer
+        // one and only the thread that made the change notifies the listeners
+        synchronized (world) {
+            current = new SeasonState(querySeason(bukkitWorld), queryDate(bukkitWorld));
+            if (current.equals(world.seasonState())) {
+                return current;
+            }
+            previous = world.seasonState(current);
+        }
+        for (SeasonListener listener : seasonListeners) {
+            try {
+                listener.onSeasonChange(world, previous, current);
+            } catch (Exception e) {
+                plugin.getPluginLogger().warn("Error occurred while notifying a season listener", e);
+            }
+        }
+        // other worlds follow the reference world, so don't make them wait for the next refresh
+        if (ConfigManager.syncSeasons() && ConfigManager.referenceWorld().equals(world.worldName())) {
+            for (CustomCropsWorld<?> other : worlds.values()) {
+                if (other != world) {
+                    refreshSeasonState(other);
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void addSeasonListener(SeasonListener listener) {
+        this.seasonListeners.add(listener);
+    }
+
+    @Override
+    public void removeSeasonListener(SeasonListener listener) {
+        this.seasonListeners.remove(listener);
+    }
+
+    private void refreshSeasonStates() {
+        for (CustomCropsWorld<?> world : worlds.values()) {
+            refreshSeasonState(world);
+        }
+    }
+
+    /**
+     * Unloads the least recently used idle regions until the cached chunk data of all
+     * the worlds fits in the configured memory budget again. Each world frees its share
+     * of the excess on its own thread.
+     */
+    private void trimRegionCache() {
+        long budget = ConfigManager.regionCacheMaxMemory();
+        Map<CustomCropsWorld<?>, Long> worldBytes = new HashMap<>();
+        long total = 0;
+        for (CustomCropsWorld<?> world : worlds.values()) {
+            long bytes = 0;
+            for (CustomCropsRegion region : world.loadedRegions()) {
+                bytes += region.cachedBytes();
+            }
+            worldBytes.put(world, bytes);
+            total += bytes;
+        }
+        if (total <= budget) {
+            return;
+        }
+        long excess = total - budget;
+        for (Map.Entry<CustomCropsWorld<?>, Long> entry : worldBytes.entrySet()) {
+            long share = (long) Math.ceil((double) excess * entry.getValue() / total);
+            if (share > 0) {
+                CustomCropsWorld<?> world = entry.getKey();
+                world.scheduler().async().execute(() -> world.unloadIdleRegions(share));
+            }
+        }
+    }
+
+    private Season querySeason(World world) {
         if (ConfigManager.syncSeasons()) {
             World reference = Bukkit.getWorld(ConfigManager.referenceWorld());
             if (reference != null) {
@@ -123,8 +231,7 @@ public class BukkitWorldManager implements WorldManager, Listener {
         }
     }
 
-    @Override
-    public int getDate(World world) {
+    private int queryDate(World world) {
         if (ConfigManager.syncSeasons()) {
             World reference = Bukkit.getWorld(ConfigManager.referenceWorld());
             if (reference != null) {
@@ -153,12 +260,25 @@ public class BukkitWorldManager implements WorldManager, Listener {
     public void load() {
         this.loadConfig();
         Bukkit.getPluginManager().registerEvents(this, plugin.getBootstrap());
+        // season providers don't report changes, so poll them once per second instead of once per block
+        this.seasonRefreshTask = plugin.getScheduler().asyncRepeating(this::refreshSeasonStates, 1, 1, TimeUnit.SECONDS);
+        if (ConfigManager.regionCacheMaxMemory() > 0) {
+            this.regionCacheTask = plugin.getScheduler().asyncRepeating(this::trimRegionCache, 5, 5, TimeUnit.SECONDS);
+        }
     }
 
     @Override
     public void unload() {
         HandlerList.unregisterAll(this);
         this.worldSettings.clear();
+        if (this.seasonRefreshTask != null) {
+            this.seasonRefreshTask.cancel();
+            this.seasonRefreshTask = null;
+        }
+        if (this.regionCacheTask != null) {
+            this.regionCacheTask.cancel();
+            this.regionCacheTask = null;
+        }
     }
 
     @Override
@@ -221,11 +341,13 @@ public class BukkitWorldManager implements WorldManager, Listener {
         if (optionalWorld.isPresent()) {
             CustomCropsWorld<?> customCropsWorld = optionalWorld.get();
             customCropsWorld.setting(Optional.ofNullable(worldSettings.get(world.worldName())).orElse(defaultWorldSetting));
+            refreshSeasonState(customCropsWorld);
             return customCropsWorld;
         }
         world.setting(Optional.ofNullable(worldSettings.get(world.worldName())).orElse(defaultWorldSetting));
         world.setTicking(true);
         this.worlds.put(world.worldName(), world);
+        refreshSeasonState(world);
         for (Chunk chunk : world.bukkitWorld().getLoadedChunks()) {
             ChunkPos pos = ChunkPos.fromBukkitChunk(chunk);
             loadLoadedChunk(world, pos);
@@ -240,12 +362,14 @@ public class BukkitWorldManager implements WorldManager, Listener {
         if (optionalWorld.isPresent()) {
             CustomCropsWorld<?> customCropsWorld = optionalWorld.get();
             customCropsWorld.setting(Optional.ofNullable(worldSettings.get(world.getName())).orElse(defaultWorldSetting));
+            refreshSeasonState(customCropsWorld);
             return customCropsWorld;
         }
         CustomCropsWorld<?> adaptedWorld = adapt(world);
         adaptedWorld.setting(Optional.ofNullable(worldSettings.get(world.getName())).orElse(defaultWorldSetting));
         adaptedWorld.setTicking(true);
         this.worlds.put(world.getName(), adaptedWorld);
+        refreshSeasonState(adaptedWorld);
         for (Chunk chunk : world.getLoadedChunks()) {
             ChunkPos pos = ChunkPos.fromBukkitChunk(chunk);
             loadLoadedChunk(adaptedWorld, pos);
@@ -278,6 +402,7 @@ public class BukkitWorldManager implements WorldManager, Listener {
         plugin.debug(() -> "Saving -> Shutdown");
         removedWorld.scheduler().shutdownScheduler();
         removedWorld.scheduler().shutdownExecutor();
+        CustomCropsMetrics.removeWorld(removedWorld.worldName());
         plugin.debug(() -> "Finished Shutdown");
         return true;
     }
@@ -306,6 +431,7 @@ public class BukkitWorldManager implements WorldManager, Listener {
     public void onChunkUnload(ChunkUnloadEvent event) {
         final Chunk chunk = event.getChunk();
         final World world = event.getWorld();
+        this.plugin.getTaskWheel().cancelChunk(world, chunk.getX(), chunk.getZ());
         this.getWorld(world)
                 .flatMap(customWorld -> customWorld.getLoadedChunk(ChunkPos.fromBukkitChunk(chunk)))
                 .ifPresent(customChunk -> customChunk.unload(true));
@@ -362,6 +488,11 @@ public class BukkitWorldManager implements WorldManager, Listener {
         return Optional.ofNullable(worlds.get(world));
     }
 
+    @Override
+    public Collection<CustomCropsWorld<?>> loadedWorlds() {
+        return new ArrayList<>(worlds.values());
+    }
+
     @Override
     public boolean isWorldLoaded(World world) {
         return worlds.containsKey(world.getName());
@@ -12,4 +12,5 @@ include(":compatibility-nexo-r1")
 include(":compatibility-itemsadder-r1")
 include(":compatibility-itemsadder-r2")
 include(":compatibility-crucible-r1")
-include(":compatibility-craftengine-r1")
\ No newline at end of file
+include(":compatibility-craftengine-r1")
+include(":benchmarks")
\ No newline at end of file